@@ -0,0 +1,82 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.atlauncher.utils.ArchiveUtils;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * Extracting and creating zips, as done when importing and exporting modpacks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ArchiveBenchmark {
+    private Path directory;
+    private Path sourceDirectory;
+    private Path archive;
+    private Path extractTo;
+    private Path createdArchive;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = BenchmarkFixtures.createTempDirectory("archive");
+        sourceDirectory = BenchmarkFixtures.createDirectoryTree(directory.resolve("source"), 500, 16 * 1024);
+        archive = directory.resolve("source.zip");
+        ArchiveUtils.createZip(sourceDirectory, archive);
+
+        extractTo = directory.resolve("extracted");
+        createdArchive = directory.resolve("created.zip");
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanInvocation() throws IOException {
+        FileUtils.deleteDirectoryQuietly(extractTo);
+        Files.deleteIfExists(createdArchive);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public boolean extract() {
+        return ArchiveUtils.extract(archive, extractTo);
+    }
+
+    @Benchmark
+    public boolean createZip() {
+        return ArchiveUtils.createZip(sourceDirectory, createdArchive);
+    }
+}
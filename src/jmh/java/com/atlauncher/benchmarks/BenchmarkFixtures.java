@@ -0,0 +1,193 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * Generates the files and json used by the benchmarks so that they can be run offline. Everything is generated from
+ * a fixed seed so that runs are comparable with each other.
+ */
+public final class BenchmarkFixtures {
+    private static final long SEED = 0x41544C61756E6368L;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Path createTempDirectory(String name) throws IOException {
+        return Files.createTempDirectory("atlauncher-jmh-" + name);
+    }
+
+    public static void deleteDirectory(Path directory) {
+        if (directory != null) {
+            FileUtils.deleteDirectoryQuietly(directory);
+        }
+    }
+
+    /**
+     * Writes a file of random bytes. Some text like content is mixed in so that the whitespace stripping in the murmur
+     * fingerprint has something to do, much like a real jar with plain text resources.
+     */
+    public static Path randomFile(Path file, int size) throws IOException {
+        Random random = new Random(SEED + size);
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+
+        for (int i = 0; i < size; i += 64) {
+            bytes[i] = (byte) ' ';
+        }
+
+        FileUtils.createDirectory(file.getParent());
+        Files.write(file, bytes);
+        return file;
+    }
+
+    /**
+     * Creates a jar with the given number of class like entries spread across a handful of packages, similar in shape
+     * to a Minecraft or mod jar.
+     */
+    public static Path createJar(Path file, String prefix, int entries, int entrySize) throws IOException {
+        Random random = new Random(SEED + entries);
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+
+        FileUtils.createDirectory(file.getParent());
+        try (OutputStream os = Files.newOutputStream(file); JarOutputStream jos = new JarOutputStream(os, manifest)) {
+            byte[] buffer = new byte[entrySize];
+
+            for (int i = 0; i < entries; i++) {
+                random.nextBytes(buffer);
+                jos.putNextEntry(new JarEntry(
+                        String.format(Locale.ENGLISH, "%s/pkg%d/Class%d.class", prefix, i % 16, i)));
+                jos.write(buffer);
+                jos.closeEntry();
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * Creates a directory tree of random files to use as the source for zipping.
+     */
+    public static Path createDirectoryTree(Path directory, int files, int fileSize) throws IOException {
+        for (int i = 0; i < files; i++) {
+            randomFile(directory.resolve(String.format(Locale.ENGLISH, "dir%d/file%d.bin", i % 10, i)), fileSize);
+        }
+
+        return directory;
+    }
+
+    public static String assetIndexJson(int objects) {
+        Random random = new Random(SEED);
+        StringBuilder sb = new StringBuilder("{\"objects\":{");
+
+        for (int i = 0; i < objects; i++) {
+            if (i != 0) {
+                sb.append(',');
+            }
+
+            sb.append(String.format(Locale.ENGLISH,
+                    "\"minecraft/sounds/generated/sound%d.ogg\":{\"hash\":\"%s\",\"size\":%d}", i,
+                    randomHex(random, 40), random.nextInt(1024 * 1024)));
+        }
+
+        return sb.append("}}").toString();
+    }
+
+    public static String minecraftVersionJson(int libraries) {
+        StringBuilder sb = new StringBuilder("{");
+        appendMinecraftVersionFields(sb, libraries);
+        return sb.append('}').toString();
+    }
+
+    public static String instanceJson(int libraries, int mods) {
+        Random random = new Random(SEED + mods);
+        StringBuilder sb = new StringBuilder("{");
+        appendMinecraftVersionFields(sb, libraries);
+        sb.append(",\"launcher\":{\"name\":\"Benchmark Instance\",\"pack\":\"Benchmark Pack\",\"version\":\"1.0.0\",");
+        sb.append("\"isPlayable\":true,\"mods\":[");
+
+        for (int i = 0; i < mods; i++) {
+            if (i != 0) {
+                sb.append(',');
+            }
+
+            sb.append(String.format(Locale.ENGLISH,
+                    "{\"name\":\"Mod %d\",\"version\":\"1.%d.0\",\"optional\":false,\"file\":\"mod-%d.jar\","
+                            + "\"type\":\"mods\",\"description\":\"A mod\",\"disabled\":false,"
+                            + "\"userAdded\":false,\"wasSelected\":true,\"skipped\":false,"
+                            + "\"curseForgeProjectId\":%d,\"curseForgeFileId\":%d}",
+                    i, i, i, random.nextInt(1000000), random.nextInt(5000000)));
+        }
+
+        return sb.append("]}}").toString();
+    }
+
+    private static void appendMinecraftVersionFields(StringBuilder sb, int libraries) {
+        Random random = new Random(SEED + libraries);
+
+        sb.append("\"id\":\"1.20.1\",\"type\":\"release\",\"mainClass\":\"net.minecraft.client.main.Main\",");
+        sb.append("\"assets\":\"5\",\"complianceLevel\":1,\"minimumLauncherVersion\":21,");
+        sb.append("\"time\":\"2023-06-12T12:24:15+00:00\",\"releaseTime\":\"2023-06-12T12:24:15+00:00\",");
+        sb.append("\"javaVersion\":{\"component\":\"java-runtime-gamma\",\"majorVersion\":17},");
+        sb.append(String.format(Locale.ENGLISH,
+                "\"assetIndex\":{\"id\":\"5\",\"sha1\":\"%s\",\"size\":412417,\"totalSize\":622187682,"
+                        + "\"url\":\"https://piston-meta.mojang.com/v1/packages/5/5.json\"},",
+                randomHex(random, 40)));
+        sb.append("\"arguments\":{\"game\":[\"--username\",\"\",\"--version\","
+                + "\"\"],\"jvm\":[\"-Djava.library.path=\",\"-cp\","
+                + "\"\"]},");
+        sb.append("\"libraries\":[");
+
+        for (int i = 0; i < libraries; i++) {
+            if (i != 0) {
+                sb.append(',');
+            }
+
+            String path = String.format(Locale.ENGLISH, "com/example/library%d/1.0.%d/library%d-1.0.%d.jar", i, i,
+                    i, i);
+            sb.append(String.format(Locale.ENGLISH,
+                    "{\"name\":\"com.example:library%d:1.0.%d\",\"downloads\":{\"artifact\":{\"path\":\"%s\","
+                            + "\"sha1\":\"%s\",\"size\":%d,\"url\":\"https://libraries.minecraft.net/%s\"}}}",
+                    i, i, path, randomHex(random, 40), random.nextInt(4 * 1024 * 1024), path));
+        }
+
+        sb.append(']');
+    }
+
+    private static String randomHex(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+
+        return sb.toString();
+    }
+}
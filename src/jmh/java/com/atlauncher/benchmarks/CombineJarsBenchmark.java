@@ -0,0 +1,73 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.atlauncher.utils.Utils;
+
+/**
+ * Merging a jar mod into a Minecraft client sized jar, as done when launching legacy jar modded instances.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CombineJarsBenchmark {
+    private Path directory;
+    private File minecraftJar;
+    private File modJar;
+    private File outputJar;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = BenchmarkFixtures.createTempDirectory("combinejars");
+        minecraftJar = BenchmarkFixtures.createJar(directory.resolve("minecraft.jar"), "net/minecraft", 2000, 4096)
+                .toFile();
+        modJar = BenchmarkFixtures.createJar(directory.resolve("mod.jar"), "net/minecraft", 200, 4096).toFile();
+        outputJar = directory.resolve("combined.jar").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanInvocation() throws IOException {
+        Files.deleteIfExists(outputJar.toPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public boolean combineJars() {
+        return Utils.combineJars(minecraftJar, modJar, outputJar);
+    }
+}
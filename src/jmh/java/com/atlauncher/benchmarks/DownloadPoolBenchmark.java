@@ -0,0 +1,82 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.atlauncher.App;
+import com.atlauncher.data.Settings;
+import com.atlauncher.network.Download;
+import com.atlauncher.network.DownloadPool;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * Downsizing a pool against an asset store which already has every file, which is what happens every time an
+ * already installed instance is launched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DownloadPoolBenchmark {
+    @Param({ "1000", "4000" })
+    public int assets;
+
+    private Path directory;
+    private DownloadPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        App.settings = new Settings();
+
+        directory = BenchmarkFixtures.createTempDirectory("downloadpool");
+        pool = new DownloadPool();
+
+        for (int i = 0; i < assets; i++) {
+            String name = String.format(Locale.ENGLISH, "%02x/asset%d", i % 256, i);
+            Path file = BenchmarkFixtures.randomFile(directory.resolve("objects").resolve(name),
+                    1024 + (i % 32) * 512);
+
+            pool.add(Download.build().setUrl("http://localhost/objects/" + name)
+                    .hash(Hashing.sha1(file).toString()).size(file.toFile().length()).downloadTo(file));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public DownloadPool downsize() {
+        return pool.downsize();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.atlauncher.Gsons;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.minecraft.AssetIndex;
+import com.atlauncher.data.minecraft.MinecraftVersion;
+
+/**
+ * Decoding of the larger json files the launcher reads, sized like a current Minecraft version and a mid sized
+ * modpack instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonBenchmark {
+    private String assetIndexJson;
+    private String minecraftVersionJson;
+    private String instanceJson;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        assetIndexJson = BenchmarkFixtures.assetIndexJson(4000);
+        minecraftVersionJson = BenchmarkFixtures.minecraftVersionJson(80);
+        instanceJson = BenchmarkFixtures.instanceJson(120, 250);
+    }
+
+    @Benchmark
+    public AssetIndex assetIndex() {
+        return Gsons.DEFAULT.fromJson(assetIndexJson, AssetIndex.class);
+    }
+
+    @Benchmark
+    public MinecraftVersion minecraftVersion() {
+        return Gsons.DEFAULT.fromJson(minecraftVersionJson, MinecraftVersion.class);
+    }
+
+    @Benchmark
+    public Instance instance() {
+        return Gsons.DEFAULT.fromJson(instanceJson, Instance.class);
+    }
+}
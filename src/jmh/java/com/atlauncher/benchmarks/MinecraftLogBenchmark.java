@@ -0,0 +1,50 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.atlauncher.managers.LogManager;
+
+/**
+ * Classifying lines of Minecraft output, which is done for every line a running instance logs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MinecraftLogBenchmark {
+    @Param({
+            "[12:34:56] [Render thread/INFO]: Loaded 7 recipes",
+            "2023-06-12 12:34:56 [INFO] [STDERR] java.lang.NullPointerException",
+            "[12:34:56] [Worker-Main-3/WARN]: Missing sound for event: minecraft:item.goat_horn.play",
+            "\tat net.minecraft.client.Minecraft.run(Minecraft.java:1234) ~[client-1.20.1.jar:?]" })
+    public String line;
+
+    @Benchmark
+    public Object[] prepareMessageForMinecraftLog() {
+        return LogManager.prepareMessageForMinecraftLog(line);
+    }
+}
@@ -76,12 +76,16 @@ import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PackManager;
+import com.atlauncher.managers.PerformanceManager;
+import com.atlauncher.managers.SystemProfileManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.ErrorReporting;
+import com.atlauncher.network.MirrorServer;
 import com.atlauncher.themes.ATLauncherLaf;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Utils;
+import com.atlauncher.workers.BatchProvisioner;
 import com.formdev.flatlaf.extras.FlatInspector;
 import com.formdev.flatlaf.extras.FlatUIDefaultsInspector;
 
@@ -90,12 +94,6 @@ import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import net.arikia.dev.drpc.DiscordEventHandlers;
 import net.arikia.dev.drpc.DiscordRPC;
-import oshi.SystemInfo;
-import oshi.hardware.CentralProcessor;
-import oshi.hardware.GraphicsCard;
-import oshi.hardware.HardwareAbstractionLayer;
-import oshi.software.os.OSProcess;
-import oshi.software.os.OperatingSystem;
 
 /**
  * Main entry point for the application, Java runs the main method here when the
@@ -198,6 +196,44 @@ public class App {
      */
     public static boolean allowAllSslCerts = false;
 
+    /**
+     * This sets the download mirror to check for files before downloading them from the origin, overriding the
+     * users settings.
+     * <p/>
+     * --download-mirror=http://192.168.1.10:8282
+     */
+    public static String downloadMirror = null;
+
+    /**
+     * This starts a download mirror on the given port, which other launchers can use with --download-mirror.
+     * <p/>
+     * --mirror-server-port=8282
+     */
+    public static Integer mirrorServerPort = null;
+
+    /**
+     * This installs or updates the instances and servers listed in the given batch file without showing any GUI, and
+     * then exits. See {@link BatchProvisioner} for the format of the file.
+     * <p/>
+     * --provision=servers.json
+     */
+    public static Path provisionFile = null;
+
+    /**
+     * This sets how many installs can be run at once when provisioning.
+     * <p/>
+     * --provision-threads=4
+     */
+    public static int provisionThreads = 4;
+
+    /**
+     * This will tell the launcher to only use HTTP/1.1 for network requests, for networks or proxies which don't
+     * handle HTTP/2 properly.
+     * <p/>
+     * --disable-http2
+     */
+    public static boolean disableHttp2 = false;
+
     /**
      * This forces the launcher to not check for a launcher update. It can be
      * enabled with the below command line argument.
@@ -282,6 +318,10 @@ public class App {
         // Parse all the command line arguments
         parseCommandLineArguments(args);
 
+        if (provisionFile != null) {
+            System.exit(provision());
+        }
+
         // Workaround for Windows and GUI rendering funny
         if (OS.isWindows()) {
             try {
@@ -309,6 +349,9 @@ public class App {
             LogManager.logStackTrace("Error organising filesystem", e, false);
         }
 
+        // load the cached system profile so working out default RAM doesn't need to probe the system
+        SystemProfileManager.loadCached();
+
         // Load the settings from json, convert old properties config and validate it
         loadSettings();
 
@@ -327,6 +370,12 @@ public class App {
             Network.allowAllSslCerts();
         }
 
+        if (disableHttp2) {
+            Network.disableHttp2();
+        }
+
+        startMirrorServer();
+
         // check for bad install locations (OneDrive, Program Files)
         checkForBadFolderInstall();
 
@@ -416,6 +465,9 @@ public class App {
         SwingUtilities.invokeLater(() -> {
             launcherFrame = new LauncherFrame(openLauncher);
             ss.close();
+
+            // now the launcher is showing, check the system profile and log the hardware information out
+            SystemProfileManager.refreshInBackground();
         });
     }
 
@@ -454,7 +506,7 @@ public class App {
                         GetText.tr("Downloading Java Update"));
                 progressDialog.addThread(new Thread(() -> {
                     Download jreDownload = new Download()
-                            .withHttpClient(Network.createProgressClient(progressDialog))
+                            .withProgressable(progressDialog)
                             .setUrl(
                                     ConfigManager.getConfigItem(bundledJreConfigNamespace + ".url", ""))
                             .hash(ConfigManager.getConfigItem(bundledJreConfigNamespace + ".hash", ""))
@@ -503,6 +555,69 @@ public class App {
         }
     }
 
+    private static void startMirrorServer() {
+        if (mirrorServerPort != null) {
+            try {
+                new MirrorServer(mirrorServerPort, FileSystem.CACHE.resolve("mirror")).start();
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to start download mirror on port " + mirrorServerPort, e);
+            }
+        }
+    }
+
+    /**
+     * Sets up just enough of the launcher to install packs, without initialising any of the GUI, and then runs the
+     * jobs in the provisioning batch file.
+     *
+     * @return the exit code, which is 0 if everything installed
+     */
+    private static int provision() {
+        System.setProperty("java.awt.headless", "true");
+        LogManager.startHeadless();
+
+        if (!disableErrorReporting) {
+            ErrorReporting.enable();
+        }
+
+        try {
+            FileSystem.organise();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error organising filesystem", e, false);
+        }
+
+        loadSettings();
+
+        try {
+            Language.init();
+            Language.setLanguage(settings.language);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error loading language", e);
+        }
+
+        Java.injectNeededCerts();
+
+        if (allowAllSslCerts) {
+            Network.allowAllSslCerts();
+        }
+
+        if (disableHttp2) {
+            Network.disableHttp2();
+        }
+
+        startMirrorServer();
+
+        launcher = new Launcher();
+        launcher.loadEverythingHeadless();
+
+        try {
+            return BatchProvisioner.fromFile(provisionFile, provisionThreads).run() == 0 ? 0 : 1;
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to provision from " + provisionFile, t, false);
+            System.err.println("Failed to provision from " + provisionFile + ": " + t.getMessage());
+            return 2;
+        }
+    }
+
     public static void ensureDiscordIsInitialized() {
         if (!OS.isArm() && !discordInitialized) {
             try {
@@ -554,42 +669,6 @@ public class App {
         if (OS.isUsingFlatpak()) {
             LogManager.info("Using Flatpak!");
         }
-
-        try {
-            SystemInfo systemInfo = OS.getSystemInfo();
-            HardwareAbstractionLayer hal = systemInfo.getHardware();
-
-            List<GraphicsCard> cards = hal.getGraphicsCards();
-            if (cards.size() != 0) {
-                for (GraphicsCard card : cards) {
-                    LogManager.info("GPU: " + card.getName() + " (" + card.getVendor() + ") " + card.getVersionInfo()
-                            + " " + (card.getVRam() / 1048576) + "MB VRAM");
-                }
-            }
-
-            CentralProcessor cpu = hal.getProcessor();
-            LogManager.info(String.format(Locale.ENGLISH, "CPU: %s %d cores/%d threads", cpu.getProcessorIdentifier().getName().trim(),
-                    cpu.getPhysicalProcessorCount(), cpu.getLogicalProcessorCount()));
-
-            OperatingSystem os = systemInfo.getOperatingSystem();
-
-            LogManager.info("Operating System: " + os.getFamily() + " (" + os.getVersionInfo() + ")");
-            LogManager.info("Bitness: " + os.getBitness());
-            LogManager.info("Uptime: " + os.getSystemUptime());
-            LogManager.info("Manufacturer: " + os.getManufacturer());
-
-            if (OS.isWindows() && OS.isUsingAntivirus()) {
-                LogManager.warn(
-                        "A running antivirus process was found on your system. If you notice any issues running Minecraft or downloading files, please whitelist ATLauncher and its folder in your antivirus program/s listed below.");
-
-                for (OSProcess process : OS.getAntivirusProcesses()) {
-                    LogManager.info(String.format("Process %s (running at %s)", process.getName(),
-                            process.getPath()));
-                }
-            }
-        } catch (Throwable t) {
-            LogManager.logStackTrace(t);
-        }
     }
 
     private static void checkInstalledCorrectly() {
@@ -989,6 +1068,18 @@ public class App {
         parser.accepts("allow-all-ssl-certs",
                 "This will tell the launcher to allow all SSL certs regardless of validity. This is insecure and only intended for development purposes.")
                 .withOptionalArg().ofType(Boolean.class);
+        parser.accepts("disable-http2", "If HTTP/2 should be disabled for all network requests.").withOptionalArg()
+                .ofType(Boolean.class);
+        parser.accepts("download-mirror",
+                "The url of a download mirror to check for files before downloading them from the origin.")
+                .withRequiredArg().ofType(String.class);
+        parser.accepts("mirror-server-port", "Starts a download mirror for other launchers on the given port.")
+                .withRequiredArg().ofType(Integer.class);
+        parser.accepts("provision",
+                "Installs or updates the instances and servers in the given batch file without the GUI, then exits.")
+                .withRequiredArg().ofType(String.class);
+        parser.accepts("provision-threads", "How many installs to run at once when provisioning.")
+                .withRequiredArg().ofType(Integer.class);
         parser.accepts("no-launcher-update",
                 "This forces the launcher to not check for a launcher update. It can be enabled with the below command line argument.")
                 .withOptionalArg().ofType(Boolean.class);
@@ -996,6 +1087,9 @@ public class App {
         parser.accepts("close-launcher", "If the launcher should be closed after launching an instance.")
                 .withOptionalArg().ofType(Boolean.class);
         parser.accepts("debug", "If debug logging should be enabled.").withOptionalArg().ofType(Boolean.class);
+        parser.accepts("trace",
+                "If traces of installs and launches should be written to the logs/traces directory.")
+                .withOptionalArg().ofType(Boolean.class);
         parser.accepts("debug-level", "The level of debug logging that should be logged.").withRequiredArg()
                 .ofType(Integer.class);
         parser.accepts("launch",
@@ -1036,6 +1130,11 @@ public class App {
             LogManager.debug("Debug logging is enabled! Please note that this will remove any censoring of user data!");
         }
 
+        if (options.has("trace")) {
+            PerformanceManager.enableTracing();
+            LogManager.info("Tracing of installs and launches is enabled!");
+        }
+
         if (options.has("debug-level")) {
             LogManager.debugLevel = (Integer) options.valueOf("debug-level");
             LogManager.debug("Debug level has been set to " + options.valueOf("debug-level") + "!");
@@ -1096,6 +1195,28 @@ public class App {
             LogManager.warn("Allowing all ssl certs. This is insecure and should only be used for development.");
         }
 
+        disableHttp2 = options.has("disable-http2");
+        if (disableHttp2) {
+            LogManager.warn("HTTP/2 is disabled. Downloads may be slower.");
+        }
+
+        if (options.has("download-mirror")) {
+            downloadMirror = String.valueOf(options.valueOf("download-mirror"));
+            LogManager.warn("Download mirror set to " + downloadMirror);
+        }
+
+        if (options.has("mirror-server-port")) {
+            mirrorServerPort = (Integer) options.valueOf("mirror-server-port");
+        }
+
+        if (options.has("provision")) {
+            provisionFile = Paths.get(String.valueOf(options.valueOf("provision"))).toAbsolutePath();
+        }
+
+        if (options.has("provision-threads")) {
+            provisionThreads = Math.max(1, (Integer) options.valueOf("provision-threads"));
+        }
+
         noLauncherUpdate = options.has("no-launcher-update");
         if (noLauncherUpdate) {
             LogManager.debug("Not updating the launcher!");
@@ -27,7 +27,7 @@ import com.atlauncher.data.News;
 import com.atlauncher.data.Pack;
 import com.atlauncher.data.Server;
 import com.atlauncher.data.minecraft.JavaRuntimes;
-import com.atlauncher.data.minecraft.VersionManifestVersion;
+import com.atlauncher.data.minecraft.MinecraftVersionCatalog;
 
 public final class Data {
 
@@ -38,7 +38,7 @@ public final class Data {
 
     public static final List<Pack> PACKS = new LinkedList<>();
 
-    public static final Map<String, VersionManifestVersion> MINECRAFT = new HashMap<>();
+    public static volatile MinecraftVersionCatalog MINECRAFT = MinecraftVersionCatalog.EMPTY;
     public static LWJGLVersions LWJGL_VERSIONS = null;
     public static JavaRuntimes JAVA_RUNTIMES = null;
 }
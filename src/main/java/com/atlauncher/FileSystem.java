@@ -40,6 +40,11 @@ public final class FileSystem {
     public static final Path APOLLO_CACHE = CACHE.resolve("apolloCache");
     public static final Path REMOTE_IMAGE_CACHE = CACHE.resolve("remote_image");
     public static final Path FRACTURISER_SCANNED_HASHES = CACHE.resolve("fracturiser_scanned_hashes.json");
+    public static final Path ANALYTICS_SPOOL = CACHE.resolve("analytics");
+    public static final Path LOADER_VERSIONS_CACHE = CACHE.resolve("loader_versions");
+    public static final Path CLASS_DATA_SHARING_CACHE = CACHE.resolve("cds");
+    public static final Path JVM_FLAGS_CACHE = CACHE.resolve("jvm_flags");
+    public static final Path EXPORT_STAGING = CACHE.resolve("export_staging");
     public static final Path LOADERS = BASE_DIR.resolve("loaders");
     public static final Path RUNTIMES = BASE_DIR.resolve("runtimes");
     public static final Path MINECRAFT_RUNTIMES = RUNTIMES.resolve("minecraft");
@@ -49,20 +49,18 @@ import com.atlauncher.gui.dialogs.ProgressDialog;
 import com.atlauncher.gui.tabs.PacksBrowserTab;
 import com.atlauncher.gui.tabs.news.NewsTab;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.AccountRefreshManager;
 import com.atlauncher.managers.ConfigManager;
-import com.atlauncher.managers.CurseForgeUpdateManager;
 import com.atlauncher.managers.DialogManager;
+import com.atlauncher.managers.ExternalPackUpdateManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LWJGLManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
-import com.atlauncher.managers.ModpacksChUpdateManager;
-import com.atlauncher.managers.ModrinthModpackUpdateManager;
 import com.atlauncher.managers.NewsManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.ServerManager;
-import com.atlauncher.managers.TechnicModpackUpdateManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
 import com.atlauncher.network.GraphqlClient;
@@ -74,7 +72,6 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 
 import net.arikia.dev.drpc.DiscordRPC;
-import okhttp3.OkHttpClient;
 
 public class Launcher {
     // Holding update data
@@ -86,9 +83,6 @@ public class Launcher {
     private NewsTab newsPanel; // The news panel
     private PacksBrowserTab packsBrowserPanel; // The packs browser panel
 
-    // Update thread
-    private Thread updateThread;
-
     // Minecraft tracking variables
     private Process minecraftProcess = null; // The process minecraft is running on
     public boolean minecraftLaunched = false; // If Minecraft has been Launched
@@ -126,6 +120,7 @@ public class Launcher {
         LWJGLManager.loadLWJGLVersions(); // Load info about the different LWJGL versions
 
         AccountManager.loadAccounts(); // Load the saved Accounts
+        AccountRefreshManager.start(); // Keep the accounts tokens refreshed in the background
 
         PackManager.loadPacks(); // Load the Packs available in the Launcher
 
@@ -161,6 +156,28 @@ public class Launcher {
         PerformanceManager.end();
     }
 
+    /**
+     * Loads only what's needed to install packs, without checking for launcher updates or touching the GUI, for
+     * running headless.
+     */
+    public void loadEverythingHeadless() {
+        if (hasUpdatedFiles()) {
+            DownloadPool pool = new DownloadPool();
+            pool.addAll(getLauncherFiles());
+            pool.downloadAll();
+        }
+
+        ConfigManager.loadConfig();
+        MinecraftManager.loadMinecraftVersions();
+        MinecraftManager.loadJavaRuntimes();
+        LWJGLManager.loadLWJGLVersions();
+        AccountManager.loadAccounts();
+        PackManager.loadPacks();
+        PackManager.loadUsers();
+        InstanceManager.loadInstances();
+        ServerManager.loadServers();
+    }
+
     public boolean launcherHasUpdate() {
         try (InputStreamReader fileReader = new InputStreamReader(
                 new FileInputStream(FileSystem.JSON.resolve("version.json").toFile()), StandardCharsets.UTF_8)) {
@@ -193,7 +210,7 @@ public class Launcher {
             progressDialog.addThread(new Thread(() -> {
                 com.atlauncher.network.Download download = com.atlauncher.network.Download.build()
                         .setUrl(String.format("%s/%s.%s", Constants.DOWNLOAD_SERVER, Constants.LAUNCHER_NAME, toget))
-                        .withHttpClient(Network.createProgressClient(progressDialog)).downloadTo(newFile.toPath());
+                        .withProgressable(progressDialog).downloadTo(newFile.toPath());
 
                 progressDialog.setTotalBytes(download.getFilesize());
 
@@ -284,9 +301,8 @@ public class Launcher {
                 GetText.tr("Downloading Updates"));
         progressDialog.addThread(new Thread(() -> {
             DownloadPool pool = new DownloadPool();
-            OkHttpClient httpClient = Network.createProgressClient(progressDialog);
-            pool.addAll(
-                    getLauncherFiles().stream().map(dl -> dl.withHttpClient(httpClient)).collect(Collectors.toList()));
+            pool.addAll(getLauncherFiles().stream().map(dl -> dl.withProgressable(progressDialog))
+                    .collect(Collectors.toList()));
             DownloadPool smallPool = pool.downsize();
 
             progressDialog.setTotalBytes(smallPool.totalSize());
@@ -326,25 +342,7 @@ public class Launcher {
     }
 
     public void checkForExternalPackUpdates() {
-        if (updateThread != null && updateThread.isAlive()) {
-            updateThread.interrupt();
-        }
-
-        updateThread = new Thread(() -> {
-            if (InstanceManager.getInstances().stream().anyMatch(i -> i.isModpacksChPack())) {
-                ModpacksChUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(i -> i.isCurseForgePack())) {
-                CurseForgeUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(i -> i.isTechnicPack())) {
-                TechnicModpackUpdateManager.checkForUpdates();
-            }
-            if (InstanceManager.getInstances().stream().anyMatch(i -> i.isModrinthPack())) {
-                ModrinthModpackUpdateManager.checkForUpdates();
-            }
-        });
-        updateThread.start();
+        ExternalPackUpdateManager.checkForUpdates();
     }
 
     public void updateData() {
@@ -33,27 +33,32 @@ import javax.net.ssl.X509TrustManager;
 
 import com.apollographql.apollo.ApolloClientAwarenessInterceptor;
 import com.atlauncher.constants.Constants;
-import com.atlauncher.interfaces.NetworkProgressable;
-import com.atlauncher.listener.ProgressListener;
 import com.atlauncher.network.DebugLoggingInterceptor;
 import com.atlauncher.network.ErrorReportingInterceptor;
+import com.atlauncher.network.ProgressInterceptor;
 import com.atlauncher.network.UserAgentInterceptor;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
-import com.atlauncher.utils.ProgressResponseBody;
 
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
-import okhttp3.Response;
 import okhttp3.tls.HandshakeCertificates;
 
 public final class Network {
     public static Cache CACHE = new Cache(FileSystem.CACHE.toFile(), 100 * 1024 * 1024); // 100MB cache
 
-    public static OkHttpClient CLIENT = new OkHttpClient.Builder().protocols(Arrays.asList(Protocol.HTTP_1_1))
+    /**
+     * Shared by all the clients so that connections stay warm between installs. Sized to fit the connections a
+     * download pool can open to a single host over HTTP/1.1.
+     */
+    public static final ConnectionPool CONNECTION_POOL = new ConnectionPool(64, 5, TimeUnit.MINUTES);
+
+    public static OkHttpClient CLIENT = new OkHttpClient.Builder().connectionPool(CONNECTION_POOL)
             .addNetworkInterceptor(new UserAgentInterceptor()).addInterceptor(new DebugLoggingInterceptor())
             .addNetworkInterceptor(new ErrorReportingInterceptor())
+            .addNetworkInterceptor(new ProgressInterceptor())
             .connectTimeout(App.settings.connectionTimeout, TimeUnit.SECONDS)
             .readTimeout(App.settings.connectionTimeout, TimeUnit.SECONDS)
             .writeTimeout(App.settings.connectionTimeout, TimeUnit.SECONDS).build();
@@ -97,18 +102,13 @@ public final class Network {
                 .writeTimeout(App.settings.connectionTimeout, TimeUnit.SECONDS).build();
     }
 
-    public static OkHttpClient createProgressClient(final NetworkProgressable progressable) {
-        final ProgressListener progressListener = (bytesRead, contentLength, done) -> {
-            if (bytesRead > 0 && progressable != null) {
-                progressable.addDownloadedBytes(bytesRead);
-            }
-        };
-
-        return Network.CLIENT.newBuilder().addNetworkInterceptor(chain -> {
-            Response originalResponse = chain.proceed(chain.request());
-            return originalResponse.newBuilder()
-                    .body(new ProgressResponseBody(originalResponse.body(), progressListener)).build();
-        }).build();
+    /**
+     * Restricts all the clients to HTTP/1.1 for networks or proxies which have issues with HTTP/2.
+     */
+    public static void disableHttp2() {
+        CLIENT = CLIENT.newBuilder().protocols(Arrays.asList(Protocol.HTTP_1_1)).build();
+        GRAPHQL_CLIENT = GRAPHQL_CLIENT.newBuilder().protocols(Arrays.asList(Protocol.HTTP_1_1)).build();
+        CACHED_CLIENT = CACHED_CLIENT.newBuilder().protocols(Arrays.asList(Protocol.HTTP_1_1)).build();
     }
 
     public static void addTrustedCertificate(X509Certificate certificate) {
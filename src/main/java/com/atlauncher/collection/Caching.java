@@ -17,9 +17,13 @@
  */
 package com.atlauncher.collection;
 
+import java.util.AbstractMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public final class Caching {
     public static final int MAX_SIZE = Integer
@@ -34,6 +38,8 @@ public final class Caching {
         V put(K key, V value);
 
         int size();
+
+        void clear();
     }
 
     public static <K, V> Cache<K, V> newLRU() {
@@ -44,6 +50,13 @@ public final class Caching {
         return new LRUCache<>(size);
     }
 
+    /**
+     * Creates a thread safe cache where entries expire the given amount of time after they were put into the cache.
+     */
+    public static <K, V> Cache<K, V> newTTL(long duration, TimeUnit unit) {
+        return new TTLCache<>(unit.toNanos(duration));
+    }
+
     @SuppressWarnings("serial")
     private static final class LRUCache<K, V> extends LinkedHashMap<K, V> implements Cache<K, V> {
         private final int cap;
@@ -63,4 +76,68 @@ public final class Caching {
             return this.entrySet().iterator();
         }
     }
+
+    private static final class TTLCache<K, V> implements Cache<K, V> {
+        private final long ttl;
+        private final Map<K, ExpiringValue<V>> entries = new ConcurrentHashMap<>();
+
+        private TTLCache(long ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public V get(K key) {
+            ExpiringValue<V> entry = this.entries.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry.hasExpired()) {
+                this.entries.remove(key, entry);
+                return null;
+            }
+
+            return entry.value;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            ExpiringValue<V> previous = this.entries.put(key, new ExpiringValue<>(value, System.nanoTime() + ttl));
+
+            return previous == null || previous.hasExpired() ? null : previous.value;
+        }
+
+        @Override
+        public int size() {
+            this.entries.values().removeIf(ExpiringValue::hasExpired);
+            return this.entries.size();
+        }
+
+        @Override
+        public void clear() {
+            this.entries.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return this.entries.entrySet().stream().filter(e -> !e.getValue().hasExpired())
+                    .map(e -> (Map.Entry<K, V>) new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue().value))
+                    .collect(Collectors.toList()).iterator();
+        }
+    }
+
+    private static final class ExpiringValue<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private ExpiringValue(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean hasExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
 }
@@ -154,6 +154,7 @@ public class Constants {
     public static final String[] SCREEN_RESOLUTIONS = { "854x480", "1280x720", "1366x768", "1600x900", "1920x1080",
             "2560x1440", "3440x1440", "3840x2160" };
     public static final String DEFAULT_JAVA_PARAMETERS = "-XX:+UnlockExperimentalVMOptions -XX:+UseG1GC -XX:G1NewSizePercent=20 -XX:G1ReservePercent=20 -XX:MaxGCPauseMillis=50 -XX:G1HeapRegionSize=32M";
+    public static final int EXTERNAL_PACK_UPDATE_CACHE_MINUTES = 10;
 
     // Custom for ATLauncher Microsoft login constants
     // if you fork or modify this launcher, you must not use this Client ID
@@ -0,0 +1,41 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.time.Instant;
+
+/**
+ * Summary of the garbage collection log from a single play session, as worked out by
+ * {@link com.atlauncher.utils.GcLogAnalyzer}. Memory is in MB and pause times are in milliseconds.
+ */
+public class GcSummary {
+    public Instant recordedAt;
+    public double runtime;
+    public int pauses;
+    public int fullPauses;
+    public double totalPauseTime;
+    public double pauseTimePercentage;
+    public double p50Pause;
+    public double p90Pause;
+    public double p99Pause;
+    public double maxPause;
+    public double allocationRate;
+    public long averageHeapAfterGc;
+    public long peakHeapAfterGc;
+    public long peakHeapCommitted;
+}
@@ -43,11 +43,16 @@ import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
@@ -77,7 +82,6 @@ import com.atlauncher.App;
 import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
-import com.atlauncher.Network;
 import com.atlauncher.annot.Json;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
@@ -147,6 +151,9 @@ import com.atlauncher.managers.ModrinthModpackUpdateManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.TechnicModpackUpdateManager;
+import com.atlauncher.mclauncher.ClassDataSharing;
+import com.atlauncher.mclauncher.ClasspathPrefetcher;
+import com.atlauncher.mclauncher.GcLogging;
 import com.atlauncher.mclauncher.MCLauncher;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
@@ -162,6 +169,7 @@ import com.atlauncher.utils.Java;
 import com.atlauncher.utils.ModrinthApi;
 import com.atlauncher.utils.OS;
 import com.atlauncher.utils.Pair;
+import com.atlauncher.utils.ProcessMonitor;
 import com.atlauncher.utils.SecurityUtils;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.ZipNameMapper;
@@ -172,7 +180,6 @@ import com.google.gson.JsonObject;
 import net.arikia.dev.drpc.DiscordRPC;
 import net.arikia.dev.drpc.DiscordRichPresence;
 import okhttp3.HttpUrl;
-import okhttp3.OkHttpClient;
 
 @Json
 public class Instance extends MinecraftVersion {
@@ -182,6 +189,8 @@ public class Instance extends MinecraftVersion {
 
     public transient Path ROOT;
 
+    private transient InstanceFileIndex fileIndex;
+
     /**
      * @deprecated moved within launcher property
      */
@@ -432,7 +441,6 @@ public class Instance extends MinecraftVersion {
      */
     public boolean prepareForLaunch(ProgressDialog progressDialog, Path nativesTempDir, Path lwjglNativesTempDir) {
         PerformanceManager.start();
-        OkHttpClient httpClient = Network.createProgressClient(progressDialog);
 
         // make sure latest manifest is being used
         PerformanceManager.start("Grabbing Latest Manifest");
@@ -445,7 +453,7 @@ public class Instance extends MinecraftVersion {
                     .setUrl(minecraftVersionManifest.url).hash(minecraftVersionManifest.sha1)
                     .size(minecraftVersionManifest.size)
                     .downloadTo(FileSystem.MINECRAFT_VERSIONS_JSON.resolve(minecraftVersionManifest.id + ".json"))
-                    .withHttpClient(httpClient);
+                    .withProgressable(progressDialog);
 
             MinecraftVersion minecraftVersion = download.asClass(MinecraftVersion.class);
 
@@ -464,7 +472,7 @@ public class Instance extends MinecraftVersion {
             progressDialog.setLabel(GetText.tr("Downloading Minecraft"));
             com.atlauncher.network.Download clientDownload = com.atlauncher.network.Download.build()
                     .setUrl(this.downloads.client.url).hash(this.downloads.client.sha1).size(this.downloads.client.size)
-                    .withHttpClient(httpClient).downloadTo(this.getMinecraftJarLibraryPath());
+                    .withProgressable(progressDialog).downloadTo(this.getMinecraftJarLibraryPath());
 
             if (clientDownload.needToDownload()) {
                 progressDialog.setTotalBytes(this.downloads.client.size);
@@ -490,7 +498,7 @@ public class Instance extends MinecraftVersion {
                 com.atlauncher.network.Download loggerDownload = com.atlauncher.network.Download.build()
                         .setUrl(loggingFile.url).hash(loggingFile.sha1)
                         .size(loggingFile.size).downloadTo(FileSystem.RESOURCES_LOG_CONFIGS.resolve(loggingFile.id))
-                        .withHttpClient(httpClient);
+                        .withProgressable(progressDialog);
 
                 if (loggerDownload.needToDownload()) {
                     progressDialog.setTotalBytes(loggingFile.size);
@@ -527,7 +535,7 @@ public class Instance extends MinecraftVersion {
                             .setUrl(library.downloads.artifact.url)
                             .downloadTo(FileSystem.LIBRARIES.resolve(library.downloads.artifact.path))
                             .hash(library.downloads.artifact.sha1).size(library.downloads.artifact.size)
-                            .withHttpClient(httpClient);
+                            .withProgressable(progressDialog);
 
                     librariesPool.add(download);
                 });
@@ -542,7 +550,7 @@ public class Instance extends MinecraftVersion {
                     librariesPool.add(new com.atlauncher.network.Download().setUrl(download.url)
                             .downloadTo(FileSystem.LIBRARIES.resolve(download.path)).hash(download.sha1)
                             .size(download.size)
-                            .withHttpClient(httpClient));
+                            .withProgressable(progressDialog));
                 });
 
         // legacy forge, so check the libs folder
@@ -556,7 +564,7 @@ public class Instance extends MinecraftVersion {
                             .setUrl(String.format("%s/fmllibs/%s", Constants.DOWNLOAD_SERVER, library.name))
                             .downloadTo(FileSystem.LIBRARIES.resolve("fmllib/" + library.name))
                             .copyTo(ROOT.resolve("lib/" + library.name)).hash(library.sha1Hash)
-                            .size(library.size).withHttpClient(httpClient);
+                            .size(library.size).withProgressable(progressDialog);
 
                     librariesPool.add(download);
                 });
@@ -617,7 +625,7 @@ public class Instance extends MinecraftVersion {
                             com.atlauncher.network.Download download = new com.atlauncher.network.Download()
                                     .setUrl(file.downloads.raw.url).downloadTo(runtimeDirectory.resolve(key))
                                     .hash(file.downloads.raw.sha1).size(file.downloads.raw.size)
-                                    .executable(file.executable).withHttpClient(httpClient);
+                                    .executable(file.executable).withProgressable(progressDialog);
 
                             pool.add(download);
                         }
@@ -650,7 +658,7 @@ public class Instance extends MinecraftVersion {
 
         AssetIndex index = com.atlauncher.network.Download.build().setUrl(assetIndex.url).hash(assetIndex.sha1)
                 .size(assetIndex.size).downloadTo(FileSystem.RESOURCES_INDEXES.resolve(assetIndex.id + ".json"))
-                .withHttpClient(httpClient).asClass(AssetIndex.class);
+                .withProgressable(progressDialog).asClass(AssetIndex.class);
 
         DownloadPool pool = new DownloadPool();
 
@@ -660,7 +668,7 @@ public class Instance extends MinecraftVersion {
 
             com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
                     .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
-                    .withHttpClient(httpClient);
+                    .withProgressable(progressDialog);
 
             pool.add(download);
         });
@@ -758,7 +766,7 @@ public class Instance extends MinecraftVersion {
             if (library != null) {
                 com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(library.url)
                         .downloadTo(FileSystem.LIBRARIES.resolve(library.path)).unzipTo(lwjglNativesTempDir)
-                        .hash(library.sha1).size(library.size).withHttpClient(httpClient);
+                        .hash(library.sha1).size(library.size).withProgressable(progressDialog);
 
                 if (download.needToDownload()) {
                     progressDialog.setTotalBytes(library.size);
@@ -781,12 +789,7 @@ public class Instance extends MinecraftVersion {
             PerformanceManager.start("Creating custom minecraft.jar");
             progressDialog.setLabel(GetText.tr("Creating custom minecraft.jar"));
 
-            if (Files.exists(getCustomMinecraftJarLibraryPath())) {
-                FileUtils.delete(getCustomMinecraftJarLibraryPath());
-            }
-
-            if (!Utils.combineJars(getMinecraftJar(), getRoot().resolve("bin/modpack.jar").toFile(),
-                    getCustomMinecraftJar())) {
+            if (!buildCustomMinecraftJar()) {
                 LogManager.error("Failed to combine jars into custom minecraft.jar");
                 PerformanceManager.end("Creating custom minecraft.jar");
                 PerformanceManager.end();
@@ -914,24 +917,35 @@ public class Instance extends MinecraftVersion {
 
         Analytics.trackEvent(AnalyticsEvent.forStartInstanceLaunch(this, offline));
 
+        PerformanceManager.Trace launchTrace = PerformanceManager.startTrace("launch", this.launcher.name);
+
+        final ClasspathPrefetcher classpathPrefetcher = ClasspathPrefetcher.start(this);
+
         ProgressDialog<Boolean> prepareDialog = new ProgressDialog<>(GetText.tr("Preparing For Launch"),
                 9,
                 GetText.tr("Preparing For Launch"));
         prepareDialog.addThread(new Thread(() -> {
             LogManager.info("Preparing for launch!");
-            prepareDialog.setReturnValue(prepareForLaunch(prepareDialog, nativesTempDir, lwjglNativesTempDir));
+            try (PerformanceManager.Span span = PerformanceManager.span("prepareForLaunch")) {
+                prepareDialog.setReturnValue(prepareForLaunch(prepareDialog, nativesTempDir, lwjglNativesTempDir));
+            }
             prepareDialog.close();
         }));
         prepareDialog.start();
 
         if (prepareDialog.getReturnValue() == null || !prepareDialog.getReturnValue()) {
+            if (classpathPrefetcher != null) {
+                classpathPrefetcher.stop();
+            }
             Analytics.trackEvent(AnalyticsEvent.forInstanceLaunchFailed(this, offline, "prepare_failure"));
+            launchTrace.finish();
             LogManager.error(
                     "Failed to prepare instance " + this.launcher.name + " for launch. Check the logs and try again.");
             return false;
         }
 
         Thread launcher = new Thread(() -> {
+            ProcessMonitor processMonitor = null;
             try {
                 long start = System.currentTimeMillis();
                 if (App.launcher.getParent() != null) {
@@ -1002,9 +1016,11 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    process = MCLauncher.launch(mojangAccount, this, session, nativesTempDir,
-                            LWJGLManager.shouldUseLegacyLWJGL(this) ? lwjglNativesTempDir : null,
-                            wrapperCommand, username);
+                    try (PerformanceManager.Span span = PerformanceManager.span("startProcess")) {
+                        process = MCLauncher.launch(mojangAccount, this, session, nativesTempDir,
+                                LWJGLManager.shouldUseLegacyLWJGL(this) ? lwjglNativesTempDir : null,
+                                wrapperCommand, username);
+                    }
                 } else if (account instanceof MicrosoftAccount) {
                     MicrosoftAccount microsoftAccount = (MicrosoftAccount) account;
 
@@ -1049,9 +1065,17 @@ public class Instance extends MinecraftVersion {
                         }
                     }
 
-                    process = MCLauncher.launch(microsoftAccount, this, nativesTempDir,
-                            LWJGLManager.shouldUseLegacyLWJGL(this) ? lwjglNativesTempDir : null,
-                            wrapperCommand, username);
+                    try (PerformanceManager.Span span = PerformanceManager.span("startProcess")) {
+                        process = MCLauncher.launch(microsoftAccount, this, nativesTempDir,
+                                LWJGLManager.shouldUseLegacyLWJGL(this) ? lwjglNativesTempDir : null,
+                                wrapperCommand, username);
+                    }
+                }
+
+                launchTrace.finish();
+
+                if (classpathPrefetcher != null) {
+                    classpathPrefetcher.stop();
                 }
 
                 if (process == null) {
@@ -1105,6 +1129,13 @@ public class Instance extends MinecraftVersion {
                 }
 
                 App.launcher.showKillMinecraft(process);
+
+                processMonitor = ProcessMonitor.start(process,
+                        Optional.ofNullable(this.launcher.maximumMemory).orElse(App.settings.maximumMemory));
+                if (processMonitor != null) {
+                    App.console.showResourceMonitor(processMonitor);
+                }
+
                 InputStream is = process.getInputStream();
                 InputStreamReader isr = new InputStreamReader(is);
                 StringBuilder sb = new StringBuilder();
@@ -1175,6 +1206,24 @@ public class Instance extends MinecraftVersion {
                     LogManager.minecraft(line);
                 }
                 App.launcher.hideKillMinecraft();
+                ResourceUsage resourceUsage = null;
+                if (processMonitor != null) {
+                    App.console.hideResourceMonitor();
+                    resourceUsage = processMonitor.stop();
+                    processMonitor = null;
+                }
+                if (GcLogging.isEnabled(this)) {
+                    GcSummary gcSummary = GcLogging.analyse(this);
+
+                    if (gcSummary != null) {
+                        GcLogging.logSummary(gcSummary);
+                        this.launcher.lastGcSummary = gcSummary;
+                        this.save();
+                    }
+                }
+                if (resourceUsage != null) {
+                    addResourceUsage(resourceUsage);
+                }
                 if (App.launcher.getParent() != null && App.settings.keepLauncherOpen) {
                     App.launcher.getParent().setVisible(true);
                 }
@@ -1253,9 +1302,6 @@ public class Instance extends MinecraftVersion {
                 if (Files.isDirectory(lwjglNativesTempDir)) {
                     FileUtils.deleteDirectoryQuietly(lwjglNativesTempDir);
                 }
-                if (usesCustomMinecraftJar() && Files.exists(getCustomMinecraftJarLibraryPath())) {
-                    FileUtils.delete(getCustomMinecraftJarLibraryPath());
-                }
                 if (!App.settings.keepLauncherOpen) {
                     Analytics.endSession();
                     System.exit(0);
@@ -1267,6 +1313,17 @@ public class Instance extends MinecraftVersion {
                 if (App.launcher.getParent() != null) {
                     App.launcher.getParent().setVisible(true);
                 }
+            } finally {
+                // only still running if reading the game's output failed
+                if (processMonitor != null) {
+                    App.console.hideResourceMonitor();
+                    processMonitor.stop();
+                }
+                // covers the login and pre-launch command failures, which return before the game is started
+                if (classpathPrefetcher != null) {
+                    classpathPrefetcher.stop();
+                }
+                launchTrace.finish();
             }
         });
 
@@ -1318,6 +1375,48 @@ public class Instance extends MinecraftVersion {
         }
     }
 
+    /**
+     * Stores the resource usage of a play session and logs it out, along with a recommended maximum memory if it looks
+     * like the instance has a lot more or less memory than it's using.
+     */
+    private void addResourceUsage(ResourceUsage usage) {
+        if (usage == null) {
+            return;
+        }
+
+        LogManager.info(String.format(Locale.ENGLISH,
+                "Minecraft used a peak of %dMB memory (%dMB average) with %dMB allocated, %.0f%% CPU (%.0f%% average) "
+                        + "and %d threads",
+                usage.peakMemory, usage.averageMemory, usage.maximumMemory, usage.peakCpu, usage.averageCpu,
+                usage.peakThreads));
+
+        if (this.launcher.resourceUsage == null) {
+            this.launcher.resourceUsage = new ArrayList<>();
+        }
+
+        this.launcher.resourceUsage.add(usage);
+        while (this.launcher.resourceUsage.size() > ResourceUsage.HISTORY_SIZE) {
+            this.launcher.resourceUsage.remove(0);
+        }
+
+        Integer recommended = getRecommendedMaximumMemory();
+        if (recommended != null && Math.abs(recommended - usage.maximumMemory) >= 1024) {
+            LogManager.info(String.format(Locale.ENGLISH,
+                    "Based on recent play sessions, a maximum memory of %dMB should suit this instance", recommended));
+        }
+
+        this.save();
+    }
+
+    /**
+     * Gets the recommended maximum memory for this instance based on the heap and resource usage seen in recent play
+     * sessions, or null if it's not been played for long enough to tell.
+     */
+    public Integer getRecommendedMaximumMemory() {
+        return ResourceUsage.getRecommendedMaximumMemory(this.launcher.resourceUsage, this.launcher.lastGcSummary,
+                OS.getMaximumRam());
+    }
+
     public void addTimePlayed(int time, String version) {
         if (ConfigManager.getConfigItem("useGraphql.packActions", false) == true) {
             GraphqlClient
@@ -1473,7 +1572,7 @@ public class Instance extends MinecraftVersion {
         } else {
             com.atlauncher.network.Download download = com.atlauncher.network.Download.build().setUrl(file.downloadUrl)
                     .downloadTo(downloadLocation).size(file.fileLength)
-                    .withHttpClient(Network.createProgressClient(dialog));
+                    .withProgressable(dialog);
 
             dialog.setTotalBytes(file.fileLength);
 
@@ -1550,7 +1649,7 @@ public class Instance extends MinecraftVersion {
                         : this.getRoot().resolve("resourcepacks").resolve(fileToDownload.filename));
         com.atlauncher.network.Download download = com.atlauncher.network.Download.build().setUrl(fileToDownload.url)
                 .downloadTo(downloadLocation).copyTo(finalLocation)
-                .withHttpClient(Network.createProgressClient(dialog));
+                .withProgressable(dialog);
 
         if (fileToDownload.hashes != null && fileToDownload.hashes.containsKey("sha512")) {
             download = download.hash(fileToDownload.hashes.get("sha512"));
@@ -1884,25 +1983,23 @@ public class Instance extends MinecraftVersion {
             manifest.components.add(quiltLoaderComponent);
         }
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
+        // the generated files are staged, while the overrides are zipped straight from the instance
+        InstanceExportStaging staging = InstanceExportStaging.load(this);
+        Path stagingDir = staging.prepare("multimc");
 
         // create mmc-pack.json
         try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-                new FileOutputStream(tempDir.resolve("mmc-pack.json").toFile()), StandardCharsets.UTF_8)) {
+                new FileOutputStream(stagingDir.resolve("mmc-pack.json").toFile()), StandardCharsets.UTF_8)) {
             Gsons.DEFAULT.toJson(manifest, fileWriter);
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace("Failed to save mmc-pack.json", e);
 
-            FileUtils.deleteDirectory(tempDir);
-
             return new Pair<Path, String>(null, null);
         }
 
         // if Legacy Fabric, add patch in
         if (launcher.loaderVersion.type.equals("LegacyFabric")) {
-            FileUtils.createDirectory(tempDir.resolve("patches"));
+            FileUtils.createDirectory(stagingDir.resolve("patches"));
 
             JsonObject patch = new JsonObject();
             patch.addProperty("formatVersion", 1);
@@ -1919,27 +2016,25 @@ public class Instance extends MinecraftVersion {
 
             // create net.fabricmc.intermediary.json
             try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-                    new FileOutputStream(tempDir.resolve("net.fabricmc.intermediary.json").toFile()),
+                    new FileOutputStream(stagingDir.resolve("net.fabricmc.intermediary.json").toFile()),
                     StandardCharsets.UTF_8)) {
                 Gsons.DEFAULT.toJson(patch, fileWriter);
             } catch (JsonIOException | IOException e) {
                 LogManager.logStackTrace("Failed to save net.fabricmc.intermediary.json", e);
 
-                FileUtils.deleteDirectory(tempDir);
-
                 return new Pair<Path, String>(null, null);
             }
 
         }
 
         // create instance.cfg
-        Path instanceCfgPath = tempDir.resolve("instance.cfg");
+        Path instanceCfgPath = stagingDir.resolve("instance.cfg");
         Properties instanceCfg = new Properties();
 
         String iconKey = "default";
         if (hasCustomImage()) {
             String customIconFileName = "atlauncher_" + getSafeName().toLowerCase(Locale.ENGLISH);
-            Path customIconPath = tempDir.resolve(customIconFileName + ".png");
+            Path customIconPath = stagingDir.resolve(customIconFileName + ".png");
 
             FileUtils.copyFile(this.getRoot().resolve("instance.png"), customIconPath, true);
 
@@ -2002,48 +2097,24 @@ public class Instance extends MinecraftVersion {
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace("Failed to save mmc-pack.json", e);
 
-            FileUtils.deleteDirectory(tempDir);
-
             return new Pair<Path, String>(null, null);
         }
 
         // create an empty .packignore file
-        Path packignoreFile = tempDir.resolve(".packignore");
+        Path packignoreFile = stagingDir.resolve(".packignore");
         try {
             packignoreFile.toFile().createNewFile();
         } catch (IOException ignored) {
             // this is okay to ignore, it's unused but seems to be there by default
         }
 
-        // copy over the files into the .minecraft folder
-        Path dotMinecraftPath = tempDir.resolve(".minecraft");
-        FileUtils.createDirectory(dotMinecraftPath);
-
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                    && (getRoot().resolve(path).toFile().isFile()
-                            || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), dotMinecraftPath.resolve(path).toFile(), true);
-                }
-            }
-        }
-
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(dotMinecraftPath)) {
-            walk.filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                    .forEach(f -> {
-                        FileUtils.delete(f, false);
-                    });
-        } catch (IOException ignored) {
-        }
-
-        ArchiveUtils.createZip(tempDir, to);
+        // put the files into the .minecraft folder, reusing the entries from the last export for unchanged files
+        List<Path> overrideFiles = staging.listOverrides(overrides.stream()
+                .filter(path -> !path.equalsIgnoreCase(safePathName + ".zip")).collect(Collectors.toList()),
+                path -> false);
 
-        FileUtils.deleteDirectory(tempDir);
+        staging.createZip("multimc", stagingDir, ".minecraft", overrideFiles, to);
+        staging.save();
 
         return new Pair<Path, String>(to, null);
     }
@@ -2053,21 +2124,28 @@ public class Instance extends MinecraftVersion {
         String safePathName = name.replaceAll("[\\\"?:*<>|]", "");
         Path to = Paths.get(saveTo).resolve(String.format("%s %s.zip", safePathName, version));
         CurseForgeManifest manifest = new CurseForgeManifest();
+        InstanceExportStaging staging = InstanceExportStaging.load(this);
 
         // for any mods not from CurseForge, scan for them on CurseForge
         if (!App.settings.dontCheckModsOnCurseForge) {
             Map<Long, DisableableMod> murmurHashes = new HashMap<>();
 
-            this.launcher.mods.stream()
-                    .filter(m -> !m.disabled && !m.isFromCurseForge())
-                    .forEach(dm -> {
-                        try {
-                            long hash = Hashing.murmur(dm.getFile(this.ROOT, this.id).toPath());
-                            murmurHashes.put(hash, dm);
-                        } catch (Throwable t) {
-                            LogManager.logStackTrace(t);
-                        }
-                    });
+            // mods with an unknown type or invalid path have no file, so skip them rather than failing the export
+            Map<Path, DisableableMod> nonCurseForgeMods = new LinkedHashMap<>();
+            this.launcher.mods.stream().filter(m -> !m.disabled && !m.isFromCurseForge()).forEach(dm -> {
+                File file = dm.getFile(this.ROOT, this.id);
+
+                if (file != null) {
+                    nonCurseForgeMods.putIfAbsent(file.toPath(), dm);
+                }
+            });
+
+            // only mods which have changed since the last export are hashed again
+            staging.hash(nonCurseForgeMods.keySet(), Hashing.HashType.MURMUR).forEach((path, hashes) -> {
+                if (hashes.murmur() != null) {
+                    murmurHashes.put(hashes.murmur(), nonCurseForgeMods.get(path));
+                }
+            });
 
             if (murmurHashes.size() != 0) {
                 CurseForgeFingerprint fingerprintResponse = CurseForgeApi
@@ -2146,19 +2224,16 @@ public class Instance extends MinecraftVersion {
                 }).collect(Collectors.toList());
         manifest.overrides = "overrides";
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
+        // the generated files are staged, while the overrides are zipped straight from the instance
+        Path stagingDir = staging.prepare("curseforge");
 
         // create manifest.json
         try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-                new FileOutputStream(tempDir.resolve("manifest.json").toFile()), StandardCharsets.UTF_8)) {
+                new FileOutputStream(stagingDir.resolve("manifest.json").toFile()), StandardCharsets.UTF_8)) {
             Gsons.DEFAULT.toJson(manifest, fileWriter);
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace("Failed to save manifest.json", e);
 
-            FileUtils.deleteDirectory(tempDir);
-
             return new Pair<Path, String>(null, null);
         }
 
@@ -2180,67 +2255,26 @@ public class Instance extends MinecraftVersion {
         sb.append("</ul>");
 
         try (OutputStreamWriter fileWriter = new OutputStreamWriter(
-                new FileOutputStream(tempDir.resolve("modlist.html").toFile()), StandardCharsets.UTF_8)) {
+                new FileOutputStream(stagingDir.resolve("modlist.html").toFile()), StandardCharsets.UTF_8)) {
             fileWriter.write(sb.toString());
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace("Failed to save modlist.html", e);
 
-            FileUtils.deleteDirectory(tempDir);
-
             return new Pair<Path, String>(null, null);
         }
 
-        // copy over the overrides folder
-        Path overridesPath = tempDir.resolve("overrides");
-        FileUtils.createDirectory(overridesPath);
-
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                    && (getRoot().resolve(path).toFile().isFile()
-                            || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile(), true);
-                }
-            }
-        }
-
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                    .forEach(f -> {
-                        FileUtils.delete(f, false);
-                    });
-        } catch (IOException ignored) {
-        }
-
-        // remove files that come from CurseForge or aren't disabled
-        launcher.mods.stream().filter(m -> !m.disabled && m.isFromCurseForge()).forEach(mod -> {
-            File file = mod.getFile(this, overridesPath);
+        // put the files into the overrides folder, leaving out files that come from CurseForge, and reusing the
+        // entries from the last export for unchanged files
+        Set<Path> curseForgeFiles = launcher.mods.stream().filter(m -> !m.disabled && m.isFromCurseForge())
+                .map(mod -> mod.getFile(this)).filter(Objects::nonNull).map(File::toPath)
+                .collect(Collectors.toSet());
 
-            if (file.exists()) {
-                FileUtils.delete(file.toPath());
-            }
-        });
+        List<Path> overrideFiles = staging.listOverrides(overrides.stream()
+                .filter(path -> !path.equalsIgnoreCase(safePathName + ".zip")).collect(Collectors.toList()),
+                curseForgeFiles::contains);
 
-        for (String path : overrides) {
-            // if no files, remove the directory
-            if (overridesPath.resolve(path).toFile().isDirectory()
-                    && overridesPath.resolve(path).toFile().list().length == 0) {
-                FileUtils.deleteDirectory(overridesPath.resolve(path));
-            }
-        }
-
-        // if overrides folder itself is empty, then remove it
-        if (overridesPath.toFile().list().length == 0) {
-            FileUtils.deleteDirectory(overridesPath);
-        }
-
-        ArchiveUtils.createZip(tempDir, to);
-
-        FileUtils.deleteDirectory(tempDir);
+        staging.createZip("curseforge", stagingDir, "overrides", overrideFiles, to);
+        staging.save();
 
         return new Pair<Path, String>(to, null);
     }
@@ -2250,6 +2284,15 @@ public class Instance extends MinecraftVersion {
         String safePathName = name.replaceAll("[\\\"?:*<>|]", "");
         Path to = Paths.get(saveTo).resolve(String.format("%s %s.mrpack", safePathName, version));
         ModrinthModpackManifest manifest = new ModrinthModpackManifest();
+        InstanceExportStaging staging = InstanceExportStaging.load(this);
+
+        // hash every mod which could end up in the manifest once up front, rather than once per lookup, reusing the
+        // hashes from the last export for mods which haven't changed
+        Map<Path, Hashing.Hashes> modHashes = staging.hash(this.launcher.mods.stream()
+                .filter(m -> !m.disabled && (m.isFromModrinth() || !App.settings.dontCheckModsOnModrinth))
+                .map(m -> m.getFile(this)).filter(f -> f != null && f.exists()).map(File::toPath)
+                .collect(Collectors.toList()),
+                Hashing.HashType.SHA1, Hashing.HashType.SHA512);
 
         // for any mods not from Modrinth, scan for them on Modrinth
         if (!App.settings.dontCheckModsOnModrinth) {
@@ -2257,8 +2300,8 @@ public class Instance extends MinecraftVersion {
                     .filter(m -> !m.disabled && !m.isFromModrinth() && m.getFile(this).exists())
                     .collect(Collectors.toList());
 
-            String[] sha1Hashes = nonModrinthMods.parallelStream()
-                    .map(m -> Hashing.sha1(m.getFile(this).toPath()).toString()).toArray(String[]::new);
+            String[] sha1Hashes = nonModrinthMods.stream()
+                    .map(m -> modHashes.get(m.getFile(this).toPath()).sha1().toString()).toArray(String[]::new);
 
             Map<String, ModrinthVersion> modrinthVersions = ModrinthApi.getVersionsFromSha1Hashes(sha1Hashes);
 
@@ -2267,7 +2310,7 @@ public class Instance extends MinecraftVersion {
                         modrinthVersions.values().parallelStream().map(mv -> mv.projectId).toArray(String[]::new));
 
                 nonModrinthMods.parallelStream().forEach(mod -> {
-                    String hash = Hashing.sha1(mod.getFile(this).toPath()).toString();
+                    String hash = modHashes.get(mod.getFile(this).toPath()).sha1().toString();
 
                     if (modrinthVersions.containsKey(hash)) {
                         ModrinthVersion modrinthVersion = modrinthVersions.get(hash);
@@ -2300,11 +2343,13 @@ public class Instance extends MinecraftVersion {
                     ModrinthModpackFile file = new ModrinthModpackFile();
                     file.path = this.ROOT.relativize(modPath).toString().replace("\\", "/");
 
-                    String sha1Hash = Hashing.sha1(modPath).toString();
+                    Hashing.Hashes hashes = modHashes.containsKey(modPath) ? modHashes.get(modPath)
+                            : Hashing.hashes(modPath, Hashing.HashType.SHA1, Hashing.HashType.SHA512);
+                    String sha1Hash = hashes.sha1().toString();
 
                     file.hashes = new HashMap<>();
                     file.hashes.put("sha1", sha1Hash);
-                    file.hashes.put("sha512", Hashing.sha512(modPath).toString());
+                    file.hashes.put("sha512", hashes.sha512().toString());
 
                     file.env = new HashMap<>();
 
@@ -2336,86 +2381,42 @@ public class Instance extends MinecraftVersion {
                     this.launcher.loaderVersion.version);
         }
 
-        // create temp directory to put this in
-        Path tempDir = FileSystem.TEMP.resolve(this.getSafeName() + "-export");
-        FileUtils.createDirectory(tempDir);
+        // the generated files are staged, while the overrides are zipped straight from the instance
+        Path stagingDir = staging.prepare("modrinth");
 
         // create modrinth.index.json
-        try (FileOutputStream fos = new FileOutputStream(tempDir.resolve("modrinth.index.json").toFile());
+        try (FileOutputStream fos = new FileOutputStream(stagingDir.resolve("modrinth.index.json").toFile());
                 OutputStreamWriter osw = new OutputStreamWriter(fos,
                         StandardCharsets.UTF_8)) {
             Gsons.DEFAULT.toJson(manifest, osw);
         } catch (JsonIOException | IOException e) {
             LogManager.logStackTrace("Failed to save modrinth.index.json", e);
 
-            FileUtils.deleteDirectory(tempDir);
-
             return new Pair<Path, String>(null, null);
         }
 
-        // copy over the overrides folder
-        Path overridesPath = tempDir.resolve("overrides");
-        FileUtils.createDirectory(overridesPath);
-
-        for (String path : overrides) {
-            if (!path.equalsIgnoreCase(safePathName + ".zip") && getRoot().resolve(path).toFile().exists()
-                    && (getRoot().resolve(path).toFile().isFile()
-                            || getRoot().resolve(path).toFile().list().length != 0)) {
-                if (getRoot().resolve(path).toFile().isDirectory()) {
-                    Utils.copyDirectory(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile());
-                } else {
-                    Utils.copyFile(getRoot().resolve(path).toFile(), overridesPath.resolve(path).toFile(), true);
-                }
-            }
-        }
-
-        // remove any .DS_Store files
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().equals(".DS_Store"))
-                    .forEach(f -> {
-                        FileUtils.delete(f, false);
-                    });
-        } catch (IOException ignored) {
-        }
-
-        // remove files that come from Modrinth or aren't disabled
-        launcher.mods.stream().filter(m -> !m.disabled && m.modrinthVersion != null).forEach(mod -> {
-            File file = mod.getFile(this, overridesPath);
-
-            if (file.exists()) {
-                FileUtils.delete(file.toPath());
-            }
-        });
-
-        for (String path : overrides) {
-            // if no files, remove the directory
-            if (overridesPath.resolve(path).toFile().isDirectory()
-                    && overridesPath.resolve(path).toFile().list().length == 0) {
-                FileUtils.deleteDirectory(overridesPath.resolve(path));
-            }
-        }
+        // put the files into the overrides folder, leaving out files that come from Modrinth, and reusing the entries
+        // from the last export for unchanged files
+        Set<Path> modrinthFiles = launcher.mods.stream().filter(m -> !m.disabled && m.modrinthVersion != null)
+                .map(mod -> mod.getFile(this)).filter(Objects::nonNull).map(File::toPath)
+                .collect(Collectors.toSet());
 
-        // if overrides folder itself is empty, then remove it
-        if (overridesPath.toFile().list().length == 0) {
-            FileUtils.deleteDirectory(overridesPath);
-        }
+        List<Path> overrideFiles = staging.listOverrides(overrides.stream()
+                .filter(path -> !path.equalsIgnoreCase(safePathName + ".zip")).collect(Collectors.toList()),
+                modrinthFiles::contains);
 
         // find any override jar/zip files
         StringBuilder overridesForPermissions = new StringBuilder();
-        try (Stream<Path> walk = Files.walk(overridesPath)) {
-            walk.filter(Files::isRegularFile)
-                    .filter(path -> path.getFileName().toString().endsWith(".jar")
-                            || path.getFileName().toString().endsWith(".zip"))
-                    .forEach(f -> {
-                        overridesForPermissions.append(String.format("%s\n", tempDir.relativize(f)));
-                    });
-        } catch (IOException ignored) {
-        }
-
-        ArchiveUtils.createZip(tempDir, to);
+        overrideFiles.stream()
+                .filter(path -> path.getFileName().toString().endsWith(".jar")
+                        || path.getFileName().toString().endsWith(".zip"))
+                .forEach(f -> {
+                    overridesForPermissions.append(
+                            String.format("%s\n", Paths.get("overrides").resolve(getRoot().relativize(f))));
+                });
 
-        FileUtils.deleteDirectory(tempDir);
+        staging.createZip("modrinth", stagingDir, "overrides", overrideFiles, to);
+        staging.save();
 
         return new Pair<Path, String>(to, overridesForPermissions.toString());
     }
@@ -2423,6 +2424,9 @@ public class Instance extends MinecraftVersion {
     public boolean rename(String newName) {
         String oldName = this.launcher.name;
         File oldDir = getRoot().toFile();
+        closeFileIndex();
+        InstanceExportStaging.clear(this);
+        ClassDataSharing.clearArchives(this);
         this.launcher.name = newName;
         this.ROOT = FileSystem.INSTANCES.resolve(this.getSafeName());
         File newDir = getRoot().toFile();
@@ -2472,6 +2476,51 @@ public class Instance extends MinecraftVersion {
         return getMinecraftJarLibraryPath().toFile();
     }
 
+    /**
+     * Builds the custom minecraft.jar for jar modded instances. The jar is kept between launches and only rebuilt
+     * when the hashes of the Minecraft jar or bin/modpack.jar change.
+     */
+    private boolean buildCustomMinecraftJar() {
+        Path customJar = getCustomMinecraftJarLibraryPath();
+        Path inputsFile = customJar.resolveSibling("minecraft.jar.inputs");
+        Path minecraftJar = getMinecraftJar().toPath();
+        Path modpackJar = getRoot().resolve("bin/modpack.jar");
+
+        Map<Path, Hashing.Hashes> hashes = Hashing.hashAll(Arrays.asList(minecraftJar, modpackJar),
+                Hashing.HashType.SHA1);
+        String inputs = hashes.get(minecraftJar).sha1() + ":" + hashes.get(modpackJar).sha1();
+
+        try {
+            if (Files.exists(customJar) && Files.exists(inputsFile)
+                    && inputs.equals(new String(Files.readAllBytes(inputsFile), StandardCharsets.UTF_8))) {
+                LogManager.debug("Reusing custom minecraft.jar as its inputs haven't changed");
+                return true;
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to read inputs of custom minecraft.jar", e);
+        }
+
+        if (Files.exists(inputsFile)) {
+            FileUtils.delete(inputsFile);
+        }
+
+        if (Files.exists(customJar)) {
+            FileUtils.delete(customJar);
+        }
+
+        if (!Utils.combineJars(minecraftJar.toFile(), modpackJar.toFile(), customJar.toFile())) {
+            return false;
+        }
+
+        try {
+            Files.write(inputsFile, inputs.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to save inputs of custom minecraft.jar", e);
+        }
+
+        return true;
+    }
+
     public File getCustomMinecraftJar() {
         return getCustomMinecraftJarLibraryPath().toFile();
     }
@@ -3180,11 +3229,34 @@ public class Instance extends MinecraftVersion {
         return launcher.version;
     }
 
+    /**
+     * Gets the index of this instance's mod files, which is kept up to date as files are added/removed.
+     */
+    public synchronized InstanceFileIndex getFileIndex() {
+        if (fileIndex != null && !fileIndex.getRoot().equals(ROOT)) {
+            closeFileIndex();
+        }
+
+        if (fileIndex == null) {
+            fileIndex = new InstanceFileIndex(ROOT);
+        }
+
+        return fileIndex;
+    }
+
+    /**
+     * Stops watching this instance's files. This should be called before moving or deleting the instance directory,
+     * since on some platforms a watched directory can't be moved.
+     */
+    public synchronized void closeFileIndex() {
+        if (fileIndex != null) {
+            fileIndex.close();
+            fileIndex = null;
+        }
+    }
+
     private List<Path> getModPathsFromFilesystem() {
-        return getModPathsFromFilesystem(Arrays.asList(ROOT.resolve("mods"),
-                ROOT.resolve("resourcepacks"),
-                ROOT.resolve("shaderpacks"),
-                ROOT.resolve("jarmods")));
+        return getFileIndex().getFiles("mods", "resourcepacks", "shaderpacks", "jarmods");
     }
 
     public List<Path> getModPathsFromFilesystem(List<Path> paths) {
@@ -3214,31 +3286,22 @@ public class Instance extends MinecraftVersion {
     public void scanMissingMods(Window parent) {
         PerformanceManager.start("Instance::scanMissingMods - CheckForAddedMods");
 
-        // files to scan
-        List<Path> files = new ArrayList<>();
+        InstanceFileIndex index = getFileIndex();
 
-        // find the mods that have been added by the user manually
-        for (Path path : Arrays.asList(ROOT.resolve("mods"), ROOT.resolve("disabledmods"),
-                ROOT.resolve("resourcepacks"), ROOT.resolve("jarmods"))) {
-            if (!Files.exists(path)) {
-                continue;
-            }
+        Map<com.atlauncher.data.Type, Set<String>> knownFiles = new EnumMap<>(com.atlauncher.data.Type.class);
+        launcher.mods.forEach(mod -> knownFiles.computeIfAbsent(mod.type, t -> new HashSet<>()).add(mod.file));
 
-            com.atlauncher.data.Type fileType = path.equals(ROOT.resolve("resourcepacks"))
+        // find the mods that have been added by the user manually
+        List<Path> files = new ArrayList<>();
+        for (String directory : Arrays.asList("mods", "disabledmods", "resourcepacks", "jarmods")) {
+            com.atlauncher.data.Type fileType = directory.equals("resourcepacks")
                     ? com.atlauncher.data.Type.resourcepack
-                    : (path.equals(ROOT.resolve("jarmods")) ? com.atlauncher.data.Type.jar
+                    : (directory.equals("jarmods") ? com.atlauncher.data.Type.jar
                             : com.atlauncher.data.Type.mods);
+            Set<String> known = knownFiles.getOrDefault(fileType, Collections.emptySet());
 
-            try (Stream<Path> stream = Files.list(path)) {
-                files.addAll(stream
-                        .filter(file -> !Files.isDirectory(file) && Utils.isAcceptedModFile(file)).filter(
-                                file -> launcher.mods.stream()
-                                        .noneMatch(mod -> mod.type == fileType
-                                                && mod.file.equals(file.getFileName().toString())))
-                        .collect(Collectors.toList()));
-            } catch (IOException e) {
-                LogManager.logStackTrace("Error scanning missing mods", e);
-            }
+            files.addAll(index.getFiles(directory).stream()
+                    .filter(file -> !known.contains(file.getFileName().toString())).collect(Collectors.toList()));
         }
 
         if (files.size() != 0) {
@@ -3394,11 +3457,9 @@ public class Instance extends MinecraftVersion {
                 return false;
             }
 
-            if (mod.disabled) {
-                return (mod.getDisabledFile(this) != null && !mod.getDisabledFile(this).exists());
-            } else {
-                return (mod.getFile(this) != null && !mod.getFile(this).exists());
-            }
+            File file = mod.disabled ? mod.getDisabledFile(this) : mod.getFile(this);
+
+            return file != null && !index.exists(file.toPath());
         }).collect(Collectors.toList());
 
         if (removedMods.size() != 0) {
@@ -0,0 +1,445 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+
+/**
+ * Keeps the state of an instance's exports between runs, so exporting the same instance again only has to redo the
+ * work for what's changed since the last export.
+ *
+ * This includes a manifest of the hashes of the instance's files (keyed on their size and modified time), a staging
+ * directory per export format holding only the generated metadata files, and the entries of the last archive written
+ * for each format so that overrides which haven't changed can be copied into the new archive without compressing them
+ * again. Overrides are read straight from the instance rather than being copied anywhere first.
+ */
+public class InstanceExportStaging {
+    private static final String MANIFEST_FILE = "staging.json";
+    private static final int MANIFEST_VERSION = 2;
+
+    private final Path root;
+    private final Path instanceRoot;
+    private final Manifest manifest;
+
+    private static final class Manifest {
+        private int version = MANIFEST_VERSION;
+        private Map<String, FileEntry> files = new HashMap<>();
+        private Map<String, Archive> archives = new HashMap<>();
+    }
+
+    private static final class FileEntry {
+        private Stamp stamp;
+        private Map<Hashing.HashType, String> hashes = new EnumMap<>(Hashing.HashType.class);
+        private Long murmur;
+
+        private FileEntry() {
+        }
+
+        private FileEntry(Stamp stamp) {
+            this.stamp = stamp;
+        }
+
+        private boolean hasHashes(Hashing.HashType... types) {
+            for (Hashing.HashType type : types) {
+                if (type == Hashing.HashType.MURMUR ? murmur == null : !hashes.containsKey(type)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private Hashing.Hashes toHashes() {
+            Map<Hashing.HashType, com.google.common.hash.HashCode> codes = new EnumMap<>(Hashing.HashType.class);
+            hashes.forEach((type, hash) -> codes.put(type, Hashing.toHashCode(hash)));
+
+            return Hashing.Hashes.of(codes, murmur);
+        }
+    }
+
+    private static final class Archive {
+        private String path;
+        private Stamp stamp;
+        private Map<String, Stamp> entries = new HashMap<>();
+    }
+
+    private static final class Stamp {
+        private final long size;
+        private final long lastModified;
+
+        private Stamp(BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Stamp)) {
+                return false;
+            }
+
+            Stamp other = (Stamp) o;
+            return size == other.size && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified);
+        }
+    }
+
+    InstanceExportStaging(Path root, Path instanceRoot) {
+        this.root = root;
+        this.instanceRoot = instanceRoot;
+        this.manifest = readManifest();
+    }
+
+    public static InstanceExportStaging load(Instance instance) {
+        return new InstanceExportStaging(getRoot(instance), instance.getRoot());
+    }
+
+    /**
+     * Removes everything staged for the given instance, such as when it's deleted or renamed.
+     */
+    public static void clear(Instance instance) {
+        FileUtils.deleteDirectoryQuietly(getRoot(instance));
+    }
+
+    private static Path getRoot(Instance instance) {
+        return FileSystem.EXPORT_STAGING.resolve(instance.getRootDirectory().getName());
+    }
+
+    /**
+     * Gets the given hashes for the files, only hashing (in parallel) the files which have changed or haven't been
+     * hashed with those types before. The returned map is in the same order as the given files.
+     */
+    public Map<Path, Hashing.Hashes> hash(Collection<Path> files, Hashing.HashType... types) {
+        Map<Path, Hashing.Hashes> cached = new HashMap<>();
+        List<Path> changed = new ArrayList<>();
+
+        for (Path file : files) {
+            FileEntry entry = getEntry(file);
+
+            if (entry != null && entry.hasHashes(types)) {
+                cached.put(file, entry.toHashes());
+            } else {
+                changed.add(file);
+            }
+        }
+
+        Map<Path, Hashing.Hashes> hashed = Hashing.hashAll(changed, types);
+        hashed.forEach((file, hashes) -> {
+            FileEntry entry = getEntry(file);
+
+            if (entry == null || hashes.isEmpty()) {
+                return;
+            }
+
+            for (Hashing.HashType type : types) {
+                if (type == Hashing.HashType.MURMUR) {
+                    entry.murmur = hashes.murmur();
+                } else {
+                    entry.hashes.put(type, hashes.get(type).toString());
+                }
+            }
+        });
+
+        LogManager.debug(String.format(Locale.ENGLISH, "Hashed %d changed files and reused hashes for %d files",
+                changed.size(), cached.size()));
+
+        Map<Path, Hashing.Hashes> results = new LinkedHashMap<>();
+        files.forEach(file -> results.put(file, cached.containsKey(file) ? cached.get(file) : hashed.get(file)));
+
+        return results;
+    }
+
+    private FileEntry getEntry(Path file) {
+        Stamp stamp = stamp(file);
+
+        if (stamp == null) {
+            return null;
+        }
+
+        String key = getKey(file);
+        FileEntry entry = manifest.files.get(key);
+
+        if (entry == null || !stamp.equals(entry.stamp)) {
+            entry = new FileEntry(stamp);
+            manifest.files.put(key, entry);
+        }
+
+        return entry;
+    }
+
+    private String getKey(Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path base = instanceRoot.toAbsolutePath().normalize();
+
+        return absolute.startsWith(base) ? getName(base, absolute) : absolute.toString();
+    }
+
+    private static String getName(Path base, Path file) {
+        return base.relativize(file).toString().replace("\\", "/");
+    }
+
+    /**
+     * Gets an empty staging directory for the given export format to write its generated metadata files into.
+     */
+    public Path prepare(String format) {
+        Path directory = root.resolve(format);
+
+        if (Files.exists(directory)) {
+            FileUtils.deleteDirectory(directory);
+        }
+
+        FileUtils.createDirectory(directory);
+
+        return directory;
+    }
+
+    /**
+     * Lists the files in the instance to export as overrides from the given paths (relative to the instance), leaving
+     * out any which are excluded.
+     */
+    public List<Path> listOverrides(List<String> overrides, Predicate<Path> exclude) {
+        Set<Path> files = new TreeSet<>();
+
+        for (String override : overrides) {
+            Path source = instanceRoot.resolve(override);
+
+            if (!Files.exists(source)) {
+                continue;
+            }
+
+            try (Stream<Path> walk = Files.walk(source)) {
+                walk.filter(Files::isRegularFile)
+                        .filter(file -> !file.getFileName().toString().equals(".DS_Store") && !exclude.test(file))
+                        .forEach(files::add);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to list files in " + source + " for export", e);
+            }
+        }
+
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Zips up the generated files in the staging directory along with the given overrides from the instance, which are
+     * put under the given directory in the archive.
+     *
+     * If the archive from the last export of this format is still there untouched, the entries for overrides which
+     * haven't changed since are copied over as is rather than being compressed again. The generated files are always
+     * compressed again. If the last archive can't be read, the archive is written from scratch instead.
+     */
+    public boolean createZip(String format, Path generated, String overridesDirectory, List<Path> overrides,
+            Path to) {
+        Archive previous = manifest.archives.remove(format);
+        Archive archive = new Archive();
+        archive.path = to.toAbsolutePath().toString();
+
+        Map<String, Path> generatedFiles = new TreeMap<>();
+        try (Stream<Path> walk = Files.walk(generated)) {
+            walk.filter(Files::isRegularFile).forEach(file -> generatedFiles.put(getName(generated, file), file));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to list generated files in " + generated + " for export", e);
+            return false;
+        }
+
+        Map<String, Path> overrideFiles = new LinkedHashMap<>();
+        for (Path file : overrides) {
+            overrideFiles.put(overridesDirectory + "/" + getName(instanceRoot, file), file);
+        }
+
+        Path temp = to.resolveSibling(to.getFileName() + ".tmp");
+        int reused;
+
+        try (ZipFile previousZip = openPreviousZip(previous, to)) {
+            if (previousZip != null) {
+                try {
+                    reused = writeZip(temp, generatedFiles, overrideFiles, previousZip, previous, archive);
+                } catch (IOException e) {
+                    LogManager.logStackTrace(
+                            "Failed to update " + to + " from the last export, so creating it from scratch", e);
+                    archive.entries.clear();
+                    reused = writeZip(temp, generatedFiles, overrideFiles, null, null, archive);
+                }
+            } else {
+                reused = writeZip(temp, generatedFiles, overrideFiles, null, null, archive);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to write export to " + to, e);
+            FileUtils.delete(temp, false);
+            return false;
+        }
+
+        try {
+            Files.move(temp, to, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to move export to " + to, e);
+            FileUtils.delete(temp, false);
+            return false;
+        }
+
+        archive.stamp = stamp(to);
+        manifest.archives.put(format, archive);
+
+        LogManager.debug(String.format(Locale.ENGLISH, "Wrote %s with %d unchanged and %d compressed entries", to,
+                reused, generatedFiles.size() + archive.entries.size() - reused));
+
+        return true;
+    }
+
+    private static int writeZip(Path temp, Map<String, Path> generatedFiles, Map<String, Path> overrideFiles,
+            ZipFile previousZip, Archive previous, Archive archive) throws IOException {
+        int reused = 0;
+
+        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(temp.toFile())) {
+            for (Map.Entry<String, Path> file : generatedFiles.entrySet()) {
+                addEntry(zos, file.getKey(), file.getValue());
+            }
+
+            for (Map.Entry<String, Path> file : overrideFiles.entrySet()) {
+                String name = file.getKey();
+                Stamp stamp = stamp(file.getValue());
+
+                if (stamp == null) {
+                    continue;
+                }
+
+                archive.entries.put(name, stamp);
+
+                ZipArchiveEntry previousEntry = previousZip != null && stamp.equals(previous.entries.get(name))
+                        ? previousZip.getEntry(name)
+                        : null;
+
+                if (previousEntry != null) {
+                    try (InputStream raw = previousZip.getRawInputStream(previousEntry)) {
+                        zos.addRawArchiveEntry(previousEntry, raw);
+                    }
+                    reused++;
+                } else {
+                    addEntry(zos, name, file.getValue());
+                }
+            }
+        }
+
+        return reused;
+    }
+
+    private static void addEntry(ZipArchiveOutputStream zos, String name, Path file) throws IOException {
+        zos.putArchiveEntry(new ZipArchiveEntry(file.toFile(), name));
+        Files.copy(file, zos);
+        zos.closeArchiveEntry();
+    }
+
+    private static ZipFile openPreviousZip(Archive previous, Path to) {
+        if (previous == null || previous.stamp == null || !to.toAbsolutePath().toString().equals(previous.path)
+                || !previous.stamp.equals(stamp(to))) {
+            return null;
+        }
+
+        try {
+            return new ZipFile(to.toFile());
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to open previous export " + to, e);
+            return null;
+        }
+    }
+
+    private static Stamp stamp(Path file) {
+        try {
+            return new Stamp(Files.readAttributes(file, BasicFileAttributes.class));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Manifest readManifest() {
+        Path file = root.resolve(MANIFEST_FILE);
+
+        if (!Files.exists(file)) {
+            return new Manifest();
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            Manifest read = Gsons.DEFAULT.fromJson(reader, Manifest.class);
+
+            if (read != null && read.version == MANIFEST_VERSION && read.files != null && read.archives != null) {
+                return read;
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read export staging manifest " + file, e);
+        }
+
+        FileUtils.deleteDirectoryQuietly(root);
+        return new Manifest();
+    }
+
+    public void save() {
+        Path file = root.resolve(MANIFEST_FILE);
+        Path temp = file.resolveSibling(MANIFEST_FILE + ".tmp");
+
+        // drop entries for files which have been removed from the instance
+        manifest.files.keySet().removeIf(key -> !Files.exists(instanceRoot.resolve(key)));
+
+        try {
+            FileUtils.createDirectory(root);
+
+            try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(temp),
+                    StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(manifest, writer);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to save export staging manifest " + file, e);
+        }
+    }
+}
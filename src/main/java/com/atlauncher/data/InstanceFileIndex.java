@@ -0,0 +1,309 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Utils;
+
+/**
+ * Keeps an in memory listing of the mod files in an instance's mod related directories (mods, disabledmods,
+ * resourcepacks, shaderpacks and jarmods) so that things like scanning for added/removed mods don't need to list and
+ * stat the disk every time.
+ *
+ * Directories are listed lazily the first time they're asked for and then kept up to date with a {@link WatchService}
+ * shared between all instances. Since some platforms only poll for changes, the directories modified time is also
+ * checked on access and the directory relisted if it's changed without us hearing about it.
+ */
+public class InstanceFileIndex {
+    public static final List<String> DIRECTORIES = Arrays.asList("mods", "disabledmods", "resourcepacks",
+            "shaderpacks", "jarmods");
+
+    // modified times within this window of when a directory was listed can't be trusted to catch later changes
+    private static final long MODIFIED_TIME_GRACE_MILLIS = 2000;
+
+    private static final Map<WatchKey, Directory> WATCHED = new ConcurrentHashMap<>();
+    private static WatchService watchService = null;
+    private static boolean watchServiceUnavailable = false;
+
+    private final Path root;
+    private final Map<String, Directory> directories = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    private final class Directory {
+        private final Path path;
+        private final Set<String> files = ConcurrentHashMap.newKeySet();
+        private WatchKey watchKey = null;
+        private FileTime lastModified = null;
+        private volatile boolean stale = true;
+
+        private Directory(Path path) {
+            this.path = path;
+        }
+
+        private InstanceFileIndex index() {
+            return InstanceFileIndex.this;
+        }
+    }
+
+    public InstanceFileIndex(Path root) {
+        this.root = root;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the mod files in the given directories (relative to the instance root).
+     */
+    public List<Path> getFiles(String... directoryNames) {
+        List<Path> paths = new ArrayList<>();
+
+        for (String name : directoryNames) {
+            Directory directory = refresh(name);
+            directory.files.forEach(file -> paths.add(directory.path.resolve(file)));
+        }
+
+        return paths;
+    }
+
+    /**
+     * Checks if the given file exists, using the index if the file is in one of the indexed directories.
+     */
+    public boolean exists(Path file) {
+        Path parent = file.getParent();
+
+        if (parent != null && parent.getParent() != null && parent.getParent().equals(root)
+                && DIRECTORIES.contains(parent.getFileName().toString())
+                && Utils.isAcceptedModFile(file)) {
+            return refresh(parent.getFileName().toString()).files.contains(file.getFileName().toString());
+        }
+
+        return Files.exists(file);
+    }
+
+    /**
+     * Stops watching this instance's directories.
+     */
+    public void close() {
+        closed = true;
+
+        directories.values().forEach(directory -> {
+            synchronized (directory) {
+                if (directory.watchKey != null) {
+                    WATCHED.remove(directory.watchKey);
+                    directory.watchKey.cancel();
+                    directory.watchKey = null;
+                }
+            }
+        });
+    }
+
+    private Directory refresh(String name) {
+        Directory directory = directories.computeIfAbsent(name, n -> new Directory(root.resolve(n)));
+
+        synchronized (directory) {
+            if (!Files.isDirectory(directory.path)) {
+                if (directory.watchKey != null) {
+                    WATCHED.remove(directory.watchKey);
+                    directory.watchKey.cancel();
+                    directory.watchKey = null;
+                }
+
+                new ArrayList<>(directory.files).forEach(file -> removed(directory, file));
+                directory.lastModified = null;
+                directory.stale = true;
+                return directory;
+            }
+
+            if (!closed && directory.watchKey == null) {
+                register(directory);
+            }
+
+            FileTime lastModified = getLastModifiedTime(directory.path);
+            if (directory.stale || directory.watchKey == null || lastModified == null
+                    || !lastModified.equals(directory.lastModified)) {
+                relist(directory, lastModified);
+            }
+        }
+
+        return directory;
+    }
+
+    private void relist(Directory directory, FileTime lastModified) {
+        Set<String> found = new HashSet<>();
+
+        try (Stream<Path> stream = Files.list(directory.path)) {
+            stream.filter(file -> Utils.isAcceptedModFile(file) && !Files.isDirectory(file))
+                    .forEach(file -> found.add(file.getFileName().toString()));
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error indexing " + directory.path, e);
+            directory.stale = true;
+            return;
+        }
+
+        new ArrayList<>(directory.files).stream().filter(file -> !found.contains(file))
+                .forEach(file -> removed(directory, file));
+        found.stream().filter(file -> !directory.files.contains(file)).forEach(file -> added(directory, file));
+
+        directory.lastModified = lastModified;
+        directory.stale = lastModified == null
+                || lastModified.toMillis() > System.currentTimeMillis() - MODIFIED_TIME_GRACE_MILLIS;
+    }
+
+    private void added(Directory directory, String file) {
+        directory.files.add(file);
+    }
+
+    private void removed(Directory directory, String file) {
+        directory.files.remove(file);
+    }
+
+    private void handleEvents(Directory directory, List<WatchEvent<?>> events) {
+        synchronized (directory) {
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    directory.stale = true;
+                    continue;
+                }
+
+                Path file = directory.path.resolve((Path) event.context());
+                String name = file.getFileName().toString();
+
+                if (!Utils.isAcceptedModFile(name)) {
+                    continue;
+                }
+
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    removed(directory, name);
+                } else if (Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS)) {
+                    continue;
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    added(directory, name);
+                }
+            }
+
+            // we've already applied these changes, so only relist on next access if something else changed
+            if (!directory.stale) {
+                directory.lastModified = getLastModifiedTime(directory.path);
+            }
+        }
+    }
+
+    private static FileTime getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void register(Directory directory) {
+        WatchService service = getWatchService();
+
+        if (service == null) {
+            return;
+        }
+
+        try {
+            directory.watchKey = directory.path.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            WATCHED.put(directory.watchKey, directory);
+
+            // anything could have changed while we weren't watching
+            directory.stale = true;
+        } catch (IOException | ClosedWatchServiceException e) {
+            LogManager.logStackTrace("Failed to watch " + directory.path + " for changes", e);
+        }
+    }
+
+    private static synchronized WatchService getWatchService() {
+        if (watchService != null || watchServiceUnavailable) {
+            return watchService;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            LogManager.logStackTrace("Failed to create watch service for instance files", e);
+            watchServiceUnavailable = true;
+            return null;
+        }
+
+        Thread watcher = new Thread(InstanceFileIndex::watch, "InstanceFileIndex");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        return watchService;
+    }
+
+    private static void watch() {
+        while (true) {
+            WatchKey key;
+
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            List<WatchEvent<?>> events = key.pollEvents();
+            Directory directory = WATCHED.get(key);
+
+            if (directory != null) {
+                try {
+                    directory.index().handleEvents(directory, events);
+                } catch (Throwable t) {
+                    LogManager.logStackTrace("Error handling changes in " + directory.path, t);
+                    directory.stale = true;
+                }
+            }
+
+            if (!key.reset()) {
+                WATCHED.remove(key);
+
+                if (directory != null) {
+                    synchronized (directory) {
+                        directory.watchKey = null;
+                        directory.stale = true;
+                    }
+                }
+            }
+        }
+    }
+}
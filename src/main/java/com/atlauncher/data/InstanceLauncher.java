@@ -76,6 +76,9 @@ public class InstanceLauncher {
     public String wrapperCommand = null;
     public Boolean useSystemGlfw = null;
     public Boolean useSystemOpenAl = null;
+    public Boolean useClassDataSharing = null;
+    public JvmTuningProfile jvmTuningProfile = null;
+    public Boolean enableGcLogging = null;
 
     public boolean isDev;
     public boolean isPlayable;
@@ -103,6 +106,8 @@ public class InstanceLauncher {
 
     public Instant lastPlayed = null;
     public Long numPlays = null;
+    public List<ResourceUsage> resourceUsage = null;
+    public GcSummary lastGcSummary = null;
 
     public String lastExportName = null;
     public String lastExportVersion = null;
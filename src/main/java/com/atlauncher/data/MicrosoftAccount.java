@@ -32,6 +32,7 @@ import com.atlauncher.data.microsoft.XboxLiveAuthResponse;
 import com.atlauncher.gui.dialogs.CreateMinecraftProfileDialog;
 import com.atlauncher.gui.dialogs.LoginWithMicrosoftDialog;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.AccountRefreshManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.DownloadException;
@@ -157,46 +158,78 @@ public class MicrosoftAccount extends AbstractAccount {
     }
 
     public boolean refreshAccessToken(boolean force) {
+        boolean success = refreshTokens(force, new Date(), true);
+
+        if (success) {
+            AccountRefreshManager.schedule(this);
+        }
+
+        return success;
+    }
+
+    /**
+     * Refreshes any tokens which expire within the given time without any user interaction. Unlike
+     * {@link #refreshAccessToken(boolean)}, failures here don't flag the account as needing to login again, since
+     * they'll be retried (and dealt with properly) on the next refresh when launching.
+     */
+    public boolean refreshAccessTokenInBackground(long expiringWithinMillis) {
+        return refreshTokens(false, new Date(System.currentTimeMillis() + expiringWithinMillis), false);
+    }
+
+    /**
+     * Gets when the first of the oauth token, xsts auth and Minecraft access token expires, since any of them expiring
+     * means the whole chain needs refreshing. Returns null if none of them have an expiry.
+     */
+    public Date getEarliestTokenExpiry() {
+        Date earliest = accessTokenExpiresAt;
+
+        for (Date expiry : new Date[] { oauthToken == null ? null : oauthToken.expiresAt,
+                xstsAuth == null ? null : xstsAuth.notAfter }) {
+            if (expiry != null && (earliest == null || expiry.before(earliest))) {
+                earliest = expiry;
+            }
+        }
+
+        return earliest;
+    }
+
+    private synchronized boolean refreshTokens(boolean force, Date expiringBefore, boolean interactive) {
+        boolean changed = false;
+
         try {
-            if (force || new Date().after(this.oauthToken.expiresAt)) {
+            if (force || expiringBefore.after(this.oauthToken.expiresAt)) {
                 LogManager.info("Oauth token expired. Attempting to refresh");
                 OauthTokenResponse oauthTokenResponse = MicrosoftAuthAPI.refreshAccessToken(oauthToken.refreshToken);
 
                 if (oauthTokenResponse == null) {
-                    mustLogin = true;
-                    AccountManager.saveAccounts();
                     LogManager.error("Failed to refresh accessToken");
-                    return false;
+                    return refreshFailed(interactive);
                 }
 
                 this.oauthToken = oauthTokenResponse;
-
-                AccountManager.saveAccounts();
+                changed = true;
             }
 
-            if (force || new Date().after(this.xstsAuth.notAfter)) {
+            if (force || expiringBefore.after(this.xstsAuth.notAfter)) {
                 LogManager.info("xsts auth expired. Attempting to get new auth");
                 XboxLiveAuthResponse xboxLiveAuthResponse = MicrosoftAuthAPI.getXBLToken(this.oauthToken.accessToken);
-                this.xstsAuth = MicrosoftAuthAPI.getXstsToken(xboxLiveAuthResponse.token);
+                XboxLiveAuthResponse xstsAuthResponse = MicrosoftAuthAPI.getXstsToken(xboxLiveAuthResponse.token);
 
-                if (xstsAuth == null) {
-                    mustLogin = true;
-                    AccountManager.saveAccounts();
+                if (xstsAuthResponse == null) {
                     LogManager.error("Failed to get XBLToken");
-                    return false;
+                    return refreshFailed(interactive);
                 }
 
-                AccountManager.saveAccounts();
+                this.xstsAuth = xstsAuthResponse;
+                changed = true;
             }
 
-            if (force || new Date().after(this.accessTokenExpiresAt)) {
+            if (force || expiringBefore.after(this.accessTokenExpiresAt)) {
                 LoginResponse loginResponse = MicrosoftAuthAPI.loginToMinecraft(this.getIdentityToken());
 
                 if (loginResponse == null) {
-                    mustLogin = true;
-                    AccountManager.saveAccounts();
                     LogManager.error("Failed to login to Minecraft");
-                    return false;
+                    return refreshFailed(interactive);
                 }
 
                 Entitlements entitlements = MicrosoftAuthAPI.getEntitlements(loginResponse.accessToken);
@@ -208,11 +241,8 @@ public class MicrosoftAccount extends AbstractAccount {
                 }
 
                 // make sure they have a Minecraft profile before saving logins
-                if (!checkAndUpdateProfile(loginResponse.accessToken)) {
-                    mustLogin = true;
-                    AccountManager.saveAccounts();
-
-                    return false;
+                if (!checkAndUpdateProfile(loginResponse.accessToken, interactive)) {
+                    return refreshFailed(interactive);
                 }
 
                 this.mustLogin = false;
@@ -222,20 +252,29 @@ public class MicrosoftAccount extends AbstractAccount {
                 this.accessTokenExpiresAt = new Date();
                 this.accessTokenExpiresAt
                         .setTime(this.accessTokenExpiresAt.getTime() + (loginResponse.expiresIn * 1000));
-
-                AccountManager.saveAccounts();
+                changed = true;
             }
         } catch (Exception e) {
-            mustLogin = true;
-            AccountManager.saveAccounts();
-
             LogManager.logStackTrace("Exception refreshing accessToken", e);
-            return false;
+            return refreshFailed(interactive);
+        } finally {
+            // save once at the end with whatever was refreshed, even if a later step failed
+            if (changed || mustLogin) {
+                AccountManager.saveAccounts();
+            }
         }
 
         return true;
     }
 
+    private boolean refreshFailed(boolean interactive) {
+        if (interactive) {
+            mustLogin = true;
+        }
+
+        return false;
+    }
+
     /**
      * This will check the user has a Minecraft profile (Game Pass subscribers will
      * not until first login of the Minecraft Launcher).
@@ -245,8 +284,9 @@ public class MicrosoftAccount extends AbstractAccount {
      * longer has a profile.
      *
      * @param accessToken
+     * @param interactive if the user can be asked to create a profile
      */
-    private boolean checkAndUpdateProfile(String accessToken) {
+    private boolean checkAndUpdateProfile(String accessToken, boolean interactive) {
         Profile profile = null;
 
         try {
@@ -254,6 +294,10 @@ public class MicrosoftAccount extends AbstractAccount {
         } catch (DownloadException e) {
             LogManager.error("Minecraft profile not found");
 
+            if (!interactive) {
+                return false;
+            }
+
             new CreateMinecraftProfileDialog(accessToken);
 
             try {
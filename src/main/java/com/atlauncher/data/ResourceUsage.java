@@ -0,0 +1,104 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Summary of the resources used by the game during a single play session, as seen by the
+ * {@link com.atlauncher.utils.ProcessMonitor}. Memory is in MB and CPU is a percentage of the whole system.
+ */
+public class ResourceUsage {
+    // how many sessions are kept for each instance
+    public static final int HISTORY_SIZE = 10;
+
+    // sessions shorter than this usually never got as far as loading a world, so don't say much about memory use
+    private static final int MINIMUM_DURATION_FOR_RECOMMENDATION = 60;
+
+    // resident memory covers more than just the heap (metaspace, code cache, thread stacks, native libraries and
+    // direct buffers), so take a rough estimate of that off before working out how big the heap needs to be
+    private static final int NON_HEAP_ESTIMATE = 768;
+
+    // leave some room on top of the heap that was seen so the GC isn't constantly running to stay under the limit
+    private static final double RECOMMENDATION_HEADROOM = 1.25;
+
+    // the heap left after a GC is only what's live, and the GC needs a good amount of room to work on top of that
+    private static final double LIVE_HEAP_HEADROOM = 1.75;
+
+    private static final int RECOMMENDATION_STEP = 512;
+    private static final int MINIMUM_RECOMMENDATION = 1024;
+
+    public Instant recordedAt;
+    public int duration;
+    public int maximumMemory;
+    public long peakMemory;
+    public long averageMemory;
+    public double peakCpu;
+    public double averageCpu;
+    public int peakThreads;
+    public long peakHandles;
+
+    /**
+     * Works out a maximum memory (-Xmx) value for an instance, capped to the given limit (if more than 0). When a GC
+     * summary from a long enough session is available, this is based on the heap left after GCs, otherwise it's based
+     * on the peak memory used over the recent sessions less an estimate of what's used outside of the heap. Returns
+     * null if there's no sessions long enough to go off.
+     *
+     * The peak memory used grows with the maximum memory the game was given, so it can't show that more is needed. A
+     * recommendation based on it is never more than the maximum memory those sessions ran with, otherwise following it
+     * would only ever raise the next recommendation.
+     */
+    public static Integer getRecommendedMaximumMemory(List<ResourceUsage> history, GcSummary gcSummary, int limit) {
+        double heap;
+        int ceiling = 0;
+
+        if (gcSummary != null && gcSummary.runtime >= MINIMUM_DURATION_FOR_RECOMMENDATION
+                && gcSummary.peakHeapAfterGc > 0) {
+            heap = gcSummary.peakHeapAfterGc * LIVE_HEAP_HEADROOM;
+        } else {
+            if (history == null) {
+                return null;
+            }
+
+            long peak = history.stream().filter(usage -> usage.duration >= MINIMUM_DURATION_FOR_RECOMMENDATION)
+                    .mapToLong(usage -> usage.peakMemory).max().orElse(0);
+
+            if (peak == 0) {
+                return null;
+            }
+
+            heap = Math.max(peak - NON_HEAP_ESTIMATE, 0) * RECOMMENDATION_HEADROOM;
+            ceiling = history.stream().filter(usage -> usage.duration >= MINIMUM_DURATION_FOR_RECOMMENDATION)
+                    .mapToInt(usage -> usage.maximumMemory).max().orElse(0);
+        }
+
+        int recommended = (int) Math.ceil(heap / RECOMMENDATION_STEP) * RECOMMENDATION_STEP;
+        recommended = Math.max(recommended, MINIMUM_RECOMMENDATION);
+
+        if (ceiling > 0) {
+            recommended = Math.min(recommended, ceiling);
+        }
+
+        if (limit > 0) {
+            recommended = Math.min(recommended, limit);
+        }
+
+        return recommended;
+    }
+}
@@ -18,6 +18,7 @@
 package com.atlauncher.data;
 
 import java.awt.Dimension;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.io.File;
@@ -44,6 +45,8 @@ import com.atlauncher.utils.Timestamper;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.sort.InstanceSortingStrategies;
 
+import okhttp3.HttpUrl;
+
 public class Settings {
     // Launcher things
     public String lastAccount;
@@ -108,11 +111,16 @@ public class Settings {
     public boolean disableLegacyLaunching = false;
     public boolean useSystemGlfw = false;
     public boolean useSystemOpenAl = false;
+    public boolean useClassDataSharing = false;
+    public JvmTuningProfile jvmTuningProfile = JvmTuningProfile.NONE;
+    public boolean enableGcLogging = false;
+    public int classpathPrefetchBudget = 512;
 
     // Network
     public int concurrentConnections = 8;
     public int connectionTimeout = 60;
     public String modrinthApiKey = null;
+    public String downloadMirrorUrl = null;
     public boolean enableProxy = false;
     public String proxyHost = "";
     public int proxyPort = 8080;
@@ -295,7 +303,9 @@ public class Settings {
     public void validate() {
         validateAnalyticsClientId();
 
-        validateWindowSettings();
+        if (!GraphicsEnvironment.isHeadless()) {
+            validateWindowSettings();
+        }
 
         validateSelectedTabOnStartup();
 
@@ -305,14 +315,21 @@ public class Settings {
         validateJavaPath();
 
         validateMemory();
-        validateWindowSize();
+
+        if (!GraphicsEnvironment.isHeadless()) {
+            validateWindowSize();
+        }
 
         validateProxy();
 
+        validateClasspathPrefetchBudget();
+
         validateConcurrentConnections();
 
         validateConnectionTimeout();
 
+        validateDownloadMirrorUrl();
+
         validateDateFormat();
 
         validateInstanceTitleFormat();
@@ -485,6 +502,14 @@ public class Settings {
         }
     }
 
+    private void validateClasspathPrefetchBudget() {
+        if (classpathPrefetchBudget < 0 || classpathPrefetchBudget > 16384) {
+            LogManager.warn("Tried to set the classpath prefetch budget to " + classpathPrefetchBudget
+                    + " which is not valid! Must be between 0 and 16384. Setting back to default of 512!");
+            classpathPrefetchBudget = 512;
+        }
+    }
+
     private void validateConcurrentConnections() {
         if (concurrentConnections < 1 || concurrentConnections > 100) {
             LogManager.warn("Tried to set the number of concurrent connections to " + concurrentConnections
@@ -501,6 +526,14 @@ public class Settings {
         }
     }
 
+    private void validateDownloadMirrorUrl() {
+        if (downloadMirrorUrl != null && !downloadMirrorUrl.isEmpty() && HttpUrl.parse(downloadMirrorUrl) == null) {
+            LogManager.warn("Tried to set the download mirror to " + downloadMirrorUrl
+                    + " which is not a valid url! Download mirror disabled!");
+            downloadMirrorUrl = null;
+        }
+    }
+
     private void validateDateFormat() {
         if (!Arrays.asList(Constants.DATE_FORMATS).contains(dateFormat)) {
             LogManager.warn("Tried to set the date format to " + dateFormat + " which is not valid! Setting "
@@ -289,13 +289,7 @@ public abstract class Installable {
                     }
                 }
 
-                if (this.curseForgeExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.curseForgeExtractedPath);
-                }
-
-                if (this.multiMCExtractedPath != null) {
-                    FileUtils.deleteDirectory(this.multiMCExtractedPath);
-                }
+                closeArchives();
 
                 if (this.technicModpackExtractedPath != null) {
                     FileUtils.deleteDirectory(this.technicModpackExtractedPath);
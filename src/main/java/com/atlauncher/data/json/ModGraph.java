@@ -0,0 +1,181 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.json;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * An index of the relationships between the mods in a pack version (names, groups, linked mods and dependencies),
+ * built once so that lookups don't need to scan every mod in the pack.
+ *
+ * All name lookups are case insensitive, and results are returned in the same order as the mods given.
+ */
+public class ModGraph {
+    private final List<Mod> mods;
+    private final Map<String, Mod> byName = new HashMap<>();
+    private final Map<String, List<Mod>> byGroup = new HashMap<>();
+    private final Map<String, List<Mod>> linkedTo = new HashMap<>();
+    private final Map<String, List<Mod>> dependants = new HashMap<>();
+
+    public ModGraph(List<Mod> mods) {
+        this.mods = mods;
+
+        for (Mod mod : mods) {
+            byName.putIfAbsent(key(mod.getName()), mod);
+
+            if (mod.hasGroup()) {
+                byGroup.computeIfAbsent(key(mod.getGroup()), k -> new ArrayList<>()).add(mod);
+            }
+
+            if (mod.hasLinked()) {
+                linkedTo.computeIfAbsent(key(mod.getLinked()), k -> new ArrayList<>()).add(mod);
+            }
+
+            if (mod.hasDepends()) {
+                for (String depends : mod.getDepends()) {
+                    List<Mod> modDependants = dependants.computeIfAbsent(key(depends), k -> new ArrayList<>());
+
+                    if (modDependants.isEmpty() || modDependants.get(modDependants.size() - 1) != mod) {
+                        modDependants.add(mod);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Checks if this graph was built from the given list of mods.
+     */
+    public boolean isFor(List<Mod> mods) {
+        return this.mods == mods;
+    }
+
+    public Mod getModByName(String name) {
+        return byName.get(key(name));
+    }
+
+    /**
+     * Gets the mods which are linked to the given mod.
+     */
+    public List<Mod> getLinkedMods(Mod mod) {
+        return Collections.unmodifiableList(linkedTo.getOrDefault(key(mod.getName()), Collections.emptyList()));
+    }
+
+    /**
+     * Gets the other mods in the same group as the given mod.
+     */
+    public List<Mod> getGroupedMods(Mod mod) {
+        List<Mod> groupedMods = new ArrayList<>();
+
+        if (mod.getGroup() == null) {
+            return groupedMods;
+        }
+
+        for (Mod groupedMod : byGroup.getOrDefault(key(mod.getGroup()), Collections.emptyList())) {
+            if (groupedMod != mod) {
+                groupedMods.add(groupedMod);
+            }
+        }
+
+        return groupedMods;
+    }
+
+    public boolean isOnlyRecommendedInGroup(Mod mod) {
+        return getGroupedMods(mod).stream().noneMatch(Mod::isRecommended);
+    }
+
+    /**
+     * Gets the mods which the given mod directly depends on.
+     */
+    public List<Mod> getDependencies(Mod mod) {
+        List<Mod> dependencies = new ArrayList<>();
+
+        if (!mod.hasDepends()) {
+            return dependencies;
+        }
+
+        for (String name : mod.getDepends()) {
+            Mod dependency = byName.get(key(name));
+
+            if (dependency != null) {
+                dependencies.add(dependency);
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Gets the mods which directly depend on the given mod.
+     */
+    public List<Mod> getDependants(Mod mod) {
+        return Collections.unmodifiableList(dependants.getOrDefault(key(mod.getName()), Collections.emptyList()));
+    }
+
+    public boolean hasDependants(Mod mod) {
+        return !getDependants(mod).isEmpty();
+    }
+
+    /**
+     * Gets every mod the given mod depends on, directly or through other mods, for cascading selections.
+     */
+    public List<Mod> getAllDependencies(Mod mod) {
+        return walk(mod, this::getDependencies);
+    }
+
+    /**
+     * Gets every mod which depends on the given mod, directly or through other mods, for cascading deselections.
+     */
+    public List<Mod> getAllDependants(Mod mod) {
+        return walk(mod, this::getDependants);
+    }
+
+    private static List<Mod> walk(Mod start, Function<Mod, List<Mod>> edges) {
+        List<Mod> found = new ArrayList<>();
+        Set<Mod> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Mod> queue = new ArrayDeque<>();
+
+        seen.add(start);
+        queue.add(start);
+
+        while (!queue.isEmpty()) {
+            for (Mod next : edges.apply(queue.poll())) {
+                if (seen.add(next)) {
+                    found.add(next);
+                    queue.add(next);
+                }
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.joda.time.format.ISODateTimeFormat;
+
+/**
+ * An immutable snapshot of the Minecraft versions in the version manifest.
+ *
+ * Everything that gets looked up often (versions sorted newest first, versions by type, disabled versions and the
+ * releases for each major version) is worked out once when the catalog is built, so lookups don't need to sort or
+ * parse release times. A new catalog is built whenever the manifest or config is reloaded and swapped in as a whole.
+ */
+public final class MinecraftVersionCatalog {
+    public static final MinecraftVersionCatalog EMPTY = new MinecraftVersionCatalog(Collections.emptyList(),
+            Collections.emptySet());
+
+    private final Map<String, VersionManifestVersion> versions = new HashMap<>();
+    private final Map<String, Long> releaseTimes = new HashMap<>();
+    private final Set<String> disabledVersions;
+    private final List<VersionManifestVersion> enabledVersions;
+    private final Map<VersionManifestVersionType, List<VersionManifestVersion>> enabledVersionsByType = new EnumMap<>(
+            VersionManifestVersionType.class);
+    private final Map<String, List<VersionManifestVersion>> majorReleases = new HashMap<>();
+
+    public MinecraftVersionCatalog(Collection<VersionManifestVersion> manifestVersions,
+            Collection<String> disabledVersions) {
+        this.disabledVersions = Collections.unmodifiableSet(new HashSet<>(disabledVersions));
+
+        for (VersionManifestVersion version : manifestVersions) {
+            versions.put(version.id, version);
+            releaseTimes.put(version.id, parseReleaseTime(version));
+        }
+
+        List<VersionManifestVersion> sorted = versions.values().stream()
+                .sorted(Comparator.comparingLong((VersionManifestVersion mv) -> releaseTimes.get(mv.id)).reversed())
+                .collect(Collectors.toList());
+
+        this.enabledVersions = Collections.unmodifiableList(
+                sorted.stream().filter(mv -> !this.disabledVersions.contains(mv.id)).collect(Collectors.toList()));
+
+        for (VersionManifestVersionType type : VersionManifestVersionType.values()) {
+            enabledVersionsByType.put(type, Collections.unmodifiableList(
+                    enabledVersions.stream().filter(mv -> mv.type == type).collect(Collectors.toList())));
+        }
+
+        // major version buckets include disabled versions, since they're only used to match mods to versions
+        for (VersionManifestVersion version : sorted) {
+            if (version.type == VersionManifestVersionType.RELEASE) {
+                majorReleases.computeIfAbsent(getMajorVersion(version.id), k -> new ArrayList<>()).add(version);
+            }
+        }
+        majorReleases.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    }
+
+    private static long parseReleaseTime(VersionManifestVersion version) {
+        try {
+            return ISODateTimeFormat.dateTimeParser().parseDateTime(version.releaseTime).getMillis();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Gets the major version for a release, for instance 1.19 for 1.19.2 and 1.19 itself.
+     */
+    public static String getMajorVersion(String version) {
+        int firstDot = version.indexOf('.');
+        int lastDot = version.lastIndexOf('.');
+
+        if (firstDot == -1 || firstDot == lastDot) {
+            return version;
+        }
+
+        return version.substring(0, lastDot);
+    }
+
+    public boolean contains(String id) {
+        return versions.containsKey(id);
+    }
+
+    public VersionManifestVersion get(String id) {
+        return versions.get(id);
+    }
+
+    public Collection<VersionManifestVersion> getAll() {
+        return Collections.unmodifiableCollection(versions.values());
+    }
+
+    public boolean isDisabled(String id) {
+        return disabledVersions.contains(id);
+    }
+
+    /**
+     * Gets the release time of the given version in milliseconds since the epoch.
+     */
+    public long getReleaseTime(VersionManifestVersion version) {
+        Long releaseTime = releaseTimes.get(version.id);
+
+        return releaseTime == null ? parseReleaseTime(version) : releaseTime;
+    }
+
+    /**
+     * Gets all the versions which aren't disabled, newest first.
+     */
+    public List<VersionManifestVersion> getEnabledVersions() {
+        return enabledVersions;
+    }
+
+    /**
+     * Gets the versions of the given type which aren't disabled, newest first.
+     */
+    public List<VersionManifestVersion> getEnabledVersions(VersionManifestVersionType type) {
+        return enabledVersionsByType.get(type);
+    }
+
+    /**
+     * Gets the versions of any of the given types which aren't disabled, newest first.
+     */
+    public List<VersionManifestVersion> getEnabledVersions(Collection<VersionManifestVersionType> types) {
+        if (types.size() == 1) {
+            return getEnabledVersions(types.iterator().next());
+        }
+
+        return Collections.unmodifiableList(
+                enabledVersions.stream().filter(mv -> types.contains(mv.type)).collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets all the releases with the same major version as the given release, newest first.
+     */
+    public List<VersionManifestVersion> getMajorReleases(String version) {
+        return majorReleases.getOrDefault(getMajorVersion(version), Collections.emptyList());
+    }
+}
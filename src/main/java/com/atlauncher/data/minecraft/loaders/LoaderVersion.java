@@ -46,6 +46,13 @@ public class LoaderVersion {
         this(version, version, false, "Dummy");
     }
 
+    public LoaderVersion(LoaderVersion other) {
+        this(other.version, other.rawVersion, other.recommended, other.type);
+        if (other.downloadables != null) {
+            this.downloadables.putAll(other.downloadables);
+        }
+    }
+
     public boolean isFabric() {
         return this.type.equalsIgnoreCase("Fabric");
     }
@@ -41,11 +41,13 @@ import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.graphql.GetFabricLoaderVersionQuery;
 import com.atlauncher.graphql.GetFabricLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.graphql.GetLatestFabricLoaderVersionQuery;
 import com.atlauncher.managers.ConfigManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.GraphqlClient;
@@ -270,38 +272,40 @@ public class FabricLoader implements Loader {
     }
 
     public static List<LoaderVersion> getChoosableVersions(String minecraft) {
-        try {
-            List<String> disabledVersions = ConfigManager.getConfigItem("loaders.fabric.disabledVersions",
-                    new ArrayList<String>());
-
-            if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
-                GetFabricLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
-                        .callAndWait(new GetFabricLoaderVersionsForMinecraftVersionQuery(minecraft));
+        return LoaderVersionManager.getChoosableVersions(LoaderType.FABRIC, minecraft);
+    }
 
-                if (response == null || response.loaderVersions() == null
-                        || response.loaderVersions().fabric() == null
-                        || response.loaderVersions().fabric().size() == 0) {
-                    return null;
-                }
+    /**
+     * Fetches the versions of Fabric loader available for the given Minecraft version. Use
+     * {@link #getChoosableVersions(String)} instead, which caches them.
+     */
+    public static List<LoaderVersion> fetchChoosableVersions(String minecraft) throws IOException {
+        if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
+            GetFabricLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
+                    .callAndWait(new GetFabricLoaderVersionsForMinecraftVersionQuery(minecraft));
 
-                return response.loaderVersions().fabric().stream()
-                        .filter(fv -> !disabledVersions.contains(fv.version()))
-                        .map(version -> new LoaderVersion(version.version(), false, "Fabric"))
-                        .collect(Collectors.toList());
+            if (response == null || response.loaderVersions() == null) {
+                throw new IOException("Failed to get Fabric loader versions for Minecraft " + minecraft);
             }
 
-            java.lang.reflect.Type type = new TypeToken<List<FabricMetaVersion>>() {
-            }.getType();
-            List<FabricMetaVersion> versions = Download.build()
-                    .setUrl(String.format("https://meta.fabricmc.net/v2/versions/loader/%s", minecraft))
-                    .asTypeWithThrow(type);
+            if (response.loaderVersions().fabric() == null) {
+                return new ArrayList<>();
+            }
 
-            return versions.stream().filter(fv -> !disabledVersions.contains(fv.loader.version))
-                    .map(version -> new LoaderVersion(version.loader.version, false, "Fabric"))
+            return response.loaderVersions().fabric().stream()
+                    .map(version -> new LoaderVersion(version.version(), false, "Fabric"))
                     .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
         }
+
+        java.lang.reflect.Type type = new TypeToken<List<FabricMetaVersion>>() {
+        }.getType();
+
+        List<FabricMetaVersion> versions = Download.build()
+                .setUrl(String.format("https://meta.fabricmc.net/v2/versions/loader/%s", minecraft))
+                .asTypeWithThrow(type);
+
+        return versions.stream().map(version -> new LoaderVersion(version.loader.version, false, "Fabric"))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -31,16 +31,17 @@ import java.util.stream.Collectors;
 
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
-import com.atlauncher.Network;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.APIResponse;
 import com.atlauncher.data.minecraft.ArgumentRule;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.graphql.GetForgeLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.managers.ConfigManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.GraphqlClient;
@@ -49,8 +50,6 @@ import com.atlauncher.utils.Pair;
 import com.atlauncher.workers.InstanceInstaller;
 import com.google.gson.reflect.TypeToken;
 
-import okhttp3.OkHttpClient;
-
 public class ForgeLoader implements Loader {
     protected String installerUrl;
     protected String version;
@@ -156,10 +155,10 @@ public class ForgeLoader implements Loader {
 
     @Override
     public void downloadAndExtractInstaller() throws Exception {
-        OkHttpClient httpClient = Network.createProgressClient(instanceInstaller);
 
         Download download = Download.build().setUrl(this.installerUrl).downloadTo(installerPath)
-                .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient).unzipTo(this.tempDir.toPath());
+                .withInstanceInstaller(instanceInstaller).withProgressable(instanceInstaller)
+                .unzipTo(this.tempDir.toPath());
 
         if (installerSize != null) {
             download = download.size(this.installerSize);
@@ -290,95 +289,92 @@ public class ForgeLoader implements Loader {
     }
 
     public static List<LoaderVersion> getChoosableVersions(String minecraft) {
+        return LoaderVersionManager.getChoosableVersions(LoaderType.FORGE, minecraft);
+    }
+
+    /**
+     * Fetches the versions of Forge available for the given Minecraft version. Use
+     * {@link #getChoosableVersions(String)} instead, which caches them.
+     */
+    public static List<LoaderVersion> fetchChoosableVersions(String minecraft) throws IOException {
         java.lang.reflect.Type type = new TypeToken<APIResponse<List<ATLauncherApiForgeVersion>>>() {
         }.getType();
 
-        try {
-            if (ConfigManager.getConfigItem("useGraphql.loaderVersions", false) == true) {
-                GetForgeLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
-                        .callAndWait(new GetForgeLoaderVersionsForMinecraftVersionQuery(minecraft));
-
-                if (response == null) {
-                    return new ArrayList<LoaderVersion>();
-                }
+        if (ConfigManager.getConfigItem("useGraphql.loaderVersions", false) == true) {
+            GetForgeLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
+                    .callAndWait(new GetForgeLoaderVersionsForMinecraftVersionQuery(minecraft));
 
-                List<String> disabledVersions = ConfigManager.getConfigItem("loaders.forge.disabledVersions",
-                        new ArrayList<String>());
-
-                return response.loaderVersions().forge().stream().filter(fv -> !disabledVersions.contains(
-                        fv.version()))
-                        .map(version -> {
-                            LoaderVersion lv = new LoaderVersion(version.version(), version.rawVersion(),
-                                    version.recommended(),
-                                    "Forge");
-
-                            if (version.installerSha1Hash() != null && version.installerSize() != null) {
-                                lv.downloadables.put("installer",
-                                        new Pair<String, Long>(version.installerSha1Hash(), version.installerSize()
-                                                .longValue()));
-                            }
-
-                            if (version.universalSha1Hash() != null && version.universalSize() != null) {
-                                lv.downloadables.put("universal",
-                                        new Pair<String, Long>(version.universalSha1Hash(), version.universalSize()
-                                                .longValue()));
-                            }
-
-                            if (version.clientSha1Hash() != null && version.clientSize() != null) {
-                                lv.downloadables.put("client",
-                                        new Pair<String, Long>(version.clientSha1Hash(), version.clientSize()
-                                                .longValue()));
-                            }
-
-                            if (version.serverSha1Hash() != null && version.serverSize() != null) {
-                                lv.downloadables.put("server",
-                                        new Pair<String, Long>(version.serverSha1Hash(), version.serverSize()
-                                                .longValue()));
-                            }
-
-                            return lv;
-                        })
-                        .collect(Collectors.toList());
-            } else {
-                APIResponse<List<ATLauncherApiForgeVersion>> data = Download.build()
-                        .setUrl(String.format("%sforge-versions/%s", Constants.API_BASE_URL, minecraft))
-                        .asTypeWithThrow(type);
-
-                List<String> disabledVersions = ConfigManager.getConfigItem("loaders.forge.disabledVersions",
-                        new ArrayList<String>());
-
-                return data.getData().stream().filter(fv -> !disabledVersions.contains(fv.version))
-                        .map(version -> {
-                            LoaderVersion lv = new LoaderVersion(version.version, version.rawVersion,
-                                    version.recommended,
-                                    "Forge");
-
-                            if (version.installerSha1Hash != null && version.installerSize != null) {
-                                lv.downloadables.put("installer",
-                                        new Pair<String, Long>(version.installerSha1Hash, version.installerSize));
-                            }
-
-                            if (version.universalSha1Hash != null && version.universalSize != null) {
-                                lv.downloadables.put("universal",
-                                        new Pair<String, Long>(version.universalSha1Hash, version.universalSize));
-                            }
-
-                            if (version.clientSha1Hash != null && version.clientSize != null) {
-                                lv.downloadables.put("client",
-                                        new Pair<String, Long>(version.clientSha1Hash, version.clientSize));
-                            }
-
-                            if (version.serverSha1Hash != null && version.serverSize != null) {
-                                lv.downloadables.put("server",
-                                        new Pair<String, Long>(version.serverSha1Hash, version.serverSize));
-                            }
-
-                            return lv;
-                        })
-                        .collect(Collectors.toList());
+            if (response == null) {
+                throw new IOException("Failed to get Forge versions for Minecraft " + minecraft);
             }
-        } catch (IOException e) {
-            return new ArrayList<LoaderVersion>();
+
+            return response.loaderVersions().forge().stream()
+                    .map(version -> {
+                        LoaderVersion lv = new LoaderVersion(version.version(), version.rawVersion(),
+                                version.recommended(),
+                                "Forge");
+
+                        if (version.installerSha1Hash() != null && version.installerSize() != null) {
+                            lv.downloadables.put("installer",
+                                    new Pair<String, Long>(version.installerSha1Hash(), version.installerSize()
+                                            .longValue()));
+                        }
+
+                        if (version.universalSha1Hash() != null && version.universalSize() != null) {
+                            lv.downloadables.put("universal",
+                                    new Pair<String, Long>(version.universalSha1Hash(), version.universalSize()
+                                            .longValue()));
+                        }
+
+                        if (version.clientSha1Hash() != null && version.clientSize() != null) {
+                            lv.downloadables.put("client",
+                                    new Pair<String, Long>(version.clientSha1Hash(), version.clientSize()
+                                            .longValue()));
+                        }
+
+                        if (version.serverSha1Hash() != null && version.serverSize() != null) {
+                            lv.downloadables.put("server",
+                                    new Pair<String, Long>(version.serverSha1Hash(), version.serverSize()
+                                            .longValue()));
+                        }
+
+                        return lv;
+                    })
+                    .collect(Collectors.toList());
+        } else {
+            APIResponse<List<ATLauncherApiForgeVersion>> data = Download.build()
+                    .setUrl(String.format("%sforge-versions/%s", Constants.API_BASE_URL, minecraft))
+                    .asTypeWithThrow(type);
+
+            return data.getData().stream()
+                    .map(version -> {
+                        LoaderVersion lv = new LoaderVersion(version.version, version.rawVersion,
+                                version.recommended,
+                                "Forge");
+
+                        if (version.installerSha1Hash != null && version.installerSize != null) {
+                            lv.downloadables.put("installer",
+                                    new Pair<String, Long>(version.installerSha1Hash, version.installerSize));
+                        }
+
+                        if (version.universalSha1Hash != null && version.universalSize != null) {
+                            lv.downloadables.put("universal",
+                                    new Pair<String, Long>(version.universalSha1Hash, version.universalSize));
+                        }
+
+                        if (version.clientSha1Hash != null && version.clientSize != null) {
+                            lv.downloadables.put("client",
+                                    new Pair<String, Long>(version.clientSha1Hash, version.clientSize));
+                        }
+
+                        if (version.serverSha1Hash != null && version.serverSize != null) {
+                            lv.downloadables.put("server",
+                                    new Pair<String, Long>(version.serverSha1Hash, version.serverSize));
+                        }
+
+                        return lv;
+                    })
+                    .collect(Collectors.toList());
         }
     }
 
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.atlauncher.FileSystem;
-import com.atlauncher.Network;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
@@ -37,8 +36,6 @@ import com.atlauncher.utils.Pair;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.workers.InstanceInstaller;
 
-import okhttp3.OkHttpClient;
-
 public class LegacyForgeLoader implements Loader {
     protected String version;
     protected String rawVersion;
@@ -163,12 +160,11 @@ public class LegacyForgeLoader implements Loader {
 
     @Override
     public void downloadAndExtractInstaller() throws Exception {
-        OkHttpClient httpClient = Network.createProgressClient(instanceInstaller);
         DownloadPool pool = new DownloadPool();
 
         // first download the universal/client/server zip
         Download forgeDownload = Download.build().setUrl(this.downloadUrl).downloadTo(downloadPath)
-                .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient);
+                .withInstanceInstaller(instanceInstaller).withProgressable(instanceInstaller);
 
         if (!instanceInstaller.isServer) {
             forgeDownload = forgeDownload.copyTo(instanceInstaller.root.resolve("bin/modpack.jar"));
@@ -200,7 +196,7 @@ public class LegacyForgeLoader implements Loader {
                         .downloadTo(FileSystem.LIBRARIES.resolve("fmllib/" + library.name))
                         .copyTo(instanceInstaller.root.resolve("lib/" + library.name)).hash(library.sha1Hash)
                         .size(library.size)
-                        .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient);
+                        .withInstanceInstaller(instanceInstaller).withProgressable(instanceInstaller);
 
                 pool.add(download);
             });
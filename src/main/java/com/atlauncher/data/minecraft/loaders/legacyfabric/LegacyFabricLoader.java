@@ -41,11 +41,13 @@ import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.graphql.GetLatestLegacyFabricLoaderVersionQuery;
 import com.atlauncher.graphql.GetLegacyFabricLoaderVersionQuery;
 import com.atlauncher.graphql.GetLegacyFabricLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.managers.ConfigManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.GraphqlClient;
@@ -273,40 +275,40 @@ public class LegacyFabricLoader implements Loader {
     }
 
     public static List<LoaderVersion> getChoosableVersions(String minecraft) {
-        try {
-            List<String> disabledVersions = ConfigManager.getConfigItem(
-                    "loaders.legacyfabric.disabledVersions",
-                    new ArrayList<String>());
-
-            if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
-                GetLegacyFabricLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
-                        .callAndWait(new GetLegacyFabricLoaderVersionsForMinecraftVersionQuery(minecraft));
-
-                if (response == null || response.loaderVersions() == null
-                        || response.loaderVersions().legacyfabric() == null
-                        || response.loaderVersions().legacyfabric().size() == 0) {
-                    return null;
-                }
+        return LoaderVersionManager.getChoosableVersions(LoaderType.LEGACY_FABRIC, minecraft);
+    }
 
-                return response.loaderVersions().legacyfabric().stream()
-                        .filter(fv -> !disabledVersions.contains(fv.version()))
-                        .map(version -> new LoaderVersion(version.version(), false, "LegacyFabric"))
-                        .collect(Collectors.toList());
-            }
+    /**
+     * Fetches the versions of Legacy Fabric loader available for the given Minecraft version. Use
+     * {@link #getChoosableVersions(String)} instead, which caches them.
+     */
+    public static List<LoaderVersion> fetchChoosableVersions(String minecraft) throws IOException {
+        if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
+            GetLegacyFabricLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
+                    .callAndWait(new GetLegacyFabricLoaderVersionsForMinecraftVersionQuery(minecraft));
 
-            java.lang.reflect.Type type = new TypeToken<List<LegacyFabricMetaVersion>>() {
-            }.getType();
+            if (response == null || response.loaderVersions() == null) {
+                throw new IOException("Failed to get Legacy Fabric loader versions for Minecraft " + minecraft);
+            }
 
-            List<LegacyFabricMetaVersion> versions = Download.build()
-                    .setUrl(String.format("https://meta.legacyfabric.net/v2/versions/loader/%s", minecraft))
-                    .asTypeWithThrow(type);
+            if (response.loaderVersions().legacyfabric() == null) {
+                return new ArrayList<>();
+            }
 
-            return versions.stream().filter(fv -> !disabledVersions.contains(fv.loader.version))
-                    .map(version -> new LoaderVersion(version.loader.version, false, "LegacyFabric"))
+            return response.loaderVersions().legacyfabric().stream()
+                    .map(version -> new LoaderVersion(version.version(), false, "LegacyFabric"))
                     .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
         }
+
+        java.lang.reflect.Type type = new TypeToken<List<LegacyFabricMetaVersion>>() {
+        }.getType();
+
+        List<LegacyFabricMetaVersion> versions = Download.build()
+                .setUrl(String.format("https://meta.legacyfabric.net/v2/versions/loader/%s", minecraft))
+                .asTypeWithThrow(type);
+
+        return versions.stream().map(version -> new LoaderVersion(version.loader.version, false, "LegacyFabric"))
+                .collect(Collectors.toList());
     }
 
     @Override
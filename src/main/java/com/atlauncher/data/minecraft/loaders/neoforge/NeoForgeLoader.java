@@ -30,15 +30,15 @@ import java.util.stream.Collectors;
 
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
-import com.atlauncher.Network;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.minecraft.ArgumentRule;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.graphql.GetNeoForgeLoaderVersionsForMinecraftVersionQuery;
-import com.atlauncher.managers.ConfigManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.GraphqlClient;
@@ -47,8 +47,6 @@ import com.atlauncher.workers.InstanceInstaller;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
-import okhttp3.OkHttpClient;
-
 public class NeoForgeLoader implements Loader {
     protected String installerUrl;
     protected String version;
@@ -93,10 +91,10 @@ public class NeoForgeLoader implements Loader {
     public void downloadAndExtractInstaller() throws Exception {
         getInstallerMetadata();
 
-        OkHttpClient httpClient = Network.createProgressClient(instanceInstaller);
 
         Download download = Download.build().setUrl(this.installerUrl).downloadTo(installerPath)
-                .withInstanceInstaller(instanceInstaller).withHttpClient(httpClient).unzipTo(this.tempDir.toPath());
+                .withInstanceInstaller(instanceInstaller).withProgressable(instanceInstaller)
+                .unzipTo(this.tempDir.toPath());
 
         if (installerSize != null) {
             download = download.size(this.installerSize);
@@ -255,18 +253,22 @@ public class NeoForgeLoader implements Loader {
     }
 
     public static List<LoaderVersion> getChoosableVersions(String minecraft) {
+        return LoaderVersionManager.getChoosableVersions(LoaderType.NEOFORGE, minecraft);
+    }
+
+    /**
+     * Fetches the versions of NeoForge available for the given Minecraft version. Use
+     * {@link #getChoosableVersions(String)} instead, which caches them.
+     */
+    public static List<LoaderVersion> fetchChoosableVersions(String minecraft) throws IOException {
         GetNeoForgeLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
                 .callAndWait(new GetNeoForgeLoaderVersionsForMinecraftVersionQuery(minecraft));
 
         if (response == null) {
-            return new ArrayList<LoaderVersion>();
+            throw new IOException("Failed to get NeoForge versions for Minecraft " + minecraft);
         }
 
-        List<String> disabledVersions = ConfigManager.getConfigItem("loaders.neoforge.disabledVersions",
-                new ArrayList<String>());
-
-        return response.loaderVersions().neoforge().stream().filter(fv -> !disabledVersions.contains(
-                fv.version()))
+        return response.loaderVersions().neoforge().stream()
                 .map(version -> {
                     LoaderVersion lv = new LoaderVersion(version.version(), version.rawVersion(),
                             version.recommended(),
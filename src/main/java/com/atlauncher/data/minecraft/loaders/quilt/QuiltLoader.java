@@ -37,11 +37,13 @@ import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.Arguments;
 import com.atlauncher.data.minecraft.Library;
 import com.atlauncher.data.minecraft.loaders.Loader;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
 import com.atlauncher.graphql.GetLatestQuiltLoaderVersionQuery;
 import com.atlauncher.graphql.GetQuiltLoaderVersionQuery;
 import com.atlauncher.graphql.GetQuiltLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.managers.ConfigManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Download;
 import com.atlauncher.network.GraphqlClient;
@@ -233,39 +235,40 @@ public class QuiltLoader implements Loader {
     }
 
     public static List<LoaderVersion> getChoosableVersions(String minecraft) {
-        try {
-            List<String> disabledVersions = ConfigManager.getConfigItem("loaders.quilt.disabledVersions",
-                    new ArrayList<String>());
-
-            if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
-                GetQuiltLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
-                        .callAndWait(new GetQuiltLoaderVersionsForMinecraftVersionQuery(minecraft));
-
-                if (response == null || response.loaderVersions() == null
-                        || response.loaderVersions().quilt() == null
-                        || response.loaderVersions().quilt().size() == 0) {
-                    return null;
-                }
-
-                return response.loaderVersions().quilt().stream()
-                        .filter(fv -> !disabledVersions.contains(fv.version()))
-                        .map(version -> new LoaderVersion(version.version(), false, "Quilt"))
-                        .collect(Collectors.toList());
-            }
+        return LoaderVersionManager.getChoosableVersions(LoaderType.QUILT, minecraft);
+    }
 
-            java.lang.reflect.Type type = new TypeToken<List<QuiltMetaVersion>>() {
-            }.getType();
+    /**
+     * Fetches the versions of Quilt loader available for the given Minecraft version. Use
+     * {@link #getChoosableVersions(String)} instead, which caches them.
+     */
+    public static List<LoaderVersion> fetchChoosableVersions(String minecraft) throws IOException {
+        if (ConfigManager.getConfigItem("useGraphql.loaderVersionsNonForge", false) == true) {
+            GetQuiltLoaderVersionsForMinecraftVersionQuery.Data response = GraphqlClient
+                    .callAndWait(new GetQuiltLoaderVersionsForMinecraftVersionQuery(minecraft));
 
-            List<QuiltMetaVersion> versions = Download.build()
-                    .setUrl(String.format("https://meta.quiltmc.org/v3/versions/loader/%s", minecraft))
-                    .asTypeWithThrow(type);
+            if (response == null || response.loaderVersions() == null) {
+                throw new IOException("Failed to get Quilt loader versions for Minecraft " + minecraft);
+            }
+
+            if (response.loaderVersions().quilt() == null) {
+                return new ArrayList<>();
+            }
 
-            return versions.stream().filter(fv -> !disabledVersions.contains(fv.loader.version))
-                    .map(version -> new LoaderVersion(version.loader.version, false, "Quilt"))
+            return response.loaderVersions().quilt().stream()
+                    .map(version -> new LoaderVersion(version.version(), false, "Quilt"))
                     .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
         }
+
+        java.lang.reflect.Type type = new TypeToken<List<QuiltMetaVersion>>() {
+        }.getType();
+
+        List<QuiltMetaVersion> versions = Download.build()
+                .setUrl(String.format("https://meta.quiltmc.org/v3/versions/loader/%s", minecraft))
+                .asTypeWithThrow(type);
+
+        return versions.stream().map(version -> new LoaderVersion(version.loader.version, false, "Quilt"))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -44,6 +44,7 @@ import com.atlauncher.evnt.manager.RelocalizationManager;
 import com.atlauncher.gui.components.Console;
 import com.atlauncher.gui.components.ConsoleBottomBar;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.ProcessMonitor;
 import com.atlauncher.utils.Utils;
 
 public class LauncherConsole extends JFrame implements RelocalizationListener {
@@ -161,6 +162,14 @@ public class LauncherConsole extends JFrame implements RelocalizationListener {
         bottomBar.hideKillMinecraft();
     }
 
+    public void showResourceMonitor(ProcessMonitor monitor) {
+        bottomBar.showResourceMonitor(monitor);
+    }
+
+    public void hideResourceMonitor() {
+        bottomBar.hideResourceMonitor();
+    }
+
     public void setupLanguage() {
         LogManager.debug("Setting up language for console");
         copy.setText(GetText.tr("Copy"));
@@ -41,6 +41,7 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.thread.PasteUpload;
+import com.atlauncher.utils.ProcessMonitor;
 
 @SuppressWarnings("serial")
 public class ConsoleBottomBar extends BottomBar implements RelocalizationListener {
@@ -50,6 +51,7 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
     private final JButton copyLogButton = new JButton(GetText.tr("Copy Log"));
     private final JButton uploadLogButton = new JButton(GetText.tr("Upload Log"));
     private final JButton killMinecraftButton = new JButton(GetText.tr("Kill Minecraft"));
+    private final ResourceGraph resourceGraph = new ResourceGraph();
 
     public ConsoleBottomBar() {
         this.addActionListeners(); // Setup Action Listeners
@@ -58,8 +60,10 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         leftSide.add(this.copyLogButton);
         leftSide.add(this.uploadLogButton);
         leftSide.add(this.killMinecraftButton);
+        leftSide.add(this.resourceGraph);
 
         this.killMinecraftButton.setVisible(false);
+        this.resourceGraph.setVisible(false);
 
         this.add(leftSide, BorderLayout.WEST);
 
@@ -155,6 +159,18 @@ public class ConsoleBottomBar extends BottomBar implements RelocalizationListene
         hideBottomBarIconsIfNeeded();
     }
 
+    public void showResourceMonitor(ProcessMonitor monitor) {
+        resourceGraph.setMonitor(monitor);
+        resourceGraph.setVisible(true);
+        hideBottomBarIconsIfNeeded();
+    }
+
+    public void hideResourceMonitor() {
+        resourceGraph.setMonitor(null);
+        resourceGraph.setVisible(false);
+        hideBottomBarIconsIfNeeded();
+    }
+
     public void setupLanguage() {
         this.onRelocalization();
         hideBottomBarIconsIfNeeded();
@@ -0,0 +1,148 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.gui.components;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.List;
+import java.util.Locale;
+
+import javax.swing.JComponent;
+import javax.swing.JToolTip;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import org.mini2Dx.gettext.GetText;
+
+import com.atlauncher.gui.HoverLineBorder;
+import com.atlauncher.utils.ProcessMonitor;
+
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * Small live graph of the memory and CPU usage of the running game, shown in the console's bottom bar.
+ */
+@SuppressWarnings("serial")
+public class ResourceGraph extends JComponent {
+    private static final Color MEMORY_COLOR = new Color(76, 175, 80);
+    private static final Color CPU_COLOR = new Color(33, 150, 243);
+
+    private ProcessMonitor monitor;
+    private Disposable subscription;
+    private List<ProcessMonitor.Sample> history;
+
+    public ResourceGraph() {
+        setPreferredSize(new Dimension(220, 30));
+        setToolTipText("");
+    }
+
+    public void setMonitor(ProcessMonitor monitor) {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+
+        this.monitor = monitor;
+        this.history = null;
+
+        if (monitor != null) {
+            subscription = monitor.samples().subscribe(sample -> SwingUtilities.invokeLater(() -> {
+                if (this.monitor == monitor) {
+                    history = monitor.getHistory();
+                    repaint();
+                }
+            }));
+        }
+
+        repaint();
+    }
+
+    @Override
+    public String getToolTipText() {
+        if (history == null || history.isEmpty()) {
+            return null;
+        }
+
+        ProcessMonitor.Sample latest = history.get(history.size() - 1);
+
+        return String.format(Locale.ENGLISH, "%s: %dMB / %dMB, %s: %.0f%%, %s: %d, %s: %d", GetText.tr("Memory"),
+                latest.memory, monitor.getMaximumMemory(), GetText.tr("CPU"), latest.cpu, GetText.tr("Threads"),
+                latest.threads, GetText.tr("Handles"), latest.handles);
+    }
+
+    @Override
+    public JToolTip createToolTip() {
+        JToolTip tip = super.createToolTip();
+        tip.setBorder(new HoverLineBorder());
+        return tip;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int width = getWidth();
+        int height = getHeight();
+
+        g2d.setColor(UIManager.getColor("BottomBar.dividerColor"));
+        g2d.drawRect(0, 0, width - 1, height - 1);
+
+        if (history != null && history.size() > 1) {
+            long maxMemory = Math.max(monitor.getMaximumMemory(),
+                    history.stream().mapToLong(s -> s.memory).max().orElse(1));
+
+            g2d.setStroke(new BasicStroke(1.5f));
+            drawLine(g2d, MEMORY_COLOR, width, height, maxMemory, true);
+            drawLine(g2d, CPU_COLOR, width, height, 100, false);
+
+            ProcessMonitor.Sample latest = history.get(history.size() - 1);
+            g2d.setColor(getForeground());
+            g2d.setFont(getFont().deriveFont(11f));
+            g2d.drawString(String.format(Locale.ENGLISH, "%.1f GB | %.0f%% CPU", latest.memory / 1024.0, latest.cpu),
+                    4, height - 5);
+        }
+
+        g2d.dispose();
+    }
+
+    private void drawLine(Graphics2D g2d, Color color, int width, int height, double max, boolean memory) {
+        int points = history.size();
+        int[] xs = new int[points];
+        int[] ys = new int[points];
+        double step = (double) (width - 2) / (ProcessMonitor.HISTORY_SIZE - 1);
+        int offset = ProcessMonitor.HISTORY_SIZE - points;
+
+        for (int i = 0; i < points; i++) {
+            ProcessMonitor.Sample sample = history.get(i);
+            double value = memory ? sample.memory : sample.cpu;
+
+            xs[i] = 1 + (int) Math.round((offset + i) * step);
+            ys[i] = height - 2 - (int) Math.round(Math.min(value / max, 1) * (height - 4));
+        }
+
+        g2d.setColor(color);
+        g2d.drawPolyline(xs, ys, points);
+    }
+}
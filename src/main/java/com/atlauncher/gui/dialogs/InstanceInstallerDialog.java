@@ -31,6 +31,8 @@ import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -105,6 +107,7 @@ import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
 import com.atlauncher.managers.PackManager;
 import com.atlauncher.network.Analytics;
+import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.ComboItem;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.ModpacksChApi;
@@ -149,6 +152,7 @@ public class InstanceInstallerDialog extends JDialog {
     private final boolean isUpdate;
     private final PackVersion autoInstallVersion;
     private final Path extractedPath;
+    private boolean installStarted = false;
 
     public InstanceInstallerDialog(CurseForgeManifest manifest, Path curseExtractedPath) {
         this(manifest, false, false, null, null, false, curseExtractedPath, App.launcher.getParent(), null);
@@ -237,6 +241,15 @@ public class InstanceInstallerDialog extends JDialog {
         setLayout(new BorderLayout());
         setResizable(false);
         this.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                // the installer cleans up the imported pack, so only do it here if it never got that far
+                if (!installStarted && extractedPath != null) {
+                    ArchiveUtils.closeArchive(extractedPath);
+                }
+            }
+        });
 
         install = new JButton(
                 ((isReinstall) ? (isUpdate ? GetText.tr("Update") : GetText.tr("Reinstall")) : GetText.tr("Install")));
@@ -403,6 +416,7 @@ public class InstanceInstallerDialog extends JDialog {
 
                 setVisible(false);
 
+                installStarted = true;
                 boolean success = installable.startInstall();
 
                 if (success) {
@@ -48,6 +48,7 @@ import com.atlauncher.data.microsoft.XboxLiveAuthErrorResponse;
 import com.atlauncher.data.microsoft.XboxLiveAuthResponse;
 import com.atlauncher.gui.panels.LoadingPanel;
 import com.atlauncher.managers.AccountManager;
+import com.atlauncher.managers.AccountRefreshManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.DownloadException;
@@ -187,6 +188,7 @@ public final class LoginWithMicrosoftDialog extends JDialog {
 
             account.update(oauthTokenResponse, xstsAuthResponse, loginResponse, profile);
             AccountManager.saveAccounts();
+            AccountRefreshManager.schedule(account);
         } else {
             MicrosoftAccount account = new MicrosoftAccount(oauthTokenResponse, xstsAuthResponse, loginResponse,
                     profile);
@@ -53,6 +53,7 @@ import com.atlauncher.Data;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.UIConstants;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.data.minecraft.JavaRuntime;
 import com.atlauncher.gui.components.JLabelWithHover;
 import com.atlauncher.managers.ConfigManager;
@@ -77,6 +78,9 @@ public class JavaInstanceSettingsTab extends JPanel {
     private JComboBox<ComboItem<Boolean>> disableLegacyLaunching;
     private JComboBox<ComboItem<Boolean>> useSystemGlfw;
     private JComboBox<ComboItem<Boolean>> useSystemOpenAl;
+    private JComboBox<ComboItem<Boolean>> useClassDataSharing;
+    private JComboBox<ComboItem<JvmTuningProfile>> jvmTuningProfile;
+    private JComboBox<ComboItem<Boolean>> enableGcLogging;
 
     private boolean initialMemoryWarningShown = false;
     private boolean maximumMemoryHalfWarningShown = false;
@@ -168,10 +172,14 @@ public class JavaInstanceSettingsTab extends JPanel {
         gbc.gridy++;
         gbc.insets = UIConstants.LABEL_INSETS;
         gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        String maximumMemoryHelp = GetText.tr("The maximum amount of memory/ram to allocate when starting Minecraft.");
+        Integer recommendedMaximumMemory = instance.getRecommendedMaximumMemory();
+        if (recommendedMaximumMemory != null) {
+            maximumMemoryHelp += " " + GetText.tr("Based on recent play sessions, {0}MB is recommended for this instance.",
+                    recommendedMaximumMemory);
+        }
         JLabelWithHover maximumMemoryLabel = new JLabelWithHover(GetText.tr("Maximum Memory/Ram") + ":", HELP_ICON,
-                "<html>" + Utils.splitMultilinedString(
-                        GetText.tr("The maximum amount of memory/ram to allocate when starting Minecraft."), 80,
-                        "<br/>") + "</html>");
+                "<html>" + Utils.splitMultilinedString(maximumMemoryHelp, 80, "<br/>") + "</html>");
         add(maximumMemoryLabel, gbc);
 
         JPanel maximumMemoryPanel = new JPanel();
@@ -631,6 +639,94 @@ public class JavaInstanceSettingsTab extends JPanel {
         }
 
         add(useSystemOpenAl, gbc);
+
+        // Use Class Data Sharing
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover useClassDataSharingLabel = new JLabelWithHover(GetText.tr("Use Class Data Sharing") + "?",
+                HELP_ICON, new HTMLBuilder().center().text(GetText.tr(
+                        "This records the classes Minecraft loads on the first launch and reuses them on later launches to start faster.<br/><br/>Only works with Java 13 and newer. The first launch after changing mods or loader will be a little slower."))
+                        .build());
+        add(useClassDataSharingLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.FIRST_LINE_START;
+        useClassDataSharing = new JComboBox<>();
+        useClassDataSharing.addItem(new ComboItem<>(null, GetText.tr("Use Launcher Default")));
+        useClassDataSharing.addItem(new ComboItem<>(true, GetText.tr("Yes")));
+        useClassDataSharing.addItem(new ComboItem<>(false, GetText.tr("No")));
+
+        if (instance.launcher.useClassDataSharing == null) {
+            useClassDataSharing.setSelectedIndex(0);
+        } else if (instance.launcher.useClassDataSharing) {
+            useClassDataSharing.setSelectedIndex(1);
+        } else {
+            useClassDataSharing.setSelectedIndex(2);
+        }
+
+        add(useClassDataSharing, gbc);
+
+        // JVM Tuning Profile
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover jvmTuningProfileLabel = new JLabelWithHover(GetText.tr("JVM Tuning Profile") + ":",
+                HELP_ICON, new HTMLBuilder().center().text(GetText.tr(
+                        "Tunes the garbage collector and JIT for the Java version, memory and CPU being used.<br/><br/>Balanced suits most packs, Low Latency reduces stutters on newer Java versions with plenty of memory and Throughput favours raw performance over pause times. Any settings your Java version doesn't support are skipped."))
+                        .build());
+        add(jvmTuningProfileLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.FIRST_LINE_START;
+        jvmTuningProfile = new JComboBox<>();
+        jvmTuningProfile.addItem(new ComboItem<>(null, GetText.tr("Use Launcher Default")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.NONE, GetText.tr("None (Use Java Parameters)")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.BALANCED, GetText.tr("Balanced")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.LOW_LATENCY, GetText.tr("Low Latency")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.THROUGHPUT, GetText.tr("Throughput")));
+
+        for (int i = 0; i < jvmTuningProfile.getItemCount(); i++) {
+            if (jvmTuningProfile.getItemAt(i).getValue() == instance.launcher.jvmTuningProfile) {
+                jvmTuningProfile.setSelectedIndex(i);
+                break;
+            }
+        }
+
+        add(jvmTuningProfile, gbc);
+
+        // Capture GC Logs
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        JLabelWithHover enableGcLoggingLabel = new JLabelWithHover(GetText.tr("Capture GC Logs") + "?", HELP_ICON,
+                new HTMLBuilder().center().text(GetText.tr(
+                        "Captures garbage collection logs from Minecraft into the instance's logs folder and shows a summary of the GC pauses, allocation rate and heap usage in the console after Minecraft closes.<br/><br/>This is useful when working out how much memory and which JVM tuning profile suits a pack."))
+                        .build());
+        add(enableGcLoggingLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.FIRST_LINE_START;
+        enableGcLogging = new JComboBox<>();
+        enableGcLogging.addItem(new ComboItem<>(null, GetText.tr("Use Launcher Default")));
+        enableGcLogging.addItem(new ComboItem<>(true, GetText.tr("Yes")));
+        enableGcLogging.addItem(new ComboItem<>(false, GetText.tr("No")));
+
+        if (instance.launcher.enableGcLogging == null) {
+            enableGcLogging.setSelectedIndex(0);
+        } else if (instance.launcher.enableGcLogging) {
+            enableGcLogging.setSelectedIndex(1);
+        } else {
+            enableGcLogging.setSelectedIndex(2);
+        }
+
+        add(enableGcLogging, gbc);
     }
 
     private Integer getIfNotNull(Integer value, Integer defaultValue) {
@@ -691,6 +787,10 @@ public class JavaInstanceSettingsTab extends JPanel {
         Boolean disableLegacyLaunchingVal = ((ComboItem<Boolean>) disableLegacyLaunching.getSelectedItem()).getValue();
         Boolean useSystemGlfwVal = ((ComboItem<Boolean>) useSystemGlfw.getSelectedItem()).getValue();
         Boolean useSystemOpenAlVal = ((ComboItem<Boolean>) useSystemOpenAl.getSelectedItem()).getValue();
+        Boolean useClassDataSharingVal = ((ComboItem<Boolean>) useClassDataSharing.getSelectedItem()).getValue();
+        Boolean enableGcLoggingVal = ((ComboItem<Boolean>) enableGcLogging.getSelectedItem()).getValue();
+        JvmTuningProfile jvmTuningProfileVal = ((ComboItem<JvmTuningProfile>) jvmTuningProfile.getSelectedItem())
+                .getValue();
 
         this.instance.launcher.maximumMemory = (maximumMemory == App.settings.maximumMemory ? null : maximumMemory);
         this.instance.launcher.permGen = (permGen == App.settings.metaspace ? null : permGen);
@@ -710,6 +810,9 @@ public class JavaInstanceSettingsTab extends JPanel {
         this.instance.launcher.javaRuntimeOverride = javaRuntimeOverrideVal;
         this.instance.launcher.useSystemGlfw = useSystemGlfwVal;
         this.instance.launcher.useSystemOpenAl = useSystemOpenAlVal;
+        this.instance.launcher.useClassDataSharing = useClassDataSharingVal;
+        this.instance.launcher.jvmTuningProfile = jvmTuningProfileVal;
+        this.instance.launcher.enableGcLogging = enableGcLoggingVal;
     }
 
 }
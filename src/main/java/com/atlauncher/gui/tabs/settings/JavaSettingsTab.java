@@ -48,6 +48,7 @@ import com.atlauncher.App;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.constants.UIConstants;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.evnt.listener.RelocalizationListener;
 import com.atlauncher.evnt.listener.SettingsListener;
 import com.atlauncher.evnt.manager.RelocalizationManager;
@@ -98,6 +99,18 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
     private final JLabelWithHover useSystemOpenAlLabel;
     private final JCheckBox useSystemOpenAl;
 
+    private final JLabelWithHover useClassDataSharingLabel;
+    private final JCheckBox useClassDataSharing;
+
+    private final JLabelWithHover jvmTuningProfileLabel;
+    private final JComboBox<ComboItem<JvmTuningProfile>> jvmTuningProfile;
+
+    private final JLabelWithHover enableGcLoggingLabel;
+    private final JCheckBox enableGcLogging;
+
+    private final JLabelWithHover classpathPrefetchBudgetLabel;
+    private final JSpinner classpathPrefetchBudget;
+
     private boolean initialMemoryWarningShown = false;
     private boolean maximumMemoryHalfWarningShown = false;
     private boolean maximumMemoryEightGBWarningShown = false;
@@ -641,6 +654,97 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
         useSystemOpenAl = new JCheckBox();
         useSystemOpenAl.setSelected(App.settings.useSystemOpenAl);
         add(useSystemOpenAl, gbc);
+
+        // Use Class Data Sharing
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        useClassDataSharingLabel = new JLabelWithHover(GetText.tr("Use Class Data Sharing") + "?", HELP_ICON,
+                new HTMLBuilder().center().text(GetText.tr(
+                        "This records the classes Minecraft loads on the first launch and reuses them on later launches to start faster.<br/><br/>Only works with Java 13 and newer. The first launch after changing mods or loader will be a little slower."))
+                        .build());
+        add(useClassDataSharingLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        useClassDataSharing = new JCheckBox();
+        useClassDataSharing.setSelected(App.settings.useClassDataSharing);
+        add(useClassDataSharing, gbc);
+
+        // JVM Tuning Profile
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        jvmTuningProfileLabel = new JLabelWithHover(GetText.tr("JVM Tuning Profile") + ":", HELP_ICON,
+                new HTMLBuilder().center().text(GetText.tr(
+                        "Tunes the garbage collector and JIT for the Java version, memory and CPU being used.<br/><br/>Balanced suits most packs, Low Latency reduces stutters on newer Java versions with plenty of memory and Throughput favours raw performance over pause times. Any settings your Java version doesn't support are skipped."))
+                        .build());
+        add(jvmTuningProfileLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        jvmTuningProfile = new JComboBox<>();
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.NONE, GetText.tr("None (Use Java Parameters)")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.BALANCED, GetText.tr("Balanced")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.LOW_LATENCY, GetText.tr("Low Latency")));
+        jvmTuningProfile.addItem(new ComboItem<>(JvmTuningProfile.THROUGHPUT, GetText.tr("Throughput")));
+
+        for (int i = 0; i < jvmTuningProfile.getItemCount(); i++) {
+            if (jvmTuningProfile.getItemAt(i).getValue() == App.settings.jvmTuningProfile) {
+                jvmTuningProfile.setSelectedIndex(i);
+                break;
+            }
+        }
+
+        add(jvmTuningProfile, gbc);
+
+        // Capture GC Logs
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        enableGcLoggingLabel = new JLabelWithHover(GetText.tr("Capture GC Logs") + "?", HELP_ICON,
+                new HTMLBuilder().center().text(GetText.tr(
+                        "Captures garbage collection logs from Minecraft into the instance's logs folder and shows a summary of the GC pauses, allocation rate and heap usage in the console after Minecraft closes.<br/><br/>This is useful when working out how much memory and which JVM tuning profile suits a pack."))
+                        .build());
+        add(enableGcLoggingLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.CHECKBOX_FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        enableGcLogging = new JCheckBox();
+        enableGcLogging.setSelected(App.settings.enableGcLogging);
+        add(enableGcLogging, gbc);
+
+        // Classpath Prefetch Budget
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        classpathPrefetchBudgetLabel = new JLabelWithHover(GetText.tr("Prefetch Budget") + ":", HELP_ICON,
+                new HTMLBuilder().center().split(100).text(GetText.tr(
+                        "The maximum amount of the instance's libraries and mods (in MB) to read ahead of time while preparing to launch, so they load faster when Minecraft starts.<br/><br/>This mostly helps when the launcher is on a hard drive or network drive. Set to 0 to disable."))
+                        .build());
+        add(classpathPrefetchBudgetLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        SpinnerNumberModel classpathPrefetchBudgetModel = new SpinnerNumberModel(App.settings.classpathPrefetchBudget,
+                null, null, 128);
+        classpathPrefetchBudgetModel.setMinimum(0);
+        classpathPrefetchBudgetModel.setMaximum(16384);
+        classpathPrefetchBudget = new JSpinner(classpathPrefetchBudgetModel);
+        ((JSpinner.DefaultEditor) classpathPrefetchBudget.getEditor()).getTextField().setColumns(5);
+        add(classpathPrefetchBudget, gbc);
     }
 
     public boolean isValidJavaPath() {
@@ -687,6 +791,10 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
         App.settings.disableLegacyLaunching = disableLegacyLaunching.isSelected();
         App.settings.useSystemGlfw = useSystemGlfw.isSelected();
         App.settings.useSystemOpenAl = useSystemOpenAl.isSelected();
+        App.settings.useClassDataSharing = useClassDataSharing.isSelected();
+        App.settings.jvmTuningProfile = ((ComboItem<JvmTuningProfile>) jvmTuningProfile.getSelectedItem()).getValue();
+        App.settings.enableGcLogging = enableGcLogging.isSelected();
+        App.settings.classpathPrefetchBudget = (Integer) classpathPrefetchBudget.getValue();
     }
 
     @Override
@@ -755,6 +863,26 @@ public class JavaSettingsTab extends AbstractSettingsTab implements Relocalizati
         this.disableLegacyLaunchingLabel.setToolTipText(new HTMLBuilder().center().text(GetText.tr(
                 "This allows you to disable legacy launching for Minecraft < 1.6.<br/><br/>It's highly recommended to not disable this, unless you're having issues launching older Minecraft versions."))
                 .build());
+
+        this.useClassDataSharingLabel.setText(GetText.tr("Use Class Data Sharing") + "?");
+        this.useClassDataSharingLabel.setToolTipText(new HTMLBuilder().center().text(GetText.tr(
+                "This records the classes Minecraft loads on the first launch and reuses them on later launches to start faster.<br/><br/>Only works with Java 13 and newer. The first launch after changing mods or loader will be a little slower."))
+                .build());
+
+        this.classpathPrefetchBudgetLabel.setText(GetText.tr("Prefetch Budget") + ":");
+        this.classpathPrefetchBudgetLabel.setToolTipText(new HTMLBuilder().center().split(100).text(GetText.tr(
+                "The maximum amount of the instance's libraries and mods (in MB) to read ahead of time while preparing to launch, so they load faster when Minecraft starts.<br/><br/>This mostly helps when the launcher is on a hard drive or network drive. Set to 0 to disable."))
+                .build());
+
+        this.enableGcLoggingLabel.setText(GetText.tr("Capture GC Logs") + "?");
+        this.enableGcLoggingLabel.setToolTipText(new HTMLBuilder().center().text(GetText.tr(
+                "Captures garbage collection logs from Minecraft into the instance's logs folder and shows a summary of the GC pauses, allocation rate and heap usage in the console after Minecraft closes.<br/><br/>This is useful when working out how much memory and which JVM tuning profile suits a pack."))
+                .build());
+
+        this.jvmTuningProfileLabel.setText(GetText.tr("JVM Tuning Profile") + ":");
+        this.jvmTuningProfileLabel.setToolTipText(new HTMLBuilder().center().text(GetText.tr(
+                "Tunes the garbage collector and JIT for the Java version, memory and CPU being used.<br/><br/>Balanced suits most packs, Low Latency reduces stutters on newer Java versions with plenty of memory and Throughput favours raw performance over pause times. Any settings your Java version doesn't support are skipped."))
+                .build());
     }
 
     @Override
@@ -51,6 +51,9 @@ public class NetworkSettingsTab extends AbstractSettingsTab implements Relocaliz
     private final JLabelWithHover modrinthApiKeyLabel;
     private JTextField modrinthApiKey;
 
+    private final JLabelWithHover downloadMirrorUrlLabel;
+    private JTextField downloadMirrorUrl;
+
     private final JLabelWithHover enableProxyLabel;
     private final JCheckBox enableProxy;
 
@@ -126,6 +129,28 @@ public class NetworkSettingsTab extends AbstractSettingsTab implements Relocaliz
         });
         add(modrinthApiKey, gbc);
 
+        // Download Mirror Settings
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = UIConstants.LABEL_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_TRAILING;
+        downloadMirrorUrlLabel = new JLabelWithHover(GetText.tr("Download Mirror") + ":", HELP_ICON,
+                "<html>" + GetText.tr(
+                        "The url of a download mirror on your network to check for files before downloading them from the internet.")
+                        + "</html>");
+        add(downloadMirrorUrlLabel, gbc);
+
+        gbc.gridx++;
+        gbc.insets = UIConstants.FIELD_INSETS;
+        gbc.anchor = GridBagConstraints.BASELINE_LEADING;
+        downloadMirrorUrl = new JTextField(40);
+        downloadMirrorUrl.setText(App.settings.downloadMirrorUrl);
+        downloadMirrorUrl.putClientProperty("JTextField.showClearButton", true);
+        downloadMirrorUrl.putClientProperty("JTextField.clearCallback", (Runnable) () -> {
+            downloadMirrorUrl.setText("");
+        });
+        add(downloadMirrorUrl, gbc);
+
         // Enable Proxy
         gbc.gridx = 0;
         gbc.gridy++;
@@ -268,6 +293,8 @@ public class NetworkSettingsTab extends AbstractSettingsTab implements Relocaliz
         App.settings.concurrentConnections = (Integer) concurrentConnections.getValue();
         App.settings.connectionTimeout = (Integer) connectionTimeout.getValue();
         App.settings.modrinthApiKey = modrinthApiKey.getText();
+        App.settings.downloadMirrorUrl = downloadMirrorUrl.getText().trim().isEmpty() ? null
+                : downloadMirrorUrl.getText().trim();
         App.settings.enableProxy = enableProxy.isSelected();
         if (enableProxy.isSelected()) {
             App.settings.proxyHost = proxyHost.getText();
@@ -306,6 +333,11 @@ public class NetworkSettingsTab extends AbstractSettingsTab implements Relocaliz
                         "Api key to use when making requests to Modrinth. This is unecessary to set unless you want to access private data.")
                         + "</html>");
 
+        this.downloadMirrorUrlLabel.setText(GetText.tr("Download Mirror") + ":");
+        this.downloadMirrorUrlLabel.setToolTipText("<html>" + GetText.tr(
+                "The url of a download mirror on your network to check for files before downloading them from the internet.")
+                + "</html>");
+
         this.enableProxyLabel.setText(GetText.tr("Enable Proxy") + "?");
         this.enableProxyLabel.setToolTipText(GetText
                 .tr("If you use a proxy to connect to the internet you can enable it here."));
@@ -0,0 +1,182 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.data.AbstractAccount;
+import com.atlauncher.data.MicrosoftAccount;
+
+/**
+ * Refreshes Microsoft account tokens in the background before they expire, so that launching an instance doesn't have
+ * to wait on the chain of auth requests to get a new Minecraft access token.
+ *
+ * Each account has at most one refresh scheduled at a time, which is spread out with some random jitter and limited
+ * to one attempt every few minutes, backing off further when refreshes fail. Failed refreshes are otherwise left
+ * alone, and the normal refresh when launching takes care of asking the user to login again if needed.
+ */
+public class AccountRefreshManager {
+    // how long before the first of the account's tokens expires to refresh them
+    private static final long REFRESH_AHEAD_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    // refreshes are spread randomly over this window so they don't all happen at once
+    private static final long JITTER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // don't refresh straight away on startup while everything else is loading
+    private static final long MIN_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    private static final long MIN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "AccountRefresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<MicrosoftAccount, State> STATES = new IdentityHashMap<>();
+    private static boolean started = false;
+
+    private static final class State {
+        private ScheduledFuture<?> future = null;
+        private long lastAttempt = 0;
+        private int failures = 0;
+    }
+
+    /**
+     * Starts scheduling refreshes for all the Microsoft accounts, keeping the schedule up to date as accounts are
+     * added and removed.
+     */
+    public static void start() {
+        synchronized (STATES) {
+            if (started) {
+                return;
+            }
+
+            started = true;
+        }
+
+        AccountManager.getAccountsObservable().subscribe(AccountRefreshManager::scheduleAll);
+    }
+
+    private static void scheduleAll(List<AbstractAccount> accounts) {
+        synchronized (STATES) {
+            Map<AbstractAccount, Boolean> current = new IdentityHashMap<>();
+            accounts.forEach(account -> current.put(account, true));
+
+            for (MicrosoftAccount account : new ArrayList<>(STATES.keySet())) {
+                if (!current.containsKey(account)) {
+                    cancel(STATES.remove(account));
+                }
+            }
+
+            accounts.stream().filter(account -> account instanceof MicrosoftAccount)
+                    .forEach(account -> schedule((MicrosoftAccount) account));
+        }
+    }
+
+    /**
+     * (Re)schedules the next background refresh of the given account based on when the first of its tokens expires.
+     */
+    public static void schedule(MicrosoftAccount account) {
+        synchronized (STATES) {
+            if (!started) {
+                return;
+            }
+
+            State state = STATES.computeIfAbsent(account, a -> new State());
+            cancel(state);
+
+            Date expiresAt = account.getEarliestTokenExpiry();
+            if (account.mustLogin || expiresAt == null) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            long due = expiresAt.getTime() - REFRESH_AHEAD_MILLIS
+                    - ThreadLocalRandom.current().nextLong(JITTER_MILLIS);
+
+            due = Math.max(due, state.lastAttempt + MIN_INTERVAL_MILLIS);
+            if (state.failures != 0) {
+                due = Math.max(due, state.lastAttempt + getBackoff(state.failures));
+            }
+
+            state.future = EXECUTOR.schedule(() -> refresh(account), Math.max(due - now, MIN_DELAY_MILLIS),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long getBackoff(int failures) {
+        return Math.min(MIN_INTERVAL_MILLIS << Math.min(failures - 1, 10), MAX_BACKOFF_MILLIS);
+    }
+
+    private static void cancel(State state) {
+        if (state != null && state.future != null) {
+            state.future.cancel(false);
+            state.future = null;
+        }
+    }
+
+    private static void refresh(MicrosoftAccount account) {
+        State state;
+        synchronized (STATES) {
+            state = STATES.get(account);
+
+            if (state == null) {
+                return;
+            }
+
+            state.future = null;
+            state.lastAttempt = System.currentTimeMillis();
+        }
+
+        boolean success = false;
+        try {
+            LogManager.debug("Refreshing tokens in the background for account " + account.minecraftUsername);
+            success = account.refreshAccessTokenInBackground(REFRESH_AHEAD_MILLIS + JITTER_MILLIS);
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Error refreshing tokens in the background", t);
+        }
+
+        synchronized (STATES) {
+            if (STATES.get(account) != state) {
+                return;
+            }
+
+            state.failures = success ? 0 : state.failures + 1;
+
+            if (!success) {
+                LogManager.warn("Failed to refresh tokens in the background for account " + account.minecraftUsername
+                        + ", will try again later");
+            }
+
+            if (state.future == null) {
+                schedule(account);
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 
 import com.atlauncher.App;
@@ -36,110 +37,68 @@ import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 
 public class ConfigManager {
+    private static volatile CompiledConfig compiledConfig = null;
 
     /**
-     * Gets a config item. Use dot notation to get an item from the config
-     * ("loaders.fabric.enabled").
-     *
-     * TODO: make this not shit. It's pretty shit
+     * The config and its overrides flattened into a single map keyed by the full dotted key, so looking up an item is
+     * a single map lookup. It's rebuilt whenever {@link Data#CONFIG} or {@link Data#CONFIG_OVERRIDES} is replaced, but
+     * changes made to those maps in place won't be seen.
      */
-    public static <T> T getConfigItem(String key, T defaultValue) {
-        if (hasConfigItem(key, Data.CONFIG_OVERRIDES)) {
-            return getConfigItem(key, defaultValue, Data.CONFIG_OVERRIDES);
-        }
+    private static final class CompiledConfig {
+        private final Map<String, Object> config;
+        private final Map<String, Object> overrides;
+        private final Map<String, Object> items = new HashMap<>();
 
-        if (hasConfigItem(key, Data.CONFIG)) {
-            return getConfigItem(key, defaultValue, Data.CONFIG);
-        }
+        private CompiledConfig(Map<String, Object> config, Map<String, Object> overrides) {
+            this.config = config;
+            this.overrides = overrides;
 
-        return defaultValue;
-    }
-
-    private static boolean hasConfigItem(String key, Map<String, Object> source) {
-        if (source == null) {
-            return false;
+            flatten(null, config, items);
+            flatten(null, overrides, items);
         }
 
-        try {
-            String[] keyParts = key.split("\\.");
-
+        @SuppressWarnings("unchecked")
+        private static void flatten(String prefix, Map<String, Object> source, Map<String, Object> items) {
             if (source == null) {
-                return false;
-            }
-
-            if (keyParts.length == 1) {
-                return source.containsKey(keyParts[0]);
+                return;
             }
 
-            Map<String, Object> secondLevel = (Map<String, Object>) source.get(keyParts[0]);
+            for (Map.Entry<String, Object> entry : source.entrySet()) {
+                String key = prefix == null ? entry.getKey() : prefix + "." + entry.getKey();
 
-            if (secondLevel == null) {
-                return false;
-            }
-
-            if (keyParts.length == 2) {
-                return secondLevel.containsKey(keyParts[1]);
-            }
+                items.put(key, entry.getValue());
 
-            Map<String, Object> thirdLevel = (Map<String, Object>) secondLevel.get(keyParts[1]);
-
-            if (thirdLevel == null) {
-                return false;
+                if (entry.getValue() instanceof Map) {
+                    flatten(key, (Map<String, Object>) entry.getValue(), items);
+                }
             }
-            return thirdLevel.containsKey(keyParts[2]);
-        } catch (Throwable t) {
-            LogManager.logStackTrace(String.format("Error checking if config value for key '%s' exists", key), t);
-            return false;
         }
     }
 
-    private static <T> T getConfigItem(String key, T defaultValue, Map<String, Object> source) {
-        if (source == null) {
-            return defaultValue;
-        }
-
-        try {
-            String[] keyParts = key.split("\\.");
-
-            Object data = source.get(keyParts[0]);
-
-            if (keyParts.length == 1) {
-                if (data == null) {
-                    return defaultValue;
-                }
-
-                return (T) data;
-            }
-
-            Map<String, Object> secondLevel = (Map<String, Object>) data;
-
-            if (secondLevel == null) {
-                return defaultValue;
-            }
+    private static CompiledConfig getCompiledConfig() {
+        CompiledConfig compiled = compiledConfig;
 
-            if (keyParts.length == 2) {
-                if (!secondLevel.containsKey(keyParts[1])) {
-                    return defaultValue;
-                }
-
-                return (T) secondLevel.get(keyParts[1]);
-            }
-
-            Map<String, Object> thirdLevel = (Map<String, Object>) secondLevel.get(keyParts[1]);
+        if (compiled == null || compiled.config != Data.CONFIG || compiled.overrides != Data.CONFIG_OVERRIDES) {
+            compiled = new CompiledConfig(Data.CONFIG, Data.CONFIG_OVERRIDES);
+            compiledConfig = compiled;
+        }
 
-            if (thirdLevel == null) {
-                return defaultValue;
-            }
+        return compiled;
+    }
 
-            if (!thirdLevel.containsKey(keyParts[2])) {
-                return defaultValue;
-            }
+    /**
+     * Gets a config item. Use dot notation to get an item from the config
+     * ("loaders.fabric.enabled").
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getConfigItem(String key, T defaultValue) {
+        Object value = getCompiledConfig().items.get(key);
 
-            return (T) thirdLevel.get(keyParts[2]);
-        } catch (Throwable t) {
-            LogManager.logStackTrace(String.format("Error loading config value for key '%s'", key), t);
+        if (value == null) {
             return defaultValue;
         }
+
+        return (T) value;
     }
 
     /**
@@ -171,6 +130,8 @@ public class ConfigManager {
             }
         }
 
+        compiledConfig = new CompiledConfig(Data.CONFIG, Data.CONFIG_OVERRIDES);
+
         afterConfigLoaded();
 
         LogManager.debug("Finished loading config");
@@ -193,5 +154,7 @@ public class ConfigManager {
         if (ConfigManager.getConfigItem("errorReporting.enabled", true) == false && ErrorReporting.sentryInitialised) {
             ErrorReporting.disable();
         }
+
+        MinecraftManager.reloadDisabledVersions();
     }
 }
@@ -17,13 +17,18 @@
  */
 package com.atlauncher.managers;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import com.atlauncher.App;
+import com.atlauncher.collection.Caching;
+import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.curseforge.CurseForgeFile;
 import com.atlauncher.data.curseforge.CurseForgeProject;
@@ -39,6 +44,12 @@ public class CurseForgeUpdateManager {
     private static final Map<UUID, BehaviorSubject<Optional<CurseForgeFile>>>
         CURSEFORGE_INSTANCE_LATEST_VERSION = new ConcurrentHashMap<>();
 
+    /**
+     * Recently fetched projects, keyed by CurseForge project id
+     */
+    private static final Caching.Cache<Integer, CurseForgeProject> PROJECT_CACHE = Caching
+        .newTTL(Constants.EXTERNAL_PACK_UPDATE_CACHE_MINUTES, TimeUnit.MINUTES);
+
     /**
      * Get the update behavior subject for a given instance.
      *
@@ -86,16 +97,36 @@ public class CurseForgeUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to CurseForge instances");
 
-        int[] projectIdsFound = InstanceManager.getInstances().parallelStream()
+        int[] projectIdsFound = InstanceManager.getInstances().stream()
             .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId())
             .mapToInt(i -> i.launcher.curseForgeManifest != null
                 ? i.launcher.curseForgeManifest.projectID
                 : i.launcher.curseForgeProject.id)
+            .distinct()
+            .toArray();
+
+        Map<Integer, CurseForgeProject> foundProjects = new HashMap<>();
+        for (int projectId : projectIdsFound) {
+            CurseForgeProject cachedProject = PROJECT_CACHE.get(projectId);
+
+            if (cachedProject != null) {
+                foundProjects.put(projectId, cachedProject);
+            }
+        }
+
+        int[] projectIdsToFetch = Arrays.stream(projectIdsFound).filter(id -> !foundProjects.containsKey(id))
             .toArray();
 
-        Map<Integer, CurseForgeProject> foundProjects = CurseForgeApi.getProjectsAsMap(projectIdsFound);
+        if (projectIdsToFetch.length != 0) {
+            Map<Integer, CurseForgeProject> fetchedProjects = CurseForgeApi.getProjectsAsMap(projectIdsToFetch);
+
+            if (fetchedProjects != null) {
+                fetchedProjects.forEach(PROJECT_CACHE::put);
+                foundProjects.putAll(fetchedProjects);
+            }
+        }
 
-        if (foundProjects != null) {
+        if (foundProjects.size() != 0) {
 
             InstanceManager.getInstances().parallelStream()
                 .filter(i -> i.isCurseForgePack() && i.hasCurseForgeProjectId()).forEach(i -> {
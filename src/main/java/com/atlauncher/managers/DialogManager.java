@@ -17,6 +17,7 @@
  */
 package com.atlauncher.managers;
 
+import java.awt.GraphicsEnvironment;
 import java.awt.Window;
 import java.io.File;
 import java.util.LinkedList;
@@ -185,6 +186,10 @@ public final class DialogManager {
     }
 
     public int show() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return showHeadless();
+        }
+
         try {
             return JOptionPane.showOptionDialog(this.getParent(), this.content, this.title, this.lookAndFeel, this.type,
                     this.icon, this.getOptions(), this.defaultOption);
@@ -196,6 +201,10 @@ public final class DialogManager {
     }
 
     public int showWithFileMonitoring(File firstFile, File secondFile, int size, int returnValue) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return showHeadless();
+        }
+
         try {
             Object[] options = this.getOptions();
 
@@ -252,6 +261,16 @@ public final class DialogManager {
         return -1;
     }
 
+    /**
+     * There's nobody to answer dialogs when running headless, so log them and treat them as closed.
+     */
+    private int showHeadless() {
+        LogManager.warn("Dialog \"" + this.title + "\" can't be shown when running headless"
+                + (this.content instanceof String ? ": " + this.content : ""));
+
+        return CLOSED_OPTION;
+    }
+
     public String showInput() {
         return showInput("");
     }
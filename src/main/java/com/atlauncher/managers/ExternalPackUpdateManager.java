@@ -0,0 +1,90 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the update checks for all the external pack platforms at the same time, making sure only one round of checks
+ * is in flight at once. Any requests to check while a round is running are coalesced into a single extra round once
+ * the current one finishes.
+ */
+public class ExternalPackUpdateManager {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "ExternalPackUpdateChecker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicBoolean CHECKING = new AtomicBoolean(false);
+    private static final AtomicBoolean RECHECK = new AtomicBoolean(false);
+
+    public static void checkForUpdates() {
+        if (!CHECKING.compareAndSet(false, true)) {
+            RECHECK.set(true);
+            return;
+        }
+
+        RECHECK.set(false);
+        EXECUTOR.execute(() -> {
+            try {
+                runChecks();
+            } finally {
+                CHECKING.set(false);
+            }
+
+            if (RECHECK.getAndSet(false)) {
+                checkForUpdates();
+            }
+        });
+    }
+
+    private static void runChecks() {
+        List<CompletableFuture<Void>> checks = new ArrayList<>();
+
+        if (InstanceManager.getInstances().stream().anyMatch(i -> i.isModpacksChPack())) {
+            checks.add(runCheck(ModpacksChUpdateManager::checkForUpdates));
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(i -> i.isCurseForgePack())) {
+            checks.add(runCheck(CurseForgeUpdateManager::checkForUpdates));
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(i -> i.isTechnicPack())) {
+            checks.add(runCheck(TechnicModpackUpdateManager::checkForUpdates));
+        }
+        if (InstanceManager.getInstances().stream().anyMatch(i -> i.isModrinthPack())) {
+            checks.add(runCheck(ModrinthModpackUpdateManager::checkForUpdates));
+        }
+
+        CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).join();
+    }
+
+    private static CompletableFuture<Void> runCheck(Runnable check) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                check.run();
+            } catch (Throwable t) {
+                LogManager.logStackTrace("Error checking for external pack updates", t);
+            }
+        }, EXECUTOR);
+    }
+}
@@ -30,8 +30,10 @@ import java.util.Optional;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.InstanceExportStaging;
 import com.atlauncher.data.Pack;
 import com.atlauncher.exceptions.InvalidPack;
+import com.atlauncher.mclauncher.ClassDataSharing;
 import com.atlauncher.utils.CurseForgeApi;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Utils;
@@ -200,6 +202,9 @@ public class InstanceManager {
     public static void removeInstance(Instance instance) {
         List<Instance> instances = INSTANCES.getValue();
         if (instances.remove(instance)) {
+            instance.closeFileIndex();
+            ClassDataSharing.clearArchives(instance);
+            InstanceExportStaging.clear(instance);
             FileUtils.delete(instance.getRoot(), true);
             INSTANCES.onNext(instances);
         }
@@ -275,7 +280,7 @@ public class InstanceManager {
         }
     }
 
-    public static void addInstance(Instance instance) {
+    public static synchronized void addInstance(Instance instance) {
         List<Instance> instances = INSTANCES.getValue();
         instances.add(instance);
         INSTANCES.onNext(instances);
@@ -286,7 +291,7 @@ public class InstanceManager {
      *
      * @param instance Instance to update
      */
-    public static void updateInstance(Instance instance) {
+    public static synchronized void updateInstance(Instance instance) {
         List<Instance> instances = INSTANCES.getValue();
         instances.removeIf(it -> it.getUUID().equals(instance.getUUID()));
         instances.add(instance);
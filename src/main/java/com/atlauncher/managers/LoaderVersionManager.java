@@ -0,0 +1,336 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.apollographql.apollo.ApolloQueryCall;
+import com.apollographql.apollo.api.Response;
+import com.apollographql.apollo.api.cache.http.HttpCachePolicy;
+import com.apollographql.apollo.rx3.Rx3Apollo;
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.minecraft.VersionManifestVersionType;
+import com.atlauncher.data.minecraft.loaders.LoaderType;
+import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+import com.atlauncher.data.minecraft.loaders.fabric.FabricLoader;
+import com.atlauncher.data.minecraft.loaders.forge.ForgeLoader;
+import com.atlauncher.data.minecraft.loaders.legacyfabric.LegacyFabricLoader;
+import com.atlauncher.data.minecraft.loaders.neoforge.NeoForgeLoader;
+import com.atlauncher.data.minecraft.loaders.quilt.QuiltLoader;
+import com.atlauncher.graphql.GetLoaderVersionsForMinecraftVersionQuery;
+import com.atlauncher.network.GraphqlClient;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Pair;
+
+/**
+ * Caches the loader versions available for each loader and Minecraft version, in memory and on disk.
+ *
+ * Cached versions are always returned straight away. If they're older than a little while, they're checked for
+ * updates in the background so the next lookup gets the new versions. Only versions we've never seen before need to
+ * wait on the network, and concurrent requests for the same versions share the one request.
+ */
+public class LoaderVersionManager {
+    // how long cached versions are used before checking for new ones
+    private static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    // how many of the latest Minecraft releases to fetch ahead of time
+    private static final int PREFETCH_COUNT = 3;
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "LoaderVersionFetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<String, CachedVersions> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<CachedVersions>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    private interface VersionFetcher {
+        List<LoaderVersion> fetch(String minecraft) throws IOException;
+    }
+
+    private static final class CachedVersions {
+        private final long fetchedAt;
+        private final List<LoaderVersion> versions;
+
+        private CachedVersions(long fetchedAt, List<LoaderVersion> versions) {
+            this.fetchedAt = fetchedAt;
+            this.versions = versions;
+        }
+
+        private boolean isStale() {
+            return System.currentTimeMillis() - fetchedAt > MAX_AGE_MILLIS;
+        }
+    }
+
+    /**
+     * Gets the versions of the given loader which can be chosen for the given Minecraft version, minus any which have
+     * been disabled.
+     */
+    public static List<LoaderVersion> getChoosableVersions(LoaderType type, String minecraft) {
+        return getChoosableVersions(type, minecraft, false);
+    }
+
+    /**
+     * Gets the versions of the given loader which can be chosen for the given Minecraft version, minus any which have
+     * been disabled.
+     *
+     * If graphql is true, the versions come from the one GraphQL query for all loaders used when creating vanilla
+     * instances rather than from each loader's own lookup, and are cached separately.
+     *
+     * The versions returned are copies, so they can be changed without affecting the cache.
+     */
+    public static List<LoaderVersion> getChoosableVersions(LoaderType type, String minecraft, boolean graphql) {
+        CachedVersions cached = getCached(type, minecraft, graphql);
+
+        if (cached != null) {
+            if (cached.isStale()) {
+                fetch(type, minecraft, graphql);
+            }
+
+            return filterDisabledVersions(type, cached.versions);
+        }
+
+        cached = fetch(type, minecraft, graphql).join();
+
+        if (cached == null) {
+            return new ArrayList<>();
+        }
+
+        return filterDisabledVersions(type, cached.versions);
+    }
+
+    /**
+     * Fetches the versions of the given loader for the latest Minecraft releases in the background, since those are
+     * the most likely to be picked next.
+     */
+    public static void prefetch(LoaderType type) {
+        prefetch(type, false);
+    }
+
+    public static void prefetch(LoaderType type, boolean graphql) {
+        // legacy fabric doesn't support any recent Minecraft versions
+        if (type == LoaderType.LEGACY_FABRIC) {
+            return;
+        }
+
+        EXECUTOR.execute(() -> MinecraftManager.getFilteredMinecraftVersions(VersionManifestVersionType.RELEASE)
+                .stream().limit(PREFETCH_COUNT).forEach(mv -> {
+                    CachedVersions cached = getCached(type, mv.id, graphql);
+
+                    if (cached == null || cached.isStale()) {
+                        fetch(type, mv.id, graphql);
+                    }
+                }));
+    }
+
+    private static CachedVersions getCached(LoaderType type, String minecraft, boolean graphql) {
+        String key = getKey(type, minecraft, graphql);
+        CachedVersions cached = CACHE.get(key);
+
+        if (cached == null) {
+            cached = readFromDisk(key);
+
+            if (cached != null) {
+                CachedVersions existing = CACHE.putIfAbsent(key, cached);
+                cached = existing == null ? cached : existing;
+            }
+        }
+
+        return cached;
+    }
+
+    private static CompletableFuture<CachedVersions> fetch(LoaderType type, String minecraft, boolean graphql) {
+        String key = getKey(type, minecraft, graphql);
+        CompletableFuture<CachedVersions> future = new CompletableFuture<>();
+        CompletableFuture<CachedVersions> existing = IN_FLIGHT.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        EXECUTOR.execute(() -> {
+            CachedVersions fetched = null;
+
+            try {
+                List<LoaderVersion> versions = graphql ? fetchFromGraphql(type, minecraft)
+                        : getFetcher(type).fetch(minecraft);
+
+                fetched = new CachedVersions(System.currentTimeMillis(), versions);
+                CACHE.put(key, fetched);
+                writeToDisk(key, fetched);
+            } catch (Throwable t) {
+                LogManager.logStackTrace(
+                        String.format(Locale.ENGLISH, "Error getting %s versions for Minecraft %s", type, minecraft),
+                        t);
+            } finally {
+                IN_FLIGHT.remove(key, future);
+                future.complete(fetched);
+            }
+        });
+
+        return future;
+    }
+
+    private static VersionFetcher getFetcher(LoaderType type) {
+        switch (type) {
+            case FABRIC:
+                return FabricLoader::fetchChoosableVersions;
+            case LEGACY_FABRIC:
+                return LegacyFabricLoader::fetchChoosableVersions;
+            case NEOFORGE:
+                return NeoForgeLoader::fetchChoosableVersions;
+            case QUILT:
+                return QuiltLoader::fetchChoosableVersions;
+            case FORGE:
+            default:
+                return ForgeLoader::fetchChoosableVersions;
+        }
+    }
+
+    private static List<LoaderVersion> fetchFromGraphql(LoaderType type, String minecraft) {
+        ApolloQueryCall<GetLoaderVersionsForMinecraftVersionQuery.Data> call = GraphqlClient.apolloClient
+                .query(new GetLoaderVersionsForMinecraftVersionQuery(minecraft)).toBuilder()
+                .httpCachePolicy(new HttpCachePolicy.Policy(HttpCachePolicy.FetchStrategy.CACHE_FIRST, 5,
+                        TimeUnit.MINUTES, false))
+                .build();
+
+        Response<GetLoaderVersionsForMinecraftVersionQuery.Data> response = Rx3Apollo.from(call).blockingFirst();
+        GetLoaderVersionsForMinecraftVersionQuery.Data data = response.getData();
+
+        if (data == null) {
+            return new ArrayList<>();
+        }
+
+        switch (type) {
+            case FABRIC:
+                return data.loaderVersions().fabric().stream()
+                        .map(version -> new LoaderVersion(version.version(), false, "Fabric"))
+                        .collect(Collectors.toList());
+            case LEGACY_FABRIC:
+                return data.loaderVersions().legacyfabric().stream()
+                        .map(version -> new LoaderVersion(version.version(), false, "LegacyFabric"))
+                        .collect(Collectors.toList());
+            case NEOFORGE:
+                return data.loaderVersions().neoforge().stream()
+                        .map(version -> new LoaderVersion(version.version(), version.rawVersion(), false, "NeoForge"))
+                        .collect(Collectors.toList());
+            case QUILT:
+                return data.loaderVersions().quilt().stream()
+                        .map(version -> new LoaderVersion(version.version(), false, "Quilt"))
+                        .collect(Collectors.toList());
+            case FORGE:
+            default:
+                return data.loaderVersions().forge().stream().map(version -> {
+                    LoaderVersion lv = new LoaderVersion(version.version(), version.rawVersion(),
+                            version.recommended(), "Forge");
+                    if (version.installerSha1Hash() != null && version.installerSize() != null) {
+                        lv.downloadables.put("installer",
+                                new Pair<>(version.installerSha1Hash(), version.installerSize().longValue()));
+                    }
+                    if (version.universalSha1Hash() != null && version.universalSize() != null) {
+                        lv.downloadables.put("universal",
+                                new Pair<>(version.universalSha1Hash(), version.universalSize().longValue()));
+                    }
+                    if (version.clientSha1Hash() != null && version.clientSize() != null) {
+                        lv.downloadables.put("client",
+                                new Pair<>(version.clientSha1Hash(), version.clientSize().longValue()));
+                    }
+                    if (version.serverSha1Hash() != null && version.serverSize() != null) {
+                        lv.downloadables.put("server",
+                                new Pair<>(version.serverSha1Hash(), version.serverSize().longValue()));
+                    }
+                    return lv;
+                }).collect(Collectors.toList());
+        }
+    }
+
+    private static String getConfigName(LoaderType type) {
+        return type == LoaderType.LEGACY_FABRIC ? "legacyfabric" : type.name().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static List<LoaderVersion> filterDisabledVersions(LoaderType type, List<LoaderVersion> versions) {
+        List<String> disabledVersions = ConfigManager.getConfigItem(
+                String.format("loaders.%s.disabledVersions", getConfigName(type)), new ArrayList<String>());
+
+        return versions.stream().filter(lv -> !disabledVersions.contains(lv.version)).map(LoaderVersion::new)
+                .collect(Collectors.toList());
+    }
+
+    private static String getKey(LoaderType type, String minecraft, boolean graphql) {
+        return (graphql ? "graphql-" : "") + getConfigName(type) + "-" + minecraft;
+    }
+
+    private static Path getCacheFile(String key) {
+        return FileSystem.LOADER_VERSIONS_CACHE.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private static CachedVersions readFromDisk(String key) {
+        Path file = getCacheFile(key);
+
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            CachedVersions cached = Gsons.DEFAULT.fromJson(reader, CachedVersions.class);
+
+            return cached == null || cached.versions == null ? null : cached;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read cached loader versions from " + file, e);
+            FileUtils.delete(file);
+            return null;
+        }
+    }
+
+    private static void writeToDisk(String key, CachedVersions cached) {
+        Path file = getCacheFile(key);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(FileSystem.LOADER_VERSIONS_CACHE);
+
+            try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(temp),
+                    StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(cached, writer);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to cache loader versions to " + file, e);
+        }
+    }
+}
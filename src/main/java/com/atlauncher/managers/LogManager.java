@@ -49,6 +49,13 @@ public final class LogManager {
         redirectSystemOutLogs();
     }
 
+    /**
+     * Starts logging without the launcher console, leaving stdout alone so it can be used for output.
+     */
+    public static void startHeadless() {
+        new LoggingThread(queue).start();
+    }
+
     private static void redirectSystemOutLogs() {
         PrintStream origOut = System.out;
         PrintStream origErr = System.err;
@@ -22,16 +22,15 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import org.joda.time.format.ISODateTimeFormat;
 
 import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.data.minecraft.JavaRuntimes;
+import com.atlauncher.data.minecraft.MinecraftVersionCatalog;
 import com.atlauncher.data.minecraft.VersionManifest;
 import com.atlauncher.data.minecraft.VersionManifestVersion;
 import com.atlauncher.data.minecraft.VersionManifestVersionType;
@@ -47,22 +46,22 @@ public class MinecraftManager {
         PerformanceManager.start();
         LogManager.debug("Loading Minecraft versions");
 
-        Data.MINECRAFT.clear();
+        List<VersionManifestVersion> versions = Collections.emptyList();
 
         try (InputStreamReader fileReader = new InputStreamReader(
                 new FileInputStream(FileSystem.JSON.resolve("minecraft_versions.json").toFile()),
                 StandardCharsets.UTF_8)) {
             VersionManifest versionManifest = Gsons.DEFAULT.fromJson(fileReader, VersionManifest.class);
 
-            if (versionManifest != null) {
-                versionManifest.versions.forEach((version) -> {
-                    Data.MINECRAFT.put(version.id, version);
-                });
+            if (versionManifest != null && versionManifest.versions != null) {
+                versions = versionManifest.versions;
             }
         } catch (JsonSyntaxException | IOException | JsonIOException e) {
             LogManager.logStackTrace(e);
         }
 
+        Data.MINECRAFT = new MinecraftVersionCatalog(versions, getDisabledVersions());
+
         LogManager.debug("Finished loading Minecraft versions");
         PerformanceManager.end();
     }
@@ -86,21 +85,55 @@ public class MinecraftManager {
         PerformanceManager.end();
     }
 
+    /**
+     * Rebuilds the Minecraft version catalog with the disabled versions from the current config.
+     */
+    public static void reloadDisabledVersions() {
+        MinecraftVersionCatalog catalog = Data.MINECRAFT;
+
+        Data.MINECRAFT = new MinecraftVersionCatalog(catalog.getAll(), getDisabledVersions());
+    }
+
+    private static List<String> getDisabledVersions() {
+        List<String> disabledVersions = new ArrayList<>();
+
+        for (VersionManifestVersionType vt : VersionManifestVersionType.values()) {
+            disabledVersions.addAll(ConfigManager.getConfigItem(
+                    String.format("minecraft.%s.disabledVersions", vt.getValue()), new ArrayList<String>()));
+        }
+
+        return disabledVersions;
+    }
+
     public static boolean isMinecraftVersion(String version) {
-        return Data.MINECRAFT.containsKey(version);
+        return Data.MINECRAFT.contains(version);
     }
 
     public static VersionManifestVersion getMinecraftVersion(String version) throws InvalidMinecraftVersion {
-        if (!Data.MINECRAFT.containsKey(version)) {
+        VersionManifestVersion minecraftVersion = Data.MINECRAFT.get(version);
+
+        if (minecraftVersion == null) {
             throw new InvalidMinecraftVersion("No Minecraft version found matching " + version);
         }
 
-        return Data.MINECRAFT.get(version);
+        return minecraftVersion;
+    }
+
+    /**
+     * Gets the time the given version was released in milliseconds since the epoch.
+     */
+    public static long getReleaseTime(VersionManifestVersion version) {
+        return Data.MINECRAFT.getReleaseTime(version);
     }
 
     public static List<VersionManifestVersion> getMajorMinecraftVersions(String version)
             throws InvalidMinecraftVersion {
-        VersionManifestVersion parentVersion = getMinecraftVersion(version);
+        MinecraftVersionCatalog catalog = Data.MINECRAFT;
+        VersionManifestVersion parentVersion = catalog.get(version);
+
+        if (parentVersion == null) {
+            throw new InvalidMinecraftVersion("No Minecraft version found matching " + version);
+        }
 
         // this doesn't apply for anything other than release types
         if (parentVersion.type != VersionManifestVersionType.RELEASE) {
@@ -109,68 +142,19 @@ public class MinecraftManager {
             return singleList;
         }
 
-        return Data.MINECRAFT.entrySet().stream()
-                .filter(e -> {
-                    if (e.getValue().type != VersionManifestVersionType.RELEASE) {
-                        return false;
-                    }
-
-                    // no patch version (for instance 1.19, 1.18, etc)
-                    if (version.split("\\.").length == 2) {
-                        return e.getKey().startsWith(version);
-                    }
-
-                    return e.getKey().startsWith(version.substring(0, version.lastIndexOf(".")));
-                })
-                .map(e -> e.getValue()).collect(Collectors.toList());
+        return catalog.getMajorReleases(version);
     }
 
     public static List<VersionManifestVersion> getFilteredMinecraftVersions(
-            List<VersionManifestVersionType> filterTypes) {
-        List<String> disabledVersions = new ArrayList<>();
-
-        filterTypes.forEach(ft -> {
-            disabledVersions.addAll(ConfigManager.getConfigItem(
-                    String.format("minecraft.%s.disabledVersions", ft.getValue()), new ArrayList<String>()));
-        });
-
-        return Data.MINECRAFT.values().stream().filter(mv -> {
-            if (disabledVersions.contains(mv.id)) {
-                return false;
-            }
-
-            return filterTypes.contains(mv.type);
-        }).sorted(Comparator.comparingLong((VersionManifestVersion mv) -> {
-            return ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000;
-        }).reversed()).collect(Collectors.toList());
+            Collection<VersionManifestVersionType> filterTypes) {
+        return Data.MINECRAFT.getEnabledVersions(filterTypes);
     }
 
     public static List<VersionManifestVersion> getFilteredMinecraftVersions(VersionManifestVersionType filterType) {
-        List<String> disabledVersions = ConfigManager.getConfigItem(
-                String.format("minecraft.%s.disabledVersions", filterType.getValue()), new ArrayList<String>());
-
-        return Data.MINECRAFT.values().stream().filter(mv -> {
-            if (disabledVersions.contains(mv.id)) {
-                return false;
-            }
-
-            return mv.type == filterType;
-        }).sorted(Comparator.comparingLong((VersionManifestVersion mv) -> {
-            return ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000;
-        }).reversed()).collect(Collectors.toList());
+        return Data.MINECRAFT.getEnabledVersions(filterType);
     }
 
     public static List<VersionManifestVersion> getMinecraftVersions() {
-        List<String> disabledVersions = new ArrayList<>();
-
-        for (VersionManifestVersionType vt : VersionManifestVersionType.values()) {
-            disabledVersions.addAll(ConfigManager.getConfigItem(
-                    String.format("minecraft.%s.disabledVersions", vt.getValue()), new ArrayList<String>()));
-        }
-
-        return Data.MINECRAFT.values().stream().filter(mv -> !disabledVersions.contains(mv.id))
-                .sorted(Comparator.comparingLong((VersionManifestVersion mv) -> {
-                    return ISODateTimeFormat.dateTimeParser().parseDateTime(mv.releaseTime).getMillis() / 1000;
-                }).reversed()).collect(Collectors.toList());
+        return Data.MINECRAFT.getEnabledVersions();
     }
 }
@@ -18,13 +18,16 @@
 package com.atlauncher.managers;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.atlauncher.collection.Caching;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.modpacksch.ModpacksChPackManifest;
@@ -41,6 +44,12 @@ public class ModpacksChUpdateManager {
     private static final Map<UUID, BehaviorSubject<Optional<ModpacksChPackVersion>>>
         MODPACKS_CH_INSTANCE_LATEST_VERSION = new ConcurrentHashMap<>();
 
+    /**
+     * Recently fetched latest versions, keyed by modpacks.ch pack id
+     */
+    private static final Caching.Cache<Integer, ModpacksChPackVersion> LATEST_VERSION_CACHE = Caching
+            .newTTL(Constants.EXTERNAL_PACK_UPDATE_CACHE_MINUTES, TimeUnit.MINUTES);
+
     /**
      * Get the update behavior subject for a given instance.
      *
@@ -79,6 +88,9 @@ public class ModpacksChUpdateManager {
     /**
      * Check for new updates.
      * <p>
+     * Instances of the same pack share a single lookup, and lookups are cached for a short while so repeated checks
+     * don't hit the API again.
+     * <p>
      * Updates observables.
      */
     public static void checkForUpdates() {
@@ -89,25 +101,38 @@ public class ModpacksChUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to modpacks.ch instances");
 
-        InstanceManager.getInstances().parallelStream().filter(
-                i -> i.launcher.modpacksChPackManifest != null && i.launcher.modpacksChPackVersionManifest != null)
-                .forEach(i -> {
-                    ModpacksChPackManifest packManifest = com.atlauncher.network.Download.build()
-                            .setUrl(String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.MODPACKS_CH_API_URL,
-                                    i.launcher.modpacksChPackManifest.id))
-                            .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
-                            .asClass(ModpacksChPackManifest.class);
-
-                    if (packManifest == null) {
-                        return;
-                    }
-
-                    ModpacksChPackVersion latestVersion = packManifest.versions.stream().sorted(
-                            Comparator.comparingInt((ModpacksChPackVersion version) -> version.id).reversed())
-                            .findFirst().orElse(null);
-
-                    getSubject(i).onNext(Optional.ofNullable(latestVersion));
-                });
+        Map<Integer, List<Instance>> instancesByPackId = InstanceManager.getInstances().stream()
+                .filter(i -> i.launcher.modpacksChPackManifest != null
+                        && i.launcher.modpacksChPackVersionManifest != null)
+                .collect(Collectors.groupingBy(i -> i.launcher.modpacksChPackManifest.id));
+
+        instancesByPackId.entrySet().parallelStream().forEach(entry -> {
+            ModpacksChPackVersion latestVersion = LATEST_VERSION_CACHE.get(entry.getKey());
+
+            if (latestVersion == null) {
+                ModpacksChPackManifest packManifest = com.atlauncher.network.Download.build()
+                        .setUrl(String.format(Locale.ENGLISH, "%s/modpack/%d", Constants.MODPACKS_CH_API_URL,
+                                entry.getKey()))
+                        .cached(new CacheControl.Builder().maxStale(10, TimeUnit.MINUTES).build())
+                        .asClass(ModpacksChPackManifest.class);
+
+                if (packManifest == null) {
+                    return;
+                }
+
+                latestVersion = packManifest.versions.stream().sorted(
+                        Comparator.comparingInt((ModpacksChPackVersion version) -> version.id).reversed())
+                        .findFirst().orElse(null);
+
+                if (latestVersion != null) {
+                    LATEST_VERSION_CACHE.put(entry.getKey(), latestVersion);
+                }
+            }
+
+            for (Instance i : entry.getValue()) {
+                getSubject(i).onNext(Optional.ofNullable(latestVersion));
+            }
+        });
 
         PerformanceManager.end();
     }
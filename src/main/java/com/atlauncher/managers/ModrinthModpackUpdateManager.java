@@ -17,16 +17,23 @@
  */
 package com.atlauncher.managers;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.atlauncher.collection.Caching;
+import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.modrinth.ModrinthProject;
 import com.atlauncher.data.modrinth.ModrinthVersion;
 import com.atlauncher.utils.ModrinthApi;
+import com.atlauncher.utils.Pair;
 
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
@@ -38,6 +45,17 @@ public class ModrinthModpackUpdateManager {
     private static final Map<UUID, BehaviorSubject<Optional<ModrinthVersion>>>
         MODRINTH_INSTANCE_LATEST_VERSION = new ConcurrentHashMap<>();
 
+    /**
+     * Latest version found for each project, along with the project's updated date when it was found
+     */
+    private static final Map<String, Pair<String, ModrinthVersion>> LATEST_VERSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * Projects which have been checked recently and don't need checking again yet
+     */
+    private static final Caching.Cache<String, Boolean> RECENTLY_CHECKED = Caching
+            .newTTL(Constants.EXTERNAL_PACK_UPDATE_CACHE_MINUTES, TimeUnit.MINUTES);
+
     /**
      * Get the update behavior subject for a given instance.
      *
@@ -76,6 +94,9 @@ public class ModrinthModpackUpdateManager {
     /**
      * Check for new updates.
      * <p>
+     * The projects for all instances are fetched in a single batched request, and a project's versions are only
+     * fetched again when the project has been updated since we last looked at it.
+     * <p>
      * Updates observables.
      */
     public static void checkForUpdates() {
@@ -86,20 +107,52 @@ public class ModrinthModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Modrinth instances");
 
-        InstanceManager.getInstances().parallelStream()
-                .filter(i -> i.isModrinthPack()).forEach(i -> {
-                    List<ModrinthVersion> packVersions = ModrinthApi.getVersions(i.launcher.modrinthProject.id);
+        Map<String, List<Instance>> instancesByProjectId = InstanceManager.getInstances().stream()
+                .filter(i -> i.isModrinthPack()).collect(Collectors.groupingBy(i -> i.launcher.modrinthProject.id));
+
+        String[] projectIdsToCheck = instancesByProjectId.keySet().stream()
+                .filter(id -> RECENTLY_CHECKED.get(id) == null).toArray(String[]::new);
+
+        if (projectIdsToCheck.length != 0) {
+            Map<String, ModrinthProject> projects = ModrinthApi.getProjectsAsMap(projectIdsToCheck);
+
+            Arrays.stream(projectIdsToCheck).parallel().forEach(projectId -> {
+                ModrinthProject project = projects == null ? null : projects.get(projectId);
+                Pair<String, ModrinthVersion> known = LATEST_VERSIONS.get(projectId);
+
+                if (project != null && known != null && project.updated != null
+                        && project.updated.equals(known.left())) {
+                    RECENTLY_CHECKED.put(projectId, true);
+                    return;
+                }
+
+                List<ModrinthVersion> packVersions = ModrinthApi.getVersions(projectId);
+
+                if (packVersions == null) {
+                    return;
+                }
+
+                ModrinthVersion latestVersion = packVersions.stream()
+                        .sorted(Comparator.comparing((ModrinthVersion version) -> version.datePublished).reversed())
+                        .findFirst().orElse(null);
+
+                LATEST_VERSIONS.put(projectId,
+                        new Pair<>(project == null ? null : project.updated, latestVersion));
+                RECENTLY_CHECKED.put(projectId, true);
+            });
+        }
 
-                    if (packVersions == null) {
-                        return;
-                    }
+        instancesByProjectId.forEach((projectId, instances) -> {
+            Pair<String, ModrinthVersion> known = LATEST_VERSIONS.get(projectId);
 
-                    ModrinthVersion latestVersion = packVersions.stream()
-                            .sorted(Comparator.comparing((ModrinthVersion version) -> version.datePublished).reversed())
-                            .findFirst().orElse(null);
+            if (known == null) {
+                return;
+            }
 
-                    getSubject(i).onNext(Optional.ofNullable(latestVersion));
-                });
+            for (Instance i : instances) {
+                getSubject(i).onNext(Optional.ofNullable(known.right()));
+            }
+        });
 
         PerformanceManager.end();
     }
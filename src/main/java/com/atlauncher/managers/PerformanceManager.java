@@ -17,36 +17,318 @@
  */
 package com.atlauncher.managers;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.utils.FileUtils;
+
+/**
+ * Times how long things take, both for debug logging and for recording traces of installs and launches.
+ *
+ * Spans are tracked per thread, so nested spans and spans with the same name on different threads don't interfere
+ * with each other. When neither debug logging nor tracing is enabled, starting and ending spans and counting is just
+ * a check of a flag.
+ *
+ * Traces are written out in the Chrome trace event format to the logs/traces directory, and can be opened with
+ * chrome://tracing or https://ui.perfetto.dev.
+ */
 public final class PerformanceManager {
+    private static final int MAX_TRACE_FILES = 20;
+    private static final DateTimeFormatter TRACE_FILE_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyyMMdd-HHmmss-SSS", Locale.ENGLISH);
+
+    private static volatile boolean tracing = false;
+
+    private static final ThreadLocal<Deque<Span>> OPEN_SPANS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final List<Trace> ACTIVE_TRACES = new CopyOnWriteArrayList<>();
+
+    public static void enableTracing() {
+        tracing = true;
+    }
+
+    public static boolean isTracing() {
+        return tracing;
+    }
 
-    private static final Map<String, Instant> times = new HashMap<>();
+    public static boolean isEnabled() {
+        return tracing || LogManager.showDebug;
+    }
 
     public static void start() {
-        start(new Throwable().getStackTrace()[1].getMethodName());
+        if (isEnabled()) {
+            start(new Throwable().getStackTrace()[1].getMethodName());
+        }
     }
 
     public static void start(String name) {
-        if (LogManager.showDebug) {
-            times.put(name, Instant.now());
+        if (isEnabled()) {
+            OPEN_SPANS.get().push(new Span(name));
         }
     }
 
     public static void end() {
-        end(new Throwable().getStackTrace()[1].getMethodName());
+        if (isEnabled()) {
+            end(new Throwable().getStackTrace()[1].getMethodName());
+        }
     }
 
     public static void end(String name) {
-        if (LogManager.showDebug && times.containsKey(name)) {
-            long timeElapsed = Duration.between(times.get(name), Instant.now()).toMillis();
+        if (!isEnabled()) {
+            return;
+        }
+
+        Deque<Span> openSpans = OPEN_SPANS.get();
+        if (openSpans.stream().noneMatch(s -> s.name.equals(name))) {
+            return;
+        }
+
+        // anything opened after this span and never ended (for instance due to an exception) is thrown away
+        Span span = openSpans.pop();
+        while (!span.name.equals(name)) {
+            span = openSpans.pop();
+        }
+
+        span.end(openSpans.size());
+    }
+
+    /**
+     * Starts a span which is ended when closed, for use with try-with-resources.
+     */
+    public static Span span(String name) {
+        if (!isEnabled()) {
+            return Span.NOOP;
+        }
+
+        start(name);
+        return OPEN_SPANS.get().peek();
+    }
+
+    public static void count(String counter) {
+        count(counter, 1L);
+    }
+
+    public static void count(String counter, long amount) {
+        if (isEnabled()) {
+            COUNTERS.computeIfAbsent(counter, k -> new LongAdder()).add(amount);
+        }
+    }
+
+    public static Map<String, Long> getCounters() {
+        return COUNTERS.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, HashMap::new));
+    }
+
+    /**
+     * Starts recording a trace of all spans on all threads until the trace is finished. Does nothing unless tracing
+     * has been enabled with the --trace argument.
+     */
+    public static Trace startTrace(String type, String name) {
+        if (!tracing) {
+            return Trace.NOOP;
+        }
+
+        Trace trace = new Trace(type, name);
+        ACTIVE_TRACES.add(trace);
+        return trace;
+    }
+
+    public static class Span implements AutoCloseable {
+        private static final Span NOOP = new Span(null);
+
+        private final String name;
+        private final Thread thread = Thread.currentThread();
+        private final long start = System.nanoTime();
+
+        private Span(String name) {
+            this.name = name;
+        }
+
+        private void end(int depth) {
+            long end = System.nanoTime();
+
+            if (LogManager.showDebug) {
+                LogManager.debug(name + " took " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms", 5);
+            }
+
+            for (Trace trace : ACTIVE_TRACES) {
+                trace.addSpan(this, end, depth);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (this != NOOP) {
+                PerformanceManager.end(name);
+            }
+        }
+    }
+
+    public static class Trace {
+        private static final Trace NOOP = new Trace(null, null);
+
+        private final String type;
+        private final String name;
+        private final long start = System.nanoTime();
+        private final Map<String, Long> startCounters;
+        private final Queue<Map<String, Object>> events = new ConcurrentLinkedQueue<>();
+        private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+
+        private Trace(String type, String name) {
+            this.type = type;
+            this.name = name;
+            this.startCounters = type == null ? null : getCounters();
+        }
+
+        private void addSpan(Span span, long end, int depth) {
+            if (span.start < start || finished.get()) {
+                return;
+            }
+
+            threadNames.putIfAbsent(span.thread.getId(), span.thread.getName());
+
+            Map<String, Object> args = new LinkedHashMap<>();
+            args.put("depth", depth);
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", span.name);
+            event.put("cat", type);
+            event.put("ph", "X");
+            event.put("ts", toMicros(span.start));
+            event.put("dur", TimeUnit.NANOSECONDS.toMicros(end - span.start));
+            event.put("pid", 1);
+            event.put("tid", span.thread.getId());
+            event.put("args", args);
+            events.add(event);
+        }
+
+        private void addCounters(long time) {
+            Map<String, Long> counters = getCountersSinceStart();
+
+            if (counters.isEmpty()) {
+                return;
+            }
+
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", "counters");
+            event.put("ph", "C");
+            event.put("ts", toMicros(time));
+            event.put("pid", 1);
+            event.put("args", counters);
+            events.add(event);
+        }
+
+        private Map<String, Long> getCountersSinceStart() {
+            Map<String, Long> counters = new LinkedHashMap<>();
+
+            getCounters().entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+                long value = e.getValue() - startCounters.getOrDefault(e.getKey(), 0L);
+
+                if (value != 0L) {
+                    counters.put(e.getKey(), value);
+                }
+            });
+
+            return counters;
+        }
+
+        private long toMicros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos - start);
+        }
+
+        /**
+         * Stops recording and writes the trace out to the logs directory. Safe to call more than once.
+         */
+        public void finish() {
+            if (this == NOOP || !finished.compareAndSet(false, true)) {
+                return;
+            }
+
+            ACTIVE_TRACES.remove(this);
+
+            long end = System.nanoTime();
+            Map<String, Long> counters = getCountersSinceStart();
+            addCounters(end);
+
+            List<Map<String, Object>> traceEvents = new ArrayList<>(events);
+            threadNames.forEach((id, threadName) -> {
+                Map<String, Object> args = new LinkedHashMap<>();
+                args.put("name", threadName);
+
+                Map<String, Object> event = new LinkedHashMap<>();
+                event.put("name", "thread_name");
+                event.put("ph", "M");
+                event.put("pid", 1);
+                event.put("tid", id);
+                event.put("args", args);
+                traceEvents.add(event);
+            });
+
+            Map<String, Object> otherData = new LinkedHashMap<>();
+            otherData.put("type", type);
+            otherData.put("name", name);
+            otherData.put("durationMs", TimeUnit.NANOSECONDS.toMillis(end - start));
+            otherData.put("counters", counters);
+
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("traceEvents", traceEvents);
+            trace.put("displayTimeUnit", "ms");
+            trace.put("otherData", otherData);
+
+            Path tracesDir = FileSystem.LOGS.resolve("traces");
+            Path file = tracesDir.resolve(String.format(Locale.ENGLISH, "%s-%s-%s.json", type,
+                    name.replaceAll("[^A-Za-z0-9_.-]", "_"), LocalDateTime.now().format(TRACE_FILE_DATE_FORMAT)));
+
+            try {
+                FileUtils.createDirectory(tracesDir);
+                Files.write(file, Gsons.DEFAULT_SLIM.toJson(trace).getBytes(StandardCharsets.UTF_8));
+                LogManager.info("Wrote " + type + " trace to " + file);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to write trace to " + file, e, false);
+            }
+
+            cleanupOldTraces(tracesDir);
+        }
 
-            times.remove(name);
+        private static void cleanupOldTraces(Path tracesDir) {
+            try (Stream<Path> stream = Files.list(tracesDir)) {
+                List<Path> traces = stream.filter(p -> p.getFileName().toString().endsWith(".json"))
+                        .sorted(Comparator.comparing((Path p) -> p.toFile().lastModified()).reversed())
+                        .collect(Collectors.toList());
 
-            LogManager.debug(name + " took " + timeElapsed + " ms", 5);
+                Iterator<Path> iterator = traces.listIterator(Math.min(traces.size(), MAX_TRACE_FILES));
+                while (iterator.hasNext()) {
+                    Files.deleteIfExists(iterator.next());
+                }
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to clean up old traces", e, false);
+            }
         }
     }
 }
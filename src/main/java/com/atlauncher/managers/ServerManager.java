@@ -106,7 +106,7 @@ public class ServerManager {
      * @return if the server was added or not
      */
     @SuppressWarnings("ConstantConditions")
-    public static boolean addServer(Server server) {
+    public static synchronized boolean addServer(Server server) {
         List<Server> servers = SERVERS.getValue();
         boolean added = servers.add(server);
         if (added) {
@@ -0,0 +1,220 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.managers;
+
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.OS;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GraphicsCard;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * Keeps a profile of the users hardware (RAM, CPU, GPUs, OS) cached on disk so that startup and the settings screens
+ * don't need to wait on oshi to probe the system.
+ *
+ * The cached profile is loaded straight away on startup if it still looks to be for this machine, and then checked in
+ * the background once the launcher is showing. It's only gathered again if the system has been rebooted since or the
+ * hardware has changed.
+ */
+public class SystemProfileManager {
+    private static final Path CACHE_FILE = FileSystem.CACHE.resolve("system_profile.json");
+
+    // boot times are sometimes worked out from the uptime, so allow a little drift before treating it as a reboot
+    private static final long BOOT_TIME_TOLERANCE_SECONDS = 60;
+
+    private static final AtomicBoolean REFRESH_STARTED = new AtomicBoolean(false);
+
+    private static volatile SystemProfile profile = null;
+
+    public static final class SystemProfile {
+        public String hardwareKey;
+        public long bootTime;
+        public int systemRam;
+        public int bitness;
+        public String cpu;
+        public int physicalCores;
+        public int logicalCores;
+        public List<String> gpus = new ArrayList<>();
+        public String osFamily;
+        public String osVersion;
+        public String manufacturer;
+    }
+
+    /**
+     * Gets the cached system profile, or null if there isn't one yet. This never probes the system.
+     */
+    public static SystemProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Loads the cached profile from disk, ignoring it if it was gathered on different hardware.
+     */
+    public static void loadCached() {
+        if (!Files.exists(CACHE_FILE)) {
+            return;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(CACHE_FILE),
+                StandardCharsets.UTF_8)) {
+            SystemProfile cached = Gsons.DEFAULT.fromJson(reader, SystemProfile.class);
+
+            if (cached != null && getHardwareKey().equals(cached.hardwareKey) && cached.systemRam > 0) {
+                profile = cached;
+            } else {
+                LogManager.debug("Cached system profile is for different hardware, ignoring it");
+            }
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read cached system profile", e);
+            FileUtils.delete(CACHE_FILE);
+        }
+    }
+
+    /**
+     * Checks the cached profile is still current (gathering it again if not) and logs the system information out,
+     * all on a background thread.
+     */
+    public static void refreshInBackground() {
+        if (!REFRESH_STARTED.compareAndSet(false, true)) {
+            return;
+        }
+
+        Thread thread = new Thread(SystemProfileManager::refresh, "SystemProfiler");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void refresh() {
+        try {
+            OperatingSystem os = OS.getSystemInfo().getOperatingSystem();
+            long bootTime = os.getSystemBootTime();
+            SystemProfile current = profile;
+
+            if (current == null || Math.abs(current.bootTime - bootTime) > BOOT_TIME_TOLERANCE_SECONDS) {
+                PerformanceManager.start("SystemProfileManager.gather");
+                current = gather(bootTime);
+                PerformanceManager.end("SystemProfileManager.gather");
+
+                profile = current;
+                save(current);
+            }
+
+            log(current, os.getSystemUptime());
+            logAntivirusProcesses();
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Failed to gather system information", t);
+        }
+    }
+
+    private static SystemProfile gather(long bootTime) {
+        SystemInfo systemInfo = OS.getSystemInfo();
+        HardwareAbstractionLayer hal = systemInfo.getHardware();
+        OperatingSystem os = systemInfo.getOperatingSystem();
+
+        SystemProfile gathered = new SystemProfile();
+        gathered.hardwareKey = getHardwareKey();
+        gathered.bootTime = bootTime;
+        gathered.systemRam = (int) (hal.getMemory().getTotal() / 1048576);
+        gathered.bitness = os.getBitness();
+
+        CentralProcessor cpu = hal.getProcessor();
+        gathered.cpu = cpu.getProcessorIdentifier().getName().trim();
+        gathered.physicalCores = cpu.getPhysicalProcessorCount();
+        gathered.logicalCores = cpu.getLogicalProcessorCount();
+
+        for (GraphicsCard card : hal.getGraphicsCards()) {
+            gathered.gpus.add(card.getName() + " (" + card.getVendor() + ") " + card.getVersionInfo() + " "
+                    + (card.getVRam() / 1048576) + "MB VRAM");
+        }
+
+        gathered.osFamily = os.getFamily();
+        gathered.osVersion = String.valueOf(os.getVersionInfo());
+        gathered.manufacturer = os.getManufacturer();
+
+        return gathered;
+    }
+
+    private static void save(SystemProfile toSave) {
+        Path temp = CACHE_FILE.resolveSibling(CACHE_FILE.getFileName() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(FileSystem.CACHE);
+
+            try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(temp),
+                    StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(toSave, writer);
+            }
+
+            Files.move(temp, CACHE_FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to cache system profile", e);
+        }
+    }
+
+    private static void log(SystemProfile toLog, long uptime) {
+        for (String gpu : toLog.gpus) {
+            LogManager.info("GPU: " + gpu);
+        }
+
+        LogManager.info(String.format(Locale.ENGLISH, "CPU: %s %d cores/%d threads", toLog.cpu, toLog.physicalCores,
+                toLog.logicalCores));
+        LogManager.info("Operating System: " + toLog.osFamily + " (" + toLog.osVersion + ")");
+        LogManager.info("Bitness: " + toLog.bitness);
+        LogManager.info("Uptime: " + uptime);
+        LogManager.info("Manufacturer: " + toLog.manufacturer);
+    }
+
+    private static void logAntivirusProcesses() {
+        if (OS.isWindows() && OS.isUsingAntivirus()) {
+            LogManager.warn(
+                    "A running antivirus process was found on your system. If you notice any issues running Minecraft or downloading files, please whitelist ATLauncher and its folder in your antivirus program/s listed below.");
+
+            for (OSProcess process : OS.getAntivirusProcesses()) {
+                LogManager.info(String.format("Process %s (running at %s)", process.getName(), process.getPath()));
+            }
+        }
+    }
+
+    /**
+     * Things which are cheap to check without oshi, but will change if the profile was made on different hardware or a
+     * different OS install, including memory being added or removed since the cached system RAM is used directly.
+     */
+    private static String getHardwareKey() {
+        return String.join("|", System.getProperty("os.name"), System.getProperty("os.version"),
+                System.getProperty("os.arch"), String.valueOf(Runtime.getRuntime().availableProcessors()),
+                String.valueOf(OS.getTotalPhysicalMemory()));
+    }
+}
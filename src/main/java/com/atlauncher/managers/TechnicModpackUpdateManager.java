@@ -18,12 +18,17 @@
 package com.atlauncher.managers;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import com.atlauncher.Gsons;
+import com.atlauncher.collection.Caching;
+import com.atlauncher.constants.Constants;
 import com.atlauncher.data.Instance;
 import com.atlauncher.data.technic.TechnicModpack;
 import com.atlauncher.data.technic.TechnicSolderModpack;
@@ -47,6 +52,18 @@ public class TechnicModpackUpdateManager {
     private static final Map<UUID, BehaviorSubject<Optional<TechnicSolderModpack>>>
         TECHNIC_SOLDER_INSTANCE_LATEST_VERSION = new ConcurrentHashMap<>();
 
+    /**
+     * Recently fetched Technic modpacks, keyed by slug
+     */
+    private static final Caching.Cache<String, TechnicModpack> MODPACK_CACHE = Caching
+            .newTTL(Constants.EXTERNAL_PACK_UPDATE_CACHE_MINUTES, TimeUnit.MINUTES);
+
+    /**
+     * Recently fetched Technic Solder modpacks, keyed by Solder url and slug
+     */
+    private static final Caching.Cache<String, TechnicSolderModpack> SOLDER_MODPACK_CACHE = Caching
+            .newTTL(Constants.EXTERNAL_PACK_UPDATE_CACHE_MINUTES, TimeUnit.MINUTES);
+
     /**
      * Get the update behavior subject for a given instance.
      *
@@ -118,6 +135,9 @@ public class TechnicModpackUpdateManager {
     /**
      * Check for new updates.
      * <p>
+     * Instances of the same pack share a single lookup, and lookups are cached for a short while so repeated checks
+     * don't hit the API again.
+     * <p>
      * Updates observables.
      */
     public static void checkForUpdates() {
@@ -128,17 +148,24 @@ public class TechnicModpackUpdateManager {
         PerformanceManager.start();
         LogManager.info("Checking for updates to Technic Modpack instances");
 
-        InstanceManager.getInstances().parallelStream()
-                .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates).forEach(i -> {
-                    TechnicModpack technicModpack = null;
+        Map<String, List<Instance>> instancesBySlug = InstanceManager.getInstances().stream()
+                .filter(i -> i.isTechnicPack() && i.launcher.checkForUpdates)
+                .collect(Collectors.groupingBy(i -> i.launcher.technicModpack.name));
+
+        instancesBySlug.entrySet().parallelStream().forEach(entry -> {
+            String slug = entry.getKey();
+            List<Instance> instances = entry.getValue();
+            TechnicModpack technicModpack = MODPACK_CACHE.get(slug);
 
-                    try {
-                        technicModpack = TechnicApi.getModpackBySlugWithThrow(i.launcher.technicModpack.name);
-                    } catch (DownloadException e) {
-                        if (e.response != null) {
-                            LogManager.debug(Gsons.DEFAULT.toJson(e.response));
+            if (technicModpack == null) {
+                try {
+                    technicModpack = TechnicApi.getModpackBySlugWithThrow(slug);
+                } catch (DownloadException e) {
+                    if (e.response != null) {
+                        LogManager.debug(Gsons.DEFAULT.toJson(e.response));
 
-                            if (e.statusCode == 404) {
+                        if (e.statusCode == 404) {
+                            for (Instance i : instances) {
                                 LogManager.error(String.format(
                                         "Technic pack with name of %s no longer exists, disabling update checks.",
                                         i.launcher.technicModpack.displayName));
@@ -146,20 +173,39 @@ public class TechnicModpackUpdateManager {
                                 i.save();
                             }
                         }
-                    } catch (IOException e) {
-                        LogManager.logStackTrace(e);
                     }
-
-                    if (technicModpack != null & i.isTechnicSolderPack()) {
-                        TechnicSolderModpack technicSolderModpack = TechnicApi.getSolderModpackBySlug(
-                                technicModpack.solder,
-                                technicModpack.name);
-
-                        getSolderSubject(i).onNext(Optional.ofNullable(technicSolderModpack));
-                    } else {
-                        getSubject(i).onNext(Optional.ofNullable(technicModpack));
+                } catch (IOException e) {
+                    LogManager.logStackTrace(e);
+                }
+
+                if (technicModpack != null) {
+                    MODPACK_CACHE.put(slug, technicModpack);
+                }
+            }
+
+            TechnicSolderModpack technicSolderModpack = null;
+            if (technicModpack != null && instances.stream().anyMatch(Instance::isTechnicSolderPack)) {
+                String solderKey = technicModpack.solder + "|" + technicModpack.name;
+                technicSolderModpack = SOLDER_MODPACK_CACHE.get(solderKey);
+
+                if (technicSolderModpack == null) {
+                    technicSolderModpack = TechnicApi.getSolderModpackBySlug(technicModpack.solder,
+                            technicModpack.name);
+
+                    if (technicSolderModpack != null) {
+                        SOLDER_MODPACK_CACHE.put(solderKey, technicSolderModpack);
                     }
-                });
+                }
+            }
+
+            for (Instance i : instances) {
+                if (technicModpack != null && i.isTechnicSolderPack()) {
+                    getSolderSubject(i).onNext(Optional.ofNullable(technicSolderModpack));
+                } else {
+                    getSubject(i).onNext(Optional.ofNullable(technicModpack));
+                }
+            }
+        });
 
         PerformanceManager.end();
     }
@@ -0,0 +1,160 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.data.Instance;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.OS;
+
+/**
+ * Handles using a per instance dynamic class data sharing (AppCDS) archive to speed up game startup.
+ *
+ * The first launch with it enabled records the classes loaded into an archive when the game exits, and following
+ * launches map that archive in rather than loading and verifying those classes again. The archive is keyed off the
+ * Java version, classpath, loader and mods, so any change to those records a new archive on the next launch.
+ */
+public class ClassDataSharing {
+    // dynamic archives (-XX:ArchiveClassesAtExit) were added in Java 13
+    private static final int MINIMUM_JAVA_VERSION = 13;
+
+    private static final List<String> CONFLICTING_ARGUMENTS = Arrays.asList("-Xshare", "SharedArchiveFile",
+            "ArchiveClassesAtExit", "AutoCreateSharedArchive");
+
+    public static boolean isEnabled(Instance instance) {
+        return Optional.ofNullable(instance.launcher.useClassDataSharing).orElse(App.settings.useClassDataSharing);
+    }
+
+    /**
+     * Gets the arguments needed to either use this instance's existing archive, or record a new one if there isn't
+     * one for the current setup. Returns no arguments if it's disabled or the Java version doesn't support it.
+     */
+    public static List<String> getArguments(Instance instance, String javaPath, String javaArguments,
+            String classpath) {
+        if (!isEnabled(instance)) {
+            return Collections.emptyList();
+        }
+
+        if (CONFLICTING_ARGUMENTS.stream().anyMatch(javaArguments::contains)) {
+            LogManager.debug("Not using class data sharing as the Java arguments already configure it");
+            return Collections.emptyList();
+        }
+
+        int javaVersion = JvmTuning.getJavaVersion(javaPath);
+        if (javaVersion == -1) {
+            LogManager.warn("Couldn't work out the version of the Java at " + javaPath
+                    + ", not using class data sharing");
+            return Collections.emptyList();
+        }
+
+        if (javaVersion < MINIMUM_JAVA_VERSION) {
+            LogManager.debug("Not using class data sharing as Java " + javaVersion + " doesn't support it");
+            return Collections.emptyList();
+        }
+
+        Path directory = FileSystem.CLASS_DATA_SHARING_CACHE.resolve(instance.getRootDirectory().getName());
+        Path archive = directory.resolve(getArchiveKey(instance, javaPath, javaVersion, classpath) + ".jsa");
+
+        List<String> arguments = new ArrayList<>();
+
+        try {
+            if (Files.exists(archive) && Files.size(archive) != 0) {
+                LogManager.info("Using class data sharing archive " + archive.getFileName());
+                arguments.add("-Xshare:auto");
+                arguments.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+                return arguments;
+            }
+
+            deleteOldArchives(directory);
+            FileUtils.createDirectory(directory);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to setup class data sharing archive", e);
+            return Collections.emptyList();
+        }
+
+        LogManager.info("Recording class data sharing archive for this instance, it will be used on the next launch");
+        arguments.add("-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath());
+        return arguments;
+    }
+
+    /**
+     * Deletes any archives recorded for this instance, such as after it's been updated or reinstalled.
+     */
+    public static void clearArchives(Instance instance) {
+        FileUtils.deleteDirectoryQuietly(FileSystem.CLASS_DATA_SHARING_CACHE.resolve(instance.getRootDirectory()
+                .getName()));
+    }
+
+    private static void deleteOldArchives(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(".jsa")).forEach(FileUtils::delete);
+        }
+    }
+
+    private static String getArchiveKey(Instance instance, String javaPath, int javaVersion, String classpath) {
+        StringBuilder key = new StringBuilder();
+        key.append(javaPath).append('\n').append(javaVersion).append('\n').append(instance.getMainClass())
+                .append('\n');
+
+        // archives only work with the exact build of Java that recorded them, and updates keep the major version
+        appendFile(key, new File(javaPath, "bin" + File.separator + "java" + (OS.isWindows() ? ".exe" : "")));
+
+        if (instance.launcher.loaderVersion != null) {
+            key.append(instance.launcher.loaderVersion.type).append(' ')
+                    .append(instance.launcher.loaderVersion.version).append('\n');
+        }
+
+        // jars can be rebuilt in place, so include their size and modified time as well as their path
+        for (String entry : classpath.split(File.pathSeparator)) {
+            appendFile(key, new File(entry));
+        }
+
+        File[] mods = instance.getRootDirectory().toPath().resolve("mods").toFile().listFiles();
+        if (mods != null) {
+            for (File mod : Arrays.stream(mods).sorted().collect(Collectors.toList())) {
+                appendFile(key, mod);
+            }
+        }
+
+        return Hashing.md5(key.toString()).toString();
+    }
+
+    private static void appendFile(StringBuilder key, File file) {
+        key.append(file.getAbsolutePath()).append(' ').append(file.length()).append(' ').append(file.lastModified())
+                .append('\n');
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.atlauncher.App;
+import com.atlauncher.FileSystem;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.minecraft.Library;
+import com.atlauncher.managers.LWJGLManager;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.OS;
+
+/**
+ * Reads the jars on an instance's classpath (and its mods) in the background while the rest of the launch happens
+ * (logging in, preparing natives, building arguments), so that they're already in the OS's page cache by the time the
+ * game starts loading classes. This makes the biggest difference on spinning disks and network home directories.
+ *
+ * The amount read is limited by the prefetch budget so we don't push other things out of the cache.
+ */
+public class ClasspathPrefetcher {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // never use more than a quarter of the system's memory, regardless of the budget
+    private static final int MAXIMUM_SYSTEM_RAM_DIVISOR = 4;
+
+    private static final ExecutorService EXECUTOR = Executors
+            .newFixedThreadPool(Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread thread = new Thread(r, "ClasspathPrefetcher");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private final String name;
+    private final long started = System.currentTimeMillis();
+    private final List<Future<?>> reads = new ArrayList<>();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicInteger filesRead = new AtomicInteger();
+    private final long budget;
+    private Future<?> gathering = null;
+    private long bytesQueued = 0;
+    private int filesSkipped = 0;
+    private volatile boolean stopped = false;
+
+    private ClasspathPrefetcher(String name, long budget) {
+        this.name = name;
+        this.budget = budget;
+    }
+
+    /**
+     * Starts prefetching the given instance's classpath and mods. Returns null if prefetching is disabled.
+     */
+    public static ClasspathPrefetcher start(Instance instance) {
+        long budget = getBudget();
+
+        if (budget <= 0) {
+            return null;
+        }
+
+        ClasspathPrefetcher prefetcher = new ClasspathPrefetcher(instance.launcher.name, budget);
+
+        // working out the files and checking their sizes hits the disk too, so keep it off the launching thread
+        synchronized (prefetcher) {
+            prefetcher.gathering = EXECUTOR.submit(() -> {
+                try {
+                    for (Path file : getFiles(instance)) {
+                        if (prefetcher.stopped) {
+                            return;
+                        }
+
+                        prefetcher.queue(file);
+                    }
+                } catch (Throwable t) {
+                    LogManager.logStackTrace("Error working out files to prefetch for " + instance.launcher.name, t);
+                }
+            });
+        }
+
+        return prefetcher;
+    }
+
+    private static long getBudget() {
+        long budget = App.settings.classpathPrefetchBudget;
+        int systemRam = OS.getSystemRam();
+
+        if (systemRam > 0) {
+            budget = Math.min(budget, systemRam / MAXIMUM_SYSTEM_RAM_DIVISOR);
+        }
+
+        return budget * 1024 * 1024;
+    }
+
+    /**
+     * Gets the files to prefetch, in roughly the order the game will read them.
+     */
+    private static Set<Path> getFiles(Instance instance) {
+        Set<Path> files = new LinkedHashSet<>();
+        boolean replaceLWJGL3 = LWJGLManager.shouldReplaceLWJGL3(instance);
+
+        files.addAll(instance.getFileIndex().getFiles("jarmods"));
+
+        for (Library library : instance.libraries) {
+            if (!library.shouldInstall()) {
+                continue;
+            }
+
+            Library replaced = replaceLWJGL3 ? LWJGLManager.getReplacementLWJGL3Library(instance, library) : library;
+
+            // libraries with natives can have an artifact on the classpath as well
+            if (replaced.hasNativeForOS()) {
+                files.add(FileSystem.LIBRARIES.resolve(replaced.getNativeDownloadForOS().path));
+            }
+
+            if (replaced.downloads.artifact != null && replaced.downloads.artifact.path != null) {
+                files.add(FileSystem.LIBRARIES.resolve(replaced.downloads.artifact.path));
+            }
+        }
+
+        File[] binFiles = instance.getBinDirectory().listFiles((dir, name) -> name.endsWith(".jar")
+                || name.endsWith(".zip"));
+        if (binFiles != null) {
+            for (File file : binFiles) {
+                files.add(file.toPath());
+            }
+        }
+
+        files.add((instance.usesCustomMinecraftJar() ? instance.getCustomMinecraftJar() : instance.getMinecraftJar())
+                .toPath());
+
+        files.addAll(instance.getFileIndex().getFiles("mods"));
+
+        return files;
+    }
+
+    private void queue(Path file) {
+        long size;
+
+        try {
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+
+            size = Files.size(file);
+        } catch (IOException e) {
+            return;
+        }
+
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+
+            // skip anything which doesn't fit, but keep going as smaller files further down the list may still fit
+            if (bytesQueued + size > budget) {
+                filesSkipped++;
+                return;
+            }
+
+            bytesQueued += size;
+            reads.add(EXECUTOR.submit(() -> read(file)));
+        }
+    }
+
+    private void read(Path file) {
+        if (stopped) {
+            return;
+        }
+
+        ByteBuffer buffer = BUFFER.get();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+
+            do {
+                buffer.clear();
+                read = channel.read(buffer);
+
+                if (read > 0) {
+                    bytesRead.addAndGet(read);
+                }
+            } while (read != -1 && !stopped);
+
+            // only count files which were read all the way through, not ones cut short by stopping
+            if (read == -1) {
+                filesRead.incrementAndGet();
+            }
+        } catch (IOException e) {
+            LogManager.debug("Failed to prefetch " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops prefetching, cancelling any reads which haven't started yet, and logs how much was read into the cache.
+     * This should be called once the game has been started, as from then on it's reading the same files itself.
+     */
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+
+        stopped = true;
+        gathering.cancel(false);
+        reads.forEach(read -> read.cancel(false));
+
+        long read = bytesRead.get();
+        LogManager.info(String.format(Locale.ENGLISH,
+                "Prefetched %.1f MB of %.1f MB from %d/%d files for %s in %dms%s", read / 1048576.0,
+                bytesQueued / 1048576.0, filesRead.get(), reads.size(), name,
+                System.currentTimeMillis() - started,
+                filesSkipped == 0 ? ""
+                        : String.format(Locale.ENGLISH, " (%d files skipped as over the %d MB budget)",
+                                filesSkipped, budget / 1048576)));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.App;
+import com.atlauncher.data.GcSummary;
+import com.atlauncher.data.Instance;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.GcLogAnalyzer;
+
+/**
+ * Handles capturing GC logs from the game into the instance's logs directory, and summarising them once the game has
+ * exited.
+ */
+public class GcLogging {
+    private static final String LOG_FILE_NAME = "gc.log";
+
+    // relative to the instance directory (which the game is started in) as absolute paths with a drive letter can't
+    // be passed to -Xlog
+    private static final String LOG_FILE = "logs/" + LOG_FILE_NAME;
+
+    private static final int LOG_FILE_COUNT = 5;
+    private static final String LOG_FILE_SIZE = "20M";
+
+    public static boolean isEnabled(Instance instance) {
+        return Optional.ofNullable(instance.launcher.enableGcLogging).orElse(App.settings.enableGcLogging);
+    }
+
+    /**
+     * Gets the arguments to log GC activity to the instance's logs directory, clearing out the logs from the last
+     * session. Returns no arguments if it's disabled or the Java arguments already set up GC logging.
+     */
+    public static List<String> getArguments(Instance instance, String javaPath, String javaArguments) {
+        if (!isEnabled(instance)) {
+            return Collections.emptyList();
+        }
+
+        // cleared even when not adding the arguments, so that a log from an earlier session isn't summarised as if it
+        // was from this one
+        try {
+            Path logsDirectory = instance.getRoot().resolve("logs");
+            FileUtils.createDirectory(logsDirectory);
+
+            for (Path file : getLogFiles(instance)) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to clear old GC logs", e);
+        }
+
+        if (javaArguments.contains("-Xlog:gc") || javaArguments.contains("-Xloggc")) {
+            LogManager.debug("Not capturing GC logs as the Java arguments already configure GC logging");
+            return Collections.emptyList();
+        }
+
+        int javaVersion = JvmTuning.getJavaVersion(javaPath);
+        if (javaVersion == -1) {
+            LogManager.warn("Couldn't work out the version of the Java at " + javaPath + ", not capturing GC logs");
+            return Collections.emptyList();
+        }
+
+        List<String> arguments = new ArrayList<>();
+
+        if (javaVersion >= 9) {
+            arguments.add(String.format(Locale.ENGLISH, "-Xlog:gc*:file=%s:uptime,level,tags:filecount=%d,filesize=%s",
+                    LOG_FILE, LOG_FILE_COUNT, LOG_FILE_SIZE));
+        } else {
+            arguments.add("-Xloggc:" + LOG_FILE);
+            arguments.add("-XX:+PrintGCDetails");
+            arguments.add("-XX:+PrintGCTimeStamps");
+            arguments.add("-XX:+UseGCLogFileRotation");
+            arguments.add("-XX:NumberOfGCLogFiles=" + LOG_FILE_COUNT);
+            arguments.add("-XX:GCLogFileSize=" + LOG_FILE_SIZE);
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Summarises the GC logs from the last session, returning null if there were none.
+     */
+    public static GcSummary analyse(Instance instance) {
+        try {
+            List<Path> files = getLogFiles(instance);
+
+            if (files.isEmpty()) {
+                return null;
+            }
+
+            return GcLogAnalyzer.analyse(files);
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to analyse GC logs", e);
+            return null;
+        }
+    }
+
+    public static void logSummary(GcSummary summary) {
+        LogManager.info(String.format(Locale.ENGLISH,
+                "GC: %d pauses (%d full) taking %.0fms (%.2f%% of %.0fs), pause p50 %.1fms, p90 %.1fms, p99 %.1fms, "
+                        + "max %.1fms",
+                summary.pauses, summary.fullPauses, summary.totalPauseTime, summary.pauseTimePercentage,
+                summary.runtime, summary.p50Pause, summary.p90Pause, summary.p99Pause, summary.maxPause));
+        LogManager.info(String.format(Locale.ENGLISH,
+                "GC: allocation rate %.1fMB/s, heap after GC %dMB average and %dMB peak, %dMB peak committed",
+                summary.allocationRate, summary.averageHeapAfterGc, summary.peakHeapAfterGc,
+                summary.peakHeapCommitted));
+    }
+
+    /**
+     * Gets the GC log files in the instance's logs directory, oldest first.
+     */
+    private static List<Path> getLogFiles(Instance instance) throws IOException {
+        Path logsDirectory = instance.getRoot().resolve("logs");
+
+        if (!Files.isDirectory(logsDirectory)) {
+            return Collections.emptyList();
+        }
+
+        try (Stream<Path> stream = Files.list(logsDirectory)) {
+            return stream.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().startsWith(LOG_FILE_NAME))
+                    .sorted(Comparator.comparingLong(p -> p.toFile().lastModified()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.atlauncher.FileSystem;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.JvmTuningProfile;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.SystemProfileManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.Java;
+import com.atlauncher.utils.OS;
+import com.atlauncher.utils.Utils;
+
+/**
+ * Picks the GC and JIT flags to launch the game with for a {@link JvmTuningProfile}, based on the Java version being
+ * launched with, the heap size and the users hardware.
+ *
+ * Every flag is checked against the flags the target Java actually has (found by running it once with
+ * -XX:+PrintFlagsFinal and caching the result) and any it doesn't know about are dropped, so picking a profile can't
+ * stop the game from starting.
+ */
+public class JvmTuning {
+    private static final Pattern FLAG_LINE_PATTERN = Pattern
+            .compile("^\\s*\\w+\\s+(\\w+)\\s+:?=.*?\\{([^}]*)\\}");
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(java|openjdk) version \"([^\"]*)\"");
+    private static final Pattern FLAG_NAME_PATTERN = Pattern.compile("^-XX:[+-]?(\\w+)");
+
+    private static final Pattern GC_SELECTION_PATTERN = Pattern.compile("^Use\\w+GC$");
+
+    private static final Map<String, SupportedFlags> PROBED = new ConcurrentHashMap<>();
+
+    /**
+     * The flags a Java install supports, and which of them need -XX:+UnlockExperimentalVMOptions.
+     */
+    public static final class SupportedFlags {
+        public final int javaVersion;
+        public final Map<String, Boolean> flags;
+
+        public SupportedFlags(int javaVersion, Map<String, Boolean> flags) {
+            this.javaVersion = javaVersion;
+            this.flags = flags;
+        }
+
+        public boolean supports(String flag) {
+            return flags.containsKey(flag);
+        }
+
+        public boolean isExperimental(String flag) {
+            return flags.getOrDefault(flag, false);
+        }
+    }
+
+    private static final class CachedProbe {
+        private String key;
+        private String version;
+        private Map<String, Boolean> flags;
+    }
+
+    /**
+     * Gets the tuning arguments for the given profile, or no arguments if the profile is {@link JvmTuningProfile#NONE}
+     * or the Java install couldn't be probed.
+     */
+    public static List<String> getArguments(JvmTuningProfile profile, String javaPath, int heapSize) {
+        if (profile == null || profile == JvmTuningProfile.NONE) {
+            return Collections.emptyList();
+        }
+
+        SupportedFlags supported = getSupportedFlags(javaPath);
+        if (supported == null) {
+            LogManager.warn("Couldn't work out the flags supported by the Java at " + javaPath
+                    + ", not applying the JVM tuning profile");
+            return Collections.emptyList();
+        }
+
+        SystemProfileManager.SystemProfile systemProfile = SystemProfileManager.getProfile();
+        int cores = systemProfile != null && systemProfile.logicalCores > 0 ? systemProfile.logicalCores
+                : Runtime.getRuntime().availableProcessors();
+
+        List<String> arguments = getFlags(profile, supported, heapSize, cores, OS.getSystemRam());
+        LogManager.info("Using JVM tuning profile " + profile + ": " + String.join(" ", arguments));
+
+        return arguments;
+    }
+
+    /**
+     * Gets the major version of the Java at the given path from the cached flags probe, or -1 if it's not known.
+     */
+    public static int getJavaVersion(String javaPath) {
+        SupportedFlags supported = getSupportedFlags(javaPath);
+
+        return supported == null ? -1 : supported.javaVersion;
+    }
+
+    /**
+     * Removes any arguments from the users Java parameters which would conflict with the given tuning arguments, which
+     * is any flag the profile sets itself, and any other garbage collector if the profile selects one.
+     */
+    public static String removeConflictingArguments(String javaArguments, List<String> tuningArguments) {
+        Set<String> tuningFlags = tuningArguments.stream().map(JvmTuning::getFlagName).filter(Objects::nonNull)
+                .filter(flag -> !flag.startsWith("Unlock")).collect(Collectors.toSet());
+        boolean selectsCollector = tuningFlags.stream().anyMatch(flag -> GC_SELECTION_PATTERN.matcher(flag).matches());
+
+        return Arrays.stream(javaArguments.split(" ")).filter(arg -> {
+            if (arg.isEmpty()) {
+                return false;
+            }
+
+            String flag = getFlagName(arg);
+            return flag == null || !(tuningFlags.contains(flag)
+                    || (selectsCollector && GC_SELECTION_PATTERN.matcher(flag).matches()));
+        }).collect(Collectors.joining(" "));
+    }
+
+    private static String getFlagName(String argument) {
+        Matcher matcher = FLAG_NAME_PATTERN.matcher(argument);
+
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    public static List<String> getFlags(JvmTuningProfile profile, SupportedFlags supported, int heapSize, int cores,
+            int systemRam) {
+        List<String> flags = new ArrayList<>();
+
+        switch (profile) {
+            case BALANCED:
+                addG1Flags(flags, heapSize, 50);
+                break;
+            case LOW_LATENCY:
+                // ZGC needs spare cores for its concurrent work and some headroom over the heap to be worthwhile
+                boolean zgcSuitable = cores >= 4 && heapSize >= 4096
+                        && (systemRam == 0 || heapSize <= systemRam * 3 / 4);
+
+                if (supported.javaVersion >= 17 && zgcSuitable && supported.supports("UseZGC")) {
+                    flags.add("-XX:+UseZGC");
+
+                    if (supported.javaVersion >= 21) {
+                        flags.add("-XX:+ZGenerational");
+                    }
+
+                    flags.add("-XX:+DisableExplicitGC");
+                } else if (supported.javaVersion >= 11 && supported.supports("UseShenandoahGC")) {
+                    flags.add("-XX:+UseShenandoahGC");
+                    flags.add("-XX:+DisableExplicitGC");
+                } else {
+                    addG1Flags(flags, heapSize, 25);
+                }
+                break;
+            case THROUGHPUT:
+                flags.add("-XX:+UseParallelGC");
+                flags.add("-XX:ParallelGCThreads=" + Math.max(1, cores));
+                flags.add("-XX:+DisableExplicitGC");
+                break;
+            default:
+                return Collections.emptyList();
+        }
+
+        // heavily modded packs with big heaps tend to fill the default code cache
+        if (heapSize >= 6144) {
+            flags.add("-XX:ReservedCodeCacheSize=400M");
+        }
+
+        return validate(flags, supported);
+    }
+
+    private static void addG1Flags(List<String> flags, int heapSize, int pauseMillis) {
+        flags.add("-XX:+UseG1GC");
+        flags.add("-XX:MaxGCPauseMillis=" + pauseMillis);
+        flags.add("-XX:G1NewSizePercent=" + (heapSize >= 12288 ? 40 : 30));
+        flags.add("-XX:G1ReservePercent=20");
+        flags.add("-XX:G1HeapRegionSize=" + getG1RegionSize(heapSize) + "M");
+        flags.add("-XX:+ParallelRefProcEnabled");
+        flags.add("-XX:+DisableExplicitGC");
+    }
+
+    /**
+     * Aims for around 2048 regions, as G1 does by default, but rounded to the power of 2 sizes (1MB to 32MB) it
+     * allows.
+     */
+    public static int getG1RegionSize(int heapSize) {
+        int regionSize = 1;
+
+        while (regionSize < 32 && regionSize * 2 <= heapSize / 2048) {
+            regionSize *= 2;
+        }
+
+        return regionSize;
+    }
+
+    private static List<String> validate(List<String> flags, SupportedFlags supported) {
+        List<String> validated = new ArrayList<>();
+        boolean needsUnlock = false;
+
+        for (String flag : flags) {
+            Matcher matcher = FLAG_NAME_PATTERN.matcher(flag);
+
+            if (!matcher.find() || !supported.supports(matcher.group(1))) {
+                LogManager.debug("Dropping JVM flag " + flag + " as it's not supported by Java "
+                        + supported.javaVersion);
+                continue;
+            }
+
+            needsUnlock |= supported.isExperimental(matcher.group(1));
+            validated.add(flag);
+        }
+
+        if (needsUnlock) {
+            validated.add(0, "-XX:+UnlockExperimentalVMOptions");
+        }
+
+        return validated;
+    }
+
+    /**
+     * Parses the output of running Java with -XX:+PrintFlagsFinal -version, returning null if it doesn't look like
+     * it worked.
+     */
+    public static SupportedFlags parseSupportedFlags(String output) {
+        Map<String, Boolean> flags = new HashMap<>();
+        String version = null;
+
+        for (String line : output.split("\\r?\\n")) {
+            Matcher flagMatcher = FLAG_LINE_PATTERN.matcher(line);
+
+            if (flagMatcher.find()) {
+                flags.put(flagMatcher.group(1), flagMatcher.group(2).contains("experimental"));
+                continue;
+            }
+
+            Matcher versionMatcher = VERSION_PATTERN.matcher(line);
+            if (versionMatcher.find()) {
+                version = versionMatcher.group(2);
+            }
+        }
+
+        if (version == null || flags.isEmpty()) {
+            return null;
+        }
+
+        return new SupportedFlags(Java.parseJavaVersionNumber(version), flags);
+    }
+
+    private static SupportedFlags getSupportedFlags(String javaPath) {
+        File executable = new File(javaPath, "bin" + File.separator + "java" + (OS.isWindows() ? ".exe" : ""));
+        String key = executable.getAbsolutePath() + " " + executable.length() + " " + executable.lastModified();
+
+        SupportedFlags supported = PROBED.get(key);
+        if (supported != null) {
+            return supported;
+        }
+
+        Path cacheFile = FileSystem.JVM_FLAGS_CACHE
+                .resolve(Hashing.md5(executable.getAbsolutePath()).toString() + ".json");
+        CachedProbe cached = readCachedProbe(cacheFile);
+
+        if (cached != null && key.equals(cached.key)) {
+            supported = new SupportedFlags(Java.parseJavaVersionNumber(cached.version), cached.flags);
+        } else {
+            String output = Utils.runProcess(executable.getAbsolutePath(), "-XX:+UnlockExperimentalVMOptions",
+                    "-XX:+PrintFlagsFinal", "-version");
+            supported = parseSupportedFlags(output);
+
+            if (supported == null) {
+                return null;
+            }
+
+            Matcher versionMatcher = VERSION_PATTERN.matcher(output);
+            CachedProbe probe = new CachedProbe();
+            probe.key = key;
+            probe.version = versionMatcher.find() ? versionMatcher.group(2) : String.valueOf(supported.javaVersion);
+            probe.flags = supported.flags;
+            writeCachedProbe(cacheFile, probe);
+        }
+
+        PROBED.put(key, supported);
+        return supported;
+    }
+
+    private static CachedProbe readCachedProbe(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (InputStreamReader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            CachedProbe cached = Gsons.DEFAULT.fromJson(reader, CachedProbe.class);
+
+            return cached == null || cached.flags == null || cached.version == null ? null : cached;
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to read cached JVM flags from " + file, e);
+            FileUtils.delete(file);
+            return null;
+        }
+    }
+
+    private static void writeCachedProbe(Path file, CachedProbe probe) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            FileUtils.createDirectory(FileSystem.JVM_FLAGS_CACHE);
+
+            try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(temp),
+                    StandardCharsets.UTF_8)) {
+                Gsons.DEFAULT.toJson(probe, writer);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            LogManager.logStackTrace("Failed to cache JVM flags to " + file, e);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.atlauncher.constants.Constants;
 import com.atlauncher.data.AbstractAccount;
 import com.atlauncher.data.DisableableMod;
 import com.atlauncher.data.Instance;
+import com.atlauncher.data.JvmTuningProfile;
 import com.atlauncher.data.LoginResponse;
 import com.atlauncher.data.MicrosoftAccount;
 import com.atlauncher.data.MojangAccount;
@@ -273,15 +274,12 @@ public class MCLauncher {
             arguments.add("-Xms" + initialMemory + "M");
         }
 
-        if (OS.getMaximumRam() != 0 && maximumMemory < instance.getMemory()) {
-            if ((OS.getMaximumRam() / 2) < instance.getMemory()) {
-                arguments.add("-Xmx" + maximumMemory + "M");
-            } else {
-                arguments.add("-Xmx" + instance.getMemory() + "M");
-            }
-        } else {
-            arguments.add("-Xmx" + maximumMemory + "M");
+        int heapSize = maximumMemory;
+        if (OS.getMaximumRam() != 0 && maximumMemory < instance.getMemory()
+                && (OS.getMaximumRam() / 2) >= instance.getMemory()) {
+            heapSize = instance.getMemory();
         }
+        arguments.add("-Xmx" + heapSize + "M");
 
         if (OS.getMaximumRam() != 0 && permGen < instance.getPermGen()
                 && (OS.getMaximumRam() / 8) < instance.getPermGen()) {
@@ -330,6 +328,16 @@ public class MCLauncher {
             }
         }
 
+        JvmTuningProfile tuningProfile = Optional.ofNullable(instance.launcher.jvmTuningProfile)
+                .orElse(App.settings.jvmTuningProfile);
+        List<String> tuningArguments = JvmTuning.getArguments(tuningProfile, javaPath, heapSize);
+        if (!tuningArguments.isEmpty()) {
+            arguments.addAll(tuningArguments);
+            javaArguments = JvmTuning.removeConflictingArguments(javaArguments, tuningArguments);
+        }
+
+        arguments.addAll(GcLogging.getArguments(instance, javaPath, javaArguments));
+
         if (!javaArguments.isEmpty()) {
             for (String arg : javaArguments.split(" ")) {
                 if (!arg.isEmpty()) {
@@ -340,6 +348,8 @@ public class MCLauncher {
 
         String classpath = cpb.toString();
 
+        arguments.addAll(ClassDataSharing.getArguments(instance, javaPath, javaArguments, classpath));
+
         for (String argument : instance.arguments.jvmAsStringList()) {
             if (IGNORED_ARGUMENTS.contains(argument)) {
                 continue;
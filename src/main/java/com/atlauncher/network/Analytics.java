@@ -17,22 +17,39 @@
  */
 package com.atlauncher.network;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import com.atlauncher.App;
+import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
 import com.atlauncher.constants.Constants;
@@ -40,6 +57,7 @@ import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.network.analytics.AnalyticsApiResponse;
 import com.atlauncher.network.analytics.AnalyticsEvent;
+import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Java;
 import com.atlauncher.utils.OS;
 
@@ -50,11 +68,41 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
+/**
+ * Queues up analytics events and sends them in batches, either once enough events have been queued or every so often.
+ *
+ * Tracking an event never blocks: events go into a bounded lock free queue (new events are dropped once it's full)
+ * and all the sending happens on a single background thread. Batches which fail to send are spooled to disk (up to a
+ * small limit) and sent again the next time a session is started.
+ */
 public final class Analytics {
-    private static List<AnalyticsEvent> events = new ArrayList<>();
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    // send as soon as this many events are queued
+    private static final int BATCH_SIZE = 10;
+
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_QUEUED_EVENTS = 1000;
+
+    private static final int MAX_SPOOLED_BATCHES = 50;
+    private static final long MAX_SPOOLED_BYTES = 1024 * 1024;
+    private static final long MAX_SPOOLED_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final Queue<AnalyticsEvent> events = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queuedEvents = new AtomicInteger(0);
+    private static final AtomicInteger droppedEvents = new AtomicInteger(0);
+    private static final AtomicBoolean sendQueued = new AtomicBoolean(false);
+    private static final Object spoolLock = new Object();
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Analytics");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private static String sessionId = UUID.randomUUID().toString();
-    private static boolean sessionInitialised = false;
-    private static Timer timer = new Timer();
+    private static volatile boolean sessionStarted = false;
+    private static volatile boolean sessionInitialised = false;
 
     public static void startSession() {
         Map<String, Object> body = new HashMap<>();
@@ -69,52 +117,97 @@ public final class Analytics {
         body.put("launcherHash", Constants.VERSION.getSha1Revision().toString());
         body.put("launcherInstallMethod", OS.getInstallMethodForAnalytics());
 
+        sessionStarted = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(Analytics::endSession));
+
         CompletableFuture<AnalyticsApiResponse> responseFuture = makeApiCall("/session", body);
 
         responseFuture.thenApply((AnalyticsApiResponse response) -> {
             Analytics.sessionInitialised = response.statusCode >= 200 && response.statusCode < 300;
 
+            if (!Analytics.sessionInitialised) {
+                return response;
+            }
+
             Double autoSendInSeconds = ConfigManager.getConfigItem("analytics.autoSendInSeconds", 60d);
 
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    if (events.size() != 0) {
-                        sendAllStoredEvents(false);
-                    }
+            EXECUTOR.scheduleWithFixedDelay(() -> {
+                if (queuedEvents.get() != 0) {
+                    sendQueuedEvents();
                 }
-            }, (int) (autoSendInSeconds * 1000), (int) (autoSendInSeconds * 1000));
+            }, (long) (autoSendInSeconds * 1000), (long) (autoSendInSeconds * 1000), TimeUnit.MILLISECONDS);
 
-            Runtime.getRuntime().addShutdownHook(new Thread(Analytics::endSession));
+            EXECUTOR.execute(Analytics::sendSpooledEvents);
 
             return response;
         });
     }
 
     public static void trackEvent(AnalyticsEvent event) {
-        events.add(event);
+        if (queuedEvents.incrementAndGet() > MAX_QUEUED_EVENTS) {
+            queuedEvents.decrementAndGet();
+            droppedEvents.incrementAndGet();
+            return;
+        }
+
+        events.offer(event);
 
-        if (events.size() >= 10 && sessionInitialised) {
+        if (sessionInitialised && queuedEvents.get() >= BATCH_SIZE && sendQueued.compareAndSet(false, true)) {
+            try {
+                EXECUTOR.execute(Analytics::sendQueuedEvents);
+            } catch (RejectedExecutionException ignored) {
+                // session has ended
+            }
+        }
+    }
+
+    private static void sendQueuedEvents() {
+        sendQueued.set(false);
+
+        try {
             sendAllStoredEvents(false);
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Error sending analytics events", t);
         }
     }
 
     public static synchronized void sendAllStoredEvents(boolean wait) {
-        synchronized (events) {
-            sendEvents(events, wait);
-            events.clear();
+        List<AnalyticsEvent> batch;
+
+        while (!(batch = takeEvents()).isEmpty()) {
+            sendEvents(batch, wait);
         }
+
+        int dropped = droppedEvents.getAndSet(0);
+        if (dropped != 0) {
+            LogManager.debug(String.format(Locale.ENGLISH, "Dropped %d analytics events as the queue was full",
+                    dropped));
+        }
+    }
+
+    private static List<AnalyticsEvent> takeEvents() {
+        List<AnalyticsEvent> batch = new ArrayList<>();
+        AnalyticsEvent event;
+
+        while (batch.size() < MAX_BATCH_SIZE && (event = events.poll()) != null) {
+            queuedEvents.decrementAndGet();
+            batch.add(event);
+        }
+
+        return batch;
     }
 
     private static void sendEvents(List<AnalyticsEvent> events, boolean wait) {
         LogManager.debug(String.format(Locale.ENGLISH, "Sending %d batched events", events.size()));
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("userId", App.settings.analyticsClientId);
-        body.put("sessionId", sessionId);
-        body.put("events", events);
+        String json = getEventsJson(events);
+        final CompletableFuture<AnalyticsApiResponse> responseFuture = makeApiCall("/events", json);
 
-        final CompletableFuture<AnalyticsApiResponse> responseFuture = makeApiCall("/events", body);
+        responseFuture.whenComplete((response, e) -> {
+            if (e != null || response.statusCode >= 500) {
+                spool(json);
+            }
+        });
 
         if (wait) {
             try {
@@ -124,17 +217,128 @@ public final class Analytics {
         }
     }
 
+    private static String getEventsJson(List<AnalyticsEvent> events) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("userId", App.settings.analyticsClientId);
+        body.put("sessionId", sessionId);
+        body.put("events", events);
+
+        return Gsons.DEFAULT.toJson(body);
+    }
+
+    /**
+     * Writes a batch of events which couldn't be sent to disk to try again later, removing the oldest batches if
+     * there's too many spooled already.
+     */
+    private static void spool(String json) {
+        synchronized (spoolLock) {
+            spoolBatch(json);
+        }
+    }
+
+    private static void spoolBatch(String json) {
+        try {
+            FileUtils.createDirectory(FileSystem.ANALYTICS_SPOOL);
+
+            String name = String.format(Locale.ENGLISH, "%013d-%s.json.gz", System.currentTimeMillis(),
+                    UUID.randomUUID());
+            Path temp = FileSystem.ANALYTICS_SPOOL.resolve(name + ".tmp");
+
+            try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                os.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp, FileSystem.ANALYTICS_SPOOL.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+
+            List<Path> spooled = getSpooledBatches();
+            long totalSize = 0;
+            for (int i = spooled.size() - 1; i >= 0; i--) {
+                totalSize += Files.size(spooled.get(i));
+
+                if (totalSize > MAX_SPOOLED_BYTES || spooled.size() - i > MAX_SPOOLED_BATCHES) {
+                    Files.deleteIfExists(spooled.get(i));
+                }
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to spool analytics events", e);
+        }
+    }
+
+    private static List<Path> getSpooledBatches() throws IOException {
+        if (!Files.isDirectory(FileSystem.ANALYTICS_SPOOL)) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> stream = Files.list(FileSystem.ANALYTICS_SPOOL)) {
+            return stream.filter(p -> p.getFileName().toString().endsWith(".json.gz")).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Sends any batches spooled from previous sessions, oldest first, stopping at the first one which fails.
+     */
+    private static void sendSpooledEvents() {
+        try {
+            for (Path batch : getSpooledBatches()) {
+                if (Files.getLastModifiedTime(batch).toMillis() < System.currentTimeMillis()
+                        - MAX_SPOOLED_AGE_MILLIS) {
+                    Files.deleteIfExists(batch);
+                    continue;
+                }
+
+                String json;
+                try (InputStream is = new GZIPInputStream(Files.newInputStream(batch))) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = is.read(buffer)) != -1) {
+                        bytes.write(buffer, 0, read);
+                    }
+                    json = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    LogManager.logStackTrace("Failed to read spooled analytics events " + batch, e);
+                    Files.deleteIfExists(batch);
+                    continue;
+                }
+
+                AnalyticsApiResponse response;
+                try {
+                    response = makeApiCall("/events", json).get(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                    return;
+                }
+
+                // only keep retrying server errors, anything else won't ever succeed
+                if (response.statusCode >= 500) {
+                    return;
+                }
+
+                Files.deleteIfExists(batch);
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to send spooled analytics events", e);
+        }
+    }
+
     public static CompletableFuture<AnalyticsApiResponse> makeApiCall(String path, Map<String, Object> body) {
+        return makeApiCall(path, Gsons.DEFAULT.toJson(body));
+    }
+
+    private static CompletableFuture<AnalyticsApiResponse> makeApiCall(String path, String json) {
         LogManager.debug(String.format("Calling %s analytics call", path));
 
         CompletableFuture<AnalyticsApiResponse> completableFuture = new CompletableFuture<>();
 
-        Request request = new Request.Builder()
-                .url(String.format("%s/api%s", Constants.ANALYTICS_BASE_URL, path))
-                .post(RequestBody.create(Gsons.DEFAULT.toJson(body), MediaType.get("application/json; charset=utf-8")))
-                .build();
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(String.format("%s/api%s", Constants.ANALYTICS_BASE_URL, path));
+
+        if (ConfigManager.getConfigItem("analytics.gzipPayloads", false)) {
+            requestBuilder.header("Content-Encoding", "gzip").post(RequestBody.create(gzip(json), JSON));
+        } else {
+            requestBuilder.post(RequestBody.create(json, JSON));
+        }
 
-        Network.CLIENT.newCall(request).enqueue(new Callback() {
+        Network.CLIENT.newCall(requestBuilder.build()).enqueue(new Callback() {
             @Override
             public void onFailure(Call call, IOException e) {
                 LogManager.logStackTrace(String.format("Failed to call analytics api for path %s", path), e);
@@ -154,6 +358,18 @@ public final class Analytics {
         return completableFuture;
     }
 
+    private static byte[] gzip(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (OutputStream os = new GZIPOutputStream(bytes)) {
+            os.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignored) {
+            // can't happen writing to memory
+        }
+
+        return bytes.toByteArray();
+    }
+
     public static void sendScreenView(String title) {
         trackEvent(AnalyticsEvent.forScreenView(title));
     }
@@ -164,9 +380,10 @@ public final class Analytics {
 
     public static void endSession() {
         if (sessionInitialised) {
-            timer.cancel();
+            sessionInitialised = false;
+            EXECUTOR.shutdownNow();
 
-            if (events.size() != 0) {
+            if (queuedEvents.get() != 0) {
                 sendAllStoredEvents(true);
             }
 
@@ -179,9 +396,15 @@ public final class Analytics {
                 response.get(10, TimeUnit.SECONDS);
             } catch (InterruptedException | ExecutionException | TimeoutException ignored) {
             }
-
-            sessionInitialised = false;
+        } else if (sessionStarted) {
+            // couldn't reach the server this session, so keep what we have for next time
+            List<AnalyticsEvent> batch;
+            while (!(batch = takeEvents()).isEmpty()) {
+                spool(getEventsJson(batch));
+            }
         }
+
+        sessionStarted = false;
     }
 
     public static boolean isEnabled() {
@@ -26,15 +26,20 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.atlauncher.App;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
 import com.atlauncher.Network;
+import com.atlauncher.interfaces.NetworkProgressable;
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
@@ -45,6 +50,7 @@ import com.google.gson.Gson;
 
 import okhttp3.CacheControl;
 import okhttp3.Headers;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
@@ -54,6 +60,9 @@ import okhttp3.Response;
 public final class Download {
     public static final int MAX_ATTEMPTS = 3;
 
+    // downloads currently writing to each target path, so that installs wanting the same file don't both download it
+    private static final Map<Path, CompletableFuture<Void>> IN_FLIGHT = new ConcurrentHashMap<>();
+
     // pre request
     String url;
     private String friendlyFileName;
@@ -70,6 +79,7 @@ public final class Download {
     private boolean executable = false;
     public InstanceInstaller instanceInstaller;
     private OkHttpClient httpClient = Network.CLIENT;
+    private NetworkProgressable progressable = null;
     private RequestBody post = null;
     private CacheControl cacheControl = null;
     private final Map<String, String> headers = new HashMap<String, String>();
@@ -77,6 +87,12 @@ public final class Download {
     // generated on/after request
     public Response response;
 
+    // size of the file left by the last call to downloadFile if it passed its checks, otherwise -1
+    private volatile long downloadedSize = -1L;
+
+    // called once the file has been fetched and checked, before it's copied or post processed
+    private Runnable onTransferred = null;
+
     public Download() {
 
     }
@@ -300,6 +316,11 @@ public final class Download {
         return this;
     }
 
+    public Download withProgressable(NetworkProgressable progressable) {
+        this.progressable = progressable;
+        return this;
+    }
+
     public Download withFriendlyFileName(String friendlyFileName) {
         this.friendlyFileName = friendlyFileName;
         return this;
@@ -325,6 +346,10 @@ public final class Download {
             builder.cacheControl(this.cacheControl);
         }
 
+        if (this.progressable != null) {
+            builder.tag(NetworkProgressable.class, this.progressable);
+        }
+
         this.response = httpClient.newCall(builder.build()).execute();
 
         if (this.response == null || (!this.ignoreFailures && !this.response.isSuccessful())) {
@@ -474,35 +499,139 @@ public final class Download {
         }
         try (FileChannel fc = FileChannel.open(this.to, Utils.WRITE);
                 ReadableByteChannel rbc = Channels.newChannel(this.response.body().byteStream())) {
-            fc.transferFrom(rbc, 0, Long.MAX_VALUE);
+            PerformanceManager.count("bytesDownloaded", fc.transferFrom(rbc, 0, Long.MAX_VALUE));
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to download file " + this.to, e, false);
         }
     }
 
+    /**
+     * Checks if the last call to {@link #downloadFile()} left a file which passed its checks, without hashing it
+     * again.
+     */
+    public boolean wasDownloaded() {
+        return downloadedSize != -1L;
+    }
+
+    public long getDownloadedSize() {
+        return Math.max(downloadedSize, 0L);
+    }
+
+    /**
+     * Runs the given callback as soon as the file has been fetched and checked, before any copying, extracting or
+     * other post processing. Used to hand back per host download slots without waiting on work that isn't network.
+     */
+    Download onTransferred(Runnable onTransferred) {
+        this.onTransferred = onTransferred;
+        return this;
+    }
+
+    private void setDownloaded(boolean downloaded) {
+        downloadedSize = downloaded && Files.exists(this.to) ? this.to.toFile().length() : -1L;
+
+        if (onTransferred != null) {
+            onTransferred.run();
+        }
+    }
+
     private boolean hashMatches() {
-        if (Files.exists(this.to)) {
+        return hashMatches(this.to);
+    }
+
+    private boolean hashMatches(Path file) {
+        if (Files.exists(file)) {
             if (this.fingerprint != null) {
                 try {
-                    return Hashing.murmur(this.to) == this.fingerprint;
+                    return Hashing.murmur(file) == this.fingerprint;
                 } catch (IOException e) {
                     LogManager.error("Error getting murmur hash");
                     return false;
                 }
             } else if (this.md5()) {
-                return Hashing.md5(this.to).equals(Hashing.toHashCode(this.getHash()));
+                return Hashing.md5(file).equals(Hashing.toHashCode(this.getHash()));
             } else if (this.sha256()) {
-                return Hashing.sha256(this.to).equals(Hashing.toHashCode(this.getHash()));
+                return Hashing.sha256(file).equals(Hashing.toHashCode(this.getHash()));
             } else if (this.sha512()) {
-                return Hashing.sha512(this.to).equals(Hashing.toHashCode(this.getHash()));
+                return Hashing.sha512(file).equals(Hashing.toHashCode(this.getHash()));
             } else {
-                return Hashing.sha1(this.to).equals(Hashing.toHashCode(this.getHash()));
+                return Hashing.sha1(file).equals(Hashing.toHashCode(this.getHash()));
             }
         }
 
         return false;
     }
 
+    /**
+     * Tries to get the file from the download mirror (if one is set) by its hash before going to the origin.
+     *
+     * @return if the file was downloaded from the mirror and had the expected hash
+     */
+    private boolean downloadFromMirror() {
+        // only plain GET requests for files we know a strong hash of can be looked up on the mirror, since the file
+        // is only checked against that hash (so never by a fingerprint or md5)
+        if (this.to == null || this.post != null || this.cacheControl != null || !this.headers.isEmpty()
+                || this.fingerprint != null) {
+            return false;
+        }
+
+        HttpUrl mirrorUrl = DownloadMirror.getUrl(this.hash, this.url);
+
+        if (mirrorUrl == null) {
+            return false;
+        }
+
+        Path part = this.to.resolveSibling(this.to.getFileName().toString() + ".mirror");
+        FileUtils.delete(part);
+
+        if (!Files.isDirectory(this.to.getParent())) {
+            FileUtils.createDirectory(this.to.getParent());
+        }
+
+        Request.Builder builder = new Request.Builder().url(mirrorUrl);
+
+        if (this.progressable != null) {
+            builder.tag(NetworkProgressable.class, this.progressable);
+        }
+
+        try (Response mirrorResponse = DownloadMirror.getClient().newCall(builder.build()).execute()) {
+            if (!mirrorResponse.isSuccessful()) {
+                LogManager.debug("Download mirror returned " + mirrorResponse.code() + " for " + this.url);
+                return false;
+            }
+
+            if (size == -1L && mirrorResponse.body().contentLength() > 0L) {
+                size = mirrorResponse.body().contentLength();
+
+                if (instanceInstaller != null) {
+                    instanceInstaller.addBytesToDownload(size);
+                }
+            }
+
+            try (FileChannel fc = FileChannel.open(part, Utils.WRITE);
+                    ReadableByteChannel rbc = Channels.newChannel(mirrorResponse.body().byteStream())) {
+                PerformanceManager.count("bytesDownloadedFromMirror", fc.transferFrom(rbc, 0, Long.MAX_VALUE));
+            }
+
+            if (!hashMatches(part)) {
+                LogManager.warn("File from download mirror for " + this.url
+                        + " didn't have the expected hash, downloading from origin instead");
+                return false;
+            }
+
+            Files.move(part, this.to, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            DownloadMirror.connectionFailed(mirrorUrl, e);
+            return false;
+        } finally {
+            if (Files.exists(part)) {
+                FileUtils.delete(part);
+            }
+        }
+
+        PerformanceManager.count("downloadMirrorHits");
+        return true;
+    }
+
     private boolean downloadRec(int attempt) {
         if (attempt > MAX_ATTEMPTS) {
             return false;
@@ -572,44 +701,91 @@ public final class Download {
         }
     }
 
+    private void copyIfChanged() {
+        if (this.copyTo == null) {
+            return;
+        }
+
+        if (this.fingerprint != null) {
+            try {
+                if (Hashing.murmur(this.copyTo) != this.fingerprint) {
+                    this.copy();
+                }
+            } catch (IOException ignored) {
+            }
+        } else {
+            HashCode fileHash = Hashing.EMPTY_HASH_CODE;
+            if (Files.exists(this.copyTo)) {
+                if (this.md5()) {
+                    fileHash = Hashing.md5(this.copyTo);
+                } else if (this.sha256()) {
+                    fileHash = Hashing.sha256(this.copyTo);
+                } else if (this.sha512()) {
+                    fileHash = Hashing.sha512(this.copyTo);
+                } else {
+                    fileHash = Hashing.sha1(this.copyTo);
+                }
+            }
+
+            if (!fileHash.equals(Hashing.toHashCode(this.getHash()))) {
+                this.copy();
+            }
+        }
+    }
+
     public void downloadFile() throws IOException {
         downloadFile(0);
     }
 
     public void downloadFile(int tries) throws IOException {
+        if (this.to == null) {
+            downloadFileUnlocked(tries);
+            return;
+        }
+
+        // when the same file is wanted by multiple installs at once, let the first one download it and the rest wait
+        // for it to finish and will then find it's already there
+        Path target = this.to.toAbsolutePath().normalize();
+        CompletableFuture<Void> download = new CompletableFuture<>();
+
+        while (true) {
+            CompletableFuture<Void> inFlight = IN_FLIGHT.putIfAbsent(target, download);
+
+            if (inFlight == null) {
+                break;
+            }
+
+            // completes whether or not the other download worked, in which case it's downloaded again here
+            inFlight.join();
+        }
+
+        try {
+            downloadFileUnlocked(tries);
+        } finally {
+            IN_FLIGHT.remove(target, download);
+            download.complete(null);
+        }
+    }
+
+    private void downloadFileUnlocked(int tries) throws IOException {
+        downloadedSize = -1L;
+
         if (this.instanceInstaller != null && this.instanceInstaller.isCancelled()) {
             return;
         }
 
         if (!this.needToDownload()) {
-            if (this.copyTo != null) {
-                if (this.fingerprint != null) {
-                    try {
-                        if (Hashing.murmur(this.copyTo) != this.fingerprint) {
-                            this.copy();
-                        }
-                    } catch (IOException ignored) {
-                    }
-                } else {
-                    HashCode fileHash = Hashing.EMPTY_HASH_CODE;
-                    if (Files.exists(this.copyTo)) {
-                        if (this.md5()) {
-                            fileHash = Hashing.md5(this.copyTo);
-                        } else if (this.sha256()) {
-                            fileHash = Hashing.sha256(this.copyTo);
-                        } else if (this.sha512()) {
-                            fileHash = Hashing.sha512(this.copyTo);
-                        } else {
-                            fileHash = Hashing.sha1(this.copyTo);
-                        }
-                    }
+            PerformanceManager.count("downloadCacheHits");
+            setDownloaded(true);
 
-                    if (!fileHash.equals(Hashing.toHashCode(this.getHash()))) {
-                        this.copy();
-                    }
-                }
-            }
+            this.copyIfChanged();
+            runPostProcessors();
+            return;
+        }
 
+        if (this.response == null && this.downloadFromMirror()) {
+            setDownloaded(true);
+            this.copyIfChanged();
             runPostProcessors();
             return;
         }
@@ -623,7 +799,7 @@ public final class Download {
                 if (e instanceof SocketTimeoutException && tries < 3) {
                     LogManager.warn(String.format("Failed to download %s from %s due to timeout. Attempting again.",
                             this.to.getFileName().toString(), this.url));
-                    downloadFile(tries++);
+                    downloadFileUnlocked(tries + 1);
                     return;
                 }
 
@@ -659,9 +835,11 @@ public final class Download {
                 || (expected != null && expected.equals(Hashing.EMPTY_HASH_CODE))) {
             if (this.response.isSuccessful()) {
                 this.downloadDirect();
+                setDownloaded(true);
             }
         } else {
             boolean downloaded = this.downloadRec(1);
+            setDownloaded(downloaded);
 
             if (!downloaded) {
                 if (this.response != null && this.response.header("content-type").contains("text/html")) {
@@ -694,32 +872,8 @@ public final class Download {
                 }
             }
 
-            if (downloaded && this.copyTo != null) {
-                if (this.fingerprint != null) {
-                    try {
-                        if (Hashing.murmur(this.copyTo) != this.fingerprint) {
-                            this.copy();
-                        }
-                    } catch (IOException ignored) {
-                    }
-                } else {
-                    HashCode fileHash2 = Hashing.EMPTY_HASH_CODE;
-                    if (Files.exists(this.copyTo)) {
-                        if (this.md5()) {
-                            fileHash2 = Hashing.md5(this.copyTo);
-                        } else if (this.sha256()) {
-                            fileHash2 = Hashing.sha256(this.copyTo);
-                        } else if (this.sha512()) {
-                            fileHash2 = Hashing.sha512(this.copyTo);
-                        } else {
-                            fileHash2 = Hashing.sha1(this.copyTo);
-                        }
-                    }
-
-                    if (!fileHash2.equals(expected)) {
-                        this.copy();
-                    }
-                }
+            if (downloaded) {
+                this.copyIfChanged();
             }
         }
 
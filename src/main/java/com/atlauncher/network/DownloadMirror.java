@@ -0,0 +1,150 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.App;
+import com.atlauncher.Network;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.Hashing;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+/**
+ * Client side of the download mirror. When a mirror is configured, downloads with a known hash are first requested
+ * from the mirror by their hash (as {@code <mirror>/<hash type>/<hash>?url=<origin url>}) before going to the origin.
+ * The mirror is expected to fill itself from the origin url on a miss, so a fleet of launchers only needs to download
+ * each file from the internet once.
+ *
+ * Files from the mirror are verified the same as any other download, and anything going wrong with the mirror just
+ * falls back to downloading from the origin.
+ *
+ * Only SHA-1, SHA-256 and SHA-512 hashes are used as keys. Whoever first asks for a hash also picks where the mirror
+ * fills it from, so with a weak hash (MD5 or a CurseForge murmur fingerprint) one client could fill the cache with a
+ * colliding file that every other client would then accept.
+ */
+public final class DownloadMirror {
+    // how long to stop asking the mirror for files after failing to connect to it
+    private static final long UNAVAILABLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile long unavailableUntil = 0L;
+
+    private DownloadMirror() {
+    }
+
+    /**
+     * The mirror to use, either from the --download-mirror command line argument or the users settings.
+     */
+    public static HttpUrl getMirrorUrl() {
+        String mirrorUrl = App.downloadMirror != null ? App.downloadMirror
+                : (App.settings == null ? null : App.settings.downloadMirrorUrl);
+
+        if (mirrorUrl == null || mirrorUrl.trim().isEmpty()) {
+            return null;
+        }
+
+        return HttpUrl.parse(mirrorUrl.trim());
+    }
+
+    public static boolean isAvailable() {
+        return getMirrorUrl() != null && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    /**
+     * Gets the url to fetch the file with the given hash from the mirror, or null if there's no mirror available or
+     * the hash isn't a strong enough one for the mirror to look files up by.
+     */
+    public static HttpUrl getUrl(String hash, String originUrl) {
+        return getUrl(getHashType(hash), hash, originUrl);
+    }
+
+    public static HttpUrl getUrl(Hashing.HashType type, String hash, String originUrl) {
+        HttpUrl mirrorUrl = getMirrorUrl();
+
+        if (mirrorUrl == null || type == null || originUrl == null || !isAvailable() || !isValidHash(type, hash)) {
+            return null;
+        }
+
+        return mirrorUrl.newBuilder().addPathSegment(type.name().toLowerCase(Locale.ENGLISH))
+                .addPathSegment(hash.toLowerCase(Locale.ENGLISH)).addQueryParameter("url", originUrl).build();
+    }
+
+    public static OkHttpClient getClient() {
+        // don't hold up downloads for long if the mirror has gone away, since we can always use the origin
+        return Network.CLIENT.newBuilder().connectTimeout(5, TimeUnit.SECONDS).build();
+    }
+
+    /**
+     * Stops using the mirror for a little while after we fail to talk to it.
+     */
+    public static void connectionFailed(HttpUrl url, IOException e) {
+        unavailableUntil = System.currentTimeMillis() + UNAVAILABLE_MILLIS;
+        LogManager.warn("Failed to connect to download mirror at " + url.host() + ":" + url.port()
+                + ", downloading from origin for the next minute: " + e.getMessage());
+    }
+
+    public static Hashing.HashType getHashType(String hash) {
+        if (hash == null) {
+            return null;
+        }
+
+        switch (hash.length()) {
+            case 40:
+                return Hashing.HashType.SHA1;
+            case 64:
+                return Hashing.HashType.SHA256;
+            case 128:
+                return Hashing.HashType.SHA512;
+            default:
+                return null;
+        }
+    }
+
+    public static Hashing.HashType getHashType(String type, String hash) {
+        for (Hashing.HashType hashType : Hashing.HashType.values()) {
+            if (hashType.name().equalsIgnoreCase(type)) {
+                return isValidHash(hashType, hash) ? hashType : null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks the hash is a well formed SHA-1, SHA-256 or SHA-512 hash of the given type.
+     */
+    public static boolean isValidHash(Hashing.HashType type, String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return false;
+        }
+
+        return getHashType(hash) == type && hash.matches("[0-9a-fA-F]+");
+    }
+
+    /**
+     * Checks the given file has the given hash.
+     */
+    public static boolean matches(Path file, Hashing.HashType type, String hash) {
+        return Hashing.hashes(file, type).get(type).equals(Hashing.toHashCode(hash.toLowerCase(Locale.ENGLISH)));
+    }
+}
@@ -22,6 +22,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import com.atlauncher.App;
@@ -47,7 +49,9 @@ public final class DownloadPool extends LinkedList<Download> {
             }
         }
 
-        ExecutorService executor = Executors.newFixedThreadPool(App.settings.concurrentConnections);
+        // each host limits itself, so just make sure there's enough threads for the busiest host
+        ExecutorService executor = Executors
+                .newFixedThreadPool(Math.max(1, Math.min(this.size(), HostConcurrencyLimiter.getMaxLimit())));
         synchronized (this) {
             for (Download dl : this) {
                 executor.execute(new Downloader(dl));
@@ -55,8 +59,7 @@ public final class DownloadPool extends LinkedList<Download> {
         }
         executor.shutdown();
         if (this.wait) {
-            while (!executor.isTerminated()) {
-            }
+            awaitTermination(executor);
         }
     }
 
@@ -91,12 +94,21 @@ public final class DownloadPool extends LinkedList<Download> {
         }
 
         executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+        awaitTermination(executor);
 
         return pool;
     }
 
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting until all the downloads are done
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public boolean any() {
         synchronized (this) {
             for (Download dl : this) {
@@ -120,7 +132,20 @@ public final class DownloadPool extends LinkedList<Download> {
         public void run() {
             try {
                 if (this.dl.needToDownload()) {
-                    this.dl.downloadFile();
+                    HostConcurrencyLimiter limiter = HostConcurrencyLimiter.forUrl(this.dl.url);
+                    AtomicBoolean released = new AtomicBoolean(false);
+                    Runnable release = () -> {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.release(this.dl.wasDownloaded(), this.dl.getDownloadedSize());
+                        }
+                    };
+
+                    limiter.acquire();
+                    try {
+                        this.dl.onTransferred(release).downloadFile();
+                    } finally {
+                        release.run();
+                    }
                 } else {
                     this.dl.copy();
                 }
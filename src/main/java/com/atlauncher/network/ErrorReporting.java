@@ -17,8 +17,12 @@
  */
 package com.atlauncher.network;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
@@ -31,8 +35,17 @@ import io.sentry.Sentry;
 import io.sentry.SentryLevel;
 
 public final class ErrorReporting {
-    public static List<String> sentEvents = new ArrayList<>();
-    public static List<String> ignoredMessages = new ArrayList<>();
+    // only need to remember enough recent messages to stop the same error being sent over and over
+    private static final int MAX_SENT_EVENTS = 100;
+
+    private static final Set<String> sentEvents = Collections
+            .synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_SENT_EVENTS;
+                }
+            }));
+    public static final List<String> ignoredMessages = new CopyOnWriteArrayList<>();
     public static boolean sentryInitialised = false;
 
     public static void enable() {
@@ -43,7 +56,7 @@ public final class ErrorReporting {
                     try {
                         Throwable t = event.getThrowable();
 
-                        if (t == null || t.getMessage() == null || sentEvents.contains(t.getMessage())) {
+                        if (t == null || t.getMessage() == null) {
                             return null;
                         }
 
@@ -51,7 +64,9 @@ public final class ErrorReporting {
                             return null;
                         }
 
-                        sentEvents.add(t.getMessage());
+                        if (!sentEvents.add(t.getMessage())) {
+                            return null;
+                        }
 
                         event.setServerName(null); // Don't send server names, they're useless
                         return event;
@@ -0,0 +1,122 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.atlauncher.App;
+import com.atlauncher.managers.LogManager;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Limits how many downloads run at once against a single host, adjusting the limit based on how the host is
+ * performing.
+ *
+ * Each host starts at the user's concurrent connections setting. After every window of completed downloads the
+ * throughput is compared against the previous window, and the limit is raised while throughput keeps improving and
+ * lowered once it stops. Failed downloads halve the limit. Limits are kept for the life of the launcher so later
+ * installs start from what was learnt before.
+ */
+public final class HostConcurrencyLimiter {
+    private static final int MAX_LIMIT = 64;
+    private static final Map<String, HostConcurrencyLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private int limit;
+    private int inFlight = 0;
+
+    private int windowCompleted = 0;
+    private long windowBytes = 0L;
+    private long windowStart = System.nanoTime();
+    private double lastThroughput = 0.0;
+
+    private HostConcurrencyLimiter(String host) {
+        this.host = host;
+        this.limit = Math.min(getInitialLimit(), getMaxLimit());
+    }
+
+    public static HostConcurrencyLimiter forUrl(String url) {
+        HttpUrl httpUrl = url == null ? null : HttpUrl.parse(url);
+        String host = httpUrl == null ? "" : httpUrl.host();
+
+        return LIMITERS.computeIfAbsent(host, HostConcurrencyLimiter::new);
+    }
+
+    /**
+     * The most threads a download pool will ever need, since no single host will be given more than this.
+     */
+    public static int getMaxLimit() {
+        return Math.min(getInitialLimit() * 4, MAX_LIMIT);
+    }
+
+    private static int getInitialLimit() {
+        return App.settings == null ? 8 : Math.max(1, App.settings.concurrentConnections);
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+
+        inFlight++;
+    }
+
+    public synchronized void release(boolean success, long bytes) {
+        inFlight--;
+
+        if (!success) {
+            setLimit(Math.max(1, limit / 2));
+            resetWindow();
+        } else {
+            windowCompleted++;
+            windowBytes += Math.max(0L, bytes);
+
+            if (windowCompleted >= limit) {
+                double throughput = windowBytes / (double) Math.max(1L, System.nanoTime() - windowStart);
+
+                if (throughput >= lastThroughput * 0.95) {
+                    setLimit(Math.min(getMaxLimit(), limit + 1));
+                } else {
+                    setLimit(Math.max(1, limit - 1));
+                }
+
+                lastThroughput = throughput;
+                resetWindow();
+            }
+        }
+
+        notifyAll();
+    }
+
+    private void setLimit(int newLimit) {
+        if (newLimit != limit) {
+            LogManager.debug(String.format(Locale.ENGLISH, "Concurrent downloads for %s changed from %d to %d", host,
+                    limit, newLimit), 3);
+            limit = newLimit;
+        }
+    }
+
+    private void resetWindow() {
+        windowCompleted = 0;
+        windowBytes = 0L;
+        windowStart = System.nanoTime();
+    }
+}
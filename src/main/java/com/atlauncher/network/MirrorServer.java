@@ -0,0 +1,245 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import com.atlauncher.Network;
+import com.atlauncher.constants.Constants;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.PerformanceManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.google.common.util.concurrent.Striped;
+
+import net.freeutils.httpserver.HTTPServer;
+import net.freeutils.httpserver.HTTPServer.VirtualHost;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * A small content addressed cache server which other launchers can use as their download mirror (see
+ * {@link DownloadMirror}).
+ *
+ * Files are stored by hash under the given directory. When a file is asked for which isn't in the cache, it's
+ * downloaded from the origin url passed along with the request, and only stored and served if it has the hash that
+ * was asked for, so the cache can never hand out a file different from the one the launcher expected.
+ *
+ * Origin urls are only fetched from a fixed list of known download hosts (including when following redirects), so
+ * the mirror can't be used as a proxy to reach anything else on the network.
+ */
+public class MirrorServer {
+    public static final Set<String> DEFAULT_ALLOWED_HOSTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            // Mojang
+            "piston-data.mojang.com", "piston-meta.mojang.com", "launcher.mojang.com", "launchermeta.mojang.com",
+            "libraries.minecraft.net", "resources.download.minecraft.net",
+            // loaders
+            Constants.FORGE_HOST, "files.minecraftforge.net", Constants.NEOFORGE_HOST, Constants.FABRIC_HOST,
+            Constants.LEGACY_FABRIC_HOST, Constants.QUILT_HOST,
+            // CurseForge and Modrinth
+            "edge.forgecdn.net", "mediafilez.forgecdn.net", "media.forgecdn.net", "cdn.modrinth.com",
+            // ATLauncher
+            "download.nodecdn.net", "cdn.atlcdn.net")));
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private final Path root;
+    private final HTTPServer server;
+    private final Set<String> allowedHosts;
+    private final Supplier<OkHttpClient> client;
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    public MirrorServer(int port, Path root) {
+        this(port, root, DEFAULT_ALLOWED_HOSTS, () -> Network.CLIENT);
+    }
+
+    MirrorServer(int port, Path root, Set<String> allowedHosts, Supplier<OkHttpClient> client) {
+        this.root = root;
+        this.server = new HTTPServer(port);
+        this.allowedHosts = allowedHosts;
+        this.client = client;
+
+        VirtualHost host = server.getVirtualHost(null);
+        host.addContext("/", this::serve);
+    }
+
+    public void start() throws IOException {
+        FileUtils.createDirectory(root);
+        server.start();
+
+        LogManager.info("Download mirror listening on port " + server.getPort() + " and storing files in " + root);
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    public Path getFile(Hashing.HashType type, String hash) {
+        String name = hash.toLowerCase(Locale.ENGLISH);
+
+        return root.resolve(type.name().toLowerCase(Locale.ENGLISH)).resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private int serve(HTTPServer.Request req, HTTPServer.Response res) throws IOException {
+        String[] parts = req.getPath().replaceAll("^/+|/+$", "").split("/");
+
+        if (parts.length != 2) {
+            return 404;
+        }
+
+        Hashing.HashType type = DownloadMirror.getHashType(parts[0], parts[1]);
+        if (type == null) {
+            return 404;
+        }
+
+        Path file = getFile(type, parts[1]);
+
+        if (Files.isRegularFile(file)) {
+            PerformanceManager.count("mirrorServerHits");
+        } else {
+            HttpUrl originUrl = HttpUrl.parse(req.getParams().getOrDefault("url", ""));
+
+            // only ever fetch http(s) urls, never things like file urls
+            if (originUrl == null) {
+                return 404;
+            }
+
+            if (!isAllowedHost(originUrl)) {
+                LogManager.warn("Mirror refused to download from " + originUrl.host() + " as it's not a known host");
+                res.send(403, "Not allowed to download from " + originUrl.host());
+                return 0;
+            }
+
+            Lock lock = locks.get(file);
+            lock.lock();
+            try {
+                if (!Files.isRegularFile(file) && !fill(file, type, parts[1], originUrl)) {
+                    res.send(502, "Couldn't download a file with the hash " + parts[1] + " from the origin");
+                    return 0;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long size = Files.size(file);
+        try (InputStream stream = Files.newInputStream(file)) {
+            res.getHeaders().add("Cache-Control", "public, max-age=31536000, immutable");
+            res.sendHeaders(200, size, Files.getLastModifiedTime(file).toMillis(), "\"" + parts[1] + "\"",
+                    "application/octet-stream", null);
+            res.sendBody(stream, size, null);
+        }
+
+        return 0;
+    }
+
+    private boolean isAllowedHost(HttpUrl url) {
+        String host = url.host().toLowerCase(Locale.ENGLISH);
+
+        return allowedHosts.contains(host) || host.equals(Constants.DOWNLOAD_HOST);
+    }
+
+    /**
+     * Requests the given url, following redirects ourselves so that every hop is checked against the allowed hosts.
+     */
+    private Response request(HttpUrl url) throws IOException {
+        OkHttpClient noRedirectsClient = client.get().newBuilder().followRedirects(false).followSslRedirects(false)
+                .build();
+
+        for (int redirects = 0;; redirects++) {
+            Response response = noRedirectsClient.newCall(new Request.Builder().url(url).build()).execute();
+
+            if (!response.isRedirect()) {
+                return response;
+            }
+
+            HttpUrl location = response.header("Location") == null ? null
+                    : response.request().url().resolve(response.header("Location"));
+            response.close();
+
+            if (location == null || redirects >= MAX_REDIRECTS) {
+                throw new IOException("Too many or invalid redirects downloading " + url);
+            }
+
+            if (!isAllowedHost(location)) {
+                throw new IOException("Refusing to follow redirect from " + url.host() + " to " + location.host());
+            }
+
+            url = location;
+        }
+    }
+
+    private boolean fill(Path file, Hashing.HashType type, String hash, HttpUrl originUrl) {
+        PerformanceManager.count("mirrorServerMisses");
+        FileUtils.createDirectory(file.getParent());
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+
+        try (Response response = request(originUrl)) {
+            if (!response.isSuccessful()) {
+                LogManager.warn("Mirror got response code " + response.code() + " downloading " + originUrl);
+                return false;
+            }
+
+            Files.deleteIfExists(part);
+            try (FileChannel fc = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    ReadableByteChannel rbc = Channels.newChannel(response.body().byteStream())) {
+                PerformanceManager.count("mirrorServerBytesDownloaded", fc.transferFrom(rbc, 0, Long.MAX_VALUE));
+            }
+
+            if (!DownloadMirror.matches(part, type, hash)) {
+                LogManager.warn("File downloaded by mirror from " + originUrl + " didn't have the " + type + " hash "
+                        + hash + ", not caching it");
+                return false;
+            }
+
+            try {
+                Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return true;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Mirror failed to download " + originUrl, e);
+            return false;
+        } finally {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import java.io.IOException;
+
+import com.atlauncher.interfaces.NetworkProgressable;
+import com.atlauncher.utils.ProgressResponseBody;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Reports the bytes read for any request tagged with a {@link NetworkProgressable}, so that progress can be tracked
+ * per request without needing a separate client for each operation.
+ */
+public final class ProgressInterceptor implements Interceptor {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response originalResponse = chain.proceed(chain.request());
+        NetworkProgressable progressable = chain.request().tag(NetworkProgressable.class);
+
+        if (progressable == null || originalResponse.body() == null) {
+            return originalResponse;
+        }
+
+        return originalResponse.newBuilder()
+                .body(new ProgressResponseBody(originalResponse.body(), (bytesRead, contentLength, done) -> {
+                    if (bytesRead > 0) {
+                        progressable.addDownloadedBytes(bytesRead);
+                    }
+                })).build();
+    }
+}
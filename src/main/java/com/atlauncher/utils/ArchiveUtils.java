@@ -22,12 +22,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -43,6 +47,67 @@ import org.zeroturnaround.zip.ZipUtil;
 import com.atlauncher.managers.LogManager;
 
 public class ArchiveUtils {
+    private static final Map<FileSystem, Path> OPEN_ARCHIVES = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the given zip archive as a file system and returns the root path of it, so that files can be read from
+     * the archive (or copied straight out of it) without extracting the whole thing to disk first. Entries are looked
+     * up from the zip's central directory, so they can be read in any order and from multiple threads.
+     *
+     * If the archive can't be opened this way, it's extracted to the fallback directory and that's returned instead.
+     * Either way, the returned path should be passed to {@link #closeArchive(Path)} once finished with.
+     */
+    public static Path openArchive(Path archivePath, Path fallbackExtractToPath) {
+        try {
+            FileSystem fileSystem = FileSystems.newFileSystem(archivePath, (ClassLoader) null);
+            OPEN_ARCHIVES.put(fileSystem, archivePath);
+
+            return fileSystem.getPath("/");
+        } catch (Throwable t) {
+            LogManager.warn("Failed to open " + archivePath.toAbsolutePath() + " directly, extracting it instead: "
+                    + t.getMessage());
+        }
+
+        extract(archivePath, fallbackExtractToPath);
+        return fallbackExtractToPath;
+    }
+
+    public static boolean isOpenArchive(Path path) {
+        return path != null && OPEN_ARCHIVES.containsKey(path.getFileSystem());
+    }
+
+    /**
+     * Cleans up a path returned from {@link #openArchive(Path, Path)}. Opened archives are closed and extracted
+     * directories are deleted.
+     *
+     * @return the path of the archive which was closed, or null if it was extracted instead
+     */
+    public static Path closeArchive(Path path) {
+        if (path == null) {
+            return null;
+        }
+
+        FileSystem fileSystem = path.getFileSystem();
+        Path archivePath = OPEN_ARCHIVES.remove(fileSystem);
+
+        if (archivePath == null) {
+            // anything not on the default file system is an archive which has already been closed
+            if (fileSystem == FileSystems.getDefault()) {
+                FileUtils.deleteDirectory(path);
+            }
+
+            return null;
+        }
+
+        try {
+            fileSystem.close();
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to close archive " + archivePath.toAbsolutePath(), e);
+        }
+
+        return archivePath;
+    }
+
     public static boolean archiveContainsFile(Path archivePath, String file) {
         try {
             return ZipUtil.containsEntry(archivePath.toFile(), file);
@@ -0,0 +1,247 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.PerformanceManager;
+
+/**
+ * Copies the contents of one directory into another, merging with and overwriting anything already there.
+ *
+ * The source is walked up front to create the directory structure and work out what needs copying, and then the
+ * files are copied across a pool of threads, since folders of many small files are bound by the per file overhead
+ * rather than by disk throughput. Last modified times and the executable bit are kept.
+ *
+ * The source can be on another file system, such as a modpack archive opened with
+ * {@link ArchiveUtils#openArchive(Path, Path)}, in which case files are written straight out of the archive.
+ */
+public final class DirectoryCopier {
+    private static final int MAX_THREADS = 16;
+
+    private final Path from;
+    private final Path to;
+    private int threads = Math.min(MAX_THREADS, Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+    private BooleanSupplier cancelled = () -> false;
+    private ProgressListener progressListener = null;
+
+    public interface ProgressListener {
+        void onProgress(long bytesCopied, long totalBytes, int filesCopied, int totalFiles);
+    }
+
+    private DirectoryCopier(Path from, Path to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public static DirectoryCopier build(Path from, Path to) {
+        return new DirectoryCopier(from, to);
+    }
+
+    public DirectoryCopier threads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /**
+     * Checked before each file is copied, stopping the copy early when it returns true.
+     */
+    public DirectoryCopier withCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+        return this;
+    }
+
+    /**
+     * Called as files are copied, from whichever thread copied them. Only called when the percentage of bytes copied
+     * changes, so can be used to update the UI directly.
+     */
+    public DirectoryCopier withProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Runs the copy.
+     *
+     * @return true if everything was copied, false if anything failed or the copy was cancelled
+     */
+    public boolean copy() {
+        PerformanceManager.start("DirectoryCopier.copy");
+
+        try {
+            if (!Files.isDirectory(from)) {
+                return copySingleFile();
+            }
+
+            List<Path[]> files = new ArrayList<>();
+            List<Path[]> directories = new ArrayList<>();
+            AtomicLong totalBytes = new AtomicLong(0L);
+
+            Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Path target = to.resolve(from.relativize(dir).toString());
+
+                    if (!isWithinTarget(target)) {
+                        LogManager.warn("Not copying " + dir + " as it would be outside of " + to);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+
+                    if (!Files.isDirectory(target)) {
+                        Files.createDirectories(target);
+                        directories.add(new Path[] { dir, target });
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    Path target = to.resolve(from.relativize(file).toString());
+
+                    if (!isWithinTarget(target)) {
+                        LogManager.warn("Not copying " + file + " as it would be outside of " + to);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    files.add(new Path[] { file, target });
+                    totalBytes.addAndGet(attrs.size());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            boolean success = copyFiles(files, totalBytes.get());
+
+            // copying files into the new directories changes their modified times, so set them after
+            for (Path[] directory : directories) {
+                Files.setLastModifiedTime(directory[1], Files.getLastModifiedTime(directory[0]));
+            }
+
+            return success;
+        } catch (IOException e) {
+            LogManager.logStackTrace("Failed to copy " + from + " to " + to, e);
+            return false;
+        } finally {
+            PerformanceManager.end("DirectoryCopier.copy");
+        }
+    }
+
+    /**
+     * Makes sure entries such as "../file" from an archive can't be copied outside of the target directory.
+     */
+    private boolean isWithinTarget(Path target) {
+        return target.toAbsolutePath().normalize().startsWith(to.toAbsolutePath().normalize());
+    }
+
+    private boolean copySingleFile() throws IOException {
+        if (to.getParent() != null) {
+            Files.createDirectories(to.getParent());
+        }
+
+        copyFile(from, to);
+        return true;
+    }
+
+    private boolean copyFiles(List<Path[]> files, long totalBytes) {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        AtomicLong bytesCopied = new AtomicLong(0L);
+        AtomicInteger filesCopied = new AtomicInteger(0);
+        AtomicInteger lastPercent = new AtomicInteger(-1);
+
+        Runnable[] tasks = files.stream().map(file -> (Runnable) () -> {
+            if (failed.get() || cancelled.getAsBoolean()) {
+                return;
+            }
+
+            try {
+                long size = copyFile(file[0], file[1]);
+                int copied = filesCopied.incrementAndGet();
+                long bytes = bytesCopied.addAndGet(size);
+
+                if (progressListener != null) {
+                    int percent = totalBytes == 0L ? (int) (copied * 100L / files.size())
+                            : (int) (bytes * 100L / totalBytes);
+                    int previous = lastPercent.get();
+
+                    if ((percent != previous && lastPercent.compareAndSet(previous, percent))
+                            || copied == files.size()) {
+                        progressListener.onProgress(bytes, totalBytes, copied, files.size());
+                    }
+                }
+            } catch (IOException e) {
+                if (failed.compareAndSet(false, true)) {
+                    LogManager.logStackTrace("Failed to copy " + file[0] + " to " + file[1], e);
+                }
+            }
+        }).toArray(Runnable[]::new);
+
+        int threadCount = Math.min(threads, tasks.length);
+        if (threadCount <= 1) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+            for (Runnable task : tasks) {
+                executor.execute(task);
+            }
+            executor.shutdown();
+
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        PerformanceManager.count("filesCopied", filesCopied.get());
+
+        return !failed.get() && filesCopied.get() == files.size();
+    }
+
+    private static long copyFile(Path source, Path target) throws IOException {
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+
+        FileTime lastModified = Files.getLastModifiedTime(source);
+        Files.setLastModifiedTime(target, lastModified);
+
+        if (!OS.isWindows() && Files.isExecutable(source)) {
+            target.toFile().setExecutable(true);
+        }
+
+        return Files.size(target);
+    }
+}
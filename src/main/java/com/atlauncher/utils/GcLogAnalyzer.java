@@ -0,0 +1,224 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.atlauncher.data.GcSummary;
+
+/**
+ * Reads through GC logs a line at a time and summarises the pauses, allocation rate and heap usage after each
+ * collection. Handles both unified logging (Java 9 and newer, with the uptime and tags decorators) and the Java 8
+ * -XX:+PrintGCDetails format.
+ */
+public class GcLogAnalyzer {
+    private static final String NUMBER = "(\\d+(?:[.,]\\d+)?)";
+    private static final String SIZE = NUMBER + "([BKMG])";
+
+    // eg: [12.345s][info][gc,phases] GC(12) Pause Young (Normal) (G1 Evacuation Pause) 1024M->512M(4096M) 12.345ms
+    private static final Pattern UNIFIED_UPTIME = Pattern.compile("^\\[" + NUMBER + "s\\]");
+    private static final Pattern UNIFIED_GC_TAG = Pattern.compile("\\]\\[gc\\s*\\] ");
+    private static final Pattern UNIFIED_PAUSE = Pattern
+            .compile("GC\\(\\d+\\) (?:\\w: )?Pause (.*?) " + NUMBER + "ms$");
+    private static final Pattern UNIFIED_HEAP = Pattern
+            .compile(SIZE + "(?:\\(\\d+%\\))?->" + SIZE + "(?:\\(" + SIZE + "\\))?");
+
+    // eg: 2.345: [GC (Allocation Failure) [PSYoungGen: 33280K->5104K(38400K)] 33280K->5112K(125952K), 0.005 secs]
+    private static final Pattern LEGACY_EVENT = Pattern.compile(NUMBER + ": \\[(Full GC|GC)");
+    private static final Pattern LEGACY_PAUSE = Pattern.compile(", " + NUMBER + " secs\\]");
+    private static final Pattern LEGACY_GENERATION = Pattern.compile("\\[\\w[\\w ]*: [^\\[\\]]*\\]");
+    private static final Pattern LEGACY_HEAP = Pattern.compile(SIZE + "->" + SIZE + "\\(" + SIZE + "\\)");
+    private static final Pattern LEGACY_G1_HEAP = Pattern
+            .compile("Heap: " + SIZE + "\\(" + SIZE + "\\)->" + SIZE + "\\(" + SIZE + "\\)");
+
+    private final List<Double> pauses = new ArrayList<>();
+    private int fullPauses = 0;
+    private double runtime = 0;
+    private double allocated = 0;
+    private double lastHeapAfterGc = -1;
+    private double totalHeapAfterGc = 0;
+    private int heapSamples = 0;
+    private double peakHeapAfterGc = 0;
+    private double peakHeapCommitted = 0;
+    private boolean awaitingLegacyHeap = false;
+
+    /**
+     * Analyses the given log files, which should be passed oldest first.
+     */
+    public static GcSummary analyse(List<Path> files) throws IOException {
+        GcLogAnalyzer analyzer = new GcLogAnalyzer();
+
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    analyzer.accept(line);
+                }
+            }
+        }
+
+        return analyzer.getSummary();
+    }
+
+    public void accept(String line) {
+        Matcher uptime = UNIFIED_UPTIME.matcher(line);
+
+        if (uptime.find()) {
+            runtime = Math.max(runtime, parseNumber(uptime.group(1)));
+            acceptUnified(line);
+            return;
+        }
+
+        Matcher event = LEGACY_EVENT.matcher(line);
+        if (event.find()) {
+            runtime = Math.max(runtime, parseNumber(event.group(1)));
+            acceptLegacy(line, event.group(2).equals("Full GC"));
+            return;
+        }
+
+        Matcher g1Heap = LEGACY_G1_HEAP.matcher(line);
+        if (awaitingLegacyHeap && g1Heap.find()) {
+            awaitingLegacyHeap = false;
+            heap(toMegabytes(g1Heap.group(1), g1Heap.group(2)), toMegabytes(g1Heap.group(5), g1Heap.group(6)),
+                    toMegabytes(g1Heap.group(7), g1Heap.group(8)));
+        }
+    }
+
+    private void acceptUnified(String line) {
+        Matcher pause = UNIFIED_PAUSE.matcher(line);
+
+        if (pause.find()) {
+            pauses.add(parseNumber(pause.group(2)));
+
+            if (pause.group(1).startsWith("Full")) {
+                fullPauses++;
+            }
+        }
+
+        if (UNIFIED_GC_TAG.matcher(line).find()) {
+            Matcher heap = UNIFIED_HEAP.matcher(line);
+
+            if (heap.find()) {
+                heap(toMegabytes(heap.group(1), heap.group(2)), toMegabytes(heap.group(3), heap.group(4)),
+                        heap.group(5) == null ? -1 : toMegabytes(heap.group(5), heap.group(6)));
+            }
+        }
+    }
+
+    private void acceptLegacy(String line, boolean full) {
+        Matcher pause = LEGACY_PAUSE.matcher(line);
+
+        if (pause.find()) {
+            pauses.add(parseNumber(pause.group(1)) * 1000);
+
+            if (full) {
+                fullPauses++;
+            }
+        }
+
+        // the generation sizes come first, so remove them to get to the size of the whole heap
+        Matcher heap = LEGACY_HEAP.matcher(LEGACY_GENERATION.matcher(line).replaceAll(""));
+        if (heap.find()) {
+            awaitingLegacyHeap = false;
+            heap(toMegabytes(heap.group(1), heap.group(2)), toMegabytes(heap.group(3), heap.group(4)),
+                    toMegabytes(heap.group(5), heap.group(6)));
+        } else {
+            // G1 on Java 8 logs the heap sizes on a following line
+            awaitingLegacyHeap = true;
+        }
+    }
+
+    private void heap(double before, double after, double committed) {
+        allocated += Math.max(0, before - Math.max(0, lastHeapAfterGc));
+        lastHeapAfterGc = after;
+
+        totalHeapAfterGc += after;
+        heapSamples++;
+        peakHeapAfterGc = Math.max(peakHeapAfterGc, after);
+        peakHeapCommitted = Math.max(peakHeapCommitted, committed);
+    }
+
+    /**
+     * Gets the summary of everything read so far, or null if no collections were found.
+     */
+    public GcSummary getSummary() {
+        if (pauses.isEmpty() && heapSamples == 0) {
+            return null;
+        }
+
+        List<Double> sorted = new ArrayList<>(pauses);
+        Collections.sort(sorted);
+
+        GcSummary summary = new GcSummary();
+        summary.recordedAt = Instant.now();
+        summary.runtime = runtime;
+        summary.pauses = sorted.size();
+        summary.fullPauses = fullPauses;
+        summary.totalPauseTime = sorted.stream().mapToDouble(Double::doubleValue).sum();
+        summary.pauseTimePercentage = runtime == 0 ? 0 : summary.totalPauseTime / (runtime * 1000) * 100;
+        summary.p50Pause = percentile(sorted, 50);
+        summary.p90Pause = percentile(sorted, 90);
+        summary.p99Pause = percentile(sorted, 99);
+        summary.maxPause = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1);
+        summary.allocationRate = runtime == 0 ? 0 : allocated / runtime;
+        summary.averageHeapAfterGc = heapSamples == 0 ? 0 : Math.round(totalHeapAfterGc / heapSamples);
+        summary.peakHeapAfterGc = Math.round(peakHeapAfterGc);
+        summary.peakHeapCommitted = Math.round(peakHeapCommitted);
+
+        return summary;
+    }
+
+    private static double percentile(List<Double> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double parseNumber(String number) {
+        return Double.parseDouble(number.replace(',', '.'));
+    }
+
+    private static double toMegabytes(String size, String unit) {
+        double value = parseNumber(size);
+
+        switch (unit) {
+            case "B":
+                return value / 1048576;
+            case "K":
+                return value / 1024;
+            case "G":
+                return value * 1024;
+            default:
+                return value;
+        }
+    }
+}
@@ -18,19 +18,120 @@
 package com.atlauncher.utils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-
-import org.apache.commons.lang3.ArrayUtils;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.PerformanceManager;
 import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.sangupta.murmur.Murmur2;
 
 public final class Hashing {
     public static final HashCode EMPTY_HASH_CODE = HashCode.fromBytes(new byte[1]);
 
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    // shared so each thread's buffers are allocated once, rather than by a new pool of threads on every call
+    private static final ExecutorService EXECUTOR = Executors
+            .newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                Thread thread = new Thread(r, "FileHasher");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public enum HashType {
+        MD5(com.google.common.hash.Hashing.md5()),
+        SHA1(com.google.common.hash.Hashing.sha1()),
+        SHA256(com.google.common.hash.Hashing.sha256()),
+        SHA512(com.google.common.hash.Hashing.sha512()),
+
+        /**
+         * CurseForge's fingerprint, which is a 32 bit Murmur2 hash of the file with all whitespace removed.
+         */
+        MURMUR(null);
+
+        private final HashFunction function;
+
+        HashType(HashFunction function) {
+            this.function = function;
+        }
+    }
+
+    /**
+     * The result of hashing a file with one or more {@link HashType}s. Any hash which wasn't asked for, or which
+     * couldn't be calculated, is returned as {@link #EMPTY_HASH_CODE} (or null for the murmur fingerprint).
+     */
+    public static final class Hashes {
+        private static final Hashes EMPTY = new Hashes(new EnumMap<>(HashType.class), null);
+
+        private final Map<HashType, HashCode> hashes;
+        private final Long murmur;
+
+        private Hashes(Map<HashType, HashCode> hashes, Long murmur) {
+            this.hashes = hashes;
+            this.murmur = murmur;
+        }
+
+        /**
+         * Creates a result from hashes calculated previously, such as ones loaded from a cache.
+         */
+        public static Hashes of(Map<HashType, HashCode> hashes, Long murmur) {
+            EnumMap<HashType, HashCode> copy = new EnumMap<>(HashType.class);
+            copy.putAll(hashes);
+
+            return new Hashes(copy, murmur);
+        }
+
+        public HashCode get(HashType type) {
+            return hashes.getOrDefault(type, EMPTY_HASH_CODE);
+        }
+
+        public HashCode md5() {
+            return get(HashType.MD5);
+        }
+
+        public HashCode sha1() {
+            return get(HashType.SHA1);
+        }
+
+        public HashCode sha256() {
+            return get(HashType.SHA256);
+        }
+
+        public HashCode sha512() {
+            return get(HashType.SHA512);
+        }
+
+        public Long murmur() {
+            return murmur;
+        }
+
+        public boolean isEmpty() {
+            return hashes.isEmpty() && murmur == null;
+        }
+    }
+
     public static HashCode md5(String str) {
         if (str == null || str.isEmpty()) {
             return EMPTY_HASH_CODE;
@@ -40,66 +141,130 @@ public final class Hashing {
     }
 
     public static HashCode md5(Path file) {
-        if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
-        }
-
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.md5());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (MD5) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
-        }
+        return hashes(file, HashType.MD5).md5();
     }
 
     public static HashCode sha1(Path file) {
+        return hashes(file, HashType.SHA1).sha1();
+    }
+
+    public static HashCode sha256(Path file) {
+        return hashes(file, HashType.SHA256).sha256();
+    }
+
+    public static HashCode sha512(Path file) {
+        return hashes(file, HashType.SHA512).sha512();
+    }
+
+    public static long murmur(Path file) throws IOException {
+        return calculate(file, EnumSet.of(HashType.MURMUR)).murmur();
+    }
+
+    /**
+     * Calculates all the given hashes for a file while only reading through it once. If the file doesn't exist or
+     * can't be read then an empty result is returned.
+     */
+    public static Hashes hashes(Path file, HashType... types) {
         if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
+            return Hashes.EMPTY;
         }
 
         try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha1());
+            return calculate(file, toSet(types));
         } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA1) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
+            LogManager.logStackTrace("Error hashing file " + file.toAbsolutePath().toString(), e);
+            return Hashes.EMPTY;
         }
     }
 
-    public static HashCode sha256(Path file) {
-        if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
-        }
+    /**
+     * Calculates all the given hashes for a list of files, spreading the files over a shared pool of worker threads.
+     * The returned map is in the same order as the given files.
+     */
+    public static Map<Path, Hashes> hashAll(Collection<Path> files, HashType... types) {
+        Map<Path, Hashes> results = new LinkedHashMap<>();
 
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha256());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA256) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
+        if (files.size() <= 1) {
+            files.forEach(file -> results.put(file, hashes(file, types)));
+            return results;
         }
+
+        Map<Path, Hashes> calculated = new ConcurrentHashMap<>();
+
+        CompletableFuture.allOf(files.stream().distinct()
+                .map(file -> CompletableFuture.runAsync(() -> calculated.put(file, hashes(file, types)), EXECUTOR))
+                .toArray(CompletableFuture[]::new)).join();
+
+        files.forEach(file -> results.put(file, calculated.getOrDefault(file, Hashes.EMPTY)));
+        return results;
     }
 
-    public static HashCode sha512(Path file) {
-        if (!Files.exists(file)) {
-            return EMPTY_HASH_CODE;
+    private static Set<HashType> toSet(HashType... types) {
+        return types.length == 0 ? EnumSet.noneOf(HashType.class) : EnumSet.copyOf(Arrays.asList(types));
+    }
+
+    private static Hashes calculate(Path file, Set<HashType> types) throws IOException {
+        PerformanceManager.count("filesHashed");
+
+        Map<HashType, Hasher> hashers = new EnumMap<>(HashType.class);
+        for (HashType type : types) {
+            if (type.function != null) {
+                hashers.put(type, type.function.newHasher());
+            }
         }
 
-        try {
-            return com.google.common.io.Files.asByteSource(file.toFile()).hash(com.google.common.hash.Hashing.sha512());
-        } catch (IOException e) {
-            LogManager.logStackTrace("Error hashing (SHA512) file " + file.toAbsolutePath().toString(), e);
-            return EMPTY_HASH_CODE;
+        boolean withMurmur = types.contains(HashType.MURMUR);
+        byte[] murmurBytes = null;
+        int murmurLength = 0;
+
+        ByteBuffer buffer = BUFFER.get();
+        byte[] chunk = CHUNK.get();
+
+        // a byte channel rather than a file channel so files inside opened archives are streamed rather than copied out
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+            if (withMurmur) {
+                long size = channel.size();
+
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("File is too large to fingerprint: " + file);
+                }
+
+                murmurBytes = new byte[(int) size];
+            }
+
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+
+                for (Hasher hasher : hashers.values()) {
+                    hasher.putBytes(buffer.duplicate());
+                }
+
+                if (withMurmur) {
+                    int read = buffer.remaining();
+                    buffer.get(chunk, 0, read);
+
+                    if (murmurLength + read > murmurBytes.length) {
+                        murmurBytes = Arrays.copyOf(murmurBytes, Math.max(murmurLength + read, murmurBytes.length * 2));
+                    }
+
+                    for (int i = 0; i < read; i++) {
+                        byte b = chunk[i];
+
+                        if (b != 9 && b != 10 && b != 13 && b != 32) {
+                            murmurBytes[murmurLength++] = b;
+                        }
+                    }
+                }
+
+                buffer.clear();
+            }
         }
-    }
 
-    // TODO: this is really not efficient or good on memory
-    public static long murmur(Path to) throws IOException {
-        byte[] bytes = ArrayUtils
-                .removeAllOccurrences(ArrayUtils.removeAllOccurrences(
-                        ArrayUtils.removeAllOccurrences(
-                                ArrayUtils.removeAllOccurrences(Files.readAllBytes(to), (byte) 9), (byte) 10),
-                        (byte) 13), (byte) 32);
+        Map<HashType, HashCode> hashes = new EnumMap<>(HashType.class);
+        hashers.forEach((type, hasher) -> hashes.put(type, hasher.hash()));
 
-        return Murmur2.hash(bytes, bytes.length, 1L);
+        return new Hashes(hashes, withMurmur ? Murmur2.hash(murmurBytes, murmurLength, 1L) : null);
     }
 
     public static HashCode toHashCode(String hash) {
@@ -18,16 +18,19 @@
 package com.atlauncher.utils;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.mini2Dx.gettext.GetText;
 
@@ -246,51 +249,77 @@ public class ImportPackUtils {
     }
 
     public static boolean loadFromFile(File file) {
-        try {
-            Path tmpDir = FileSystem.TEMP
-                    .resolve("multimcimport" + file.getName().toString().toLowerCase(Locale.ENGLISH));
+        Path archive = null;
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
+        try {
+            archive = ArchiveUtils.openArchive(file.toPath(),
+                    FileSystem.TEMP.resolve("multimcimport" + file.getName().toString().toLowerCase(Locale.ENGLISH)));
+
+            Path multiMCPath = getMultiMCPath(archive);
+            if (multiMCPath != null) {
+                // the installer takes care of closing the archive once it's done with it
+                Path multiMCArchive = archive;
+                archive = null;
+
+                if (!loadMultiMCFormat(multiMCPath)) {
+                    ArchiveUtils.closeArchive(multiMCArchive);
+                    return false;
+                }
 
-            if (ArchiveUtils.archiveContainsFile(file.toPath(), "mmc-pack.json")) {
-                return loadMultiMCFormat(tmpDir);
+                return true;
             }
 
-            if (tmpDir.toFile().list().length == 1
-                    && ArchiveUtils.archiveContainsFile(file.toPath(), tmpDir.toFile().list()[0] + "/mmc-pack.json")) {
-                return loadMultiMCFormat(tmpDir.resolve(tmpDir.toFile().list()[0]));
-            }
+            boolean isCurseForge = Files.exists(archive.resolve("manifest.json"));
+            boolean isModrinth = Files.exists(archive.resolve("modrinth.index.json"));
 
-            FileUtils.deleteDirectory(tmpDir);
+            ArchiveUtils.closeArchive(archive);
+            archive = null;
 
-            if (ArchiveUtils.archiveContainsFile(file.toPath(), "manifest.json")) {
+            if (isCurseForge) {
                 return loadCurseForgeFormat(file, null, null);
             }
 
-            if (ArchiveUtils.archiveContainsFile(file.toPath(), "modrinth.index.json")) {
+            if (isModrinth) {
                 return loadModrinthFormat(file);
             }
 
             LogManager.error("Unknown format for importing");
         } catch (Throwable t) {
             LogManager.logStackTrace("Error in zip file for import", t);
+            ArchiveUtils.closeArchive(archive);
         }
 
         return false;
     }
 
+    private static Path getMultiMCPath(Path archive) throws IOException {
+        if (Files.exists(archive.resolve("mmc-pack.json"))) {
+            return archive;
+        }
+
+        // some MultiMC exports have everything inside a single folder
+        try (Stream<Path> list = Files.list(archive)) {
+            List<Path> children = list.collect(Collectors.toList());
+
+            if (children.size() == 1 && Files.exists(children.get(0).resolve("mmc-pack.json"))) {
+                return children.get(0);
+            }
+        }
+
+        return null;
+    }
+
     public static boolean loadCurseForgeFormat(File file, Integer projectId, Integer fileId) {
         if (!file.getName().endsWith(".zip")) {
             LogManager.error("Cannot install as the file was not a zip file");
             return false;
         }
 
-        Path tmpDir = FileSystem.TEMP
-                .resolve("curseforgeimport" + file.getName().toString().toLowerCase(Locale.ENGLISH));
+        Path archive = ArchiveUtils.openArchive(file.toPath(),
+                FileSystem.TEMP.resolve("curseforgeimport" + file.getName().toString().toLowerCase(Locale.ENGLISH)));
 
-        try {
-            CurseForgeManifest manifest = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "manifest.json"),
-                    CurseForgeManifest.class);
+        try (Reader reader = Files.newBufferedReader(archive.resolve("manifest.json"), StandardCharsets.UTF_8)) {
+            CurseForgeManifest manifest = Gsons.DEFAULT.fromJson(reader, CurseForgeManifest.class);
 
             if (projectId != null) {
                 manifest.projectID = projectId;
@@ -302,6 +331,7 @@ public class ImportPackUtils {
 
             if (!manifest.manifestType.equals("minecraftModpack")) {
                 LogManager.error("Cannot install as the manifest is not a Minecraft Modpack");
+                ArchiveUtils.closeArchive(archive);
                 return false;
             }
 
@@ -309,12 +339,10 @@ public class ImportPackUtils {
                 LogManager.warn("Manifest is version " + manifest.manifestVersion + " which may be an issue!");
             }
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
-
-            new InstanceInstallerDialog(manifest, tmpDir);
+            new InstanceInstallerDialog(manifest, archive);
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to install CurseForge pack", e);
-            FileUtils.deleteDirectory(tmpDir);
+            ArchiveUtils.closeArchive(archive);
             return false;
         }
 
@@ -343,21 +371,23 @@ public class ImportPackUtils {
             }
         }
 
-        Path tmpDir = FileSystem.TEMP.resolve("modrinthimport" + file.getName().toString().toLowerCase(Locale.ENGLISH));
+        Path archive = ArchiveUtils.openArchive(file.toPath(),
+                FileSystem.TEMP.resolve("modrinthimport" + file.getName().toString().toLowerCase(Locale.ENGLISH)));
 
-        try {
-            ModrinthModpackManifest manifest = Gsons.DEFAULT
-                    .fromJson(ArchiveUtils.getFile(file.toPath(), "modrinth.index.json"),
-                            ModrinthModpackManifest.class);
+        try (Reader reader = Files.newBufferedReader(archive.resolve("modrinth.index.json"),
+                StandardCharsets.UTF_8)) {
+            ModrinthModpackManifest manifest = Gsons.DEFAULT.fromJson(reader, ModrinthModpackManifest.class);
 
             if (!manifest.game.equals("minecraft")) {
                 LogManager.error(
                         "Cannot install as the manifest is for game " + manifest.game + " and not for Minecraft");
+                ArchiveUtils.closeArchive(archive);
                 return false;
             }
 
             if (!manifest.dependencies.containsKey("minecraft")) {
                 LogManager.error("Cannot install as the manifest doesn't contain a minecraft dependency");
+                ArchiveUtils.closeArchive(archive);
                 return false;
             }
 
@@ -365,12 +395,10 @@ public class ImportPackUtils {
                 LogManager.warn("Manifest is version " + manifest.formatVersion + " which may be an issue!");
             }
 
-            ArchiveUtils.extract(file.toPath(), tmpDir);
-
-            new InstanceInstallerDialog(manifest, tmpDir);
+            new InstanceInstallerDialog(manifest, archive);
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to install Modrinth pack", e);
-            FileUtils.deleteDirectory(tmpDir);
+            ArchiveUtils.closeArchive(archive);
             return false;
         }
 
@@ -378,11 +406,9 @@ public class ImportPackUtils {
     }
 
     public static boolean loadMultiMCFormat(Path extractedPath) {
-        try (InputStreamReader fileReader = new InputStreamReader(
-                new FileInputStream(extractedPath.resolve("mmc-pack.json").toFile()),
+        try (Reader fileReader = Files.newBufferedReader(extractedPath.resolve("mmc-pack.json"),
                 StandardCharsets.UTF_8);
-                InputStreamReader instanceCfgStream = new InputStreamReader(
-                        new FileInputStream(extractedPath.resolve("instance.cfg").toFile()),
+                Reader instanceCfgStream = Files.newBufferedReader(extractedPath.resolve("instance.cfg"),
                         StandardCharsets.UTF_8)) {
             MultiMCManifest manifest = Gsons.DEFAULT.fromJson(fileReader, MultiMCManifest.class);
 
@@ -53,6 +53,7 @@ import com.atlauncher.constants.Constants;
 import com.atlauncher.graphql.type.LauncherInstallMethod;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.PerformanceManager;
+import com.atlauncher.managers.SystemProfileManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.utils.javafinder.JavaInfo;
 import com.google.common.hash.HashCode;
@@ -307,6 +308,11 @@ public enum OS {
      * Checks if the OS is 64 bit.
      */
     public static boolean is64Bit() {
+        SystemProfileManager.SystemProfile profile = SystemProfileManager.getProfile();
+        if (profile != null && profile.bitness != 0) {
+            return profile.bitness == 64;
+        }
+
         try {
             SystemInfo systemInfo = OS.getSystemInfo();
             OperatingSystem os = systemInfo.getOperatingSystem();
@@ -369,6 +375,21 @@ public enum OS {
         return ram;
     }
 
+    /**
+     * Returns the total physical memory in the users system in MB straight from the OperatingSystemMXBean, or 0 if the
+     * JVM doesn't expose it. Unlike {@link #getSystemRam()}, this never comes from the cached system profile.
+     */
+    public static long getTotalPhysicalMemory() {
+        OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean).getTotalPhysicalMemorySize()
+                    / 1048576;
+        }
+
+        return 0;
+    }
+
     /**
      * Returns the amount of RAM in the users system via oshi.
      */
@@ -409,9 +430,13 @@ public enum OS {
      * Returns the amount of RAM in the users system.
      */
     public static int getSystemRam() {
-        // fetch the memory from the oshi/bean if it's 0
+        // fetch the memory from the cached profile, or the oshi/bean if it's 0
         if (memory == 0) {
-            if (!Java.isSystemJavaNewerThanJava8()) {
+            SystemProfileManager.SystemProfile profile = SystemProfileManager.getProfile();
+
+            if (profile != null) {
+                memory = profile.systemRam;
+            } else if (!Java.isSystemJavaNewerThanJava8()) {
                 memory = OS.getSystemRamViaBean();
             } else {
                 memory = OS.getSystemRamViaOshi();
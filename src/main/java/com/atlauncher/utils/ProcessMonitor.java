@@ -0,0 +1,257 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.atlauncher.data.ResourceUsage;
+import com.atlauncher.managers.LogManager;
+
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+import io.reactivex.rxjava3.subjects.Subject;
+import oshi.software.os.OSProcess;
+import oshi.software.os.OperatingSystem;
+
+/**
+ * Samples the memory, CPU, thread and handle usage of a launched game process (and any processes it starts, such as
+ * when using a wrapper command) through oshi, keeping a short history for graphing and a summary of the session.
+ */
+public class ProcessMonitor {
+    private static final long SAMPLE_INTERVAL_MILLIS = 2000;
+
+    // 5 minutes of samples
+    public static final int HISTORY_SIZE = 150;
+
+    // finding child processes means going through every process on the system, so only look for new ones every 30
+    // seconds and just refresh the ones already found in between
+    private static final int CHILD_REFRESH_SAMPLES = 15;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ProcessMonitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static final class Sample {
+        public final long time;
+        public final long memory;
+        public final double cpu;
+        public final int threads;
+        public final long handles;
+
+        private Sample(long time, long memory, double cpu, int threads, long handles) {
+            this.time = time;
+            this.memory = memory;
+            this.cpu = cpu;
+            this.threads = threads;
+            this.handles = handles;
+        }
+    }
+
+    private final int pid;
+    private final int maximumMemory;
+    private final int cores = Runtime.getRuntime().availableProcessors();
+    private final long startedAt = System.currentTimeMillis();
+    private final Deque<Sample> history = new ArrayDeque<>();
+    private final Subject<Sample> samples = PublishSubject.<Sample>create().toSerialized();
+    private ScheduledFuture<?> future;
+
+    // only touched from the sampling thread
+    private List<OSProcess> processes = null;
+    private int samplesSinceRefresh = 0;
+
+    private long lastCpuTime = -1;
+    private long lastSampleTime = 0;
+    private int sampleCount = 0;
+    private long peakMemory = 0;
+    private long totalMemory = 0;
+    private double peakCpu = 0;
+    private double totalCpu = 0;
+    private int cpuSampleCount = 0;
+    private int peakThreads = 0;
+    private long peakHandles = 0;
+
+    private ProcessMonitor(int pid, int maximumMemory) {
+        this.pid = pid;
+        this.maximumMemory = maximumMemory;
+    }
+
+    /**
+     * Starts monitoring the given process, returning null if the process id can't be worked out.
+     *
+     * @param maximumMemory the maximum memory (in MB) the game was given, for the summary and graph
+     */
+    public static ProcessMonitor start(Process process, int maximumMemory) {
+        int pid = getPid(process);
+
+        if (pid <= 0) {
+            LogManager.debug("Couldn't get the process id of Minecraft, not monitoring its resource usage");
+            return null;
+        }
+
+        ProcessMonitor monitor = new ProcessMonitor(pid, maximumMemory);
+        monitor.future = EXECUTOR.scheduleWithFixedDelay(monitor::sample, 0, SAMPLE_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+
+        return monitor;
+    }
+
+    public int getMaximumMemory() {
+        return maximumMemory;
+    }
+
+    public Observable<Sample> samples() {
+        return samples;
+    }
+
+    public synchronized List<Sample> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    /**
+     * Stops monitoring and returns the summary of the session, or null if no samples were taken.
+     */
+    public synchronized ResourceUsage stop() {
+        if (future != null) {
+            future.cancel(false);
+        }
+
+        samples.onComplete();
+
+        if (sampleCount == 0) {
+            return null;
+        }
+
+        ResourceUsage usage = new ResourceUsage();
+        usage.recordedAt = Instant.now();
+        usage.duration = (int) ((System.currentTimeMillis() - startedAt) / 1000);
+        usage.maximumMemory = maximumMemory;
+        usage.peakMemory = peakMemory;
+        usage.averageMemory = totalMemory / sampleCount;
+        usage.peakCpu = peakCpu;
+        usage.averageCpu = cpuSampleCount == 0 ? 0 : totalCpu / cpuSampleCount;
+        usage.peakThreads = peakThreads;
+        usage.peakHandles = peakHandles;
+
+        return usage;
+    }
+
+    private void sample() {
+        try {
+            if (processes == null || ++samplesSinceRefresh >= CHILD_REFRESH_SAMPLES) {
+                OperatingSystem os = OS.getSystemInfo().getOperatingSystem();
+                OSProcess root = os.getProcess(pid);
+
+                if (root == null) {
+                    return;
+                }
+
+                processes = new ArrayList<>();
+                processes.add(root);
+                processes.addAll(os.getDescendantProcesses(pid, null, null, 0));
+                samplesSinceRefresh = 0;
+            } else {
+                // drop any which have exited since
+                processes.removeIf(process -> !process.updateAttributes());
+
+                if (processes.isEmpty()) {
+                    return;
+                }
+            }
+
+            long memory = 0;
+            long cpuTime = 0;
+            int threads = 0;
+            long handles = 0;
+
+            for (OSProcess process : processes) {
+                memory += process.getResidentSetSize();
+                cpuTime += process.getKernelTime() + process.getUserTime();
+                threads += process.getThreadCount();
+                handles += Math.max(0, process.getOpenFiles());
+            }
+
+            record(memory / 1048576, cpuTime, threads, handles);
+        } catch (Throwable t) {
+            LogManager.logStackTrace("Error sampling Minecraft's resource usage", t);
+        }
+    }
+
+    private synchronized void record(long memory, long cpuTime, int threads, long handles) {
+        if (future != null && future.isCancelled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        double cpu = 0;
+
+        // cpu usage needs two samples to work out, so the first sample doesn't count towards it
+        if (lastCpuTime >= 0 && now > lastSampleTime) {
+            cpu = Math.min(100, Math.max(0, cpuTime - lastCpuTime) * 100.0 / ((now - lastSampleTime) * cores));
+            totalCpu += cpu;
+            cpuSampleCount++;
+        }
+
+        lastCpuTime = cpuTime;
+        lastSampleTime = now;
+
+        Sample sample = new Sample(now, memory, cpu, threads, handles);
+
+        history.addLast(sample);
+        while (history.size() > HISTORY_SIZE) {
+            history.removeFirst();
+        }
+
+        sampleCount++;
+        totalMemory += memory;
+        peakMemory = Math.max(peakMemory, memory);
+        peakCpu = Math.max(peakCpu, cpu);
+        peakThreads = Math.max(peakThreads, threads);
+        peakHandles = Math.max(peakHandles, handles);
+
+        samples.onNext(sample);
+    }
+
+    private static int getPid(Process process) {
+        // Java 9 and newer
+        try {
+            return ((Long) Process.class.getMethod("pid").invoke(process)).intValue();
+        } catch (Throwable ignored) {
+        }
+
+        // Java 8 on Linux/macOS
+        try {
+            Field field = process.getClass().getDeclaredField("pid");
+            field.setAccessible(true);
+            return field.getInt(process);
+        } catch (Throwable ignored) {
+        }
+
+        return -1;
+    }
+}
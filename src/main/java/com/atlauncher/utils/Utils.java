@@ -65,7 +65,6 @@ import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 import javax.crypto.BadPaddingException;
@@ -79,6 +78,8 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.ScrollPaneConstants;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.io.IOUtils;
 import org.tukaani.xz.LZMAInputStream;
 import org.tukaani.xz.XZInputStream;
@@ -372,6 +373,16 @@ public class Utils {
      * @return true, if successful
      */
     public static boolean moveDirectory(File sourceLocation, File targetLocation) {
+        // if there's nothing to merge with, try to just rename it rather than copying everything
+        if (!targetLocation.exists()) {
+            try {
+                Files.move(sourceLocation.toPath(), targetLocation.toPath());
+                return true;
+            } catch (IOException e) {
+                LogManager.debug("Couldn't move " + sourceLocation + " directly, so copying instead");
+            }
+        }
+
         if (copyDirectory(sourceLocation, targetLocation)) {
             delete(sourceLocation);
             return true;
@@ -405,34 +416,8 @@ public class Utils {
         if (copyFolder) {
             targetLocation = new File(targetLocation, sourceLocation.getName());
         }
-        try {
-            if (sourceLocation.isDirectory()) {
-                if (!targetLocation.exists()) {
-                    targetLocation.mkdirs();
-                }
-
-                String[] children = sourceLocation.list();
-                for (String child : children) {
-                    copyDirectory(new File(sourceLocation, child), new File(targetLocation, child));
-                }
-            } else {
-
-                InputStream in = new FileInputStream(sourceLocation);
-                OutputStream out = new FileOutputStream(targetLocation);
 
-                byte[] buf = new byte[1024];
-                int len;
-                while ((len = in.read(buf)) > 0) {
-                    out.write(buf, 0, len);
-                }
-                in.close();
-                out.close();
-            }
-        } catch (IOException e) {
-            LogManager.logStackTrace(e);
-            return false;
-        }
-        return true;
+        return DirectoryCopier.build(sourceLocation.toPath(), targetLocation.toPath()).copy();
     }
 
     /**
@@ -454,11 +439,11 @@ public class Utils {
      */
     public static void unzip(File in, File out, ExtractRule extractRule) {
         try {
-            ZipFile zipFile;
+            java.util.zip.ZipFile zipFile;
             if (!out.exists()) {
                 out.mkdirs();
             }
-            zipFile = new ZipFile(in);
+            zipFile = new java.util.zip.ZipFile(in);
             Enumeration<?> e = zipFile.entries();
             while (e.hasMoreElements()) {
                 ZipEntry entry = (ZipEntry) e.nextElement();
@@ -938,65 +923,21 @@ public class Utils {
         return false;
     }
 
+    /**
+     * Combines the two jars into the output jar, with the entries in jarToAdd overwriting those in mainJar and any
+     * META-INF files left out. Entries are copied across still compressed, so nothing needs to be inflated and then
+     * deflated again.
+     */
     public static boolean combineJars(File mainJar, File jarToAdd, File outputJar) {
-        try (FileInputStream is = new FileInputStream(mainJar);
-                JarInputStream jis = new JarInputStream(is);
-                JarFile jarFile = new JarFile(mainJar);
-
-                FileInputStream is2 = new FileInputStream(jarToAdd);
-                JarInputStream jis2 = new JarInputStream(is2);
-                JarFile jarFile2 = new JarFile(jarToAdd);
-
-                FileOutputStream fos = new FileOutputStream(outputJar);
-                JarOutputStream jos = new JarOutputStream(fos)) {
+        try (ZipFile mainZip = new ZipFile(mainJar);
+                ZipFile zipToAdd = new ZipFile(jarToAdd);
+                ZipArchiveOutputStream zos = new ZipArchiveOutputStream(outputJar)) {
             Set<String> entriesAdded = new HashSet<>();
-            JarEntry entry;
-            while ((entry = jis2.getNextJarEntry()) != null) {
-                if (entry.getName().contains("META-INF")) {
-                    continue;
-                }
-
-                InputStream jfis = jarFile2.getInputStream(entry);
-
-                JarEntry newEntry = new JarEntry(entry.getName());
-                jos.putNextEntry(newEntry);
-                entriesAdded.add(entry.getName());
-
-                byte[] buffer = new byte[8192];
-
-                int r;
-                while ((r = jis2.read(buffer, 0, buffer.length)) >= 0) {
-                    jos.write(buffer, 0, r);
-                }
-
-                jfis.close();
-                jos.flush();
-                jos.closeEntry();
-            }
-
-            while ((entry = jis.getNextJarEntry()) != null) {
-                if (entry.getName().contains("META-INF") || entriesAdded.contains(entry.getName())) {
-                    continue;
-                }
-
-                InputStream jfis = jarFile.getInputStream(entry);
-
-                JarEntry newEntry = new JarEntry(entry.getName());
-                jos.putNextEntry(newEntry);
-                entriesAdded.add(entry.getName());
-
-                byte[] buffer = new byte[8192];
-
-                int r;
-                while ((r = jis.read(buffer, 0, buffer.length)) >= 0) {
-                    jos.write(buffer, 0, r);
-                }
-
-                jfis.close();
-                jos.flush();
-                jos.closeEntry();
-            }
 
+            zipToAdd.copyRawEntries(zos,
+                    entry -> !entry.getName().contains("META-INF") && entriesAdded.add(entry.getName()));
+            mainZip.copyRawEntries(zos,
+                    entry -> !entry.getName().contains("META-INF") && entriesAdded.add(entry.getName()));
         } catch (Exception e) {
             LogManager.logStackTrace(e);
 
@@ -1553,11 +1494,15 @@ public class Utils {
     }
 
     public static MCMod getMCModForFile(File file) {
+        return getMCModForFile(file.toPath());
+    }
+
+    public static MCMod getMCModForFile(Path file) {
         try {
             java.lang.reflect.Type type = new TypeToken<List<MCMod>>() {
             }.getType();
 
-            List<MCMod> mods = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "mcmod.info"), type);
+            List<MCMod> mods = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file, "mcmod.info"), type);
 
             if (mods.size() != 0 && mods.get(0) != null) {
                 return mods.get(0);
@@ -1570,8 +1515,12 @@ public class Utils {
     }
 
     public static FabricMod getFabricModForFile(File file) {
+        return getFabricModForFile(file.toPath());
+    }
+
+    public static FabricMod getFabricModForFile(Path file) {
         try {
-            FabricMod mod = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file.toPath(), "fabric.mod.json"),
+            FabricMod mod = Gsons.DEFAULT.fromJson(ArchiveUtils.getFile(file, "fabric.mod.json"),
                     FabricMod.class);
 
             if (mod != null) {
@@ -25,6 +25,8 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.atlauncher.data.json.CaseType;
 import com.atlauncher.data.json.Mod;
@@ -33,16 +35,16 @@ import com.atlauncher.utils.Utils;
 
 public final class CaseFileVisitor extends SimpleFileVisitor<Path> {
     private final CaseType caseType;
-    private final List<Mod> mods;
+    private final Set<String> modFiles;
 
     public CaseFileVisitor(CaseType caseType, List<Mod> mods) {
         this.caseType = caseType;
-        this.mods = mods;
+        this.modFiles = mods.stream().map(m -> m.getFile().toLowerCase(Locale.ENGLISH)).collect(Collectors.toSet());
     }
 
     @Override
     public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-        if (this.mods.stream().noneMatch(m -> m.getFile().equalsIgnoreCase(path.getFileName().toString()))) {
+        if (!this.modFiles.contains(path.getFileName().toString().toLowerCase(Locale.ENGLISH))) {
             return FileVisitResult.CONTINUE;
         }
 
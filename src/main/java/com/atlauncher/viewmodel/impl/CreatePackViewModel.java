@@ -22,13 +22,11 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 import java.awt.Font;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -37,13 +35,8 @@ import javax.annotation.Nullable;
 
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
-import org.joda.time.format.ISODateTimeFormat;
 import org.mini2Dx.gettext.GetText;
 
-import com.apollographql.apollo.ApolloQueryCall;
-import com.apollographql.apollo.api.Response;
-import com.apollographql.apollo.api.cache.http.HttpCachePolicy;
-import com.apollographql.apollo.rx3.Rx3Apollo;
 import com.atlauncher.App;
 import com.atlauncher.constants.UIConstants;
 import com.atlauncher.data.MCVersionRow;
@@ -53,22 +46,16 @@ import com.atlauncher.data.minecraft.VersionManifestVersion;
 import com.atlauncher.data.minecraft.VersionManifestVersionType;
 import com.atlauncher.data.minecraft.loaders.LoaderType;
 import com.atlauncher.data.minecraft.loaders.LoaderVersion;
-import com.atlauncher.data.minecraft.loaders.fabric.FabricLoader;
-import com.atlauncher.data.minecraft.loaders.forge.ForgeLoader;
-import com.atlauncher.data.minecraft.loaders.legacyfabric.LegacyFabricLoader;
-import com.atlauncher.data.minecraft.loaders.neoforge.NeoForgeLoader;
-import com.atlauncher.data.minecraft.loaders.quilt.QuiltLoader;
 import com.atlauncher.evnt.listener.SettingsListener;
 import com.atlauncher.evnt.manager.SettingsManager;
 import com.atlauncher.exceptions.InvalidMinecraftVersion;
-import com.atlauncher.graphql.GetLoaderVersionsForMinecraftVersionQuery;
 import com.atlauncher.managers.AccountManager;
 import com.atlauncher.managers.ConfigManager;
 import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
+import com.atlauncher.managers.LoaderVersionManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
-import com.atlauncher.network.GraphqlClient;
 import com.atlauncher.utils.Pair;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.viewmodel.base.ICreatePackViewModel;
@@ -185,7 +172,7 @@ public class CreatePackViewModel implements SettingsListener, ICreatePackViewMod
                 final DateTimeFormatter fmt = DateTimeFormat.forPattern(App.settings.dateFormat);
 
                 return MinecraftManager.getFilteredMinecraftVersions(filtered).stream().map(it -> new MCVersionRow(
-                        it.id, fmt.print(ISODateTimeFormat.dateTimeParser().parseDateTime(it.releaseTime)),
+                        it.id, fmt.print(MinecraftManager.getReleaseTime(it)),
                         it.type.toString())).collect(Collectors.toList());
             }).subscribeOn(Schedulers.io());
 
@@ -320,28 +307,7 @@ public class CreatePackViewModel implements SettingsListener, ICreatePackViewMod
             .map(version -> !quiltDisabledMCVersions.contains(version.orElse(null)))
             .subscribeOn(Schedulers.computation());
 
-    // was lazy
-    private final List<String> disabledQuiltVersions = ConfigManager.getConfigItem(
-            "loaders.quilt.disabledVersions", emptyList());
-
-    // was lazy
-    private final List<String> disabledFabricVersions = ConfigManager.getConfigItem(
-            "loaders.fabric.disabledVersions", emptyList());
-
-    // was lazy
-    private final List<String> disabledLegacyFabricVersions = ConfigManager.getConfigItem(
-            "loaders.legacyfabric.disabledVersions", emptyList());
-
-    // was lazy
-    private final List<String> disabledNeoForgeVersions = ConfigManager.getConfigItem(
-            "loaders.neoforge.disabledVersions", emptyList());
-
-    // was lazy
-    private final List<String> disabledForgeVersions = ConfigManager.getConfigItem(
-            "loaders.forge.disabledVersions", emptyList());
-
     private final LoaderVersion noLoaderVersions = new LoaderVersion(GetText.tr("No Versions Found"));
-    private final LoaderVersion errorLoadingVersions = new LoaderVersion(GetText.tr("Error Getting Versions"));
     /**
      * Name is dirty, as the user has inputted something
      */
@@ -433,12 +399,8 @@ public class CreatePackViewModel implements SettingsListener, ICreatePackViewMod
                     // Legacy Forge doesn't support servers easily
                     final boolean enableCreateServers = (loaderType == LoaderType.FORGE || !Utils.matchVersion(
                             selectedMinecraftVersion, "1.5", true, true));
-                    final List<LoaderVersion> loaders;
-                    if (ConfigManager.getConfigItem("useGraphql.vanillaLoaderVersions", false)) {
-                        loaders = apolloLoad(loaderType, selectedMinecraftVersion, enableCreateServers);
-                    } else {
-                        loaders = legacyLoad(loaderType, selectedMinecraftVersion, enableCreateServers);
-                    }
+                    final List<LoaderVersion> loaders = loadLoaderVersions(loaderType, selectedMinecraftVersion,
+                            enableCreateServers);
 
                     loaderVersions.onNext(Optional.of(loaders));
 
@@ -884,102 +846,6 @@ public class CreatePackViewModel implements SettingsListener, ICreatePackViewMod
         return InstanceManager.getInstances().size() == 0;
     }
 
-    private List<LoaderVersion> apolloLoad(
-            LoaderType selectedLoader, @Nonnull String selectedMinecraftVersion, Boolean enableCreateServers) {
-        try {
-            ApolloQueryCall<GetLoaderVersionsForMinecraftVersionQuery.Data> call = GraphqlClient.apolloClient.query(
-                    new GetLoaderVersionsForMinecraftVersionQuery(
-                            selectedMinecraftVersion))
-                    .toBuilder().httpCachePolicy(
-                            new HttpCachePolicy.Policy(
-                                    HttpCachePolicy.FetchStrategy.CACHE_FIRST, 5, TimeUnit.MINUTES, false))
-                    .build();
-
-            Response<GetLoaderVersionsForMinecraftVersionQuery.Data> response = Rx3Apollo.from(call).blockingFirst();
-
-            final ArrayList<LoaderVersion> loaderVersionsList = new ArrayList<>();
-            final GetLoaderVersionsForMinecraftVersionQuery.Data data = response.getData();
-
-            if (data != null)
-                switch (selectedLoader) {
-                    case FABRIC:
-                        loaderVersionsList.addAll(data.loaderVersions().fabric().stream()
-                                .filter(fv -> !disabledFabricVersions.contains(fv.version()))
-                                .map(version -> new LoaderVersion(version.version(), false, "Fabric"))
-                                .collect(Collectors.toList()));
-                        break;
-
-                    case FORGE:
-                        loaderVersionsList.addAll(data.loaderVersions().forge().stream()
-                                .filter(fv -> !disabledForgeVersions.contains(fv.version()))
-                                .map(version -> {
-                                    final LoaderVersion lv = new LoaderVersion(
-                                            version.version(), version.rawVersion(), version.recommended(), "Forge");
-                                    if (version.installerSha1Hash() != null && version.installerSize() != null) {
-                                        lv.downloadables.put("installer", new Pair<>(
-                                                version.installerSha1Hash(), version.installerSize().longValue()));
-                                    }
-                                    if (version.universalSha1Hash() != null && version.universalSize() != null) {
-                                        lv.downloadables.put("universal", new Pair<>(
-                                                version.universalSha1Hash(), version.universalSize().longValue()));
-                                    }
-                                    if (version.clientSha1Hash() != null && version.clientSize() != null) {
-                                        lv.downloadables.put("client", new Pair<>(
-                                                version.clientSha1Hash(), version.clientSize().longValue()));
-                                    }
-                                    if (version.serverSha1Hash() != null && version.serverSize() != null) {
-                                        lv.downloadables.put("server", new Pair<>(
-                                                version.serverSha1Hash(), version.serverSize().longValue()));
-                                    }
-                                    return lv;
-                                }).collect(Collectors.toList()));
-                        break;
-
-                    case LEGACY_FABRIC:
-                        loaderVersionsList.addAll(data.loaderVersions().legacyfabric()
-                                .stream()
-                                .filter(fv -> !disabledLegacyFabricVersions.contains(fv.version()))
-                                .map(version -> new LoaderVersion(
-                                        version.version(),
-                                        false,
-                                        "LegacyFabric"))
-                                .collect(Collectors.toList()));
-                        break;
-
-                    case NEOFORGE:
-                        loaderVersionsList.addAll(data.loaderVersions().neoforge()
-                                .stream()
-                                .filter(fv -> !disabledNeoForgeVersions.contains(fv.version()))
-                                .map(version -> {
-                                    LoaderVersion lv = new LoaderVersion(
-                                            version.version(),
-                                            false,
-                                            "NeoForge");
-                                    lv.rawVersion = version.rawVersion();
-                                    return lv;
-                                })
-                                .collect(Collectors.toList()));
-                        break;
-
-                    case QUILT:
-                        loaderVersionsList.addAll(data.loaderVersions().quilt().stream()
-                                .filter(fv -> !disabledQuiltVersions.contains(fv.version()))
-                                .map(version -> new LoaderVersion(version.version(), false, "Quilt"))
-                                .collect(Collectors.toList()));
-                        break;
-                }
-            if (loaderVersionsList.size() == 0) {
-                setLoaderGroupEnabled(false);
-                return singletonList(noLoaderVersions);
-            }
-            return loaderVersionsList;
-        } catch (RuntimeException e) {
-            LogManager.logStackTrace("Error fetching loading versions", e);
-            setLoaderGroupEnabled(false);
-            return singletonList(errorLoadingVersions);
-        }
-    }
-
     private void setLoaderGroupEnabled(Boolean enabled) {
         setLoaderGroupEnabled(enabled, enabled);
     }
@@ -998,28 +864,17 @@ public class CreatePackViewModel implements SettingsListener, ICreatePackViewMod
     }
 
     /**
-     * Use legacy loading mechanic
+     * Gets the loader versions from the loader version cache, which looks them up either with the GraphQL API or with
+     * each loader's own API
      */
-    List<LoaderVersion> legacyLoad(
+    List<LoaderVersion> loadLoaderVersions(
             LoaderType selectedLoader, String selectedMinecraftVersion, Boolean enableCreateServers) {
-        final ArrayList<LoaderVersion> loaderVersionsList = new ArrayList<>();
-        switch (selectedLoader) {
-            case FABRIC:
-                loaderVersionsList.addAll(FabricLoader.getChoosableVersions(selectedMinecraftVersion));
-                break;
-            case FORGE:
-                loaderVersionsList.addAll(ForgeLoader.getChoosableVersions(selectedMinecraftVersion));
-                break;
-            case LEGACY_FABRIC:
-                loaderVersionsList.addAll(LegacyFabricLoader.getChoosableVersions(selectedMinecraftVersion));
-                break;
-            case NEOFORGE:
-                loaderVersionsList.addAll(NeoForgeLoader.getChoosableVersions(selectedMinecraftVersion));
-                break;
-            case QUILT:
-                loaderVersionsList.addAll(QuiltLoader.getChoosableVersions(selectedMinecraftVersion));
-                break;
-        }
+        final boolean graphql = ConfigManager.getConfigItem("useGraphql.vanillaLoaderVersions", false);
+        final List<LoaderVersion> loaderVersionsList = LoaderVersionManager.getChoosableVersions(selectedLoader,
+                selectedMinecraftVersion, graphql);
+
+        // get the latest versions ready in case they flick through to them next
+        LoaderVersionManager.prefetch(selectedLoader, graphql);
 
         if (loaderVersionsList.size() == 0) {
             setLoaderGroupEnabled(false);
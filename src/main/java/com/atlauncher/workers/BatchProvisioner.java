@@ -0,0 +1,365 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.beans.PropertyChangeEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.atlauncher.App;
+import com.atlauncher.Gsons;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.Pack;
+import com.atlauncher.data.PackVersion;
+import com.atlauncher.data.installables.VanillaInstallable;
+import com.atlauncher.data.json.Version;
+import com.atlauncher.data.minecraft.loaders.LoaderVersion;
+import com.atlauncher.exceptions.InvalidMinecraftVersion;
+import com.atlauncher.managers.InstanceManager;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.PackManager;
+import com.atlauncher.utils.FileUtils;
+import com.google.gson.JsonParseException;
+
+/**
+ * Installs or updates a batch of instances and servers without the GUI, for provisioning lots of servers from the
+ * same packs.
+ *
+ * The batch file is a JSON array of jobs, for example:
+ *
+ * <pre>
+ * [
+ *     { "name": "Survival", "pack": "Vanilla", "version": "1.20.1", "server": true },
+ *     { "name": "Skyblock 1", "pack": "SkyFactory 4", "server": true },
+ *     { "name": "Skyblock 2", "pack": "SkyFactory 4", "version": "4.2.4", "server": true }
+ * ]
+ * </pre>
+ *
+ * Jobs run in parallel. Jobs which would install into the same folder as an earlier job in the file (names only
+ * differing by case or symbols) are failed rather than run at the same time. Downloads to the shared libraries, assets
+ * and downloads folders are only done once between them, as are loader processors for the same loader version.
+ * Progress is written to stdout.
+ */
+public class BatchProvisioner {
+    private final List<Job> jobs;
+    private final int threads;
+
+    public static class Job {
+        // the name of the instance or server to install or update
+        public String name;
+
+        // the name of the ATLauncher pack to install, or "Vanilla" for plain Minecraft
+        public String pack;
+
+        // the pack version (or Minecraft version for Vanilla), defaulting to the latest recommended version
+        public String version;
+
+        // the loader version to use for packs with a choosable loader, defaulting to the recommended one
+        public String loaderVersion;
+
+        public boolean server = false;
+        public String shareCode;
+        public boolean saveMods = false;
+    }
+
+    public BatchProvisioner(List<Job> jobs, int threads) {
+        this.jobs = jobs;
+        this.threads = Math.max(1, Math.min(threads, jobs.size()));
+    }
+
+    public static BatchProvisioner fromFile(Path file, int threads) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return new BatchProvisioner(parse(reader), threads);
+        }
+    }
+
+    static List<Job> parse(Reader reader) throws IOException {
+        Job[] jobs;
+
+        try {
+            jobs = Gsons.DEFAULT.fromJson(reader, Job[].class);
+        } catch (JsonParseException e) {
+            throw new IOException("Couldn't read jobs: " + e.getMessage(), e);
+        }
+
+        if (jobs == null || jobs.length == 0) {
+            throw new IOException("No jobs found");
+        }
+
+        return Arrays.asList(jobs);
+    }
+
+    /**
+     * Gets the jobs which would install into the same folder as an earlier job, since running them at the same time
+     * would have them overwrite each other.
+     */
+    static Set<Job> findDuplicates(List<Job> jobs) {
+        Set<String> roots = new HashSet<>();
+        Set<Job> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Job job : jobs) {
+            String root = getRoot(job);
+
+            if (root != null && !roots.add(root)) {
+                duplicates.add(job);
+            }
+        }
+
+        return duplicates;
+    }
+
+    private static String getRoot(Job job) {
+        if (job.name == null) {
+            return null;
+        }
+
+        // the same as the installer, and lower cased as some file systems are case insensitive
+        return (job.server ? "servers/" : "instances/")
+                + job.name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Runs all the jobs, returning the number which failed.
+     */
+    public int run() {
+        out("Provisioning " + jobs.size() + " instances/servers with " + threads + " at a time");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> results = new ArrayList<>();
+        Set<Job> duplicates = findDuplicates(jobs);
+
+        for (Job job : jobs) {
+            if (duplicates.contains(job)) {
+                out("[" + job.name + "] Skipping as an earlier job installs to the same folder");
+                results.add(CompletableFuture.completedFuture(false));
+            } else {
+                results.add(executor.submit(() -> runJob(job)));
+            }
+        }
+
+        executor.shutdown();
+
+        int failed = 0;
+        for (int i = 0; i < jobs.size(); i++) {
+            boolean success = false;
+
+            try {
+                success = results.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LogManager.logStackTrace("Error provisioning " + jobs.get(i).name, e.getCause());
+            }
+
+            if (!success) {
+                failed++;
+            }
+        }
+
+        out(String.format(Locale.ENGLISH, "Finished provisioning. %d succeeded and %d failed",
+                jobs.size() - failed, failed));
+
+        return failed;
+    }
+
+    private boolean runJob(Job job) throws Exception {
+        if (job.name == null || job.name.replaceAll("[^A-Za-z0-9]", "").isEmpty() || job.pack == null) {
+            out("[" + job.name + "] Skipping as it needs a name (with at least 1 letter or number) and a pack");
+            return false;
+        }
+
+        Pack pack;
+        PackVersion version;
+
+        if (job.pack.equalsIgnoreCase("vanilla") || job.pack.equalsIgnoreCase("minecraft")) {
+            if (job.version == null) {
+                out("[" + job.name + "] Skipping as Vanilla installs need a Minecraft version");
+                return false;
+            }
+
+            try {
+                VanillaInstallable installable = new VanillaInstallable(
+                        MinecraftManager.getMinecraftVersion(job.version), null, null);
+                pack = installable.getPack();
+                version = installable.getPackVersion();
+            } catch (InvalidMinecraftVersion e) {
+                out("[" + job.name + "] Skipping as " + job.version + " isn't a Minecraft version");
+                return false;
+            }
+        } else {
+            pack = PackManager.getPackByName(job.pack);
+            if (pack == null) {
+                pack = PackManager.getPackBySafeName(job.pack);
+            }
+
+            if (pack == null || !pack.canInstall()) {
+                out("[" + job.name + "] Skipping as the pack " + job.pack + " couldn't be found");
+                return false;
+            }
+
+            if (job.server && !pack.canCreateServer()) {
+                out("[" + job.name + "] Skipping as the pack " + pack.getName() + " can't be installed as a server");
+                return false;
+            }
+
+            version = getPackVersion(pack, job.version);
+            if (version == null) {
+                out("[" + job.name + "] Skipping as version " + job.version + " of " + pack.getName()
+                        + " couldn't be found");
+                return false;
+            }
+        }
+
+        Instance instance = job.server ? null : InstanceManager.getInstanceByName(job.name);
+        boolean isReinstall = instance != null;
+
+        // existing servers are installed over the top of, which replaces the mods and libraries but keeps worlds
+        // and configs, the same as reinstalling an instance
+        InstanceInstaller installer = new InstanceInstaller(job.name, pack, version, isReinstall, job.server, false,
+                isReinstall && job.saveMods, job.shareCode, false, getLoaderVersion(job, pack, version, instance),
+                null, null, null, null, null, null, null, null, null);
+
+        if (isReinstall) {
+            installer.setInstance(instance);
+        }
+
+        Progress progress = new Progress(job.name);
+        installer.addPropertyChangeListener(progress::update);
+
+        out("[" + job.name + "] " + (isReinstall ? "Updating" : "Installing") + " " + pack.getName() + " "
+                + version.version + (job.server ? " server" : ""));
+
+        // runs the install on this thread, the same as execute() would on a Swing worker thread
+        installer.run();
+
+        boolean success = !installer.isCancelled() && installer.success;
+
+        installer.closeArchives();
+
+        if (success) {
+            if (pack.isLoggingEnabled() && App.settings.enableLogs && !version.isDev) {
+                if (job.server) {
+                    pack.addServerInstall(version.version);
+                } else if (isReinstall) {
+                    pack.addUpdate(version.version);
+                } else {
+                    pack.addInstall(version.version);
+                }
+            }
+
+            out("[" + job.name + "] Done");
+        } else {
+            if (isReinstall && installer.instanceIsCorrupt) {
+                instance.launcher.isPlayable = false;
+                instance.save();
+            } else if (!isReinstall && !job.server && Files.isDirectory(installer.root)) {
+                FileUtils.deleteDirectory(installer.root);
+            }
+
+            out("[" + job.name + "] Failed. Check the logs for more information");
+        }
+
+        return success;
+    }
+
+    private static PackVersion getPackVersion(Pack pack, String version) {
+        if (version != null) {
+            return pack.getVersionByName(version);
+        }
+
+        return pack.getVersions().stream().filter(v -> v.isRecommended && !v.isDev).findFirst()
+                .orElse(pack.getVersions().isEmpty() ? null : pack.getVersions().get(0));
+    }
+
+    private static LoaderVersion getLoaderVersion(Job job, Pack pack, PackVersion version, Instance instance) {
+        if (pack.vanillaInstance || !version.hasLoader() || !version.hasChoosableLoader()) {
+            return null;
+        }
+
+        Version jsonVersion = Gsons.DEFAULT.fromJson(pack.getJSON(version.version), Version.class);
+        if (jsonVersion == null) {
+            return null;
+        }
+
+        List<LoaderVersion> loaderVersions = jsonVersion.getLoader()
+                .getChoosableVersions(jsonVersion.getMinecraft());
+
+        String wanted = job.loaderVersion != null ? job.loaderVersion
+                : (instance != null && instance.launcher.loaderVersion != null
+                        ? instance.launcher.loaderVersion.version
+                        : null);
+
+        return loaderVersions.stream().filter(lv -> wanted != null && lv.version.equals(wanted)).findFirst()
+                .orElse(loaderVersions.stream().filter(lv -> lv.recommended).findFirst()
+                        .orElse(loaderVersions.isEmpty() ? null : loaderVersions.get(0)));
+    }
+
+    private static void out(String message) {
+        System.out.println(message);
+        LogManager.info(message);
+    }
+
+    /**
+     * Writes an installer's progress to stdout each time it moves onto a new task, or another 10% is done.
+     */
+    private static class Progress {
+        private final String name;
+        private String doing = "";
+        private int lastPercent = -1;
+        private int percent = 0;
+
+        private Progress(String name) {
+            this.name = name;
+        }
+
+        private synchronized void update(PropertyChangeEvent evt) {
+            if ("progress".equals(evt.getPropertyName()) && evt.getNewValue() instanceof Double) {
+                percent = (int) Math.min(100.0, (Double) evt.getNewValue());
+
+                if (percent / 10 == lastPercent / 10) {
+                    return;
+                }
+            } else if ("doing".equals(evt.getPropertyName()) && evt.getNewValue() != null
+                    && !doing.equals(evt.getNewValue())) {
+                doing = (String) evt.getNewValue();
+            } else {
+                return;
+            }
+
+            lastPercent = percent;
+            System.out.println(String.format(Locale.ENGLISH, "[%s] %3d%% %s", name, percent, doing));
+        }
+    }
+}
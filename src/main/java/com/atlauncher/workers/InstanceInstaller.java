@@ -17,11 +17,13 @@
  */
 package com.atlauncher.workers;
 
+import java.awt.GraphicsEnvironment;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -32,12 +34,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -50,7 +54,6 @@ import com.atlauncher.App;
 import com.atlauncher.Data;
 import com.atlauncher.FileSystem;
 import com.atlauncher.Gsons;
-import com.atlauncher.Network;
 import com.atlauncher.builders.HTMLBuilder;
 import com.atlauncher.constants.Constants;
 import com.atlauncher.data.APIResponse;
@@ -72,6 +75,7 @@ import com.atlauncher.data.json.DownloadType;
 import com.atlauncher.data.json.Keep;
 import com.atlauncher.data.json.Keeps;
 import com.atlauncher.data.json.Mod;
+import com.atlauncher.data.json.ModGraph;
 import com.atlauncher.data.json.ModType;
 import com.atlauncher.data.json.Version;
 import com.atlauncher.data.minecraft.ArgumentRule;
@@ -125,6 +129,7 @@ import com.atlauncher.managers.DialogManager;
 import com.atlauncher.managers.InstanceManager;
 import com.atlauncher.managers.LogManager;
 import com.atlauncher.managers.MinecraftManager;
+import com.atlauncher.managers.PerformanceManager;
 import com.atlauncher.managers.ServerManager;
 import com.atlauncher.network.Analytics;
 import com.atlauncher.network.DownloadPool;
@@ -133,6 +138,7 @@ import com.atlauncher.network.GraphqlClient;
 import com.atlauncher.network.analytics.AnalyticsEvent;
 import com.atlauncher.utils.ArchiveUtils;
 import com.atlauncher.utils.CurseForgeApi;
+import com.atlauncher.utils.DirectoryCopier;
 import com.atlauncher.utils.FileUtils;
 import com.atlauncher.utils.Hashing;
 import com.atlauncher.utils.Java;
@@ -143,12 +149,15 @@ import com.atlauncher.utils.Pair;
 import com.atlauncher.utils.TechnicApi;
 import com.atlauncher.utils.Utils;
 import com.atlauncher.utils.walker.CaseFileVisitor;
+import com.google.common.hash.HashCode;
+import com.google.common.util.concurrent.Striped;
 import com.google.gson.reflect.TypeToken;
 
 import okhttp3.CacheControl;
-import okhttp3.OkHttpClient;
 
 public class InstanceInstaller extends SwingWorker<Boolean, Void> implements NetworkProgressable {
+    private static final Striped<Lock> LOADER_LOCKS = Striped.lock(16);
+
     protected double percent = 0.0; // Percent done installing
     protected double subPercent = 0.0; // Percent done sub installing
     protected double totalBytes = 0; // Total number of bytes to download
@@ -189,9 +198,12 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     public MinecraftVersion minecraftVersion;
 
     public List<Mod> allMods;
+    private ModGraph modGraph = null;
+    private Map<DisableableMod, Hashing.Hashes> installedModHashes = null;
     public List<Mod> selectedMods;
     public List<Mod> unselectedMods = new ArrayList<>();
     public List<DisableableMod> modsInstalled = new ArrayList<>();
+    private PackUpdatePlanner updatePlanner = null;
 
     public boolean assetsMapToResources = false;
 
@@ -230,7 +242,9 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             this.root = FileSystem.INSTANCES.resolve(name.replaceAll("[^A-Za-z0-9]", ""));
         }
 
-        this.temp = FileSystem.TEMP.resolve(pack.getSafeName() + "_" + version.getSafeVersion());
+        // include where it's being installed to, so installs of the same pack version can run side by side
+        this.temp = FileSystem.TEMP.resolve(pack.getSafeName() + "_" + version.getSafeVersion() + "_"
+                + (isServer ? "server_" : "") + this.root.getFileName());
 
         this.loaderVersion = loaderVersion;
         this.curseForgeManifest = curseForgeManifest;
@@ -255,6 +269,16 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
     @Override
     protected Boolean doInBackground() throws Exception {
+        PerformanceManager.Trace trace = PerformanceManager.startTrace("install", this.name);
+
+        try {
+            return runInstall();
+        } finally {
+            trace.finish();
+        }
+    }
+
+    private Boolean runInstall() throws Exception {
         ErrorReporting.recordPackInstall(this.pack.name, this.version.version, this.loaderVersion);
         LogManager.info("Started install of " + this.pack.name + " version " + this.version.version);
 
@@ -344,22 +368,32 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 downloadPackVersionJson();
             }
 
-            downloadMinecraftVersionJson();
+            try (PerformanceManager.Span span = PerformanceManager.span("downloadMinecraftVersionJson")) {
+                downloadMinecraftVersionJson();
+            }
 
             if (this.packVersion.messages != null) {
                 showMessages();
             }
 
-            determineModsToBeInstalled();
+            try (PerformanceManager.Span span = PerformanceManager.span("determineModsToBeInstalled")) {
+                determineModsToBeInstalled();
+            }
 
             if (isCancelled()) {
                 return success(false);
             }
 
+            try (PerformanceManager.Span span = PerformanceManager.span("planUpdate")) {
+                planUpdate();
+            }
+
             backupSelectFiles();
             addPercent(5);
 
-            prepareFilesystem();
+            try (PerformanceManager.Span span = PerformanceManager.span("prepareFilesystem")) {
+                prepareFilesystem();
+            }
 
             // we don't know the loader information until we download the mods
             if (technicModpack != null && technicModpack.solder != null) {
@@ -376,12 +410,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     this.loaderVersion = this.loader.getLoaderVersion();
                 }
 
-                downloadLoader();
+                try (PerformanceManager.Span span = PerformanceManager.span("downloadLoader")) {
+                    downloadLoader();
+                }
             }
 
-            install();
+            try (PerformanceManager.Span span = PerformanceManager.span("install")) {
+                install();
+            }
 
             if (isCancelled()) {
+                rollbackUpdate();
                 return success(false);
             }
 
@@ -395,6 +434,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 saveServerJson();
             }
 
+            if (updatePlanner != null) {
+                updatePlanner.commit();
+            }
+
             Analytics.trackEvent(
                     AnalyticsEvent.forPackInstalled(pack, version, this.isServer, this.isReinstall,
                             getAnalyticsPlatform(),
@@ -405,11 +448,37 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             success(false);
             cancel(true);
             LogManager.logStackTrace(e);
+            rollbackUpdate();
         }
 
         return success(false);
     }
 
+    private void planUpdate() {
+        if (!PackUpdatePlanner.canPlan(this)) {
+            return;
+        }
+
+        fireTask(GetText.tr("Calculating Changes"));
+        fireSubProgressUnknown();
+
+        this.updatePlanner = PackUpdatePlanner.plan(this);
+    }
+
+    private void rollbackUpdate() {
+        if (updatePlanner != null) {
+            updatePlanner.rollback();
+        }
+    }
+
+    private List<Mod> getModsToInstall() {
+        if (updatePlanner == null) {
+            return this.selectedMods;
+        }
+
+        return updatePlanner.getModsToInstall(this.selectedMods);
+    }
+
     private void downloadCurseForgeServerPack() throws Exception {
         addPercent(5);
 
@@ -504,7 +573,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             }
 
             serverPackDownload = serverPackDownload.withInstanceInstaller(this)
-                    .withHttpClient(Network.createProgressClient(this));
+                    .withProgressable(this);
 
             this.setTotalBytes(version._curseForgeFile.fileLength);
             serverPackDownload.downloadFile();
@@ -872,6 +941,20 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         hideSubProgressBar();
     }
 
+    /**
+     * Closes the modpack archives being installed from (or deletes them if they had to be extracted), removing any
+     * which were only downloaded for this install.
+     */
+    protected void closeArchives() {
+        for (Path path : new Path[] { curseForgeExtractedPath, modrinthExtractedPath, multiMCExtractedPath }) {
+            Path archive = ArchiveUtils.closeArchive(path);
+
+            if (archive != null && archive.toAbsolutePath().startsWith(this.temp.toAbsolutePath())) {
+                FileUtils.delete(archive);
+            }
+        }
+    }
+
     private void generatePackVersionFromCurseForge() throws Exception {
         addPercent(5);
 
@@ -966,7 +1049,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             }
 
             manifestDownload = manifestDownload.withInstanceInstaller(this)
-                    .withHttpClient(Network.createProgressClient(this));
+                    .withProgressable(this);
 
             this.setTotalBytes(version._curseForgeFile.fileLength);
             manifestDownload.downloadFile();
@@ -975,12 +1058,12 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Extracting Manifest"));
         fireSubProgressUnknown();
 
-        curseForgeManifest = Gsons.DEFAULT.fromJson(new String(ArchiveUtils.getFile(manifestFile, "manifest.json")),
-                CurseForgeManifest.class);
-        curseForgeExtractedPath = this.temp.resolve("curseforgeimport");
+        curseForgeExtractedPath = ArchiveUtils.openArchive(manifestFile, this.temp.resolve("curseforgeimport"));
 
-        ArchiveUtils.extract(manifestFile, curseForgeExtractedPath);
-        Files.delete(manifestFile);
+        try (Reader reader = Files.newBufferedReader(curseForgeExtractedPath.resolve("manifest.json"),
+                StandardCharsets.UTF_8)) {
+            curseForgeManifest = Gsons.DEFAULT.fromJson(reader, CurseForgeManifest.class);
+        }
 
         generatePackVersionFromCurseForgeManifest();
 
@@ -1000,7 +1083,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         com.atlauncher.network.Download manifestDownload = com.atlauncher.network.Download.build().setUrl(file.url)
                 .downloadTo(manifestFile).withInstanceInstaller(this)
-                .withHttpClient(Network.createProgressClient(this));
+                .withProgressable(this);
 
         if (file.hashes != null && file.hashes.containsKey("sha512")) {
             manifestDownload = manifestDownload.hash(file.hashes.get("sha512"));
@@ -1018,22 +1101,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Extracting Manifest"));
         fireSubProgressUnknown();
 
-        modrinthExtractedPath = this.temp.resolve("modrinthimport");
-        ArchiveUtils.extract(manifestFile, modrinthExtractedPath);
+        modrinthExtractedPath = ArchiveUtils.openArchive(manifestFile, this.temp.resolve("modrinthimport"));
 
-        try (InputStreamReader fileReader = new InputStreamReader(
-                new FileInputStream(modrinthExtractedPath.resolve("modrinth.index.json").toFile()),
+        try (Reader fileReader = Files.newBufferedReader(modrinthExtractedPath.resolve("modrinth.index.json"),
                 StandardCharsets.UTF_8)) {
             modrinthManifest = Gsons.DEFAULT.fromJson(fileReader, ModrinthModpackManifest.class);
         } catch (Exception e) {
             LogManager.logStackTrace("Failed to read modrinth.index.json file", e);
-            Files.delete(manifestFile);
-            Files.delete(modrinthExtractedPath);
+            closeArchives();
             throw e;
         }
 
-        Files.delete(manifestFile);
-
         generatePackVersionFromModrinthManifest();
 
         hideSubProgressBar();
@@ -1443,9 +1521,8 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         Path tempZip = FileSystem.TEMP.resolve("technic-" + technicModpack.name + "-modpack.zip");
         Path unzipLocation = FileSystem.TEMP.resolve("technic-" + technicModpack.name);
-        OkHttpClient httpClient = Network.createProgressClient(this);
         com.atlauncher.network.Download download = com.atlauncher.network.Download.build().setUrl(technicModpack.url)
-                .downloadTo(tempZip).unzipTo(unzipLocation).withInstanceInstaller(this).withHttpClient(httpClient);
+                .downloadTo(tempZip).unzipTo(unzipLocation).withInstanceInstaller(this).withProgressable(this);
 
         if (download.needToDownload()) {
             this.setTotalBytes(download.getFilesize());
@@ -2094,6 +2171,36 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         hideSubProgressBar();
     }
 
+    /**
+     * Selects the same mods the mods chooser would have selected by default, for when there's nobody to show it to.
+     */
+    private void selectDefaultMods() {
+        Set<Mod> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Mod mod : this.allMods) {
+            boolean optional = this.isServer ? mod.isServerOptional() : mod.isOptional();
+            boolean select;
+
+            if (!optional) {
+                select = true;
+            } else if (this.isReinstall && this.instance != null && !wasModSelected(mod.getName())) {
+                select = false;
+            } else if (this.isReinstall && this.instance != null && wasModInstalled(mod.getName())) {
+                select = true;
+            } else {
+                select = mod.isSelected();
+            }
+
+            if (select && selected.add(mod)) {
+                selected.addAll(getModGraph().getAllDependencies(mod));
+            }
+        }
+
+        this.selectedMods = this.allMods.stream().filter(selected::contains).collect(Collectors.toList());
+        this.unselectedMods = this.allMods.stream().filter(mod -> !selected.contains(mod))
+                .collect(Collectors.toList());
+    }
+
     private void downloadLoader() throws Exception {
         addPercent(5);
         fireTask(GetText.tr("Downloading Loader"));
@@ -2107,7 +2214,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
     private void showMessages() throws Exception {
         int ret = 0;
 
-        if (this.isReinstall && this.packVersion.messages.update != null) {
+        if (GraphicsEnvironment.isHeadless()) {
+            String message = this.isReinstall ? this.packVersion.messages.update : this.packVersion.messages.install;
+
+            if (message != null) {
+                LogManager.info("Message from " + this.pack.getName() + ": " + message);
+            }
+        } else if (this.isReinstall && this.packVersion.messages.update != null) {
             ret = this.packVersion.messages.showUpdateMessage(this.pack);
         } else if (!this.isReinstall && this.packVersion.messages.install != null) {
             ret = this.packVersion.messages.showInstallMessage(this.pack);
@@ -2124,7 +2237,9 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         boolean hasOptional = this.allMods.stream().anyMatch(Mod::isOptional);
 
-        if (this.allMods.size() != 0 && hasOptional) {
+        if (this.allMods.size() != 0 && hasOptional && GraphicsEnvironment.isHeadless()) {
+            selectDefaultMods();
+        } else if (this.allMods.size() != 0 && hasOptional) {
             com.atlauncher.gui.dialogs.ModsChooser modsChooser = new com.atlauncher.gui.dialogs.ModsChooser(this);
 
             if (this.shareCode != null) {
@@ -2326,13 +2441,13 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         mod.version = "Unknown";
         mod.description = null;
 
-        MCMod mcMod = Utils.getMCModForFile(p.toFile());
+        MCMod mcMod = Utils.getMCModForFile(p);
         if (mcMod != null) {
             mod.name = Optional.ofNullable(mcMod.name).orElse(p.getFileName().toString());
             mod.version = Optional.ofNullable(mcMod.version).orElse("Unknown");
             mod.description = Optional.ofNullable(mcMod.description).orElse(null);
         } else {
-            FabricMod fabricMod = Utils.getFabricModForFile(p.toFile());
+            FabricMod fabricMod = Utils.getFabricModForFile(p);
             if (fabricMod != null) {
                 mod.name = Optional.ofNullable(fabricMod.name).orElse(p.getFileName().toString());
                 mod.version = Optional.ofNullable(fabricMod.version).orElse("Unknown");
@@ -2352,94 +2467,128 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         determineMainClass();
         determineArguments();
 
-        downloadResources();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadResources")) {
+            downloadResources();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadMinecraft();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadMinecraft")) {
+            downloadMinecraft();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadLoggingClient();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadLoggingClient")) {
+            downloadLoggingClient();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadLibraries();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadLibraries")) {
+            downloadLibraries();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        organiseLibraries();
+        try (PerformanceManager.Span span = PerformanceManager.span("organiseLibraries")) {
+            organiseLibraries();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadRuntime();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadRuntime")) {
+            downloadRuntime();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        installLoader();
+        try (PerformanceManager.Span span = PerformanceManager.span("installLoader")) {
+            installLoader();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadMods();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadMods")) {
+            downloadMods();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        installMods();
+        try (PerformanceManager.Span span = PerformanceManager.span("installMods")) {
+            installMods();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        installLegacyJavaFixer();
+        try (PerformanceManager.Span span = PerformanceManager.span("installLegacyJavaFixer")) {
+            installLegacyJavaFixer();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        runCaseConversion();
+        try (PerformanceManager.Span span = PerformanceManager.span("runCaseConversion")) {
+            runCaseConversion();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        runActions();
+        try (PerformanceManager.Span span = PerformanceManager.span("runActions")) {
+            runActions();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        installConfigs();
+        try (PerformanceManager.Span span = PerformanceManager.span("installConfigs")) {
+            installConfigs();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        downloadImage();
+        try (PerformanceManager.Span span = PerformanceManager.span("downloadImage")) {
+            downloadImage();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        checkModsOnCurseForge();
+        try (PerformanceManager.Span span = PerformanceManager.span("checkModsOnCurseForge")) {
+            checkModsOnCurseForge();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        checkModsOnModrinth();
+        try (PerformanceManager.Span span = PerformanceManager.span("checkModsOnModrinth")) {
+            checkModsOnModrinth();
+        }
         if (isCancelled()) {
             return false;
         }
 
-        cleanDirectories();
+        try (PerformanceManager.Span span = PerformanceManager.span("cleanDirectories")) {
+            cleanDirectories();
+        }
         if (isCancelled()) {
             return false;
         }
 
         // Copy over common configs if any
         if (FileSystem.COMMON.toFile().listFiles().length != 0) {
-            Utils.copyDirectory(FileSystem.COMMON.toFile(), this.root.toFile());
+            copyDirectory(FileSystem.COMMON, this.root);
         }
 
         restoreSelectFiles();
@@ -2453,6 +2602,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         return true;
     }
 
+    /**
+     * Copies the contents of a directory into another, showing the progress in the sub progress bar.
+     */
+    private boolean copyDirectory(Path from, Path to) {
+        return DirectoryCopier.build(from, to).withCancellation(this::isCancelled)
+                .withProgressListener((bytesCopied, totalBytes, filesCopied, totalFiles) -> fireSubProgress(
+                        totalBytes == 0L ? (filesCopied * 100.0) / totalFiles : (bytesCopied * 100.0) / totalBytes,
+                        String.format(Locale.ENGLISH, "%d/%d", filesCopied, totalFiles)))
+                .copy();
+    }
+
     private void cleanDirectories() {
         if (technicModpack != null) {
             Path binPath = this.root.resolve("bin");
@@ -2745,7 +2905,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             this.assetsMapToResources = true;
         }
 
-        OkHttpClient httpClient = Network.createProgressClient(this);
         DownloadPool pool = new DownloadPool();
 
         index.objects.forEach((key, object) -> {
@@ -2754,7 +2913,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
             com.atlauncher.network.Download download = new com.atlauncher.network.Download().setUrl(url)
                     .downloadTo(FileSystem.RESOURCES_OBJECTS.resolve(filename)).hash(object.hash).size(object.size)
-                    .withInstanceInstaller(this).withHttpClient(httpClient).withFriendlyFileName(key);
+                    .withInstanceInstaller(this).withProgressable(this).withFriendlyFileName(key);
 
             pool.add(download);
         });
@@ -2805,7 +2964,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         com.atlauncher.network.Download.build().setUrl(mojangDownload.url).hash(mojangDownload.sha1)
                 .size(mojangDownload.size).downloadTo(getMinecraftJarLibrary().toPath())
                 .copyTo(this.isServer ? getMinecraftJar().toPath() : null).withInstanceInstaller(this)
-                .withHttpClient(Network.createProgressClient(this)).downloadFile();
+                .withProgressable(this).downloadFile();
 
         hideSubProgressBar();
     }
@@ -2841,7 +3000,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         com.atlauncher.network.Download.build().setUrl(loggingFile.url).hash(loggingFile.sha1)
                 .size(loggingFile.size).downloadTo(FileSystem.RESOURCES_LOG_CONFIGS.resolve(loggingFile.id))
-                .withInstanceInstaller(this).withHttpClient(Network.createProgressClient(this)).downloadFile();
+                .withInstanceInstaller(this).withProgressable(this).downloadFile();
 
         hideSubProgressBar();
     }
@@ -2952,7 +3111,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Downloading Libraries"));
         fireSubProgressUnknown();
 
-        OkHttpClient httpClient = Network.createProgressClient(this);
         DownloadPool pool = new DownloadPool();
 
         // get non native libraries otherwise we double up
@@ -2963,7 +3121,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                             .setUrl(library.downloads.artifact.url)
                             .downloadTo(FileSystem.LIBRARIES.resolve(library.downloads.artifact.path))
                             .hash(library.downloads.artifact.sha1).size(library.downloads.artifact.size)
-                            .withInstanceInstaller(this).withHttpClient(httpClient);
+                            .withInstanceInstaller(this).withProgressable(this);
 
                     pool.add(download);
                 });
@@ -2973,7 +3131,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     library -> pool.add(new com.atlauncher.network.Download().setUrl(library.downloads.artifact.url)
                             .downloadTo(FileSystem.LIBRARIES.resolve(library.downloads.artifact.path))
                             .hash(library.downloads.artifact.sha1).size(library.downloads.artifact.size)
-                            .withInstanceInstaller(this).withHttpClient(httpClient)));
+                            .withInstanceInstaller(this).withProgressable(this)));
         }
 
         if (!this.isServer) {
@@ -2982,7 +3140,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
                 pool.add(new com.atlauncher.network.Download().setUrl(download.url)
                         .downloadTo(FileSystem.LIBRARIES.resolve(download.path)).hash(download.sha1).size(download.size)
-                        .withInstanceInstaller(this).withHttpClient(httpClient));
+                        .withInstanceInstaller(this).withProgressable(this));
             });
         }
 
@@ -3073,7 +3231,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                                 .resolve(minecraftVersion.javaVersion.component).resolve("manifest.json"))
                         .asClassWithThrow(JavaRuntimeManifest.class);
 
-                OkHttpClient httpClient = Network.createProgressClient(this);
                 DownloadPool pool = new DownloadPool();
 
                 // create root directory
@@ -3095,7 +3252,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                         com.atlauncher.network.Download download = new com.atlauncher.network.Download()
                                 .setUrl(file.downloads.raw.url).downloadTo(runtimeDirectory.resolve(key))
                                 .hash(file.downloads.raw.sha1).size(file.downloads.raw.size).executable(file.executable)
-                                .withInstanceInstaller(this).withHttpClient(httpClient);
+                                .withInstanceInstaller(this).withProgressable(this);
 
                         pool.add(download);
                     }
@@ -3132,8 +3289,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Installing Loader (May Take Some Time)"));
         fireSubProgressUnknown();
 
-        // run any processors that the loader needs
-        this.loader.runProcessors();
+        // run any processors that the loader needs. Installs of the same loader version share their outputs in the
+        // libraries folder, so only let one run them at a time and the rest will see they're already done
+        LoaderVersion installing = this.loader.getLoaderVersion();
+        Lock lock = LOADER_LOCKS.get(installing == null ? this.loader.getClass().getName()
+                : installing.type + ":" + installing.version);
+        lock.lock();
+        try {
+            this.loader.runProcessors();
+        } finally {
+            lock.unlock();
+        }
 
         hideSubProgressBar();
     }
@@ -3145,16 +3311,17 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             return;
         }
 
+        List<Mod> modsToInstall = getModsToInstall();
+
         fireTask(GetText.tr("Downloading Mods"));
         fireSubProgressUnknown();
 
-        OkHttpClient httpClient = Network.createProgressClient(this);
         DownloadPool pool = new DownloadPool();
 
-        this.selectedMods.stream().filter(mod -> mod.download != DownloadType.browser).forEach(mod -> {
+        modsToInstall.stream().filter(mod -> mod.download != DownloadType.browser).forEach(mod -> {
             com.atlauncher.network.Download download = new com.atlauncher.network.Download()
                     .setUrl(mod.getDownloadUrl()).downloadTo(FileSystem.DOWNLOADS.resolve(mod.getFile()))
-                    .size(mod.filesize).withInstanceInstaller(this).withHttpClient(httpClient);
+                    .size(mod.filesize).withInstanceInstaller(this).withProgressable(this);
 
             if (mod.ignoreFailures) {
                 download = download.ignoreFailures();
@@ -3182,9 +3349,16 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         fireSubProgressUnknown();
 
-        List<Mod> browserDownloadMods = this.selectedMods.stream().filter(mod -> mod.download == DownloadType.browser)
+        List<Mod> browserDownloadMods = modsToInstall.stream().filter(mod -> mod.download == DownloadType.browser)
                 .collect(Collectors.toList());
         if (browserDownloadMods.size() != 0) {
+            // every way of getting browser mods needs a browser and dialogs, so fail before touching any of that
+            if (GraphicsEnvironment.isHeadless()) {
+                throw new LocalException(browserDownloadMods.size()
+                        + " mods need to be downloaded through a browser, which can't be done when running headless: "
+                        + browserDownloadMods.stream().map(Mod::getName).collect(Collectors.joining(", ")));
+            }
+
             if (curseForgeManifest != null || modpacksChPackManifest != null) {
                 fireTask(GetText.tr("Downloading Browser Mods"));
 
@@ -3242,12 +3416,18 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             return;
         }
 
+        List<Mod> modsToInstall = getModsToInstall();
+
+        if (modsToInstall.size() == 0) {
+            return;
+        }
+
         fireTask(GetText.tr("Installing Mods"));
         fireSubProgressUnknown();
 
-        double subPercentPerMod = 100.0 / this.selectedMods.size();
+        double subPercentPerMod = 100.0 / modsToInstall.size();
 
-        this.selectedMods.parallelStream().forEach(mod -> {
+        modsToInstall.parallelStream().forEach(mod -> {
             mod.install(this);
             addSubPercent(subPercentPerMod);
         });
@@ -3265,7 +3445,6 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         fireTask(GetText.tr("Downloading Mods"));
         fireSubProgressUnknown();
 
-        OkHttpClient httpClient = Network.createProgressClient(this);
         DownloadPool pool = new DownloadPool();
 
         technicSolderModsToDownload.stream().forEach(mod -> {
@@ -3273,7 +3452,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     .setUrl(mod.getDownloadUrl())
                     .downloadTo(FileSystem.TECHNIC_DOWNLOADS
                             .resolve(String.format("%s/%s", technicModpack.name, mod.getFile())))
-                    .unzipTo(this.root).size(mod.filesize).withInstanceInstaller(this).withHttpClient(httpClient);
+                    .unzipTo(this.root).size(mod.filesize).withInstanceInstaller(this).withProgressable(this);
 
             if (mod.md5 != null) {
                 download = download.hash(mod.md5);
@@ -3402,20 +3581,34 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         if (curseForgeManifest != null) {
             fireSubProgressUnknown();
             fireTask(GetText.tr("Copying Overrides"));
-            Utils.copyDirectory(this.curseForgeExtractedPath
-                    .resolve(Optional.ofNullable(curseForgeManifest.overrides).orElse("overrides")).toFile(),
-                    this.root.toFile(), false);
+            Path overridesPath = this.curseForgeExtractedPath
+                    .resolve(Optional.ofNullable(curseForgeManifest.overrides).orElse("overrides"));
+
+            if (updatePlanner != null) {
+                updatePlanner.copyChangedOverrides(overridesPath, this.root);
+            } else {
+                copyDirectory(overridesPath, this.root);
+            }
         } else if (modrinthManifest != null) {
             fireSubProgressUnknown();
             fireTask(GetText.tr("Copying Overrides"));
-            Utils.copyDirectory(this.modrinthExtractedPath.resolve("overrides").toFile(), this.root.toFile(), false);
-
-            if (isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("server-overrides"))) {
-                Utils.copyDirectory(this.modrinthExtractedPath.resolve("server-overrides").toFile(), this.root.toFile(),
-                        false);
-            } else if (!isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("client-overrides"))) {
-                Utils.copyDirectory(this.modrinthExtractedPath.resolve("client-overrides").toFile(), this.root.toFile(),
-                        false);
+
+            if (updatePlanner != null) {
+                // update planner only handles client installs, so no need to check server-overrides
+                updatePlanner.copyChangedOverrides(this.modrinthExtractedPath.resolve("overrides"), this.root);
+
+                if (Files.isDirectory(this.modrinthExtractedPath.resolve("client-overrides"))) {
+                    updatePlanner.copyChangedOverrides(this.modrinthExtractedPath.resolve("client-overrides"),
+                            this.root);
+                }
+            } else {
+                copyDirectory(this.modrinthExtractedPath.resolve("overrides"), this.root);
+
+                if (isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("server-overrides"))) {
+                    copyDirectory(this.modrinthExtractedPath.resolve("server-overrides"), this.root);
+                } else if (!isServer && Files.isDirectory(this.modrinthExtractedPath.resolve("client-overrides"))) {
+                    copyDirectory(this.modrinthExtractedPath.resolve("client-overrides"), this.root);
+                }
             }
         } else if (modpacksChPackManifest != null) {
             fireSubProgressUnknown();
@@ -3428,7 +3621,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                                 .downloadTo(root.resolve(
                                         (file.path.substring(0, 2).equalsIgnoreCase("./") ? file.path.substring(2)
                                                 : file.path) + file.name))
-                                .withInstanceInstaller(this).withHttpClient(Network.createProgressClient(this));
+                                .withInstanceInstaller(this).withProgressable(this);
 
                         return download;
                     }).collect(Collectors.toList());
@@ -3466,13 +3659,12 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                     : "minecraft";
 
             fireTask(GetText.tr("Copying minecraft folder"));
-            Utils.copyDirectory(this.multiMCExtractedPath.resolve(minecraftFolder + "/").toFile(), this.root.toFile(),
-                    false);
+            copyDirectory(this.multiMCExtractedPath.resolve(minecraftFolder + "/"), this.root);
         } else if (technicModpack != null) {
             if (technicModpackExtractedPath != null) {
                 fireSubProgressUnknown();
                 fireTask(GetText.tr("Copying modpack.zip files"));
-                Utils.copyDirectory(this.technicModpackExtractedPath.toFile(), this.root.toFile(), false);
+                copyDirectory(this.technicModpackExtractedPath, this.root);
             }
         } else if (!pack.vanillaInstance) {
             fireTask(GetText.tr("Downloading Configs"));
@@ -3483,7 +3675,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             com.atlauncher.network.Download configsDownload = com.atlauncher.network.Download.build()
                     .setUrl(String.format("%s/%s", Constants.DOWNLOAD_SERVER, path)).downloadTo(configs.toPath())
                     .size(this.packVersion.configs.filesize).hash(this.packVersion.configs.sha1)
-                    .withInstanceInstaller(this).withHttpClient(Network.createProgressClient(this));
+                    .withInstanceInstaller(this).withProgressable(this);
 
             this.setTotalBytes(configsDownload.getFilesize());
             configsDownload.downloadFile();
@@ -3516,7 +3708,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 com.atlauncher.network.Download imageDownload = com.atlauncher.network.Download.build()
                         .setUrl(attachment.url).downloadTo(root.resolve(isServer ? "server.png" : "instance.png"))
                         .withInstanceInstaller(this)
-                        .withHttpClient(Network.createProgressClient(this));
+                        .withProgressable(this);
 
                 this.setTotalBytes(imageDownload.getFilesize());
                 imageDownload.downloadFile();
@@ -3528,7 +3720,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                         .setUrl(this.pack.modrinthProject.iconUrl)
                         .downloadTo(root.resolve(isServer ? "server.png" : "instance.png"))
                         .withInstanceInstaller(this).ignoreFailures()
-                        .withHttpClient(Network.createProgressClient(this));
+                        .withProgressable(this);
 
                 this.setTotalBytes(imageDownload.getFilesize());
                 imageDownload.downloadFile();
@@ -3544,7 +3736,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
                 com.atlauncher.network.Download imageDownload = com.atlauncher.network.Download.build().setUrl(art.url)
                         .size(art.size).hash(art.sha1)
                         .downloadTo(root.resolve(isServer ? "server.png" : "instance.png")).ignoreFailures()
-                        .withInstanceInstaller(this).withHttpClient(Network.createProgressClient(this));
+                        .withInstanceInstaller(this).withProgressable(this);
 
                 this.setTotalBytes(art.size);
                 imageDownload.downloadFile();
@@ -3556,7 +3748,7 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             if (logo != null && logo.url != null && !logo.url.isEmpty()) {
                 com.atlauncher.network.Download imageDownload = com.atlauncher.network.Download.build().setUrl(logo.url)
                         .downloadTo(root.resolve("instance.png")).withInstanceInstaller(this)
-                        .withHttpClient(Network.createProgressClient(this));
+                        .withProgressable(this);
 
                 if (logo.md5 != null) {
                     imageDownload = imageDownload.hash(logo.md5);
@@ -3567,6 +3759,42 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         }
     }
 
+    /**
+     * Hashes the installed mods which may need looking up on CurseForge and/or Modrinth, reading each file once for
+     * both the murmur fingerprint and the sha1 hash rather than once per platform.
+     */
+    private Map<DisableableMod, Hashing.Hashes> getInstalledModHashes() {
+        if (installedModHashes != null) {
+            return installedModHashes;
+        }
+
+        List<Hashing.HashType> types = new ArrayList<>();
+        if (!App.settings.dontCheckModsOnCurseForge) {
+            types.add(Hashing.HashType.MURMUR);
+        }
+        if (!App.settings.dontCheckModsOnModrinth) {
+            types.add(Hashing.HashType.SHA1);
+        }
+
+        Map<DisableableMod, Path> paths = new IdentityHashMap<>();
+        this.modsInstalled.stream().filter(dm -> (dm.curseForgeProject == null && dm.curseForgeFile == null)
+                || (dm.modrinthProject == null && dm.modrinthVersion == null)).forEach(dm -> {
+                    File file = dm.getFile(root, this.packVersion.minecraft);
+
+                    if (file != null) {
+                        paths.put(dm, file.toPath());
+                    }
+                });
+
+        Map<Path, Hashing.Hashes> hashes = Hashing.hashAll(paths.values(),
+                types.toArray(new Hashing.HashType[0]));
+
+        installedModHashes = new IdentityHashMap<>();
+        paths.forEach((dm, path) -> installedModHashes.put(dm, hashes.get(path)));
+
+        return installedModHashes;
+    }
+
     private void checkModsOnCurseForge() {
         if (App.settings.dontCheckModsOnCurseForge || this.modsInstalled.size() == 0) {
             return;
@@ -3580,11 +3808,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         this.modsInstalled.stream().filter(dm -> dm.curseForgeProject == null && dm.curseForgeFile == null)
                 .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null).forEach(dm -> {
-                    try {
-                        long hash = Hashing.murmur(dm.getFile(root, this.packVersion.minecraft).toPath());
+                    Long hash = getInstalledModHashes().get(dm).murmur();
+
+                    if (hash != null) {
                         murmurHashes.put(hash, dm);
-                    } catch (Throwable t) {
-                        LogManager.logStackTrace(t);
                     }
                 });
 
@@ -3638,11 +3865,10 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
 
         this.modsInstalled.stream().filter(dm -> dm.modrinthProject == null && dm.modrinthVersion == null)
                 .filter(dm -> dm.getFile(root, this.packVersion.minecraft) != null).forEach(dm -> {
-                    try {
-                        sha1Hashes.put(Hashing.sha1(dm.getFile(root, this.packVersion.minecraft).toPath()).toString(),
-                                dm);
-                    } catch (Throwable t) {
-                        LogManager.logStackTrace(t);
+                    HashCode hash = getInstalledModHashes().get(dm).sha1();
+
+                    if (hash != Hashing.EMPTY_HASH_CODE) {
+                        sha1Hashes.put(hash.toString(), dm);
                     }
                 });
 
@@ -3803,14 +4029,18 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
             }
 
             if (isReinstall) {
-                if (Files.isDirectory(this.root.resolve("mods"))) {
-                    Utils.deleteWithFilter(this.root.resolve("mods").toFile(),
-                            instance.getPackMods(com.atlauncher.data.Type.mods), true);
-                }
+                if (updatePlanner != null) {
+                    updatePlanner.apply();
+                } else {
+                    if (Files.isDirectory(this.root.resolve("mods"))) {
+                        Utils.deleteWithFilter(this.root.resolve("mods").toFile(),
+                                instance.getPackMods(com.atlauncher.data.Type.mods), true);
+                    }
 
-                if (Files.isDirectory(this.root.resolve("coremods"))) {
-                    Utils.deleteWithFilter(this.root.resolve("coremods").toFile(),
-                            instance.getPackMods(com.atlauncher.data.Type.coremods), true);
+                    if (Files.isDirectory(this.root.resolve("coremods"))) {
+                        Utils.deleteWithFilter(this.root.resolve("coremods").toFile(),
+                                instance.getPackMods(com.atlauncher.data.Type.coremods), true);
+                    }
                 }
 
                 if (Files.isDirectory(this.root.resolve("jarmods"))) {
@@ -4088,93 +4318,43 @@ public class InstanceInstaller extends SwingWorker<Boolean, Void> implements Net
         return false; // No non recommended mods found
     }
 
-    public boolean isOnlyRecommendedInGroup(Mod mod) {
-        for (Mod modd : allMods) {
-            if (modd == mod || !modd.hasGroup()) {
-                continue;
-            }
-            if (modd.getGroup().equalsIgnoreCase(mod.getGroup()) && modd.isRecommended()) {
-                return false; // Another mod is recommended. Don't check anything
-            }
+    /**
+     * Gets the index of the relationships between all the mods in this install, rebuilding it if the mods changed.
+     */
+    public ModGraph getModGraph() {
+        if (modGraph == null || !modGraph.isFor(allMods)) {
+            modGraph = new ModGraph(allMods);
         }
-        return true; // No other recommended mods found in the group
+
+        return modGraph;
+    }
+
+    public boolean isOnlyRecommendedInGroup(Mod mod) {
+        return getModGraph().isOnlyRecommendedInGroup(mod);
     }
 
     public Mod getModByName(String name) {
-        for (Mod mod : allMods) {
-            if (mod.getName().equalsIgnoreCase(name)) {
-                return mod;
-            }
-        }
-        return null;
+        return getModGraph().getModByName(name);
     }
 
     public List<Mod> getLinkedMods(Mod mod) {
-        List<Mod> linkedMods = new ArrayList<>();
-        for (Mod modd : allMods) {
-            if (!modd.hasLinked()) {
-                continue;
-            }
-            if (modd.getLinked().equalsIgnoreCase(mod.getName())) {
-                linkedMods.add(modd);
-            }
-        }
-        return linkedMods;
+        return getModGraph().getLinkedMods(mod);
     }
 
     public List<Mod> getGroupedMods(Mod mod) {
-        List<Mod> groupedMods = new ArrayList<>();
-        for (Mod modd : allMods) {
-            if (!modd.hasGroup()) {
-                continue;
-            }
-            if (modd.getGroup().equalsIgnoreCase(mod.getGroup())) {
-                if (modd != mod) {
-                    groupedMods.add(modd);
-                }
-            }
-        }
-        return groupedMods;
+        return getModGraph().getGroupedMods(mod);
     }
 
     public List<Mod> getModsDependancies(Mod mod) {
-        List<Mod> dependsMods = new ArrayList<>();
-        for (String name : mod.getDepends()) {
-            inner: {
-                for (Mod modd : allMods) {
-                    if (modd.getName().equalsIgnoreCase(name)) {
-                        dependsMods.add(modd);
-                        break inner;
-                    }
-                }
-            }
-        }
-        return dependsMods;
+        return getModGraph().getDependencies(mod);
     }
 
     public List<Mod> dependedMods(Mod mod) {
-        List<Mod> dependedMods = new ArrayList<>();
-        for (Mod modd : allMods) {
-            if (!modd.hasDepends()) {
-                continue;
-            }
-            if (modd.isADependancy(mod)) {
-                dependedMods.add(modd);
-            }
-        }
-        return dependedMods;
+        return getModGraph().getDependants(mod);
     }
 
     public boolean hasADependancy(Mod mod) {
-        for (Mod modd : allMods) {
-            if (!modd.hasDepends()) {
-                continue;
-            }
-            if (modd.isADependancy(mod)) {
-                return true;
-            }
-        }
-        return false;
+        return getModGraph().hasDependants(mod);
     }
 
     public boolean wasModInstalled(String mod) {
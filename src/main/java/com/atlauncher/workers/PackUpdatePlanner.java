@@ -0,0 +1,322 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.atlauncher.data.DisableableMod;
+import com.atlauncher.data.Type;
+import com.atlauncher.data.json.Mod;
+import com.atlauncher.data.json.ModType;
+import com.atlauncher.managers.LogManager;
+import com.atlauncher.utils.FileUtils;
+import com.atlauncher.utils.Hashing;
+import com.atlauncher.utils.Pair;
+
+/**
+ * Works out the minimal set of changes needed to move an installed instance's mods over to a new pack version, so
+ * that updates and reinstalls only touch the mods which actually changed instead of deleting and recopying every
+ * mod in the pack.
+ *
+ * Anything removed or overwritten is moved into a backup directory first so the changes can be rolled back if the
+ * install fails part way through.
+ */
+public class PackUpdatePlanner {
+    private final InstanceInstaller installer;
+    private final Path backupDirectory;
+
+    public final List<Mod> additions = new ArrayList<>();
+    public final List<Mod> unchanged = new ArrayList<>();
+    public final List<Pair<DisableableMod, Mod>> replacements = new ArrayList<>();
+    public final List<DisableableMod> removals = new ArrayList<>();
+
+    private final Set<Mod> unchangedLookup = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<Pair<Path, Path>> backedUpFiles = new ArrayList<>();
+    private final List<Path> createdFiles = new ArrayList<>();
+    private int overridesCopied = 0;
+    private int overridesSkipped = 0;
+
+    private PackUpdatePlanner(InstanceInstaller installer) {
+        this.installer = installer;
+        this.backupDirectory = installer.temp.resolve("update-backup");
+    }
+
+    /**
+     * Checks if the given install can be done as a delta against what's already installed. Server installs, loader
+     * changes and packs with actions or case conversion still go through a full reinstall since those can touch
+     * files in ways we can't diff up front.
+     */
+    public static boolean canPlan(InstanceInstaller installer) {
+        return installer.isReinstall && !installer.isServer && !installer.changingLoader
+                && installer.instance != null && installer.instance.launcher.mods != null
+                && installer.multiMCManifest == null && installer.technicModpack == null
+                && installer.packVersion.caseAllFiles == null && !installer.packVersion.hasActions();
+    }
+
+    public static PackUpdatePlanner plan(InstanceInstaller installer) {
+        PackUpdatePlanner planner = new PackUpdatePlanner(installer);
+        planner.calculate();
+        return planner;
+    }
+
+    private void calculate() {
+        List<DisableableMod> installedMods = installer.instance.launcher.mods.stream()
+                .filter(dm -> !dm.userAdded && !dm.disabled && isPlannedType(dm.type)).collect(Collectors.toList());
+        Map<File, DisableableMod> installedByFile = new HashMap<>();
+        for (DisableableMod dm : installedMods) {
+            File existing = dm.getFile(installer.root, installer.packVersion.minecraft);
+
+            if (existing != null) {
+                installedByFile.putIfAbsent(existing, dm);
+            }
+        }
+
+        Map<DisableableMod, Boolean> matched = new IdentityHashMap<>();
+
+        List<Mod> targetMods = installer.selectedMods.stream().filter(mod -> isPlannedType(mod.type))
+                .collect(Collectors.toList());
+
+        for (Mod mod : targetMods) {
+            File target = mod.getInstalledFile(installer);
+
+            if (target == null || !target.exists()) {
+                continue;
+            }
+
+            DisableableMod dm = installedByFile.get(target);
+            if (dm != null && !matched.containsKey(dm) && isSameFile(mod, dm, target.toPath())) {
+                matched.put(dm, true);
+                unchanged.add(mod);
+                unchangedLookup.add(mod);
+            }
+        }
+
+        removals.addAll(
+                installedMods.stream().filter(dm -> !matched.containsKey(dm)).collect(Collectors.toList()));
+
+        for (Mod mod : targetMods) {
+            if (unchangedLookup.contains(mod)) {
+                continue;
+            }
+
+            DisableableMod replaced = removals.stream().filter(dm -> isSameProject(mod, dm)).findFirst()
+                    .orElse(null);
+
+            if (replaced != null) {
+                replacements.add(new Pair<>(replaced, mod));
+            } else {
+                additions.add(mod);
+            }
+        }
+
+        LogManager.info(String.format(Locale.ENGLISH,
+                "Update plan for %s: %d unchanged, %d added, %d replaced, %d removed", installer.name,
+                unchanged.size(), additions.size(), replacements.size(),
+                removals.size() - replacements.size()));
+    }
+
+    private static boolean isPlannedType(Type type) {
+        return type == Type.mods || type == Type.coremods;
+    }
+
+    private static boolean isPlannedType(ModType type) {
+        return type == ModType.mods || type == ModType.coremods;
+    }
+
+    private static boolean isSameFile(Mod mod, DisableableMod dm, Path existing) {
+        try {
+            if (mod.md5 != null) {
+                return Hashing.md5(existing).equals(Hashing.toHashCode(mod.md5));
+            }
+
+            if (mod.sha1 != null) {
+                return Hashing.sha1(existing).equals(Hashing.toHashCode(mod.sha1));
+            }
+
+            if (mod.sha512 != null) {
+                return Hashing.sha512(existing).equals(Hashing.toHashCode(mod.sha512));
+            }
+
+            if (mod.fingerprint != null) {
+                return Hashing.murmur(existing) == mod.fingerprint;
+            }
+        } catch (IOException e) {
+            LogManager.logStackTrace("Error hashing " + existing + " while planning update", e);
+            return false;
+        }
+
+        if (mod.curseForgeFileId != null && mod.curseForgeFileId.equals(dm.curseForgeFileId)) {
+            return true;
+        }
+
+        return mod.modrinthVersion != null && dm.modrinthVersion != null
+                && mod.modrinthVersion.id.equals(dm.modrinthVersion.id);
+    }
+
+    private static boolean isSameProject(Mod mod, DisableableMod dm) {
+        if (mod.curseForgeProjectId != null && mod.curseForgeProjectId.equals(dm.curseForgeProjectId)) {
+            return true;
+        }
+
+        if (mod.modrinthProject != null && dm.modrinthProject != null
+                && mod.modrinthProject.id.equals(dm.modrinthProject.id)) {
+            return true;
+        }
+
+        return mod.name != null && mod.name.equalsIgnoreCase(dm.name);
+    }
+
+    public boolean isUnchanged(Mod mod) {
+        return unchangedLookup.contains(mod);
+    }
+
+    /**
+     * Filters the given mods down to only those which need to be downloaded and installed.
+     */
+    public List<Mod> getModsToInstall(List<Mod> mods) {
+        return mods.stream().filter(mod -> !isUnchanged(mod)).collect(Collectors.toList());
+    }
+
+    /**
+     * Moves the removed and replaced mods out of the instance and into the backup directory, and records which files
+     * the added and replaced mods are about to be written to so a rollback only deletes what the update created.
+     */
+    public void apply() throws IOException {
+        for (DisableableMod dm : removals) {
+            File file = dm.getFile(installer.root, installer.packVersion.minecraft);
+
+            if (file != null && file.exists()) {
+                backup(file.toPath());
+            }
+        }
+
+        List<Mod> toWrite = Stream.concat(additions.stream(), replacements.stream().map(Pair::right))
+                .collect(Collectors.toList());
+
+        for (Mod mod : toWrite) {
+            File target = mod.getInstalledFile(installer);
+
+            if (target == null) {
+                continue;
+            }
+
+            // anything already sitting where the mod is going to be written isn't ours, so keep it safe
+            if (target.exists()) {
+                backup(target.toPath());
+            }
+
+            createdFiles.add(target.toPath());
+        }
+    }
+
+    /**
+     * Copies the files in the given overrides directory into the instance, skipping any files which are already there
+     * with the same contents.
+     */
+    public void copyChangedOverrides(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return;
+        }
+
+        try (Stream<Path> stream = Files.walk(from)) {
+            for (Path source : (Iterable<Path>) stream.filter(Files::isRegularFile)::iterator) {
+                Path target = to.resolve(from.relativize(source).toString());
+
+                if (!target.toAbsolutePath().normalize().startsWith(to.toAbsolutePath().normalize())) {
+                    LogManager.warn("Not copying " + source + " as it would be outside of " + to);
+                    continue;
+                }
+
+                if (!Files.exists(target)) {
+                    FileUtils.createDirectory(target.getParent());
+                    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+                    createdFiles.add(target);
+                    overridesCopied++;
+                } else if (Files.size(source) != Files.size(target)
+                        || !Hashing.sha1(source).equals(Hashing.sha1(target))) {
+                    backup(target);
+                    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+                    overridesCopied++;
+                } else {
+                    overridesSkipped++;
+                }
+            }
+        }
+
+        LogManager.debug(String.format(Locale.ENGLISH, "Copied %d changed override files and skipped %d unchanged",
+                overridesCopied, overridesSkipped));
+    }
+
+    private void backup(Path file) throws IOException {
+        Path backup = backupDirectory.resolve(installer.root.relativize(file).toString());
+
+        FileUtils.createDirectory(backup.getParent());
+        Files.move(file, backup, StandardCopyOption.REPLACE_EXISTING);
+        backedUpFiles.add(new Pair<>(file, backup));
+    }
+
+    /**
+     * Puts the instance's mods back to how they were before the plan was applied.
+     */
+    public void rollback() {
+        LogManager.warn("Rolling back update of " + installer.name);
+
+        for (Path path : new HashSet<>(createdFiles)) {
+            if (Files.exists(path)) {
+                FileUtils.delete(path);
+            }
+        }
+
+        for (Pair<Path, Path> backedUpFile : backedUpFiles) {
+            try {
+                FileUtils.createDirectory(backedUpFile.left().getParent());
+                Files.move(backedUpFile.right(), backedUpFile.left(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                LogManager.logStackTrace("Failed to restore " + backedUpFile.left() + " during rollback", e);
+            }
+        }
+
+        backedUpFiles.clear();
+        createdFiles.clear();
+        FileUtils.deleteDirectoryQuietly(backupDirectory);
+    }
+
+    /**
+     * Marks the plan as successfully applied and removes the backups.
+     */
+    public void commit() {
+        backedUpFiles.clear();
+        createdFiles.clear();
+        FileUtils.deleteDirectoryQuietly(backupDirectory);
+    }
+}
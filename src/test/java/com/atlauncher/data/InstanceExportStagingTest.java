@@ -0,0 +1,160 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class InstanceExportStagingTest {
+    @TempDir
+    Path tempDir;
+
+    private Path stagingRoot;
+    private Path instanceRoot;
+    private Path to;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        stagingRoot = tempDir.resolve("staging");
+        instanceRoot = tempDir.resolve("instance");
+        to = tempDir.resolve("export.zip");
+
+        write("config/first.cfg", "first");
+        write("mods/kept.jar", "kept");
+        write("mods/excluded.jar", "excluded");
+        write("mods/.DS_Store", "junk");
+    }
+
+    @Test
+    public void testAddsRemovesAndExcludesOverrides() throws IOException {
+        Predicate<Path> exclude = path -> path.getFileName().toString().equals("excluded.jar");
+
+        export("{}", exclude);
+        assertEquals(Arrays.asList("manifest.json", "overrides/config/first.cfg", "overrides/mods/kept.jar"),
+                Arrays.asList(readZip().keySet().toArray()));
+
+        Files.delete(instanceRoot.resolve("config/first.cfg"));
+        write("config/second.cfg", "second");
+
+        export("{}", exclude);
+        Map<String, String> entries = readZip();
+        assertEquals(Arrays.asList("manifest.json", "overrides/config/second.cfg", "overrides/mods/kept.jar"),
+                Arrays.asList(entries.keySet().toArray()));
+        assertEquals("second", entries.get("overrides/config/second.cfg"));
+
+        // no longer excluded, so it's added to the next export
+        export("{}", path -> false);
+        assertEquals("excluded", readZip().get("overrides/mods/excluded.jar"));
+    }
+
+    @Test
+    public void testReusesEntriesForUnchangedOverrides() throws IOException {
+        export("{}", path -> false);
+
+        // same size and modified time, so it's taken to be unchanged and the entry from the last export is reused
+        rewriteKeepingStamp(instanceRoot.resolve("mods/kept.jar"), "KEPT");
+        write("config/first.cfg", "changed");
+
+        export("{}", path -> false);
+        Map<String, String> entries = readZip();
+        assertEquals("kept", entries.get("overrides/mods/kept.jar"));
+        assertEquals("changed", entries.get("overrides/config/first.cfg"));
+    }
+
+    @Test
+    public void testAlwaysCompressesGeneratedFiles() throws IOException {
+        export("{\"a\":1}", path -> false);
+        export("{\"a\":2}", path -> false);
+
+        assertEquals("{\"a\":2}", readZip().get("manifest.json"));
+    }
+
+    @Test
+    public void testZipsFromScratchWhenLastExportIsUnreadable() throws IOException {
+        export("{}", path -> false);
+
+        rewriteKeepingStamp(to, new String(new char[(int) Files.size(to)]).replace('\0', 'x'));
+        rewriteKeepingStamp(instanceRoot.resolve("mods/kept.jar"), "KEPT");
+
+        export("{}", path -> false);
+        Map<String, String> entries = readZip();
+        assertEquals("KEPT", entries.get("overrides/mods/kept.jar"));
+        assertEquals("first", entries.get("overrides/config/first.cfg"));
+    }
+
+    private void export(String manifest, Predicate<Path> exclude) throws IOException {
+        InstanceExportStaging staging = new InstanceExportStaging(stagingRoot, instanceRoot);
+
+        Path generated = staging.prepare("curseforge");
+        Files.write(generated.resolve("manifest.json"), manifest.getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(staging.createZip("curseforge", generated, "overrides",
+                staging.listOverrides(Arrays.asList("config", "mods"), exclude), to));
+        staging.save();
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = instanceRoot.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void rewriteKeepingStamp(Path file, String content) throws IOException {
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, lastModified);
+    }
+
+    private Map<String, String> readZip() throws IOException {
+        Map<String, String> entries = new TreeMap<>();
+
+        try (ZipFile zip = new ZipFile(to.toFile())) {
+            for (ZipEntry entry : zip.stream().toArray(ZipEntry[]::new)) {
+                try (InputStream in = zip.getInputStream(entry)) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                    entries.put(entry.getName(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return entries;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class ResourceUsageTest {
+    private static ResourceUsage usage(int duration, long peakMemory, int maximumMemory) {
+        ResourceUsage usage = new ResourceUsage();
+        usage.duration = duration;
+        usage.peakMemory = peakMemory;
+        usage.maximumMemory = maximumMemory;
+        return usage;
+    }
+
+    @Test
+    public void testThatNoRecommendationIsMadeWithoutLongEnoughSessions() {
+        assertNull(ResourceUsage.getRecommendedMaximumMemory(null, null, 0));
+        assertNull(ResourceUsage.getRecommendedMaximumMemory(new ArrayList<>(), null, 0));
+        assertNull(ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(10, 6000, 8192)), null, 0));
+    }
+
+    @Test
+    public void testThatRecommendationIsBasedOnThePeakOfLongSessions() {
+        assertEquals(4096, ResourceUsage.getRecommendedMaximumMemory(
+                Arrays.asList(usage(600, 3000, 6144), usage(1200, 3900, 6144), usage(5, 9000, 6144)), null, 0));
+    }
+
+    @Test
+    public void testThatPeakMemoryNeverRecommendsMoreThanTheMaximumUsed() {
+        // peak memory near the maximum given doesn't mean more is needed, so the recommendation doesn't keep growing
+        assertEquals(4096,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 4800, 4096)), null, 0));
+        assertEquals(2048,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 2000, 4096)), null, 0));
+    }
+
+    @Test
+    public void testThatRecommendationIsRoundedAndLimited() {
+        assertEquals(1024,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 300, 2048)), null, 0));
+        assertEquals(4096,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 8000, 8192)), null, 4096));
+    }
+
+    @Test
+    public void testThatRecommendationPrefersTheHeapLeftAfterGc() {
+        GcSummary gcSummary = new GcSummary();
+        gcSummary.runtime = 600;
+        gcSummary.peakHeapAfterGc = 2000;
+
+        assertEquals(3584,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 8000, 8192)), gcSummary, 0));
+
+        // the heap after GCs can show more is needed than the maximum used, unlike the peak memory
+        gcSummary.peakHeapAfterGc = 3000;
+        assertEquals(5632,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 4000, 4096)), gcSummary, 0));
+
+        gcSummary.runtime = 10;
+        assertEquals(8192,
+                ResourceUsage.getRecommendedMaximumMemory(Arrays.asList(usage(600, 8000, 8192)), gcSummary, 0));
+    }
+}
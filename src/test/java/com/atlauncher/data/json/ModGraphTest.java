@@ -0,0 +1,95 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ModGraphTest {
+    private static Mod mod(String name, String group, String linked, String... depends) {
+        Mod mod = new Mod();
+        mod.name = name;
+        mod.group = group;
+        mod.linked = linked;
+        mod.depends = depends.length == 0 ? null : Arrays.asList(depends);
+        return mod;
+    }
+
+    @Test
+    public void testGetModByName() {
+        Mod first = mod("JEI", null, null);
+        Mod second = mod("jei", null, null);
+        ModGraph graph = new ModGraph(Arrays.asList(first, second));
+
+        assertSame(first, graph.getModByName("jEi"));
+        assertNull(graph.getModByName("REI"));
+    }
+
+    @Test
+    public void testGetGroupedMods() {
+        Mod optifine = mod("OptiFine", "Shaders", null);
+        Mod iris = mod("Iris", "shaders", null);
+        Mod sodium = mod("Sodium", null, null);
+        ModGraph graph = new ModGraph(Arrays.asList(optifine, iris, sodium));
+
+        assertEquals(Collections.singletonList(iris), graph.getGroupedMods(optifine));
+        assertTrue(graph.getGroupedMods(sodium).isEmpty());
+        assertFalse(graph.isOnlyRecommendedInGroup(optifine));
+
+        iris.recommended = false;
+        assertTrue(graph.isOnlyRecommendedInGroup(optifine));
+    }
+
+    @Test
+    public void testGetLinkedMods() {
+        Mod parent = mod("Parent", null, null);
+        Mod child = mod("Child", null, "PARENT");
+        ModGraph graph = new ModGraph(Arrays.asList(parent, child));
+
+        assertEquals(Collections.singletonList(child), graph.getLinkedMods(parent));
+        assertTrue(graph.getLinkedMods(child).isEmpty());
+    }
+
+    @Test
+    public void testThatDependenciesAndDependantsAreFoundTransitively() {
+        Mod library = mod("Library", null, null);
+        Mod api = mod("API", null, null, "library");
+        Mod addon = mod("Addon", null, null, "api", "Library");
+        Mod missing = mod("Missing", null, null, "doesnotexist");
+        ModGraph graph = new ModGraph(Arrays.asList(library, api, addon, missing));
+
+        assertEquals(Arrays.asList(api, library), graph.getDependencies(addon));
+        assertTrue(graph.getDependencies(missing).isEmpty());
+        assertEquals(Arrays.asList(api, addon), graph.getDependants(library));
+        assertTrue(graph.hasDependants(api));
+        assertFalse(graph.hasDependants(addon));
+
+        List<Mod> allDependants = graph.getAllDependants(library);
+        assertEquals(Arrays.asList(api, addon), allDependants);
+        assertEquals(Arrays.asList(api, library), graph.getAllDependencies(addon));
+    }
+}
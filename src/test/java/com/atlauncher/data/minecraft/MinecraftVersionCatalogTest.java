@@ -0,0 +1,89 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.data.minecraft;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MinecraftVersionCatalogTest {
+    private MinecraftVersionCatalog catalog;
+
+    private static VersionManifestVersion version(String id, VersionManifestVersionType type, String releaseTime) {
+        VersionManifestVersion version = new VersionManifestVersion();
+        version.id = id;
+        version.type = type;
+        version.releaseTime = releaseTime;
+        return version;
+    }
+
+    private static List<String> ids(List<VersionManifestVersion> versions) {
+        return versions.stream().map(mv -> mv.id).collect(Collectors.toList());
+    }
+
+    @BeforeEach
+    public void initialize() {
+        catalog = new MinecraftVersionCatalog(Arrays.asList(
+                version("1.19", VersionManifestVersionType.RELEASE, "2022-06-07T09:42:18+00:00"),
+                version("1.1", VersionManifestVersionType.RELEASE, "2012-01-12T22:00:00+00:00"),
+                version("1.19.2", VersionManifestVersionType.RELEASE, "2022-08-05T11:57:05+00:00"),
+                version("22w42a", VersionManifestVersionType.SNAPSHOT, "2022-10-19T09:32:07+00:00"),
+                version("1.19.1", VersionManifestVersionType.RELEASE, "2022-07-27T09:25:33+00:00"),
+                version("1.12.2", VersionManifestVersionType.RELEASE, "2017-09-18T08:39:46+00:00")),
+                Collections.singletonList("1.19.1"));
+    }
+
+    @Test
+    public void testEnabledVersionsAreSortedNewestFirstWithoutDisabledVersions() {
+        assertEquals(Arrays.asList("22w42a", "1.19.2", "1.19", "1.12.2", "1.1"), ids(catalog.getEnabledVersions()));
+        assertEquals(Arrays.asList("1.19.2", "1.19", "1.12.2", "1.1"),
+                ids(catalog.getEnabledVersions(VersionManifestVersionType.RELEASE)));
+        assertEquals(Arrays.asList("22w42a", "1.19.2", "1.19", "1.12.2", "1.1"), ids(catalog.getEnabledVersions(
+                Arrays.asList(VersionManifestVersionType.SNAPSHOT, VersionManifestVersionType.RELEASE))));
+        assertTrue(catalog.getEnabledVersions(VersionManifestVersionType.OLD_ALPHA).isEmpty());
+    }
+
+    @Test
+    public void testDisabledVersionsCanStillBeLookedUp() {
+        assertTrue(catalog.isDisabled("1.19.1"));
+        assertTrue(catalog.contains("1.19.1"));
+        assertEquals("1.19.1", catalog.get("1.19.1").id);
+        assertFalse(catalog.contains("1.20"));
+    }
+
+    @Test
+    public void testMajorReleases() {
+        assertEquals(Arrays.asList("1.19.2", "1.19.1", "1.19"), ids(catalog.getMajorReleases("1.19")));
+        assertEquals(Arrays.asList("1.19.2", "1.19.1", "1.19"), ids(catalog.getMajorReleases("1.19.2")));
+        assertEquals(Arrays.asList("1.12.2"), ids(catalog.getMajorReleases("1.12.2")));
+        assertEquals(Arrays.asList("1.1"), ids(catalog.getMajorReleases("1.1")));
+    }
+
+    @Test
+    public void testReleaseTime() {
+        assertEquals(1505723986000L, catalog.getReleaseTime(catalog.get("1.12.2")));
+    }
+}
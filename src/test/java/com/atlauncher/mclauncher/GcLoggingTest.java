@@ -0,0 +1,79 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.atlauncher.App;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.InstanceLauncher;
+import com.atlauncher.data.Settings;
+
+public class GcLoggingTest {
+    @TempDir
+    Path root;
+
+    private Instance instance;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        if (App.settings == null) {
+            App.settings = new Settings();
+        }
+
+        instance = mock(Instance.class);
+        when(instance.getRoot()).thenReturn(root);
+        instance.launcher = new InstanceLauncher();
+        instance.launcher.enableGcLogging = true;
+
+        Files.createDirectories(root.resolve("logs"));
+        Files.write(root.resolve("logs/gc.log"),
+                "[0.100s][info][gc] GC(0) Pause Young".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("logs/gc.log.0"), new byte[0]);
+    }
+
+    @Test
+    public void testThatLogsFromTheLastSessionAreClearedWhenTheJavaArgumentsSetUpGcLogging() {
+        assertTrue(GcLogging.getArguments(instance, "java", "-Xlog:gc:file=gc.txt").isEmpty());
+
+        assertFalse(Files.exists(root.resolve("logs/gc.log")));
+        assertFalse(Files.exists(root.resolve("logs/gc.log.0")));
+        assertNull(GcLogging.analyse(instance));
+    }
+
+    @Test
+    public void testThatLogsAreLeftAloneWhenDisabled() {
+        instance.launcher.enableGcLogging = false;
+
+        assertTrue(GcLogging.getArguments(instance, "java", "").isEmpty());
+        assertTrue(Files.exists(root.resolve("logs/gc.log")));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.mclauncher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.atlauncher.data.JvmTuningProfile;
+
+public class JvmTuningTest {
+    private static final String JAVA_17_OUTPUT = String.join("\n",
+            "[Global flags]",
+            "     bool DisableExplicitGC                        = false                                     {product} {default}",
+            "    uintx G1NewSizePercent                         = 5                                      {experimental} {default}",
+            "   size_t G1HeapRegionSize                         = 0                                         {product} {default}",
+            "    uintx G1ReservePercent                         = 10                                        {product} {default}",
+            "    uintx MaxGCPauseMillis                         = 200                                       {product} {default}",
+            "     bool ParallelRefProcEnabled                   = false                                     {product} {default}",
+            "     uint ParallelGCThreads                        = 8                                         {product} {default}",
+            "   size_t ReservedCodeCacheSize                    = 251658240                              {pd product} {ergonomic}",
+            "     bool UseG1GC                                  = true                                      {product} {ergonomic}",
+            "     bool UseParallelGC                            = false                                     {product} {default}",
+            "     bool UseZGC                                   = false                                     {product} {default}",
+            "openjdk version \"17.0.8\" 2023-07-18",
+            "OpenJDK Runtime Environment Temurin-17.0.8+7 (build 17.0.8+7)");
+
+    @Test
+    public void testThatPrintFlagsFinalOutputIsParsed() {
+        JvmTuning.SupportedFlags supported = JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT);
+
+        assertNotNull(supported);
+        assertEquals(17, supported.javaVersion);
+        assertTrue(supported.supports("UseZGC"));
+        assertFalse(supported.supports("UseShenandoahGC"));
+        assertTrue(supported.isExperimental("G1NewSizePercent"));
+        assertFalse(supported.isExperimental("UseG1GC"));
+    }
+
+    @Test
+    public void testThatFailedProbeOutputIsNotParsed() {
+        assertNull(JvmTuning.parseSupportedFlags(""));
+        assertNull(JvmTuning.parseSupportedFlags("Error: Could not create the Java Virtual Machine."));
+    }
+
+    @Test
+    public void testThatG1RegionSizeIsAPowerOfTwoBetween1And32() {
+        assertEquals(1, JvmTuning.getG1RegionSize(1024));
+        assertEquals(2, JvmTuning.getG1RegionSize(4096));
+        assertEquals(4, JvmTuning.getG1RegionSize(8192));
+        assertEquals(8, JvmTuning.getG1RegionSize(16384));
+        assertEquals(32, JvmTuning.getG1RegionSize(131072));
+    }
+
+    @Test
+    public void testThatUnsupportedFlagsAreDropped() {
+        Map<String, Boolean> flags = new HashMap<>();
+        flags.put("UseG1GC", false);
+        flags.put("MaxGCPauseMillis", false);
+
+        List<String> arguments = JvmTuning.getFlags(JvmTuningProfile.BALANCED,
+                new JvmTuning.SupportedFlags(8, flags), 4096, 8, 16384);
+
+        assertEquals(2, arguments.size());
+        assertEquals("-XX:+UseG1GC", arguments.get(0));
+        assertEquals("-XX:MaxGCPauseMillis=50", arguments.get(1));
+    }
+
+    @Test
+    public void testThatExperimentalFlagsAreUnlocked() {
+        List<String> arguments = JvmTuning.getFlags(JvmTuningProfile.BALANCED,
+                JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT), 8192, 8, 16384);
+
+        assertEquals("-XX:+UnlockExperimentalVMOptions", arguments.get(0));
+        assertTrue(arguments.contains("-XX:G1NewSizePercent=30"));
+        assertTrue(arguments.contains("-XX:G1HeapRegionSize=4M"));
+        assertTrue(arguments.contains("-XX:ReservedCodeCacheSize=400M"));
+    }
+
+    @Test
+    public void testThatLowLatencyOnlyUsesZgcWhenSuitable() {
+        JvmTuning.SupportedFlags supported = JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT);
+
+        assertTrue(JvmTuning.getFlags(JvmTuningProfile.LOW_LATENCY, supported, 8192, 8, 16384)
+                .contains("-XX:+UseZGC"));
+        assertTrue(JvmTuning.getFlags(JvmTuningProfile.LOW_LATENCY, supported, 2048, 8, 16384)
+                .contains("-XX:+UseG1GC"));
+        assertTrue(JvmTuning.getFlags(JvmTuningProfile.LOW_LATENCY, supported, 8192, 2, 16384)
+                .contains("-XX:+UseG1GC"));
+    }
+
+    @Test
+    public void testThatLowLatencyG1FallbackDoesNotRepeatFlags() {
+        List<String> arguments = JvmTuning.getFlags(JvmTuningProfile.LOW_LATENCY,
+                JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT), 2048, 8, 16384);
+
+        assertEquals(arguments.size(), new HashSet<>(arguments).size());
+        assertTrue(arguments.contains("-XX:+DisableExplicitGC"));
+    }
+
+    @Test
+    public void testThatConflictingJavaArgumentsAreRemoved() {
+        JvmTuning.SupportedFlags supported = JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT);
+        List<String> g1Arguments = JvmTuning.getFlags(JvmTuningProfile.BALANCED, supported, 4096, 8, 16384);
+
+        assertEquals("-XX:+UnlockExperimentalVMOptions -Dfoo=bar", JvmTuning.removeConflictingArguments(
+                "-XX:+UnlockExperimentalVMOptions -XX:+UseZGC -XX:G1NewSizePercent=20 -XX:G1ReservePercent=20 "
+                        + "-XX:MaxGCPauseMillis=50 -XX:G1HeapRegionSize=32M -Dfoo=bar",
+                g1Arguments));
+        assertEquals("", JvmTuning.removeConflictingArguments("-XX:+UseZGC -XX:+ZGenerational",
+                Arrays.asList("-XX:+UseZGC", "-XX:+ZGenerational", "-XX:+DisableExplicitGC")));
+    }
+
+    @Test
+    public void testThatOnlyArgumentsTheProfileSetsAreRemoved() {
+        JvmTuning.SupportedFlags supported = JvmTuning.parseSupportedFlags(JAVA_17_OUTPUT);
+
+        assertEquals("-XX:ReservedCodeCacheSize=256M", JvmTuning.removeConflictingArguments(
+                "-XX:+UseG1GC -XX:ReservedCodeCacheSize=256M",
+                JvmTuning.getFlags(JvmTuningProfile.BALANCED, supported, 4096, 8, 16384)));
+        assertEquals("", JvmTuning.removeConflictingArguments("-XX:+UseG1GC -XX:ReservedCodeCacheSize=256M",
+                JvmTuning.getFlags(JvmTuningProfile.BALANCED, supported, 8192, 8, 16384)));
+        assertEquals("-XX:MaxGCPauseMillis=100", JvmTuning.removeConflictingArguments(
+                "-XX:+UseG1GC -XX:MaxGCPauseMillis=100",
+                JvmTuning.getFlags(JvmTuningProfile.THROUGHPUT, supported, 4096, 8, 16384)));
+    }
+}
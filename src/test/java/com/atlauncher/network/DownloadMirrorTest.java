@@ -0,0 +1,170 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.atlauncher.App;
+import com.atlauncher.data.Settings;
+import com.atlauncher.utils.Hashing;
+
+import net.freeutils.httpserver.HTTPServer;
+
+public class DownloadMirrorTest {
+    private static final String CONTENT = "some file served by the origin";
+
+    @TempDir
+    Path downloadDir;
+
+    private final AtomicInteger originRequests = new AtomicInteger();
+    private final AtomicInteger mirrorRequests = new AtomicInteger();
+    private HTTPServer origin;
+    private HTTPServer mirror;
+    private int originPort;
+    private int mirrorStatus;
+    private String mirrorContent;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        if (App.settings == null) {
+            App.settings = new Settings();
+        }
+
+        originPort = getFreePort();
+        origin = new HTTPServer(originPort);
+        origin.getVirtualHost(null).addContext("/file", (req, res) -> {
+            originRequests.incrementAndGet();
+            res.send(200, CONTENT);
+            return 0;
+        });
+        origin.start();
+
+        int mirrorPort = getFreePort();
+        mirror = new HTTPServer(mirrorPort);
+        mirror.getVirtualHost(null).addContext("/", (req, res) -> {
+            mirrorRequests.incrementAndGet();
+            res.send(mirrorStatus, mirrorContent);
+            return 0;
+        });
+        mirror.start();
+
+        App.downloadMirror = "http://127.0.0.1:" + mirrorPort + "/";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        App.downloadMirror = null;
+        mirror.stop();
+        origin.stop();
+    }
+
+    @Test
+    public void testUsesFileFromMirrorWithTheExpectedHash() throws IOException {
+        mirrorStatus = 200;
+        mirrorContent = CONTENT;
+
+        Path file = download(sha1(CONTENT));
+
+        assertEquals(CONTENT, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(1, mirrorRequests.get());
+        assertEquals(0, originRequests.get());
+    }
+
+    @Test
+    public void testFallsBackToOriginWhenMirrorReturnsWrongBytes() throws IOException {
+        mirrorStatus = 200;
+        mirrorContent = "not the file that was asked for";
+
+        Path file = download(sha1(CONTENT));
+
+        assertEquals(CONTENT, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(1, mirrorRequests.get());
+        assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    public void testFallsBackToOriginWhenMirrorFails() throws IOException {
+        mirrorStatus = 502;
+        mirrorContent = "";
+
+        Path file = download(sha1(CONTENT));
+
+        assertEquals(CONTENT, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(1, mirrorRequests.get());
+        assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    public void testOnlyStrongHashesAreLookedUp() {
+        String originUrl = "http://127.0.0.1:" + originPort + "/file";
+
+        assertNotNull(DownloadMirror.getUrl(sha1(CONTENT), originUrl));
+        assertNull(DownloadMirror.getUrl(
+                com.google.common.hash.Hashing.md5().hashString(CONTENT, StandardCharsets.UTF_8).toString(),
+                originUrl));
+        assertNull(DownloadMirror.getHashType("murmur", "12345"));
+    }
+
+    @Test
+    public void testSkipsMirrorForFingerprintOnlyDownloads() throws IOException {
+        mirrorStatus = 200;
+        mirrorContent = CONTENT;
+
+        Path expected = Files.write(downloadDir.resolve("expected"), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        Download.build().setUrl("http://127.0.0.1:" + originPort + "/file")
+                .downloadTo(downloadDir.resolve("fingerprinted")).fingerprint(Hashing.murmur(expected))
+                .downloadFile();
+
+        assertEquals(0, mirrorRequests.get());
+        assertEquals(1, originRequests.get());
+    }
+
+    private Path download(String sha1) throws IOException {
+        Path file = downloadDir.resolve("file");
+
+        Download.build().setUrl("http://127.0.0.1:" + originPort + "/file").downloadTo(file).hash(sha1)
+                .downloadFile();
+
+        return file;
+    }
+
+    private static String sha1(String content) {
+        return com.google.common.hash.Hashing.sha1().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.network;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.atlauncher.utils.Hashing;
+
+import net.freeutils.httpserver.HTTPServer;
+import okhttp3.OkHttpClient;
+
+public class MirrorServerTest {
+    private static final String CONTENT = "some file served by the origin";
+
+    @TempDir
+    Path cacheDir;
+
+    private final AtomicInteger originRequests = new AtomicInteger();
+    private HTTPServer origin;
+    private MirrorServer mirror;
+    private int originPort;
+    private int mirrorPort;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        originPort = getFreePort();
+        origin = new HTTPServer(originPort);
+        origin.getVirtualHost(null).addContext("/file", (req, res) -> {
+            originRequests.incrementAndGet();
+            res.send(200, CONTENT);
+            return 0;
+        });
+        origin.start();
+
+        mirrorPort = getFreePort();
+        mirror = new MirrorServer(mirrorPort, cacheDir, Collections.singleton("127.0.0.1"), OkHttpClient::new);
+        mirror.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mirror.stop();
+        origin.stop();
+    }
+
+    @Test
+    public void testFillsCacheOnMissAndServesHitsFromCache() throws IOException {
+        String sha1 = sha1(CONTENT);
+
+        Response miss = get("sha1", sha1, "http://127.0.0.1:" + originPort + "/file");
+        assertEquals(200, miss.code);
+        assertEquals(CONTENT, miss.body);
+        assertEquals(1, originRequests.get());
+        assertTrue(Files.isRegularFile(mirror.getFile(Hashing.HashType.SHA1, sha1)));
+
+        Response hit = get("sha1", sha1, "http://127.0.0.1:" + originPort + "/file");
+        assertEquals(200, hit.code);
+        assertEquals(CONTENT, hit.body);
+        assertEquals(1, originRequests.get());
+    }
+
+    @Test
+    public void testDoesNotStoreFileWithWrongHash() throws IOException {
+        String sha1 = sha1("something else entirely");
+
+        Response response = get("sha1", sha1, "http://127.0.0.1:" + originPort + "/file");
+        assertEquals(502, response.code);
+        assertEquals(1, originRequests.get());
+        assertFalse(Files.exists(mirror.getFile(Hashing.HashType.SHA1, sha1)));
+    }
+
+    @Test
+    public void testRefusesUnknownHosts() throws IOException {
+        Response response = get("sha1", sha1(CONTENT), "http://localhost:" + originPort + "/file");
+        assertEquals(403, response.code);
+        assertEquals(0, originRequests.get());
+    }
+
+    @Test
+    public void testRefusesWeakHashes() throws IOException {
+        String md5 = com.google.common.hash.Hashing.md5().hashString(CONTENT, StandardCharsets.UTF_8).toString();
+
+        assertEquals(404, get("md5", md5, "http://127.0.0.1:" + originPort + "/file").code);
+        assertEquals(404, get("murmur", "12345", "http://127.0.0.1:" + originPort + "/file").code);
+        assertEquals(0, originRequests.get());
+    }
+
+    private static final class Response {
+        private final int code;
+        private final String body;
+
+        private Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    private Response get(String type, String hash, String originUrl) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + mirrorPort + "/" + type + "/" + hash + "?url="
+                + URLEncoder.encode(originUrl, "UTF-8"));
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+        try {
+            int code = connection.getResponseCode();
+            InputStream stream = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+            if (stream != null) {
+                try (InputStream in = stream) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        body.write(buffer, 0, read);
+                    }
+                }
+            }
+
+            return new Response(code, new String(body.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String sha1(String content) {
+        return com.google.common.hash.Hashing.sha1().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
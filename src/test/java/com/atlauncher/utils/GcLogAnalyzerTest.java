@@ -0,0 +1,108 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.atlauncher.data.GcSummary;
+
+public class GcLogAnalyzerTest {
+    private static GcSummary analyse(String... lines) {
+        GcLogAnalyzer analyzer = new GcLogAnalyzer();
+
+        for (String line : lines) {
+            analyzer.accept(line);
+        }
+
+        return analyzer.getSummary();
+    }
+
+    @Test
+    public void testThatUnifiedG1LogsAreSummarised() {
+        GcSummary summary = analyse(
+                "[0.003s][info][gc] Using G1",
+                "[1.000s][info][gc,start    ] GC(0) Pause Young (Normal) (G1 Evacuation Pause)",
+                "[1.000s][info][gc,heap     ] GC(0) Eden regions: 24->0(30)",
+                "[1.000s][info][gc          ] GC(0) Pause Young (Normal) (G1 Evacuation Pause) 100M->20M(256M) 10.000ms",
+                "[2.000s][info][gc          ] GC(1) Pause Young (Normal) (G1 Evacuation Pause) 120M->30M(256M) 20.000ms",
+                "[4.000s][info][gc          ] GC(2) Pause Full (System.gc()) 230M->10M(512M) 70.000ms");
+
+        assertEquals(3, summary.pauses);
+        assertEquals(1, summary.fullPauses);
+        assertEquals(100.0, summary.totalPauseTime, 0.001);
+        assertEquals(2.5, summary.pauseTimePercentage, 0.001);
+        assertEquals(20.0, summary.p50Pause, 0.001);
+        assertEquals(70.0, summary.p99Pause, 0.001);
+        assertEquals(70.0, summary.maxPause, 0.001);
+        assertEquals(100.0, summary.allocationRate, 0.001);
+        assertEquals(20, summary.averageHeapAfterGc);
+        assertEquals(30, summary.peakHeapAfterGc);
+        assertEquals(512, summary.peakHeapCommitted);
+    }
+
+    @Test
+    public void testThatUnifiedZgcLogsAreSummarised() {
+        GcSummary summary = analyse(
+                "[0.132s][info][gc,phases   ] GC(0) Pause Mark Start 0.007ms",
+                "[0.137s][info][gc,phases   ] GC(0) Pause Mark End 0.008ms",
+                "[0.150s][info][gc          ] GC(0) Garbage Collection (Warmup) 1G(10%)->512M(5%)",
+                "[2.000s][info][gc,phases   ] GC(1) y: Pause Mark Start 0.010ms");
+
+        assertEquals(3, summary.pauses);
+        assertEquals(0, summary.fullPauses);
+        assertEquals(0.010, summary.maxPause, 0.0001);
+        assertEquals(512, summary.peakHeapAfterGc);
+        assertEquals(0, summary.peakHeapCommitted);
+    }
+
+    @Test
+    public void testThatJava8ParallelLogsAreSummarised() {
+        GcSummary summary = analyse(
+                "1.000: [GC (Allocation Failure) [PSYoungGen: 102400K->10240K(153600K)] 102400K->20480K(503808K), 0.0100000 secs] [Times: user=0.02 sys=0.00, real=0.01 secs]",
+                "3.000: [Full GC (Ergonomics) [PSYoungGen: 10240K->0K(153600K)] [ParOldGen: 204800K->40960K(350208K)] 215040K->40960K(503808K), [Metaspace: 20480K->20480K(1067008K)], 0.0500000 secs] [Times: user=0.10 sys=0.00, real=0.05 secs]");
+
+        assertEquals(2, summary.pauses);
+        assertEquals(1, summary.fullPauses);
+        assertEquals(60.0, summary.totalPauseTime, 0.001);
+        assertEquals(40, summary.peakHeapAfterGc);
+        assertEquals(30, summary.averageHeapAfterGc);
+        assertEquals(492, summary.peakHeapCommitted);
+    }
+
+    @Test
+    public void testThatJava8G1LogsAreSummarised() {
+        GcSummary summary = analyse(
+                "2.000: [GC pause (G1 Evacuation Pause) (young), 0.0040000 secs]",
+                "   [Parallel Time: 3.5 ms, GC Workers: 8]",
+                "   [Eden: 24.0M(24.0M)->0.0B(20.0M) Survivors: 0.0B->3072.0K Heap: 24.5M(256.0M)->3.5M(256.0M)]");
+
+        assertEquals(1, summary.pauses);
+        assertEquals(4.0, summary.maxPause, 0.001);
+        assertEquals(4, summary.peakHeapAfterGc);
+        assertEquals(256, summary.peakHeapCommitted);
+    }
+
+    @Test
+    public void testThatLogsWithoutCollectionsHaveNoSummary() {
+        assertNull(analyse());
+        assertNull(analyse("[0.003s][info][gc] Using G1"));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchProvisionerTest {
+    @Test
+    public void testParsesJobs() throws IOException {
+        List<BatchProvisioner.Job> jobs = BatchProvisioner.parse(new StringReader("["
+                + "{ \"name\": \"Survival\", \"pack\": \"Vanilla\", \"version\": \"1.20.1\", \"server\": true },"
+                + "{ \"name\": \"Skyblock\", \"pack\": \"SkyFactory 4\", \"saveMods\": true }"
+                + "]"));
+
+        assertEquals(2, jobs.size());
+
+        assertEquals("Survival", jobs.get(0).name);
+        assertEquals("Vanilla", jobs.get(0).pack);
+        assertEquals("1.20.1", jobs.get(0).version);
+        assertTrue(jobs.get(0).server);
+        assertFalse(jobs.get(0).saveMods);
+
+        assertEquals("Skyblock", jobs.get(1).name);
+        assertNull(jobs.get(1).version);
+        assertFalse(jobs.get(1).server);
+        assertTrue(jobs.get(1).saveMods);
+    }
+
+    @Test
+    public void testRejectsEmptyOrInvalidFiles() {
+        assertThrows(IOException.class, () -> BatchProvisioner.parse(new StringReader("")));
+        assertThrows(IOException.class, () -> BatchProvisioner.parse(new StringReader("[]")));
+        assertThrows(IOException.class, () -> BatchProvisioner.parse(new StringReader("{ \"name\": ")));
+    }
+
+    @Test
+    public void testFindsJobsInstallingToTheSameFolder() throws IOException {
+        List<BatchProvisioner.Job> jobs = BatchProvisioner.parse(new StringReader("["
+                + "{ \"name\": \"Skyblock 1\", \"pack\": \"SkyFactory 4\", \"server\": true },"
+                + "{ \"name\": \"skyblock-1\", \"pack\": \"SkyFactory 4\", \"server\": true },"
+                + "{ \"name\": \"Skyblock 1\", \"pack\": \"SkyFactory 4\" },"
+                + "{ \"name\": \"Skyblock 2\", \"pack\": \"SkyFactory 4\", \"server\": true }"
+                + "]"));
+
+        Set<BatchProvisioner.Job> duplicates = BatchProvisioner.findDuplicates(jobs);
+
+        // only the second job clashes, as instances and servers are installed to different folders
+        assertEquals(1, duplicates.size());
+        assertTrue(duplicates.contains(jobs.get(1)));
+    }
+}
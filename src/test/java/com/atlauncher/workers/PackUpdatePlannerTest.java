@@ -0,0 +1,206 @@
+/*
+ * ATLauncher - https://github.com/ATLauncher/ATLauncher
+ * Copyright (C) 2013-2022 ATLauncher
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.atlauncher.workers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.atlauncher.data.DisableableMod;
+import com.atlauncher.data.Instance;
+import com.atlauncher.data.InstanceLauncher;
+import com.atlauncher.data.Type;
+import com.atlauncher.data.json.Mod;
+import com.atlauncher.data.json.ModType;
+import com.atlauncher.data.json.Version;
+import com.atlauncher.utils.Hashing;
+
+public class PackUpdatePlannerTest {
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private InstanceInstaller installer;
+
+    private DisableableMod installedUnchanged;
+    private DisableableMod installedRemoved;
+    private DisableableMod installedChanged;
+
+    private Mod unchanged;
+    private Mod changed;
+    private Mod added;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        root = tempDir.resolve("instance");
+
+        // the installer's paths are worked out from the launcher's folders, so point them at the temp dir instead
+        installer = mock(InstanceInstaller.class);
+        setField(installer, "root", root);
+        setField(installer, "temp", tempDir.resolve("temp"));
+        setField(installer, "name", "Test");
+        installer.isReinstall = true;
+        installer.packVersion = new Version();
+        installer.packVersion.minecraft = "1.20.1";
+
+        installedUnchanged = installedMod("Unchanged", "unchanged.jar");
+        installedRemoved = installedMod("Removed", "removed.jar");
+        installedChanged = installedMod("Changed", "changed-1.0.jar");
+
+        installer.instance = mock(Instance.class);
+        installer.instance.launcher = new InstanceLauncher();
+        installer.instance.launcher.mods = Arrays.asList(installedUnchanged, installedRemoved, installedChanged);
+
+        unchanged = packMod("Unchanged", "unchanged.jar");
+        unchanged.md5 = Hashing.md5(root.resolve("mods/unchanged.jar")).toString();
+        changed = packMod("Changed", "changed-2.0.jar");
+        added = packMod("Added", "added.jar");
+
+        installer.selectedMods = Arrays.asList(unchanged, changed, added);
+    }
+
+    @Test
+    public void testPlansAddedRemovedAndChangedMods() {
+        PackUpdatePlanner planner = PackUpdatePlanner.plan(installer);
+
+        assertEquals(Arrays.asList(unchanged), planner.unchanged);
+        assertEquals(Arrays.asList(added), planner.additions);
+
+        assertEquals(1, planner.replacements.size());
+        assertSame(installedChanged, planner.replacements.get(0).left());
+        assertSame(changed, planner.replacements.get(0).right());
+
+        assertEquals(Arrays.asList(installedRemoved, installedChanged), planner.removals);
+
+        assertTrue(planner.isUnchanged(unchanged));
+        assertEquals(Arrays.asList(changed, added), planner.getModsToInstall(installer.selectedMods));
+    }
+
+    @Test
+    public void testThatAModWithADifferentHashIsNotUnchanged() throws IOException {
+        write("mods/unchanged.jar", "something else");
+
+        PackUpdatePlanner planner = PackUpdatePlanner.plan(installer);
+
+        assertTrue(planner.unchanged.isEmpty());
+        assertSame(installedUnchanged, planner.replacements.get(0).left());
+        assertSame(unchanged, planner.replacements.get(0).right());
+    }
+
+    @Test
+    public void testRollbackAfterAFailedApplyRestoresTheMods() throws IOException {
+        // something not from the pack already sitting where a new mod is going
+        write("mods/added.jar", "not ours");
+        write("config/settings.cfg", "old");
+
+        Path overrides = tempDir.resolve("overrides");
+        Files.createDirectories(overrides.resolve("config"));
+        Files.write(overrides.resolve("config/settings.cfg"), "new".getBytes(StandardCharsets.UTF_8));
+        Files.write(overrides.resolve("config/extra.cfg"), "extra".getBytes(StandardCharsets.UTF_8));
+
+        PackUpdatePlanner planner = PackUpdatePlanner.plan(installer);
+        planner.apply();
+
+        assertFalse(Files.exists(root.resolve("mods/removed.jar")));
+        assertFalse(Files.exists(root.resolve("mods/changed-1.0.jar")));
+        assertFalse(Files.exists(root.resolve("mods/added.jar")));
+
+        // the install gets part way through before failing
+        write("mods/changed-2.0.jar", "changed 2.0");
+        write("mods/added.jar", "added");
+        planner.copyChangedOverrides(overrides, root);
+        assertEquals("new", read("config/settings.cfg"));
+
+        planner.rollback();
+
+        assertEquals("unchanged.jar", read("mods/unchanged.jar"));
+        assertEquals("removed.jar", read("mods/removed.jar"));
+        assertEquals("changed-1.0.jar", read("mods/changed-1.0.jar"));
+        assertEquals("not ours", read("mods/added.jar"));
+        assertEquals("old", read("config/settings.cfg"));
+        assertFalse(Files.exists(root.resolve("mods/changed-2.0.jar")));
+        assertFalse(Files.exists(root.resolve("config/extra.cfg")));
+        assertFalse(Files.exists(installer.temp.resolve("update-backup")));
+    }
+
+    @Test
+    public void testCommitKeepsTheChanges() throws IOException {
+        PackUpdatePlanner planner = PackUpdatePlanner.plan(installer);
+        planner.apply();
+
+        write("mods/changed-2.0.jar", "changed 2.0");
+        write("mods/added.jar", "added");
+
+        planner.commit();
+
+        assertFalse(Files.exists(root.resolve("mods/removed.jar")));
+        assertFalse(Files.exists(root.resolve("mods/changed-1.0.jar")));
+        assertEquals("changed 2.0", read("mods/changed-2.0.jar"));
+        assertEquals("added", read("mods/added.jar"));
+        assertFalse(Files.exists(installer.temp.resolve("update-backup")));
+    }
+
+    private DisableableMod installedMod(String name, String file) throws IOException {
+        write("mods/" + file, file);
+
+        DisableableMod mod = new DisableableMod();
+        mod.name = name;
+        mod.file = file;
+        mod.type = Type.mods;
+
+        return mod;
+    }
+
+    private static Mod packMod(String name, String file) {
+        Mod mod = new Mod();
+        mod.name = name;
+        mod.file = file;
+        mod.type = ModType.mods;
+
+        return mod;
+    }
+
+    private void write(String path, String content) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(String path) throws IOException {
+        return new String(Files.readAllBytes(root.resolve(path)), StandardCharsets.UTF_8);
+    }
+
+    private static void setField(Object object, String name, Object value) throws Exception {
+        Field field = InstanceInstaller.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(object, value);
+    }
+}